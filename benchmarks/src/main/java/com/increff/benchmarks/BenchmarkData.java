@@ -0,0 +1,90 @@
+package com.increff.benchmarks;
+
+import com.increff.pos.entity.ProductPojo;
+import com.increff.pos.model.ProductSearchDocModel;
+import com.increff.pos.model.form.ProductForm;
+import com.increff.pos.model.form.ProductFormWithRow;
+import com.increff.pos.model.response.ValidationError;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic inputs shared by the benchmarks. Every tenth row is invalid (blank name), so
+ * the error paths are exercised at a realistic rate.
+ */
+final class BenchmarkData {
+
+    static final String PRODUCT_TSV_HEADER = "barcode\tclient_id\tname\tmrp\timageUrl";
+    private static final int INVALID_EVERY = 10;
+    static final String[] SEARCH_ADJECTIVES = {"Dark", "Organic", "Lavender", "Spicy", "Classic", "Roasted",
+            "Fresh", "Salted", "Vanilla", "Herbal"};
+    static final String[] SEARCH_NOUNS = {"Chocolate", "Almonds", "Soap", "Noodles", "Coffee", "Cookies",
+            "Shampoo", "Honey", "Tea", "Biscuits", "Lentils", "Detergent"};
+
+    private BenchmarkData() {
+    }
+
+    static boolean isInvalid(int row) {
+        return row % INVALID_EVERY == 0;
+    }
+
+    static String productTsv(int rows) {
+        StringBuilder tsv = new StringBuilder(PRODUCT_TSV_HEADER).append('\n');
+        for (int row = 1; row <= rows; row++) {
+            tsv.append("BC").append(row).append('\t')
+                    .append(1 + row % 50).append('\t')
+                    .append(isInvalid(row) ? "" : "Product " + row).append('\t')
+                    .append(10 + row % 900).append(".50\t")
+                    .append("https://img.example.com/").append(row).append(".png\n");
+        }
+        return tsv.toString();
+    }
+
+    static List<ProductFormWithRow> productForms(int rows) {
+        List<ProductFormWithRow> forms = new ArrayList<>(rows);
+        for (int row = 1; row <= rows; row++) {
+            ProductForm form = new ProductForm();
+            form.setBarcode("BC" + row);
+            form.setClientId(1 + row % 50);
+            form.setName(isInvalid(row) ? "" : "Product " + row);
+            form.setMrp(10.5 + row % 900);
+            form.setImageUrl("https://img.example.com/" + row + ".png");
+            forms.add(new ProductFormWithRow(form, row + 1, "BC" + row));
+        }
+        return forms;
+    }
+
+    static List<ValidationError> productErrors(List<ProductFormWithRow> forms) {
+        List<ValidationError> errors = new ArrayList<>();
+        for (ProductFormWithRow form : forms) {
+            if (form.getForm().getName().isEmpty()) {
+                errors.add(new ValidationError(form.getRowNumber(), "name", "Product name cannot be empty",
+                        form.getOriginalData()));
+            }
+        }
+        return errors;
+    }
+
+    static List<ProductSearchDocModel> searchDocs(int count) {
+        List<ProductSearchDocModel> docs = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String name = SEARCH_ADJECTIVES[i % SEARCH_ADJECTIVES.length] + " "
+                    + SEARCH_NOUNS[(i / SEARCH_ADJECTIVES.length) % SEARCH_NOUNS.length] + " " + i;
+            int clientId = 1 + i % 50;
+            docs.add(new ProductSearchDocModel(i, "BC" + i, name, clientId, "Client " + clientId));
+        }
+        return docs;
+    }
+
+    static List<ProductPojo> products(int count) {
+        List<ProductPojo> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ProductPojo product = new ProductPojo("BC" + i, 1 + i % 50, "Product " + i, 10.5 + i % 900);
+            product.setId(i);
+            product.setImageUrl("https://img.example.com/" + i + ".png");
+            products.add(product);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,48 @@
+package com.increff.benchmarks;
+
+import com.increff.pos.entity.ProductPojo;
+import com.increff.pos.model.response.ProductResponse;
+import com.increff.pos.util.ConvertUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response conversion as done for every list endpoint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConvertBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ConvertUtil convertUtil;
+    private List<ProductPojo> products;
+
+    @Setup
+    public void setUp() {
+        convertUtil = new ConvertUtil();
+        products = BenchmarkData.products(size);
+    }
+
+    @Benchmark
+    public List<ProductResponse> convertList() {
+        return convertUtil.convertList(products, ProductResponse.class);
+    }
+}
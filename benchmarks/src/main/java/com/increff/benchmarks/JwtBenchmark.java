@@ -0,0 +1,70 @@
+package com.increff.benchmarks;
+
+import com.increff.pos.model.AuthPrincipalModel;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification on every authenticated request. verifyCachedToken is the steady state of
+ * one client; verifyDistinctTokens cycles through more tokens than the cache holds, so each
+ * call checks the signature and parses the claims.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final int DISTINCT_TOKENS = 1024;
+    private static final int CACHE_SIZE = 16;
+
+    private JwtUtil jwtUtil;
+    private String cachedToken;
+    private String[] distinctTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ReflectionTestUtils.setField(applicationProperties, "authTokenCacheSize", CACHE_SIZE);
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "applicationProperties", applicationProperties);
+        jwtUtil.init();
+        cachedToken = jwtUtil.generateToken(1, "SUPERVISOR");
+        distinctTokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            distinctTokens[i] = jwtUtil.generateToken(i + 1, "OPERATOR");
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(42, "OPERATOR");
+    }
+
+    @Benchmark
+    public AuthPrincipalModel verifyCachedToken() {
+        return jwtUtil.verifyToken(cachedToken);
+    }
+
+    @Benchmark
+    public AuthPrincipalModel verifyDistinctTokens() {
+        next = (next + 1) % DISTINCT_TOKENS;
+        return jwtUtil.verifyToken(distinctTokens[next]);
+    }
+}
@@ -0,0 +1,65 @@
+package com.increff.benchmarks;
+
+import com.increff.invoice.model.form.OrderRequest;
+import com.increff.invoice.util.PdfGeneratorUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoice rendering in invoice-app: Velocity template to XSL-FO, FOP to PDF, then base64.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int items;
+
+    private PdfGeneratorUtil pdfGeneratorUtil;
+    private OrderRequest order;
+
+    @Setup
+    public void setUp() {
+        pdfGeneratorUtil = new PdfGeneratorUtil();
+        List<OrderRequest.OrderItemRequest> orderItems = new ArrayList<>(items);
+        double totalRevenue = 0;
+        for (int i = 1; i <= items; i++) {
+            OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+            item.setProductName("Product " + i);
+            item.setBarcode("BC" + i);
+            item.setQuantity(1 + i % 5);
+            item.setMrp(10.5 + i);
+            item.setTotalAmount(item.getQuantity() * item.getMrp());
+            totalRevenue += item.getTotalAmount();
+            orderItems.add(item);
+        }
+        order = new OrderRequest();
+        order.setOrderId(1001);
+        order.setOrderTime("2024-01-15T10:30:00Z");
+        order.setClientName("Customer");
+        order.setOrderItems(orderItems);
+        order.setTotalRevenue(totalRevenue);
+    }
+
+    @Benchmark
+    public String generatePdfAsBase64() throws Exception {
+        return pdfGeneratorUtil.generatePdfAsBase64(order);
+    }
+}
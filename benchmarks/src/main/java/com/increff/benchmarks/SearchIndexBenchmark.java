@@ -0,0 +1,80 @@
+package com.increff.benchmarks;
+
+import com.increff.pos.api.ProductSearchIndexApi;
+import com.increff.pos.model.ProductSearchDocModel;
+import com.increff.pos.spring.ApplicationProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lucene product search as used by the typeahead box, over an in-memory index. Sampled, so the
+ * p99 can be read against the 5 ms typeahead target. typeahead cycles through word prefixes,
+ * fuzzy through words with one or two typos, and barcodePrefix narrows a word by barcode.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchIndexBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final String[] PREFIXES = {"choc", "lav", "org", "noo", "cof", "sham", "hon", "bisc"};
+    private static final String[] TYPOS = {"chocolte", "lavendr", "organc", "nodles", "cofee", "shampo",
+            "hony", "biscits"};
+
+    @Param({"10000", "100000"})
+    private int products;
+
+    private ProductSearchIndexApi searchIndex;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ReflectionTestUtils.setField(applicationProperties, "searchIndexEnabled", true);
+        ReflectionTestUtils.setField(applicationProperties, "searchIndexDir", "");
+        searchIndex = new ProductSearchIndexApi();
+        ReflectionTestUtils.setField(searchIndex, "applicationProperties", applicationProperties);
+        searchIndex.init();
+        for (ProductSearchDocModel doc : BenchmarkData.searchDocs(products)) {
+            searchIndex.index(doc);
+        }
+        searchIndex.commit();
+    }
+
+    @TearDown
+    public void tearDown() {
+        searchIndex.shutdown();
+    }
+
+    @Benchmark
+    public List<Integer> typeahead() {
+        return searchIndex.search(PREFIXES[next++ % PREFIXES.length], null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Integer> fuzzy() {
+        return searchIndex.search(TYPOS[next++ % TYPOS.length], null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Integer> barcodePrefix() {
+        return searchIndex.search(PREFIXES[next++ % PREFIXES.length], "BC1", 0, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,57 @@
+package com.increff.benchmarks;
+
+import com.increff.pos.model.response.ValidationError;
+import com.increff.pos.util.TsvParserUtil;
+import com.increff.pos.util.TsvResponseUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product upload parsing and the result file written back when rows fail validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TsvBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    private int rows;
+
+    private MockMultipartFile productFile;
+    private List<ValidationError> productErrors;
+
+    @Setup
+    public void setUp() {
+        productFile = new MockMultipartFile("file", "products.tsv", "text/tab-separated-values",
+                BenchmarkData.productTsv(rows).getBytes(StandardCharsets.UTF_8));
+        productErrors = BenchmarkData.productErrors(BenchmarkData.productForms(rows));
+    }
+
+    @Benchmark
+    public void parseProductTsv(Blackhole blackhole) {
+        TsvParserUtil.forEachProductRow(productFile, blackhole::consume);
+    }
+
+    @Benchmark
+    public String buildProductTsvContent() {
+        return TsvResponseUtil.buildProductTsvContent(productFile, productErrors);
+    }
+}
@@ -0,0 +1,51 @@
+package com.increff.benchmarks;
+
+import com.increff.pos.model.form.ProductFormWithRow;
+import com.increff.pos.model.response.ValidationError;
+import com.increff.pos.spring.SpringConfig;
+import com.increff.pos.util.ValidationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation of uploaded product rows, one tenth of which fail.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    private int rows;
+
+    private ValidationUtil validationUtil;
+    private List<ProductFormWithRow> productForms;
+
+    @Setup
+    public void setUp() {
+        validationUtil = new ValidationUtil();
+        ReflectionTestUtils.setField(validationUtil, "validator", new SpringConfig().validator());
+        productForms = BenchmarkData.productForms(rows);
+    }
+
+    @Benchmark
+    public List<ValidationError> validateProductFormsWithRow() {
+        return validationUtil.validateProductFormsWithRow(productForms);
+    }
+}
@@ -0,0 +1,99 @@
+package com.increff.loadtest;
+
+import com.increff.pos.spring.SpringSecurityInitializer;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.springframework.web.SpringServletContainerInitializer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs invoice-app and pos in embedded Jetty on free local ports. Each app starts through its
+ * own WebApplicationInitializers, as it would from its war, so the filter chain, multipart
+ * config and Spring context are the production ones; only the given pos properties differ.
+ */
+public class EmbeddedApps {
+
+    private static final String HOST = "localhost";
+
+    private Server invoiceServer;
+    private Server posServer;
+
+    public void start(Map<String, String> posProperties) throws Exception {
+        invoiceServer = server(Collections.emptyMap(), com.increff.invoice.spring.WebInitializer.class);
+        invoiceServer.start();
+
+        Map<String, String> properties = new LinkedHashMap<>(posProperties);
+        properties.put("invoice.app.url", "http://" + HOST + ":" + port(invoiceServer));
+        posServer = server(properties, com.increff.pos.spring.WebInitializer.class, SpringSecurityInitializer.class);
+        posServer.start();
+    }
+
+    public String getPosUrl() {
+        return "http://" + HOST + ":" + port(posServer);
+    }
+
+    public void stop() throws Exception {
+        // pos first, so nothing is calling invoice-app while it shuts down
+        if (posServer != null) {
+            posServer.stop();
+        }
+        if (invoiceServer != null) {
+            invoiceServer.stop();
+        }
+    }
+
+    private static Server server(Map<String, String> initParameters, Class<?>... initializers) {
+        Server server = new Server();
+        ServerConnector connector = new ServerConnector(server);
+        connector.setHost(HOST);
+        connector.setPort(0);
+        server.addConnector(connector);
+
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/");
+        // Context parameters come before @PropertySource files in a web application's environment
+        initParameters.forEach(context::setInitParameter);
+        context.addBean(new SpringInitializerCaller(context, initializers));
+        server.setHandler(context);
+        return server;
+    }
+
+    private static int port(Server server) {
+        return ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+    }
+
+    /**
+     * Hands the initializers to Spring while the context is starting, which is when a servlet
+     * container would; servlets, filters and listeners can only be added at that point.
+     */
+    private static class SpringInitializerCaller extends AbstractLifeCycle
+            implements ServletContextHandler.ServletContainerInitializerCaller {
+
+        private final ServletContextHandler context;
+        private final Set<Class<?>> initializers;
+
+        private SpringInitializerCaller(ServletContextHandler context, Class<?>... initializers) {
+            this.context = context;
+            this.initializers = new LinkedHashSet<>(Arrays.asList(initializers));
+        }
+
+        @Override
+        protected void doStart() throws Exception {
+            // pos registers a ServletContextListener, which Jetty only accepts from an initializer
+            context.getServletContext().setExtendedListenerTypes(true);
+            try {
+                new SpringServletContainerInitializer().onStartup(initializers, context.getServletContext());
+            } finally {
+                context.getServletContext().setExtendedListenerTypes(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.increff.loadtest;
+
+import com.increff.pos.model.form.InventoryAdjustForm;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Users, clients, products and stock created over HTTP before the scenarios run, and what the
+ * scenarios need from them. Product barcodes and prices are generated here rather than read
+ * back, so the seed is the same on every run.
+ */
+@Getter
+public class LoadTestData {
+
+    static final String SUPERVISOR_EMAIL = "loadtest.supervisor@example.com";
+    static final String PASSWORD = "loadtest-password";
+    private static final String OPERATOR_EMAIL = "loadtest.operator%d@example.com";
+
+    private static final String PRODUCT_TSV_HEADER = "barcode\tclient_id\tname\tmrp\timageUrl";
+
+    private final List<Integer> clientIds = new ArrayList<>();
+    private final List<String> barcodes = new ArrayList<>();
+    private final List<Double> mrps = new ArrayList<>();
+    private String supervisorToken;
+    private String operatorToken;
+
+    private int operators;
+
+    // Uploaded barcodes must be new every time, or the upload is rejected as a duplicate
+    private final AtomicInteger uploads = new AtomicInteger();
+    private final AtomicInteger logins = new AtomicInteger();
+
+    public void seed(PosClient client, LoadTestSettings settings) {
+        client.signup("Load Test Supervisor", SUPERVISOR_EMAIL, PASSWORD);
+        operators = settings.getSeedOperators();
+        for (int i = 1; i <= operators; i++) {
+            client.signup("Load Test Operator " + i, operatorEmail(i), PASSWORD);
+        }
+        supervisorToken = client.login(SUPERVISOR_EMAIL, PASSWORD);
+        operatorToken = client.login(operatorEmail(1), PASSWORD);
+
+        for (int i = 1; i <= settings.getSeedClients(); i++) {
+            clientIds.add(client.createClient(supervisorToken, "loadtest client " + i));
+        }
+
+        StringBuilder products = new StringBuilder(PRODUCT_TSV_HEADER).append('\n');
+        List<InventoryAdjustForm> stock = new ArrayList<>();
+        for (int i = 1; i <= settings.getSeedProducts(); i++) {
+            String barcode = "LT" + i;
+            double mrp = 10 + i % 900;
+            barcodes.add(barcode);
+            mrps.add(mrp);
+            appendProductRow(products, barcode, clientIds.get(i % clientIds.size()), "product " + i, mrp);
+            stock.add(new InventoryAdjustForm(null, barcode, settings.getSeedInventoryQuantity()));
+        }
+        client.uploadProducts(supervisorToken, products.toString());
+        // The inventory TSV upload relies on a MySQL upsert, so stock is added by barcode instead
+        client.adjustInventory(supervisorToken, stock);
+    }
+
+    /**
+     * Operators in turn. A login updates the user's row, so concurrent logins of one user
+     * conflict with each other, which a till logging in once per shift would not.
+     */
+    public String nextOperatorEmail() {
+        return operatorEmail(1 + Math.floorMod(logins.getAndIncrement(), operators));
+    }
+
+    public int randomProduct() {
+        return ThreadLocalRandom.current().nextInt(barcodes.size());
+    }
+
+    /**
+     * A product file of new barcodes, prefixed with the upload's sequence number.
+     */
+    public String nextUploadTsv(int rows) {
+        int upload = uploads.incrementAndGet();
+        StringBuilder tsv = new StringBuilder(PRODUCT_TSV_HEADER).append('\n');
+        for (int row = 1; row <= rows; row++) {
+            appendProductRow(tsv, "LTU" + upload + "R" + row, clientIds.get(row % clientIds.size()),
+                    "uploaded product " + upload + " " + row, 10 + row % 900);
+        }
+        return tsv.toString();
+    }
+
+    private static String operatorEmail(int operator) {
+        return String.format(OPERATOR_EMAIL, operator);
+    }
+
+    private static void appendProductRow(StringBuilder tsv, String barcode, int clientId, String name, double mrp) {
+        tsv.append(barcode).append('\t')
+                .append(clientId).append('\t')
+                .append(name).append('\t')
+                .append(mrp).append('\t')
+                .append("https://img.example.com/").append(barcode).append(".png\n");
+    }
+}
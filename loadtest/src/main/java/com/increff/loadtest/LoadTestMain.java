@@ -0,0 +1,77 @@
+package com.increff.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts invoice-app and pos against an in-memory H2 database, seeds data, runs the selected
+ * scenarios one after the other and writes their results as JSON.
+ *
+ * Usage: java -jar target/loadtest.jar [key=value ...], with the keys of loadtest.properties.
+ */
+public class LoadTestMain {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestMain.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = new LoadTestSettings(args);
+        List<Scenario> scenarios = settings.getScenarios();
+        // One pooled connection per worker of the busiest scenario
+        int maxConcurrency = scenarios.stream().mapToInt(settings::getConcurrency).max().orElse(1);
+
+        EmbeddedApps apps = new EmbeddedApps();
+        try {
+            apps.start(settings.getPosProperties());
+            logger.info("pos started at {}", apps.getPosUrl());
+
+            PosClient client = new PosClient(apps.getPosUrl(), maxConcurrency);
+            LoadTestData data = new LoadTestData();
+            data.seed(client, settings);
+            logger.info("Seeded {} clients and {} products", data.getClientIds().size(), data.getBarcodes().size());
+
+            ScenarioRunner runner = new ScenarioRunner(client, data, settings);
+            List<ScenarioResult> results = new ArrayList<>();
+            for (Scenario scenario : scenarios) {
+                logger.info("Running {}: concurrency {}, rate {}/s, {}s warmup, {}s measured", scenario.getName(),
+                        settings.getConcurrency(scenario), settings.getRate(scenario),
+                        settings.getWarmupSeconds(), settings.getDurationSeconds());
+                ScenarioResult result = runner.run(scenario);
+                logger.info("{}: {} requests, {} errors, {} req/s, p50 {} ms, p99 {} ms, p99.9 {} ms",
+                        result.getScenario(), result.getRequests(), result.getErrors(),
+                        format(result.getThroughput()), format(result.getP50Ms()), format(result.getP99Ms()),
+                        format(result.getP999Ms()));
+                results.add(result);
+            }
+            writeResults(new File(settings.getOutput()), results);
+        } finally {
+            apps.stop();
+        }
+    }
+
+    private static void writeResults(File output, List<ScenarioResult> results) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("scenarios", results);
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, report);
+        logger.info("Results written to {}", output.getAbsolutePath());
+    }
+
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+}
@@ -0,0 +1,113 @@
+package com.increff.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Harness settings: the defaults in loadtest.properties, overridden by key=value arguments.
+ */
+public class LoadTestSettings {
+
+    private static final String DEFAULTS = "com/increff/loadtest/loadtest.properties";
+    private static final String POS_PREFIX = "pos.";
+
+    private final Properties properties = new Properties();
+
+    public LoadTestSettings(String[] args) throws IOException {
+        try (InputStream defaults = LoadTestSettings.class.getClassLoader().getResourceAsStream(DEFAULTS)) {
+            if (defaults == null) {
+                throw new IllegalStateException("Missing " + DEFAULTS + " on the classpath");
+            }
+            properties.load(defaults);
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got '" + arg + "'");
+            }
+            properties.setProperty(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+        }
+    }
+
+    public List<Scenario> getScenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String name : require("scenarios").split(",")) {
+            if (!name.trim().isEmpty()) {
+                scenarios.add(Scenario.fromName(name.trim()));
+            }
+        }
+        return scenarios;
+    }
+
+    public int getConcurrency(Scenario scenario) {
+        return getInt(scenario.getName() + ".concurrency", getInt("concurrency", 1));
+    }
+
+    public double getRate(Scenario scenario) {
+        String rate = properties.getProperty(scenario.getName() + ".rate", require("rate"));
+        return Double.parseDouble(rate);
+    }
+
+    public int getWarmupSeconds() {
+        return getInt("warmup.seconds", 0);
+    }
+
+    public int getDurationSeconds() {
+        return getInt("duration.seconds", 30);
+    }
+
+    public int getSeedOperators() {
+        return getInt("seed.operators", 20);
+    }
+
+    public int getSeedClients() {
+        return getInt("seed.clients", 10);
+    }
+
+    public int getSeedProducts() {
+        return getInt("seed.products", 1000);
+    }
+
+    public int getSeedInventoryQuantity() {
+        return getInt("seed.inventory.quantity", 1000000);
+    }
+
+    public int getUploadRows() {
+        return getInt("upload.rows", 100);
+    }
+
+    public String getOutput() {
+        return require("output");
+    }
+
+    /**
+     * The pos.* settings with the prefix removed, as the app reads them.
+     */
+    public Map<String, String> getPosProperties() {
+        Map<String, String> posProperties = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(POS_PREFIX)) {
+                posProperties.put(key.substring(POS_PREFIX.length()), properties.getProperty(key));
+            }
+        }
+        return posProperties;
+    }
+
+    private int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private String require(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing setting '" + key + "'");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,133 @@
+package com.increff.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.increff.pos.model.form.ClientForm;
+import com.increff.pos.model.form.InventoryAdjustForm;
+import com.increff.pos.model.form.OrderItemForm;
+import com.increff.pos.model.form.ProductSearchForm;
+import com.increff.pos.model.form.SignupForm;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The pos endpoints the scenarios call, over HTTP. Responses are read as JSON trees, since
+ * only an id or token is needed from them. Any status of 400 or above throws an
+ * HttpStatusCodeException, as does an upload whose rows were rejected.
+ */
+public class PosClient {
+
+    private static final String UPLOAD_SUCCESS = "success";
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    public PosClient(String baseUrl, int maxConnections) {
+        PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager();
+        connections.setMaxTotal(maxConnections);
+        connections.setDefaultMaxPerRoute(maxConnections);
+        CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connections).build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        this.baseUrl = baseUrl;
+    }
+
+    public void signup(String name, String email, String password) {
+        SignupForm form = new SignupForm();
+        form.setName(name);
+        form.setEmail(email);
+        form.setPassword(password);
+        restTemplate.postForObject(baseUrl + "/auth/signup", form, JsonNode.class);
+    }
+
+    public String login(String email, String password) {
+        // LoginForm has no setters, so the body is built as a map
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("email", email);
+        form.put("password", password);
+        return restTemplate.postForObject(baseUrl + "/auth/login", form, JsonNode.class).get("token").asText();
+    }
+
+    public int createClient(String token, String name) {
+        return post(token, "/clients", new ClientForm(name)).get("clientId").asInt();
+    }
+
+    public void uploadProducts(String token, String tsv) {
+        upload(token, "/products/upload", "products.tsv", tsv);
+    }
+
+    public void adjustInventory(String token, List<InventoryAdjustForm> adjustments) {
+        HttpHeaders headers = headers(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        restTemplate.exchange(baseUrl + "/inventory/adjust", HttpMethod.PATCH, new HttpEntity<>(adjustments, headers),
+                JsonNode.class);
+    }
+
+    public JsonNode searchProducts(String token, String productName) {
+        ProductSearchForm form = new ProductSearchForm();
+        form.setProductName(productName);
+        return post(token, "/products/search?page=0&size=10", form);
+    }
+
+    public int createOrder(String token, List<OrderItemForm> items) {
+        return post(token, "/orders", items).get("id").asInt();
+    }
+
+    public String generateInvoice(String token, int orderId) {
+        return restTemplate.exchange(baseUrl + "/invoice/generate-invoice/" + orderId, HttpMethod.GET,
+                new HttpEntity<>(headers(token)), String.class).getBody();
+    }
+
+    /**
+     * Short label for a failed call, used to group errors in the results.
+     */
+    public static String errorKey(Exception e) {
+        if (e instanceof HttpStatusCodeException) {
+            return String.valueOf(((HttpStatusCodeException) e).getRawStatusCode());
+        }
+        return e.getClass().getSimpleName();
+    }
+
+    private JsonNode post(String token, String path, Object body) {
+        HttpHeaders headers = headers(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return restTemplate.postForObject(baseUrl + path, new HttpEntity<>(body, headers), JsonNode.class);
+    }
+
+    private void upload(String token, String path, String filename, String tsv) {
+        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        parts.add("file", new ByteArrayResource(tsv.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        });
+        HttpHeaders headers = headers(token);
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        JsonNode response = restTemplate.postForObject(baseUrl + path, new HttpEntity<>(parts, headers),
+                JsonNode.class);
+        if (!UPLOAD_SUCCESS.equals(response.path("status").asText())) {
+            throw new IllegalStateException("Upload to " + path + " rejected: " + response.path("status").asText());
+        }
+    }
+
+    private static HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return headers;
+    }
+}
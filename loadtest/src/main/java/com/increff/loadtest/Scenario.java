@@ -0,0 +1,132 @@
+package com.increff.loadtest;
+
+import com.increff.pos.model.form.OrderItemForm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One kind of request the harness drives. {@link #prepare} builds the input off the clock;
+ * only {@link #execute} is timed.
+ */
+public enum Scenario {
+
+    /** Password check and token issue, cycling through the seeded operators. */
+    LOGIN("login") {
+        @Override
+        public Object prepare(PosClient client, LoadTestData data, LoadTestSettings settings) {
+            return data.nextOperatorEmail();
+        }
+
+        @Override
+        public void execute(PosClient client, LoadTestData data, Object input) {
+            client.login((String) input, LoadTestData.PASSWORD);
+        }
+    },
+
+    /** Name search over the seeded catalog, first page of ten. */
+    PRODUCT_SEARCH("product-search") {
+        @Override
+        public Object prepare(PosClient client, LoadTestData data, LoadTestSettings settings) {
+            return "product " + (data.randomProduct() + 1);
+        }
+
+        @Override
+        public void execute(PosClient client, LoadTestData data, Object input) {
+            client.searchProducts(data.getOperatorToken(), (String) input);
+        }
+    },
+
+    /** An order of one to three seeded products at their MRP. */
+    ORDER_CREATE("order-create") {
+        @Override
+        public Object prepare(PosClient client, LoadTestData data, LoadTestSettings settings) {
+            return orderItems(data);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void execute(PosClient client, LoadTestData data, Object input) {
+            client.createOrder(data.getOperatorToken(), (List<OrderItemForm>) input);
+        }
+    },
+
+    /**
+     * Invoice generation through invoice-app. An order can only be invoiced once, so each
+     * request first creates its own order, untimed.
+     */
+    INVOICE_GENERATE("invoice-generate") {
+        @Override
+        public Object prepare(PosClient client, LoadTestData data, LoadTestSettings settings) {
+            return client.createOrder(data.getOperatorToken(), orderItems(data));
+        }
+
+        @Override
+        public void execute(PosClient client, LoadTestData data, Object input) {
+            client.generateInvoice(data.getOperatorToken(), (Integer) input);
+        }
+    },
+
+    /** A product TSV upload of upload.rows new products. */
+    TSV_UPLOAD("tsv-upload") {
+        @Override
+        public Object prepare(PosClient client, LoadTestData data, LoadTestSettings settings) {
+            return data.nextUploadTsv(settings.getUploadRows());
+        }
+
+        @Override
+        public void execute(PosClient client, LoadTestData data, Object input) {
+            client.uploadProducts(data.getSupervisorToken(), (String) input);
+        }
+    };
+
+    private static final int MAX_ORDER_ITEMS = 3;
+
+    private final String name;
+
+    Scenario(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Object prepare(PosClient client, LoadTestData data, LoadTestSettings settings) {
+        return null;
+    }
+
+    public abstract void execute(PosClient client, LoadTestData data, Object input);
+
+    public static Scenario fromName(String name) {
+        for (Scenario scenario : values()) {
+            if (scenario.name.equals(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario '" + name + "', expected one of "
+                + Arrays.toString(Arrays.stream(values()).map(Scenario::getName).toArray()));
+    }
+
+    private static List<OrderItemForm> orderItems(LoadTestData data) {
+        int count = Math.min(1 + ThreadLocalRandom.current().nextInt(MAX_ORDER_ITEMS), data.getBarcodes().size());
+        // Distinct products, as a real basket would list a repeated product once
+        Set<Integer> products = new LinkedHashSet<>();
+        while (products.size() < count) {
+            products.add(data.randomProduct());
+        }
+        List<OrderItemForm> items = new ArrayList<>(count);
+        for (int product : products) {
+            OrderItemForm item = new OrderItemForm();
+            item.setBarcode(data.getBarcodes().get(product));
+            item.setQuantity(1);
+            item.setMrp(data.getMrps().get(product));
+            items.add(item);
+        }
+        return items;
+    }
+}
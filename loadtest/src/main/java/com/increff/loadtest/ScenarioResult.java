@@ -0,0 +1,56 @@
+package com.increff.loadtest;
+
+import com.increff.pos.util.LatencyHistogram;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measured outcome of one scenario, written to the results file as is. Latencies are in
+ * milliseconds and, coming from a LatencyHistogram, at most 12.5% above the exact value.
+ */
+@Getter
+public class ScenarioResult {
+
+    static final String PREPARE_ERROR_PREFIX = "prepare:";
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String scenario;
+    private final int concurrency;
+    // 0 when the workers ran back to back
+    private final double targetRate;
+    private final double durationSeconds;
+    private final long requests;
+    // Failed requests; a failed untimed preparation is only listed in errorsByType
+    private final long errors;
+    // Keyed by HTTP status, or by exception class when no response came back
+    private final Map<String, Long> errorsByType;
+    private final double throughput;
+    private final double meanMs;
+    private final double p50Ms;
+    private final double p99Ms;
+    private final double p999Ms;
+    private final double maxMs;
+
+    public ScenarioResult(Scenario scenario, int concurrency, double targetRate, long durationNanos,
+                          LatencyHistogram latencies, Map<String, Long> errorsByType) {
+        this.scenario = scenario.getName();
+        this.concurrency = concurrency;
+        this.targetRate = targetRate;
+        this.durationSeconds = durationNanos / 1e9;
+        this.requests = latencies.getCount();
+        this.errorsByType = new TreeMap<>(errorsByType);
+        this.errors = errorsByType.entrySet().stream()
+                .filter(entry -> !entry.getKey().startsWith(PREPARE_ERROR_PREFIX))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        this.throughput = requests / durationSeconds;
+        this.meanMs = requests == 0 ? 0 : latencies.getSum() / (double) requests / NANOS_PER_MILLI;
+        this.p50Ms = latencies.getPercentile(50) / NANOS_PER_MILLI;
+        this.p99Ms = latencies.getPercentile(99) / NANOS_PER_MILLI;
+        this.p999Ms = latencies.getPercentile(99.9) / NANOS_PER_MILLI;
+        this.maxMs = latencies.getMax() / NANOS_PER_MILLI;
+    }
+}
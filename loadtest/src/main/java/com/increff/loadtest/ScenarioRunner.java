@@ -0,0 +1,117 @@
+package com.increff.loadtest;
+
+import com.increff.pos.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives one scenario from a fixed number of worker threads, first for the warmup and then
+ * for the measured duration.
+ *
+ * With a target rate, requests follow a fixed schedule shared by the workers, and latency is
+ * taken from each request's scheduled start. When pos falls behind, the time a request spent
+ * waiting for a free worker is counted too, instead of the slowdown also slowing the load.
+ * Without a rate, each worker sends its next request as soon as the last one completes.
+ */
+public class ScenarioRunner {
+
+    private final PosClient client;
+    private final LoadTestData data;
+    private final LoadTestSettings settings;
+
+    public ScenarioRunner(PosClient client, LoadTestData data, LoadTestSettings settings) {
+        this.client = client;
+        this.data = data;
+        this.settings = settings;
+    }
+
+    public ScenarioResult run(Scenario scenario) throws Exception {
+        int concurrency = settings.getConcurrency(scenario);
+        double rate = settings.getRate(scenario);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            runPhase(workers, scenario, concurrency, rate, TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds()),
+                    new LatencyHistogram(), new ConcurrentHashMap<>());
+
+            LatencyHistogram latencies = new LatencyHistogram();
+            Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+            long durationNanos = runPhase(workers, scenario, concurrency, rate,
+                    TimeUnit.SECONDS.toNanos(settings.getDurationSeconds()), latencies, errors);
+
+            Map<String, Long> errorCounts = new HashMap<>();
+            errors.forEach((key, count) -> errorCounts.put(key, count.sum()));
+            return new ScenarioResult(scenario, concurrency, rate, durationNanos, latencies, errorCounts);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the elapsed time, which runs past the phase's duration by however long the last
+     * requests took to complete.
+     */
+    private long runPhase(ExecutorService workers, Scenario scenario, int concurrency, double rate,
+                          long durationNanos, LatencyHistogram latencies, Map<String, LongAdder> errors)
+            throws Exception {
+        if (durationNanos <= 0) {
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + durationNanos;
+        AtomicLong nextTicket = new AtomicLong();
+        List<Future<?>> running = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            running.add(workers.submit(() -> {
+                while (true) {
+                    Object input;
+                    try {
+                        input = scenario.prepare(client, data, settings);
+                    } catch (Exception e) {
+                        // Not a request of this scenario, so it is counted as an error but not timed
+                        errors.computeIfAbsent(ScenarioResult.PREPARE_ERROR_PREFIX + PosClient.errorKey(e),
+                                key -> new LongAdder()).increment();
+                        if (System.nanoTime() >= endNanos) {
+                            return;
+                        }
+                        continue;
+                    }
+                    long scheduledNanos = rate > 0
+                            ? startNanos + (long) (nextTicket.getAndIncrement() * 1e9 / rate)
+                            : System.nanoTime();
+                    if (scheduledNanos >= endNanos) {
+                        return;
+                    }
+                    waitUntil(scheduledNanos);
+                    try {
+                        scenario.execute(client, data, input);
+                    } catch (Exception e) {
+                        errors.computeIfAbsent(PosClient.errorKey(e), key -> new LongAdder()).increment();
+                    }
+                    latencies.record(System.nanoTime() - scheduledNanos);
+                }
+            }));
+        }
+        for (Future<?> worker : running) {
+            worker.get();
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
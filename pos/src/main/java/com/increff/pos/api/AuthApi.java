@@ -11,6 +11,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.ZonedDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
@@ -22,6 +23,9 @@ public class AuthApi {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CredentialApi credentialApi;
+
     public UserResponse signup(String name, String email, String password) {
         // Check if user already exists
         if (userDao.selectByEmail(email).isPresent()) {
@@ -33,7 +37,7 @@ public class AuthApi {
         UserPojo user = new UserPojo();
         user.setEmail(email);
         user.setName(name);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(credentialApi.run(() -> passwordEncoder.encode(password)));
         user.setRole(role);
         user.setLastLogin(null);
         // Save user to database
@@ -47,14 +51,28 @@ public class AuthApi {
         );
     }
 
-    public UserResponse login(String email, String password) {
-        // Find user by email
-        UserPojo user = userDao.selectByEmail(email)
-                .orElseThrow(() -> new ApiException(ErrorType.BAD_REQUEST, "Wrong username or password."));
-        // Validate password
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new ApiException(ErrorType.BAD_REQUEST, "Wrong username or password.");
-        }
+    /**
+     * Checks the password on the credential pool without waiting for it. The future completes
+     * with the hash to store, re-encoded when it was made at another cost since the plain
+     * password is only available here, or fails with BAD_REQUEST on a wrong password. Finish
+     * the login with completeLogin.
+     */
+    public CompletableFuture<String> verifyLogin(String email, String password) {
+        String storedHash = getUserForLogin(email).getPassword();
+        return credentialApi.submit(() -> {
+            if (!passwordEncoder.matches(password, storedHash)) {
+                throw new ApiException(ErrorType.BAD_REQUEST, "Wrong username or password.");
+            }
+            return credentialApi.needsRehash(storedHash) ? passwordEncoder.encode(password) : storedHash;
+        });
+    }
+
+    /**
+     * Records a login verified by verifyLogin, storing the hash it returned.
+     */
+    public UserResponse completeLogin(String email, String passwordHash) {
+        UserPojo user = getUserForLogin(email);
+        user.setPassword(passwordHash);
         // Update last login time
         user.setLastLogin(ZonedDateTime.now());
         userDao.updateUser(user);
@@ -67,6 +85,11 @@ public class AuthApi {
         );
     }
 
+    private UserPojo getUserForLogin(String email) {
+        return userDao.selectByEmail(email)
+                .orElseThrow(() -> new ApiException(ErrorType.BAD_REQUEST, "Wrong username or password."));
+    }
+
     private Role determineRole(String email) {
         // Email patterns that indicate supervisor role
         if (email.contains("supervisor") || email.contains("admin")) {
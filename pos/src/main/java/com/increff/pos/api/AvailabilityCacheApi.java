@@ -0,0 +1,177 @@
+package com.increff.pos.api;
+
+import com.increff.pos.dao.ProductDao;
+import com.increff.pos.model.AvailabilityModel;
+import com.increff.pos.model.CacheStatsModel;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.BloomFilter;
+import com.increff.pos.util.BoundedCache;
+import com.increff.pos.util.TransactionUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache of product id, MRP and stock by barcode for existence and availability
+ * checks. Entries are kept current by write-through from ProductApi and InventoryApi after
+ * commit, and the least recently used barcode is evicted once the cache is full.
+ *
+ * A Bloom filter over every known barcode answers lookups for unknown barcodes without a
+ * query. It is built on startup and kept current on product creation. A rebuild fills a new
+ * filter while the current one keeps serving, then swaps it in; barcodes added meanwhile are
+ * replayed into it first. Until the first build completes every lookup reads the database, and
+ * callers whose "not found" must be certain confirm a negative against the database, since a
+ * product created by another instance is not in this instance's filter.
+ */
+@Service
+public class AvailabilityCacheApi {
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private BoundedCache<String, AvailabilityModel> cache;
+    // Null until the first build completes
+    private volatile BloomFilter knownBarcodes;
+    // Barcodes added while a build is running, replayed into the new filter before the swap
+    private List<String> addedDuringRebuild = new ArrayList<>();
+    private final Object rebuildLock = new Object();
+    private final Map<Integer, String> barcodeByProductId = new HashMap<>();
+    private long negativeHits;
+    // Bumped on every write so a load that raced with a write is not cached
+    private long writeGeneration;
+
+    @PostConstruct
+    public void init() {
+        cache = new BoundedCache<>(applicationProperties.getAvailabilityCacheSize(),
+                (barcode, availability) -> barcodeByProductId.remove(availability.getProductId()));
+    }
+
+    /**
+     * Returns the availability for a barcode, or null if no product has it. A negative from the
+     * Bloom filter is confirmed against the database.
+     */
+    public AvailabilityModel getAvailability(String barcode) {
+        return getAvailability(barcode, true);
+    }
+
+    /**
+     * Returns the availability for a barcode, or null if no product has it. Unless the answer
+     * must be authoritative, a negative from the Bloom filter is returned without a query.
+     */
+    public AvailabilityModel getAvailability(String barcode, boolean authoritative) {
+        long loadGeneration;
+        boolean filteredOut;
+        synchronized (this) {
+            BloomFilter filter = knownBarcodes;
+            filteredOut = filter != null && !filter.mightContain(barcode);
+            if (filteredOut && !authoritative) {
+                negativeHits++;
+                return null;
+            }
+            AvailabilityModel cached = cache.get(barcode);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = writeGeneration;
+        }
+        AvailabilityModel loaded = productDao.selectAvailabilityByBarcode(barcode);
+        if (loaded != null) {
+            if (filteredOut) {
+                addKnownBarcode(barcode);
+            }
+            synchronized (this) {
+                if (loadGeneration == writeGeneration) {
+                    put(loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Registers a barcode in the Bloom filter. Safe to call before commit since a barcode that
+     * never commits only costs a query.
+     */
+    public synchronized void addKnownBarcode(String barcode) {
+        if (knownBarcodes != null) {
+            knownBarcodes.put(barcode);
+        }
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(barcode);
+        }
+    }
+
+    /**
+     * Builds a new Bloom filter from the barcodes the scanner hands over and swaps it in. The
+     * current filter keeps answering lookups until the swap, and rebuilds run one at a time.
+     */
+    public void rebuildKnownBarcodes(Consumer<Consumer<String>> barcodeScanner) {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                if (addedDuringRebuild == null) {
+                    addedDuringRebuild = new ArrayList<>();
+                }
+            }
+            BloomFilter rebuilt = new BloomFilter(applicationProperties.getAvailabilityBloomExpectedInsertions(),
+                    applicationProperties.getAvailabilityBloomFpp());
+            barcodeScanner.accept(rebuilt::put);
+            synchronized (this) {
+                addedDuringRebuild.forEach(rebuilt::put);
+                addedDuringRebuild = null;
+                knownBarcodes = rebuilt;
+            }
+        }
+    }
+
+    public void onProductChanged(Integer productId, String barcode, Double mrp) {
+        addKnownBarcode(barcode);
+        TransactionUtil.afterCommit(() -> updateProduct(productId, barcode, mrp));
+    }
+
+    public void onStockChanged(Integer productId, Integer quantity) {
+        TransactionUtil.afterCommit(() -> updateQuantity(productId, quantity));
+    }
+
+    public synchronized CacheStatsModel getStats() {
+        return new CacheStatsModel(cache.size(), cache.getMaxSize(), cache.getHits(), cache.getMisses(),
+                cache.getEvictions(), negativeHits, cache.getExpirations());
+    }
+
+    public synchronized void reset() {
+        cache.clear();
+        barcodeByProductId.clear();
+        negativeHits = 0;
+        writeGeneration++;
+    }
+
+    private synchronized void updateProduct(Integer productId, String barcode, Double mrp) {
+        writeGeneration++;
+        AvailabilityModel cached = cache.peek(barcode);
+        if (cached != null) {
+            put(new AvailabilityModel(productId, barcode, mrp, cached.getQuantity()));
+        }
+    }
+
+    private synchronized void updateQuantity(Integer productId, Integer quantity) {
+        writeGeneration++;
+        String barcode = barcodeByProductId.get(productId);
+        AvailabilityModel cached = barcode == null ? null : cache.peek(barcode);
+        if (cached != null) {
+            put(new AvailabilityModel(productId, barcode, cached.getMrp(), quantity));
+        }
+    }
+
+    private void put(AvailabilityModel availability) {
+        barcodeByProductId.put(availability.getProductId(), availability.getBarcode());
+        cache.put(availability.getBarcode(), availability);
+    }
+}
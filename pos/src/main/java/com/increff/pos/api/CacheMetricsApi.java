@@ -0,0 +1,38 @@
+package com.increff.pos.api;
+
+import com.increff.pos.model.CacheRegionStatsModel;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reads Hibernate's second-level cache counters per region, in memory and without a query.
+ * They stay at zero unless hibernate.statistics is on, which it is not by default.
+ */
+@Service
+public class CacheMetricsApi {
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsModel> getRegionStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionStatsModel> result = new ArrayList<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                result.add(new CacheRegionStatsModel(regionName, region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), region.getElementCountInMemory()));
+            }
+        }
+        result.sort(Comparator.comparing(CacheRegionStatsModel::getRegionName));
+        return result;
+    }
+}
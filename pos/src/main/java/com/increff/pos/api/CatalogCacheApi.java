@@ -0,0 +1,181 @@
+package com.increff.pos.api;
+
+import com.increff.pos.dao.ProductDao;
+import com.increff.pos.entity.ProductPojo;
+import com.increff.pos.model.CacheStatsModel;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.BoundedCache;
+import com.increff.pos.util.TransactionUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of products by id and product ids by barcode for the order and invoice
+ * paths. Both maps are bounded and entries expire after the configured TTL, so a missed
+ * invalidation heals on its own. Cached products are detached copies and must be treated as
+ * read-only.
+ */
+@Service
+public class CatalogCacheApi {
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private BoundedCache<Integer, ProductPojo> productsById;
+    private BoundedCache<String, Integer> idsByBarcode;
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private long writeGeneration;
+
+    @PostConstruct
+    public void init() {
+        int maxSize = applicationProperties.getCatalogCacheSize();
+        long ttlMs = TimeUnit.SECONDS.toMillis(applicationProperties.getCatalogCacheTtlSeconds());
+        productsById = new BoundedCache<>(maxSize, ttlMs, System::currentTimeMillis, null);
+        idsByBarcode = new BoundedCache<>(maxSize, ttlMs, System::currentTimeMillis, null);
+    }
+
+    /**
+     * Returns the product with the given id, or null if there is none.
+     */
+    public ProductPojo getProduct(Integer id) {
+        long loadGeneration;
+        synchronized (this) {
+            ProductPojo cached = productsById.get(id);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = writeGeneration;
+        }
+        ProductPojo loaded = productDao.selectById(id);
+        if (loaded == null) {
+            return null;
+        }
+        ProductPojo snapshot = snapshot(loaded);
+        synchronized (this) {
+            if (loadGeneration == writeGeneration) {
+                put(snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns product ids for the given barcodes. Barcodes without a product are left out.
+     */
+    public Map<String, Integer> getProductIds(Collection<String> barcodes) {
+        Map<String, Integer> result = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        long loadGeneration;
+        synchronized (this) {
+            for (String barcode : barcodes) {
+                Integer cached = idsByBarcode.get(barcode);
+                if (cached != null) {
+                    result.put(barcode, cached);
+                } else {
+                    missing.add(barcode);
+                }
+            }
+            loadGeneration = writeGeneration;
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        List<ProductPojo> loaded = productDao.selectByBarcodes(missing);
+        synchronized (this) {
+            for (ProductPojo product : loaded) {
+                result.put(product.getBarcode(), product.getId());
+                if (loadGeneration == writeGeneration) {
+                    put(snapshot(product));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Loads up to the cache size worth of products so the first checkouts after startup hit.
+     * If a product changed while they were selected nothing is cached, since any of the rows
+     * may be stale; lookups then read through as usual. Returns the number of products cached.
+     */
+    public int preload() {
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = writeGeneration;
+        }
+        List<ProductPojo> products = productDao.selectAll(0, productsById.getMaxSize());
+        synchronized (this) {
+            if (loadGeneration != writeGeneration) {
+                return 0;
+            }
+            products.forEach(product -> put(snapshot(product)));
+        }
+        return products.size();
+    }
+
+    /**
+     * Drops the product from the cache once the surrounding transaction completes. A rollback
+     * also invalidates, since a read inside the transaction may have cached the discarded row.
+     */
+    public void onProductChanged(Integer productId, String barcode) {
+        TransactionUtil.afterCommit(() -> invalidate(productId, barcode));
+        TransactionUtil.afterRollback(() -> invalidate(productId, barcode));
+    }
+
+    /**
+     * Batch form of onProductChanged that registers a single callback for the whole chunk.
+     */
+    public void onProductsChanged(List<ProductPojo> products) {
+        Map<Integer, String> barcodeById = new HashMap<>();
+        products.forEach(product -> barcodeById.put(product.getId(), product.getBarcode()));
+        TransactionUtil.afterCommit(() -> barcodeById.forEach(this::invalidate));
+        TransactionUtil.afterRollback(() -> barcodeById.forEach(this::invalidate));
+    }
+
+    public synchronized CacheStatsModel getStats() {
+        return new CacheStatsModel(productsById.size(), productsById.getMaxSize(),
+                productsById.getHits() + idsByBarcode.getHits(),
+                productsById.getMisses() + idsByBarcode.getMisses(),
+                productsById.getEvictions() + idsByBarcode.getEvictions(), 0,
+                productsById.getExpirations() + idsByBarcode.getExpirations());
+    }
+
+    public synchronized void reset() {
+        productsById.clear();
+        idsByBarcode.clear();
+        writeGeneration++;
+    }
+
+    private synchronized void invalidate(Integer productId, String barcode) {
+        writeGeneration++;
+        productsById.remove(productId);
+        idsByBarcode.remove(barcode);
+    }
+
+    private void put(ProductPojo product) {
+        productsById.put(product.getId(), product);
+        idsByBarcode.put(product.getBarcode(), product.getId());
+    }
+
+    private static ProductPojo snapshot(ProductPojo product) {
+        ProductPojo copy = new ProductPojo(product.getBarcode(), product.getClientId(), product.getName(),
+                product.getMrp());
+        copy.setId(product.getId());
+        copy.setImageUrl(product.getImageUrl());
+        copy.setVersion(product.getVersion());
+        copy.setCreatedAt(product.getCreatedAt());
+        copy.setUpdatedAt(product.getUpdatedAt());
+        return copy;
+    }
+}
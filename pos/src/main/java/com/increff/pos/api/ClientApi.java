@@ -18,6 +18,9 @@ public class ClientApi extends AbstractApi {
     @Autowired
     private ClientDao clientDao;
 
+    @Autowired
+    private ProductSearchIndexApi productSearchIndexApi;
+
     public ClientPojo add(String name) {
         checkConflict(clientDao.selectByName(name) != null,
                 "Client with name: " + name + " already exists");
@@ -32,6 +35,7 @@ public class ClientApi extends AbstractApi {
                 "Client with name: " + name + " already exists");
         ClientPojo client = checkNotNull(clientDao.selectById(id), "Client with id: " + id + " not found");
         client.setName(name);
+        productSearchIndexApi.onClientRenamed(id, name);
         return client;
     }
 
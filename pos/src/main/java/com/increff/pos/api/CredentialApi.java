@@ -0,0 +1,133 @@
+package com.increff.pos.api;
+
+import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.spring.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs password hashing and verification on a small dedicated pool, so a burst of logins at
+ * shift change queues here instead of occupying every request thread. Logins hand their check to
+ * the pool and release the request thread until it completes. Once the bounded queue is full
+ * further logins fail straight away with 429 and the client retries.
+ */
+@Service
+public class CredentialApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialApi.class);
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private ThreadPoolExecutor pool;
+    private long timeoutMs;
+    private int bcryptCost;
+
+    @PostConstruct
+    public void init() {
+        int threads = applicationProperties.getCredentialThreads();
+        timeoutMs = applicationProperties.getCredentialTimeoutMs();
+        bcryptCost = applicationProperties.getBcryptCost();
+        AtomicInteger threadCount = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(applicationProperties.getCredentialQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "credential-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Runs the task on the credential pool and waits for its result. Throws TOO_MANY_REQUESTS
+     * when the queue is full or the task does not finish within auth.verify.timeout.ms.
+     */
+    public <T> T run(Callable<T> task) {
+        CompletableFuture<T> future = submit(task);
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new ApiException(ErrorType.TOO_MANY_REQUESTS, "Credential check timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Interrupted while verifying credentials");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Credential check failed: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Queues the task on the credential pool without waiting for it. Throws TOO_MANY_REQUESTS at
+     * once when the queue is full. A task still queued after auth.verify.timeout.ms is skipped
+     * and its future fails with TOO_MANY_REQUESTS, so a caller that gave up costs no hashing.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            pool.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    future.completeExceptionally(new ApiException(ErrorType.TOO_MANY_REQUESTS,
+                            "Credential check timed out, please retry shortly"));
+                    return;
+                }
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Credential pool saturated, rejecting request");
+            throw new ApiException(ErrorType.TOO_MANY_REQUESTS, "Too many logins in progress, please retry shortly");
+        }
+        return future;
+    }
+
+    /**
+     * True when the stored BCrypt hash was made with a cost other than auth.bcrypt.cost. Hashes
+     * in any other format are left alone.
+     */
+    public boolean needsRehash(String hash) {
+        Matcher matcher = BCRYPT_COST.matcher(hash);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != bcryptCost;
+    }
+
+    public int getActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+}
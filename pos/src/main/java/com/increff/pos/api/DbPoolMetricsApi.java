@@ -0,0 +1,71 @@
+package com.increff.pos.api;
+
+import com.increff.pos.model.DbPoolStatsModel;
+import com.increff.pos.util.LatencyHistogram;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects connection pool metrics. DbConfig installs this as the pool's metrics tracker
+ * factory, so the pool reports every acquire, release and timeout here, and its gauges are
+ * read on demand.
+ */
+@Service
+public class DbPoolMetricsApi implements MetricsTrackerFactory {
+
+    // Acquire times are recorded in nanoseconds, usage times in milliseconds, as the pool reports them
+    private final LatencyHistogram acquireNanos = new LatencyHistogram();
+    private final LatencyHistogram usageMillis = new LatencyHistogram();
+    private final AtomicLong acquireTimeouts = new AtomicLong();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireNanos.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageMillis.record(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                acquireTimeouts.incrementAndGet();
+            }
+        };
+    }
+
+    public DbPoolStatsModel getStats() {
+        PoolStats stats = poolStats;
+        return new DbPoolStatsModel(
+                stats == null ? 0 : stats.getActiveConnections(),
+                stats == null ? 0 : stats.getIdleConnections(),
+                stats == null ? 0 : stats.getPendingThreads(),
+                stats == null ? 0 : stats.getTotalConnections(),
+                stats == null ? 0 : stats.getMaxConnections(),
+                acquireNanos.getCount(), acquireTimeouts.get(),
+                toMillis(acquireNanos.getPercentile(50)), toMillis(acquireNanos.getPercentile(95)),
+                toMillis(acquireNanos.getPercentile(99)), toMillis(acquireNanos.getMax()),
+                usageMillis.getPercentile(99), usageMillis.getMax());
+    }
+
+    public void reset() {
+        acquireNanos.reset();
+        usageMillis.reset();
+        acquireTimeouts.set(0);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
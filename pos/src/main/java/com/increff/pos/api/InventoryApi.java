@@ -3,13 +3,17 @@ package com.increff.pos.api;
 import com.increff.pos.dao.InventoryDao;
 import com.increff.pos.entity.InventoryPojo;
 import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.Constants;
+import com.increff.pos.model.InventoryDetailModel;
 import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.model.response.ValidationError;
+import com.increff.pos.spring.ReadOnlyTransactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,8 +23,18 @@ public class InventoryApi {
     @Autowired
     private InventoryDao inventoryDao;
 
-    public List<InventoryPojo> searchInventory(String productName, String barcode, int page, int size) {
-        return inventoryDao.findByProductNameLike(productName, barcode, page, size);
+    @Autowired
+    private LowStockAlertApi lowStockAlertApi;
+
+    @Autowired
+    private AvailabilityCacheApi availabilityCacheApi;
+
+    @Autowired
+    private ReservationApi reservationApi;
+
+    @ReadOnlyTransactional
+    public List<InventoryDetailModel> searchInventory(String productName, String barcode, int page, int size) {
+        return inventoryDao.searchWithProductDetails(productName, barcode, page, size);
     }
 
     public InventoryPojo createInventory(Integer productId, Integer quantity) {
@@ -33,6 +47,7 @@ public class InventoryApi {
         inventory.setProductId(productId);
         inventory.setQuantity(quantity != null ? quantity : 0);
         inventoryDao.insert(inventory);
+        notifyStockChanged(inventory);
         return inventory;
     }
 
@@ -42,37 +57,117 @@ public class InventoryApi {
             throw new ApiException(ErrorType.NOT_FOUND, "Inventory not found for product: " + productId);
         }
         existingInventory.setQuantity(quantity);
+        notifyStockChanged(existingInventory);
         return existingInventory;
     }
 
+    public InventoryPojo updateReorderThreshold(Integer productId, Integer threshold) {
+        InventoryPojo existingInventory = inventoryDao.selectByProductId(productId);
+        if (existingInventory == null) {
+            throw new ApiException(ErrorType.NOT_FOUND, "Inventory not found for product: " + productId);
+        }
+        existingInventory.setReorderThreshold(threshold);
+        notifyStockChanged(existingInventory);
+        return existingInventory;
+    }
+
+    /**
+     * Applies stock deltas atomically with chunked bulk UPDATEs instead of read-modify-write.
+     * If any product is missing or would drop below zero the exception rolls back every chunk.
+     * Returns the resulting quantity per product.
+     */
+    public Map<Integer, Integer> adjustInventory(Map<Integer, Integer> deltaByProductId) {
+        List<Integer> productIds = new ArrayList<>(deltaByProductId.keySet());
+        Map<Integer, Integer> quantityByProductId = new LinkedHashMap<>();
+        for (int start = 0; start < productIds.size(); start += Constants.INVENTORY_ADJUST_CHUNK_SIZE) {
+            Map<Integer, Integer> chunk = new LinkedHashMap<>();
+            productIds.subList(start, Math.min(start + Constants.INVENTORY_ADJUST_CHUNK_SIZE, productIds.size()))
+                    .forEach(productId -> chunk.put(productId, deltaByProductId.get(productId)));
+            int updated = inventoryDao.bulkAdjust(chunk);
+            if (updated != chunk.size()) {
+                throw new ApiException(ErrorType.BAD_REQUEST, buildAdjustFailureMessage(chunk));
+            }
+            for (Object[] row : inventoryDao.selectStockLevelsByProductIds(chunk.keySet())) {
+                Integer productId = (Integer) row[0];
+                Integer quantity = (Integer) row[1];
+                quantityByProductId.put(productId, quantity);
+                lowStockAlertApi.onStockChanged(productId, quantity, (Integer) row[2]);
+                availabilityCacheApi.onStockChanged(productId, quantity);
+            }
+        }
+        return quantityByProductId;
+    }
+
     public void validateInventoryAvailability(Integer productId, Integer requiredQuantity, String barcode) {
         InventoryPojo inventory = inventoryDao.selectByProductId(productId);
         if (inventory == null) {
             throw new ApiException(ErrorType.BAD_REQUEST, "No inventory found for cart product: " + productId);
         }
-        if (inventory.getQuantity() < requiredQuantity) {
+        // Stock held by open cart reservations is not available to other orders
+        if (inventory.getQuantity() - reservationApi.getReservedQuantity(productId) < requiredQuantity) {
             throw new ApiException(ErrorType.BAD_REQUEST, "Insufficient inventory for cart product " +  barcode);
         }
     }
 
+    /**
+     * Returns current quantities and keeps the inventory rows locked until the transaction ends,
+     * so stock checked or reserved from them cannot be taken by an order committing meanwhile.
+     */
+    public Map<Integer, Integer> lockQuantities(Collection<Integer> productIds) {
+        Map<Integer, Integer> quantityByProductId = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return quantityByProductId;
+        }
+        for (InventoryPojo inventory : inventoryDao.selectForUpdate(productIds)) {
+            quantityByProductId.put(inventory.getProductId(), inventory.getQuantity());
+        }
+        return quantityByProductId;
+    }
+
+    /**
+     * Reduces stock already held by a consumed reservation, so reserved stock is not checked
+     * again; only a quantity lowered below the reservation since it was made is rejected.
+     */
+    public void reduceReservedInventory(Integer productId, Integer orderQuantity) {
+        InventoryPojo inventory = inventoryDao.selectByProductId(productId);
+        if (inventory == null || inventory.getQuantity() < orderQuantity) {
+            throw new ApiException(ErrorType.BAD_REQUEST, "Reserved stock is no longer available for product " + productId);
+        }
+        inventory.setQuantity(inventory.getQuantity() - orderQuantity);
+        notifyStockChanged(inventory);
+    }
+
     public void reduceInventory(Integer productId, Integer orderQuantity) {
         validateInventoryAvailability(productId, orderQuantity, "");
         InventoryPojo inventory = inventoryDao.selectByProductId(productId);
         int newQuantity = inventory.getQuantity() - orderQuantity;
         inventory.setQuantity(newQuantity);
+        notifyStockChanged(inventory);
     }
 
+    /**
+     * Creates empty inventory rows for new products. Every row starts at zero, so the rows are
+     * built in memory rather than selected back.
+     */
     public List<InventoryPojo> bulkCreateInventory(List<Integer> productIds) {
         inventoryDao.bulkInsert(productIds);
-        return inventoryDao.selectByProductIds(productIds);
+        List<InventoryPojo> created = productIds.stream()
+                .map(productId -> new InventoryPojo(productId, 0))
+                .collect(Collectors.toList());
+        created.forEach(this::notifyStockChanged);
+        return created;
     }
 
-    public List<InventoryPojo> bulkCreateOrUpdateInventory(List<InventoryPojo> inventoryList) {
+    /**
+     * Upserts one batch of uploaded quantities. Rows are not selected back; the low stock index
+     * is updated from the written quantities.
+     */
+    public void upsertInventory(List<InventoryPojo> inventoryList) {
         inventoryDao.bulkUpsert(inventoryList);
-        return inventoryDao.selectByProductIds(inventoryList.stream()
-                .map(inventory -> inventory.getProductId())
-                .collect(Collectors.toList())
-        );
+        for (InventoryPojo inventory : inventoryList) {
+            lowStockAlertApi.onQuantityChanged(inventory.getProductId(), inventory.getQuantity());
+            availabilityCacheApi.onStockChanged(inventory.getProductId(), inventory.getQuantity());
+        }
     }
 
     public Map<Integer, ValidationError> validateInventoryWithoutSaving(Map<Integer, Integer> rowByProductId) {
@@ -97,4 +192,46 @@ public class InventoryApi {
         }
         return errorByRow;
     }
+
+    @ReadOnlyTransactional
+    public long exportInventory(int fetchSize, Consumer<Object[]> rowConsumer) {
+        return inventoryDao.scrollInventoryForExport(fetchSize, rowConsumer);
+    }
+
+    @ReadOnlyTransactional
+    public long reportStockValuation(int fetchSize, Consumer<Object[]> rowConsumer) {
+        return inventoryDao.scrollStockValuationByClient(fetchSize, rowConsumer);
+    }
+
+    @ReadOnlyTransactional
+    public long reportOutOfStock(int fetchSize, Consumer<Object[]> rowConsumer) {
+        return inventoryDao.scrollOutOfStock(fetchSize, rowConsumer);
+    }
+
+    public long scanStockLevels(int fetchSize, Consumer<Object[]> rowConsumer) {
+        return inventoryDao.scrollStockLevels(fetchSize, rowConsumer);
+    }
+
+    @ReadOnlyTransactional
+    public long reportBelowThreshold(int threshold, int fetchSize, Consumer<Object[]> rowConsumer) {
+        return inventoryDao.scrollBelowThreshold(threshold, fetchSize, rowConsumer);
+    }
+
+    private String buildAdjustFailureMessage(Map<Integer, Integer> chunk) {
+        Set<Integer> existing = inventoryDao.selectStockLevelsByProductIds(chunk.keySet()).stream()
+                .map(row -> (Integer) row[0])
+                .collect(Collectors.toSet());
+        List<Integer> missing = chunk.keySet().stream()
+                .filter(productId -> !existing.contains(productId))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            return "Inventory not found for products: " + missing;
+        }
+        return "Adjustment would make inventory negative for one or more products";
+    }
+
+    private void notifyStockChanged(InventoryPojo inventory) {
+        lowStockAlertApi.onStockChanged(inventory.getProductId(), inventory.getQuantity(), inventory.getReorderThreshold());
+        availabilityCacheApi.onStockChanged(inventory.getProductId(), inventory.getQuantity());
+    }
 }
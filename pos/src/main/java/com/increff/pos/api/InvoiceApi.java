@@ -39,6 +39,10 @@ public class InvoiceApi {
         return new DaySalesModel(invoicedOrdersCount, invoicedItemsCount, totalRevenue);
     }
 
+    public List<InvoicePojo> getInvoicesByDateRange(ZonedDateTime startDate, ZonedDateTime endDate) {
+        return invoiceDao.selectByDateRange(startDate, endDate);
+    }
+
     public boolean existsByOrderId(Integer orderId) {
         return invoiceDao.selectByOrderId(orderId) != null;
     }
@@ -0,0 +1,63 @@
+package com.increff.pos.api;
+
+import com.increff.pos.model.LiveSalesModel;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.SalesRingBuffer;
+import com.increff.pos.util.TransactionUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the intraday sales time-series in memory so the live dashboard never reads the DB.
+ * Placed and invoiced orders are tracked in separate per-minute ring buffers.
+ */
+@Service
+public class LiveSalesApi {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private SalesRingBuffer placedOrders;
+    private SalesRingBuffer invoicedOrders;
+
+    @PostConstruct
+    public void init() {
+        placedOrders = new SalesRingBuffer(applicationProperties.getLiveSalesWindowMinutes());
+        invoicedOrders = new SalesRingBuffer(applicationProperties.getLiveSalesWindowMinutes());
+    }
+
+    public void recordOrder(ZonedDateTime time, int itemsCount, double revenue) {
+        long minute = toEpochMinute(time);
+        TransactionUtil.afterCommit(() -> placedOrders.add(minute, 1, itemsCount, revenue));
+    }
+
+    public void recordInvoice(ZonedDateTime time, int itemsCount, double revenue) {
+        long minute = toEpochMinute(time);
+        TransactionUtil.afterCommit(() -> invoicedOrders.add(minute, 1, itemsCount, revenue));
+    }
+
+    public LiveSalesModel getPlacedSales(long fromMinute, long toMinute) {
+        return placedOrders.sum(fromMinute, toMinute);
+    }
+
+    public LiveSalesModel getInvoicedSales(long fromMinute, long toMinute) {
+        return invoicedOrders.sum(fromMinute, toMinute);
+    }
+
+    public int getWindowMinutes() {
+        return placedOrders.getCapacity();
+    }
+
+    public void reset() {
+        placedOrders.clear();
+        invoicedOrders.clear();
+    }
+
+    public static long toEpochMinute(ZonedDateTime time) {
+        return TimeUnit.SECONDS.toMinutes(time.toEpochSecond());
+    }
+}
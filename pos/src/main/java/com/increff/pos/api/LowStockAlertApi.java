@@ -0,0 +1,134 @@
+package com.increff.pos.api;
+
+import com.increff.pos.model.LowStockAlertModel;
+import com.increff.pos.model.StockLevelModel;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.TransactionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Keeps every product's stock level in memory, ordered by quantity minus reorder threshold,
+ * so products below their threshold are found with one O(log n) seek instead of a table scan.
+ * A product crossing its threshold downwards emits an alert into a bounded outbox that drops
+ * the oldest events once full.
+ */
+@Service
+public class LowStockAlertApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockAlertApi.class);
+
+    private static final Comparator<StockLevelModel> BY_SLACK = Comparator
+            .comparingInt(StockLevelModel::getSlack)
+            .thenComparing(StockLevelModel::getProductId);
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private final Map<Integer, StockLevelModel> levelByProductId = new HashMap<>();
+    private final TreeSet<StockLevelModel> levelsBySlack = new TreeSet<>(BY_SLACK);
+    private final Deque<LowStockAlertModel> outbox = new ArrayDeque<>();
+    private long sequence;
+
+    /**
+     * Applies a committed stock change. Null threshold means the default threshold.
+     */
+    public void onStockChanged(Integer productId, Integer quantity, Integer threshold) {
+        TransactionUtil.afterCommit(() -> update(productId, quantity, threshold, true));
+    }
+
+    /**
+     * Applies a committed quantity change for writes that do not read the row back, keeping the
+     * threshold already indexed for the product.
+     */
+    public void onQuantityChanged(Integer productId, Integer quantity) {
+        TransactionUtil.afterCommit(() -> updateQuantity(productId, quantity));
+    }
+
+    /**
+     * Loads a level without raising alerts, used when rebuilding from the database.
+     */
+    public synchronized void load(Integer productId, Integer quantity, Integer threshold) {
+        update(productId, quantity, threshold, false);
+    }
+
+    public synchronized List<StockLevelModel> getBelowThreshold(int limit) {
+        List<StockLevelModel> result = new ArrayList<>();
+        StockLevelModel boundary = new StockLevelModel(Integer.MIN_VALUE, 0, 0);
+        for (StockLevelModel level : levelsBySlack.headSet(boundary, false)) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(level);
+        }
+        return result;
+    }
+
+    public synchronized StockLevelModel getStockLevel(Integer productId) {
+        return levelByProductId.get(productId);
+    }
+
+    /**
+     * Returns alerts with a sequence greater than the given one, oldest first.
+     */
+    public synchronized List<LowStockAlertModel> getAlertsAfter(long afterSequence) {
+        List<LowStockAlertModel> result = new ArrayList<>();
+        for (LowStockAlertModel alert : outbox) {
+            if (alert.getSequence() > afterSequence) {
+                result.add(alert);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void reset() {
+        levelByProductId.clear();
+        levelsBySlack.clear();
+        outbox.clear();
+    }
+
+    private synchronized void update(Integer productId, Integer quantity, Integer threshold, boolean raiseAlert) {
+        int effectiveThreshold = threshold != null ? threshold : applicationProperties.getLowStockThreshold();
+        StockLevelModel previous = levelByProductId.get(productId);
+        if (previous != null) {
+            levelsBySlack.remove(previous);
+        }
+        StockLevelModel current = new StockLevelModel(productId, quantity, effectiveThreshold);
+        levelByProductId.put(productId, current);
+        levelsBySlack.add(current);
+        // A product not indexed yet is being created with no stock, which is not a crossing
+        boolean wasAbove = previous != null && previous.getSlack() >= 0;
+        if (raiseAlert && wasAbove && current.getSlack() < 0) {
+            publish(current);
+        }
+    }
+
+    private synchronized void updateQuantity(Integer productId, Integer quantity) {
+        StockLevelModel previous = levelByProductId.get(productId);
+        update(productId, quantity, previous != null ? previous.getThreshold() : null, true);
+    }
+
+    private void publish(StockLevelModel level) {
+        if (outbox.size() >= applicationProperties.getLowStockOutboxSize()) {
+            outbox.pollFirst();
+        }
+        LowStockAlertModel alert = new LowStockAlertModel(++sequence, level.getProductId(), level.getQuantity(),
+                level.getThreshold(), ZonedDateTime.now(ZoneOffset.UTC));
+        outbox.addLast(alert);
+        logger.warn("Low stock for product {}: {} below threshold {}", level.getProductId(), level.getQuantity(),
+                level.getThreshold());
+    }
+}
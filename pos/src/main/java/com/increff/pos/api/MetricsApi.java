@@ -0,0 +1,102 @@
+package com.increff.pos.api;
+
+import com.increff.pos.model.Constants;
+import com.increff.pos.model.response.ValidationError;
+import com.increff.pos.util.LatencyHistogram;
+import com.increff.pos.util.PrometheusTextWriter;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process registry of latency timers and counters, exported in Prometheus text format.
+ * A series is created on first use and lives for the life of the process, so timers are
+ * exported as cumulative histograms and their recent percentiles are computed from the rate of
+ * each bucket on the server. Recording only touches atomics, and callers on hot paths can keep
+ * the returned timer or counter to skip the lookup as well.
+ */
+@Service
+public class MetricsApi {
+
+    private final ConcurrentMap<String, Series<LatencyHistogram>> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Series<LongAdder>> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the timer for the metric and label pairs. Timers record nanoseconds.
+     */
+    public LatencyHistogram timer(String name, String... labelPairs) {
+        String labels = PrometheusTextWriter.labels(labelPairs);
+        return timers.computeIfAbsent(name + '{' + labels + '}',
+                key -> new Series<>(name, labels, new LatencyHistogram())).value;
+    }
+
+    public LongAdder counter(String name, String... labelPairs) {
+        String labels = PrometheusTextWriter.labels(labelPairs);
+        return counters.computeIfAbsent(name + '{' + labels + '}',
+                key -> new Series<>(name, labels, new LongAdder())).value;
+    }
+
+    /**
+     * Counts the rows of a TSV upload. Uploads are all or nothing, so rows are either applied,
+     * invalid, or skipped because another row was invalid.
+     */
+    public void recordUploadRows(String upload, int rows, List<ValidationError> errors) {
+        int applied = errors.isEmpty() ? rows : 0;
+        int invalid = (int) errors.stream().map(ValidationError::getRowNumber).distinct().count();
+        counter(Constants.METRIC_UPLOAD_ROWS, "upload", upload, "result", "applied").add(applied);
+        counter(Constants.METRIC_UPLOAD_ROWS, "upload", upload, "result", "invalid").add(invalid);
+        counter(Constants.METRIC_UPLOAD_ROWS, "upload", upload, "result", "skipped")
+                .add(Math.max(0, rows - applied - invalid));
+    }
+
+    /**
+     * Counts every row of an upload that threw before it could report its errors, such as one
+     * rolled back by a database failure.
+     */
+    public void recordFailedUpload(String upload, int rows) {
+        counter(Constants.METRIC_UPLOAD_ROWS, "upload", upload, "result", "failed").add(rows);
+    }
+
+    /**
+     * Writes every timer as a histogram in seconds and every counter, grouped by metric name.
+     */
+    public void writeTo(PrometheusTextWriter writer) {
+        String currentName = null;
+        for (Series<LatencyHistogram> series : new TreeMap<>(timers).values()) {
+            if (!series.name.equals(currentName)) {
+                currentName = series.name;
+                writer.type(currentName, "histogram");
+            }
+            writer.histogramSeconds(series.name, series.labels, series.value);
+        }
+        currentName = null;
+        for (Series<LongAdder> series : new TreeMap<>(counters).values()) {
+            if (!series.name.equals(currentName)) {
+                currentName = series.name;
+                writer.type(currentName, "counter");
+            }
+            writer.sample(series.name, series.labels, series.value.sum());
+        }
+    }
+
+    public void reset() {
+        timers.values().forEach(series -> series.value.reset());
+        counters.values().forEach(series -> series.value.reset());
+    }
+
+    private static class Series<T> {
+        private final String name;
+        private final String labels;
+        private final T value;
+
+        private Series(String name, String labels, T value) {
+            this.name = name;
+            this.labels = labels;
+            this.value = value;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.increff.pos.entity.OrdersPojo;
 import com.increff.pos.entity.OrderItemsPojo;
 import com.increff.pos.exception.ApiException;
 import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.spring.ReadOnlyTransactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +14,7 @@ import javax.transaction.Transactional;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -24,6 +26,7 @@ public class OrderApi {
     @Autowired
     private OrderItemDao orderItemDao;
 
+    @ReadOnlyTransactional
     public List<OrdersPojo> searchOrders(ZonedDateTime startDate, ZonedDateTime endDate, Integer orderId, int page, int size) {
         return orderDao.findBySearchCriteria(startDate, endDate, orderId, page, size);
     }
@@ -50,4 +53,14 @@ public class OrderApi {
         orderDao.updateInvoicePath(orderId, invoicePath);
     }
     // Removed getOrderItemsByOrderId - this should be called from OrderItemApi directly
-}
\ No newline at end of file
+
+    @ReadOnlyTransactional
+    public long exportOrderItems(ZonedDateTime startDate, ZonedDateTime endDate, int fetchSize,
+                                 Consumer<Object[]> rowConsumer) {
+        return orderDao.scrollOrderItemsForExport(startDate, endDate, fetchSize, rowConsumer);
+    }
+
+    public long scanOrderTotalsSince(ZonedDateTime startDate, int fetchSize, Consumer<Object[]> rowConsumer) {
+        return orderDao.scrollOrderTotalsSince(startDate, fetchSize, rowConsumer);
+    }
+}
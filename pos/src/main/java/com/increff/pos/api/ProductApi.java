@@ -3,17 +3,23 @@ package com.increff.pos.api;
 import com.increff.pos.dao.ProductDao;
 import com.increff.pos.entity.ProductPojo;
 import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.ProductSearchDocModel;
 import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.spring.ReadOnlyTransactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -22,19 +28,63 @@ public class ProductApi {
     @Autowired
     private ProductDao productDao;
 
+    @Autowired
+    private AvailabilityCacheApi availabilityCacheApi;
+
+    @Autowired
+    private CatalogCacheApi catalogCacheApi;
+
+    @Autowired
+    private ProductSearchIndexApi productSearchIndexApi;
+
     public Map<String, Integer> findProductsByBarcodes(List<String> barcodes) {
         Set<String> uniqueBarcodes = barcodes.stream().collect(Collectors.toSet());
-        List<ProductPojo> products = productDao.selectByBarcodes(uniqueBarcodes);
-        return products.stream().collect(Collectors.toMap(ProductPojo::getBarcode, ProductPojo::getId));
+        return catalogCacheApi.getProductIds(uniqueBarcodes);
+    }
+
+    /**
+     * Resolves ids without loading entities. Parallel lookups only see committed rows; see
+     * AbstractDao.selectInChunks.
+     */
+    public Map<String, Integer> findProductsByBarcodes(List<String> barcodes, boolean parallel) {
+        return productDao.selectIdsByBarcodes(barcodes, parallel);
     }
 
+    @ReadOnlyTransactional
     public List<ProductPojo> searchProducts(String barcode, String productName, int page, int size) {
         List<ProductPojo> products = productDao.findBySearchCriteria(barcode, productName, page, size);
         return products;
     }
 
+    /**
+     * Free-text search ranked by relevance when the search index is enabled. Without the index the
+     * text falls back to a name prefix match in the database.
+     *
+     * Matches are loaded in one query rather than through the catalog cache: this transaction
+     * may run on a lagging replica, and a stale row cached here would outlive the primary's
+     * invalidation and be used to price orders.
+     */
+    @ReadOnlyTransactional
+    public List<ProductPojo> searchProducts(String text, String barcode, String productName, int page, int size) {
+        if (!productSearchIndexApi.isEnabled()) {
+            String nameText = productName != null || text == null ? productName : text.toLowerCase(Locale.ROOT);
+            return searchProducts(barcode, nameText, page, size);
+        }
+        String indexText = Stream.of(text, productName).filter(Objects::nonNull).collect(Collectors.joining(" "));
+        List<Integer> ids = productSearchIndexApi.search(indexText, barcode, page, size);
+        Map<Integer, ProductPojo> productsById = productDao.selectByIds(ids).stream()
+                .collect(Collectors.toMap(ProductPojo::getId, Function.identity()));
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Served from the catalog cache; the returned product is a detached read-only copy.
+     */
     public ProductPojo getProductById(Integer id) {
-        ProductPojo product = productDao.selectById(id);
+        ProductPojo product = catalogCacheApi.getProduct(id);
         if (product == null) {
             throw new ApiException(ErrorType.NOT_FOUND, "Product with id: " + id + " not found");
         }
@@ -43,6 +93,9 @@ public class ProductApi {
 
     public ProductPojo createProduct(ProductPojo product) {
         productDao.insert(product);
+        availabilityCacheApi.onProductChanged(product.getId(), product.getBarcode(), product.getMrp());
+        catalogCacheApi.onProductChanged(product.getId(), product.getBarcode());
+        productSearchIndexApi.onProductChanged(product);
         return product;
     }
 
@@ -54,6 +107,9 @@ public class ProductApi {
         existingProduct.setName(name);
         existingProduct.setMrp(mrp);
         existingProduct.setImageUrl(imageUrl);
+        availabilityCacheApi.onProductChanged(existingProduct.getId(), existingProduct.getBarcode(), mrp);
+        catalogCacheApi.onProductChanged(existingProduct.getId(), existingProduct.getBarcode());
+        productSearchIndexApi.onProductChanged(existingProduct);
         return existingProduct;
     }
 
@@ -66,9 +122,24 @@ public class ProductApi {
 
     public List<ProductPojo> bulkCreateProducts(List<ProductPojo> products) {
         productDao.bulkInsert(products);
+        products.forEach(product -> availabilityCacheApi.addKnownBarcode(product.getBarcode()));
+        catalogCacheApi.onProductsChanged(products);
+        productSearchIndexApi.onProductsChanged(products);
         return products;
     }
 
+    /**
+     * Applies one chunk of uploaded updates. Products must carry their ids so caches can be
+     * refreshed once the transaction commits.
+     */
+    public void bulkUpdateProducts(List<ProductPojo> products) {
+        productDao.bulkUpdate(products);
+        products.forEach(product -> availabilityCacheApi.onProductChanged(product.getId(), product.getBarcode(),
+                product.getMrp()));
+        catalogCacheApi.onProductsChanged(products);
+        productSearchIndexApi.onProductsChanged(products);
+    }
+
     public Map<String, Boolean> validateBarcodesUniquenessBatch(Set<String> barcodes) {
         // Get all existing products with these barcodes in one query
         List<ProductPojo> existingProducts = productDao.selectByBarcodes(barcodes);
@@ -84,8 +155,19 @@ public class ProductApi {
         return result;
     }
 
+    public long scanBarcodes(int fetchSize, Consumer<Object[]> rowConsumer) {
+        return productDao.scrollBarcodes(fetchSize, rowConsumer);
+    }
+
+    public long scanSearchDocuments(int fetchSize, Consumer<ProductSearchDocModel> docConsumer) {
+        return productDao.scrollSearchDocuments(fetchSize, docConsumer);
+    }
+
+    public int backfillSearchColumns() {
+        return productDao.backfillSearchColumns();
+    }
+
     public boolean checkProductExists(String barcode) {
-        ProductPojo product = productDao.selectByBarcode(barcode);
-        return product != null;
+        return availabilityCacheApi.getAvailability(barcode) != null;
     }
 }
\ No newline at end of file
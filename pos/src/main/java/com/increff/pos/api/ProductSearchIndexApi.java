@@ -0,0 +1,406 @@
+package com.increff.pos.api;
+
+import com.increff.pos.dao.ClientDao;
+import com.increff.pos.entity.ClientPojo;
+import com.increff.pos.entity.ProductPojo;
+import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.ProductSearchDocModel;
+import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.TransactionUtil;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded Lucene index over product name, barcode and client name, used by product search when
+ * search.index.enabled is set. Product and client writes update it after commit, and ProductFlow
+ * rebuilds it from the database on startup, so the directory never has to be backed up.
+ * Searches run against a near-real-time reader and return only product ids; ProductApi then
+ * loads the matching rows with one query by id. SearchIndexBenchmark in the benchmarks module
+ * measures the index side against the 5 ms typeahead target.
+ */
+@Service
+public class ProductSearchIndexApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexApi.class);
+
+    private static final String ID = "id";
+    private static final String BARCODE = "barcode";
+    private static final String BARCODE_KEY = "barcode_key";
+    private static final String NAME = "name";
+    private static final String CLIENT_ID = "client_id";
+    private static final String CLIENT = "client";
+    private static final String[] TEXT_FIELDS = {NAME, BARCODE, CLIENT};
+
+    private static final String[] FUZZY_FIELDS = {NAME, CLIENT};
+
+    // Fuzzy matching walks the term dictionary, so it is kept to words of four or more characters,
+    // to terms sharing the word's first two characters, and to the closest few terms
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MIN_TWO_EDIT_LENGTH = 8;
+    private static final int FUZZY_PREFIX_LENGTH = 2;
+    private static final int FUZZY_MAX_EXPANSIONS = 10;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private ClientDao clientDao;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    // Index writes that commit while a rebuild runs, applied once it has finished
+    private List<Runnable> writesDuringRebuild;
+    private final Object rebuildLock = new Object();
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            String dir = applicationProperties.getSearchIndexDir();
+            directory = dir == null || dir.trim().isEmpty() ? new ByteBuffersDirectory() : FSDirectory.open(Paths.get(dir));
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open product search index", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close product search index", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return applicationProperties.isSearchIndexEnabled();
+    }
+
+    /**
+     * Returns ids of products matching every token of the text, best match first. Each token may
+     * hit name, barcode or client name exactly or as a prefix for typeahead. A word of four or
+     * more characters may also hit name or client name within one edit, or two from eight
+     * characters, after its first two characters. A barcode, when given, narrows the result to
+     * barcodes starting with it.
+     */
+    public List<Integer> search(String text, String barcodePrefix, int page, int size) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        List<String> tokens = analyze(text);
+        for (String token : tokens) {
+            query.add(tokenQuery(token), Occur.MUST);
+        }
+        boolean hasBarcode = barcodePrefix != null && !barcodePrefix.trim().isEmpty();
+        if (hasBarcode) {
+            query.add(new PrefixQuery(new Term(BARCODE_KEY, barcodePrefix.trim().toLowerCase(Locale.ROOT))),
+                    tokens.isEmpty() ? Occur.MUST : Occur.FILTER);
+        }
+        if (tokens.isEmpty() && !hasBarcode) {
+            return Collections.emptyList();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query.build(), (page + 1) * size);
+                List<Integer> ids = new ArrayList<>();
+                ScoreDoc[] hits = topDocs.scoreDocs;
+                for (int i = page * size; i < hits.length; i++) {
+                    ids.add(Integer.valueOf(searcher.doc(hits[i].doc).get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Product search failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-indexes the product once the surrounding transaction commits.
+     */
+    public void onProductChanged(ProductPojo product) {
+        onProductsChanged(Collections.singletonList(product));
+    }
+
+    /**
+     * Batch form of onProductChanged. Client names are resolved now, inside the transaction, with
+     * a single lookup for the chunk. Products without a client id keep the client of their
+     * current document.
+     */
+    public void onProductsChanged(List<ProductPojo> products) {
+        if (!isEnabled() || products.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> clientNames = clientNames(products.stream()
+                .map(ProductPojo::getClientId)
+                .filter(clientId -> clientId != null)
+                .collect(Collectors.toSet()));
+        List<ProductSearchDocModel> docs = products.stream()
+                .map(product -> new ProductSearchDocModel(product.getId(), product.getBarcode(), product.getName(),
+                        product.getClientId(), clientNames.get(product.getClientId())))
+                .collect(Collectors.toList());
+        TransactionUtil.afterCommit(() -> write(() -> {
+            withStoredClients(docs).forEach(this::update);
+            refresh();
+        }));
+    }
+
+    /**
+     * Rewrites the client name on every product of the client once the rename commits.
+     */
+    public void onClientRenamed(Integer clientId, String clientName) {
+        if (!isEnabled()) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> write(() -> {
+            for (ProductSearchDocModel doc : findByClient(clientId)) {
+                update(new ProductSearchDocModel(doc.getProductId(), doc.getBarcode(), doc.getName(), clientId,
+                        clientName));
+            }
+            refresh();
+        }));
+    }
+
+    /**
+     * Replaces every document with those the scanner hands over. Searches keep reading the
+     * previous contents until the rebuild commits, since nothing refreshes the reader meanwhile.
+     * Updates that commit during the rebuild are held back and applied on top of it, so a row
+     * scanned before it changed cannot overwrite the newer document. Rebuilds run one at a time.
+     */
+    public void rebuild(Consumer<Consumer<ProductSearchDocModel>> docScanner) {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                writesDuringRebuild = new ArrayList<>();
+            }
+            try {
+                writer.deleteAll();
+                docScanner.accept(this::index);
+                searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to rebuild product search index", e);
+            } finally {
+                synchronized (this) {
+                    writesDuringRebuild.forEach(Runnable::run);
+                    writesDuringRebuild = null;
+                }
+            }
+            commit();
+        }
+    }
+
+    public void index(ProductSearchDocModel doc) {
+        try {
+            writer.addDocument(toDocument(doc));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index product " + doc.getProductId(), e);
+        }
+    }
+
+    /**
+     * Makes everything indexed so far durable and visible to searches.
+     */
+    public void commit() {
+        try {
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to commit product search index", e);
+        }
+    }
+
+    public int size() {
+        return writer == null ? 0 : writer.getDocStats().numDocs;
+    }
+
+    private Query tokenQuery(String token) {
+        BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+        for (String field : TEXT_FIELDS) {
+            Term term = new Term(field, token);
+            anyField.add(new BoostQuery(new TermQuery(term), 3f), Occur.SHOULD);
+            anyField.add(new BoostQuery(new PrefixQuery(term), 2f), Occur.SHOULD);
+        }
+        if (token.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = token.length() >= MIN_TWO_EDIT_LENGTH ? 2 : 1;
+            for (String field : FUZZY_FIELDS) {
+                anyField.add(new FuzzyQuery(new Term(field, token), maxEdits, FUZZY_PREFIX_LENGTH,
+                        FUZZY_MAX_EXPANSIONS, true), Occur.SHOULD);
+            }
+        }
+        return anyField.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.trim().isEmpty()) {
+            return tokens;
+        }
+        try (TokenStream stream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to analyze search text", e);
+        }
+        return tokens;
+    }
+
+    private synchronized void write(Runnable indexWrite) {
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.add(indexWrite);
+        } else {
+            indexWrite.run();
+        }
+    }
+
+    private void update(ProductSearchDocModel doc) {
+        try {
+            writer.updateDocument(new Term(ID, doc.getProductId().toString()), toDocument(doc));
+        } catch (IOException e) {
+            logger.error("Failed to index product {}", doc.getProductId(), e);
+        }
+    }
+
+    /**
+     * Fills in the client of docs that have none from their current documents. The reader is
+     * refreshed once for the whole batch, so an update in the same batch as the insert still
+     * finds it, and every lookup then runs on that one searcher.
+     */
+    private List<ProductSearchDocModel> withStoredClients(List<ProductSearchDocModel> docs) {
+        if (docs.stream().allMatch(doc -> doc.getClientId() != null)) {
+            return docs;
+        }
+        try {
+            searcherManager.maybeRefreshBlocking();
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                List<ProductSearchDocModel> result = new ArrayList<>(docs.size());
+                for (ProductSearchDocModel doc : docs) {
+                    Document current = doc.getClientId() == null ? findById(searcher, doc.getProductId()) : null;
+                    result.add(current == null ? doc : new ProductSearchDocModel(doc.getProductId(), doc.getBarcode(),
+                            doc.getName(), Integer.valueOf(current.get(CLIENT_ID)), current.get(CLIENT)));
+                }
+                return result;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read current clients from product search index", e);
+            return docs;
+        }
+    }
+
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            logger.error("Failed to refresh product search index", e);
+        }
+    }
+
+    private static Document findById(IndexSearcher searcher, Integer productId) throws IOException {
+        TopDocs topDocs = searcher.search(new TermQuery(new Term(ID, productId.toString())), 1);
+        return topDocs.scoreDocs.length == 0 ? null : searcher.doc(topDocs.scoreDocs[0].doc);
+    }
+
+    private List<ProductSearchDocModel> findByClient(Integer clientId) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TermQuery query = new TermQuery(new Term(CLIENT_ID, clientId.toString()));
+                TopDocs topDocs = searcher.search(query, Math.max(1, searcher.count(query)));
+                List<ProductSearchDocModel> docs = new ArrayList<>();
+                for (ScoreDoc hit : topDocs.scoreDocs) {
+                    Document document = searcher.doc(hit.doc);
+                    docs.add(new ProductSearchDocModel(Integer.valueOf(document.get(ID)), document.get(BARCODE),
+                            document.get(NAME), clientId, document.get(CLIENT)));
+                }
+                return docs;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read products of client {} from search index", clientId, e);
+            return Collections.emptyList();
+        }
+    }
+
+    private Map<Integer, String> clientNames(Set<Integer> clientIds) {
+        if (clientIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return clientDao.selectByIds(clientIds).stream()
+                .collect(Collectors.toMap(ClientPojo::getClientId, ClientPojo::getName));
+    }
+
+    private static Document toDocument(ProductSearchDocModel doc) {
+        Document document = new Document();
+        document.add(new StringField(ID, doc.getProductId().toString(), Field.Store.YES));
+        document.add(new TextField(BARCODE, doc.getBarcode(), Field.Store.YES));
+        document.add(new StringField(BARCODE_KEY, doc.getBarcode().toLowerCase(Locale.ROOT), Field.Store.NO));
+        document.add(new TextField(NAME, doc.getName(), Field.Store.YES));
+        if (doc.getClientId() != null) {
+            document.add(new StringField(CLIENT_ID, doc.getClientId().toString(), Field.Store.YES));
+        }
+        if (doc.getClientName() != null) {
+            document.add(new TextField(CLIENT, doc.getClientName(), Field.Store.YES));
+        }
+        return document;
+    }
+}
@@ -2,12 +2,14 @@ package com.increff.pos.api;
 
 import com.increff.pos.dao.ReportDao;
 import com.increff.pos.entity.DaySalesPojo;
+import com.increff.pos.spring.ReadOnlyTransactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -16,6 +18,7 @@ public class ReportApi {
     @Autowired
     private ReportDao reportDao;
 
+    @ReadOnlyTransactional
     public List<DaySalesPojo> getDaySalesByDateRange(ZonedDateTime startDate, ZonedDateTime endDate) {
         return reportDao.getDaySalesByDateRange(startDate, endDate);
     }
@@ -31,4 +34,10 @@ public class ReportApi {
     public void updateDaySales(DaySalesPojo daySales) {
         reportDao.update(daySales);
     }
-} 
\ No newline at end of file
+
+    @ReadOnlyTransactional
+    public long exportDaySales(ZonedDateTime startDate, ZonedDateTime endDate, int fetchSize,
+                               Consumer<Object[]> rowConsumer) {
+        return reportDao.scrollDaySalesForExport(startDate, endDate, fetchSize, rowConsumer);
+    }
+}
@@ -0,0 +1,170 @@
+package com.increff.pos.api;
+
+import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.ReservationModel;
+import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.TimingWheel;
+import com.increff.pos.util.TimingWheel.Timeout;
+import com.increff.pos.util.TransactionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds cart stock reservations in memory for reservation.ttl.seconds. Reserved quantities are
+ * subtracted from what other orders may take, and expiry is driven by a hierarchical timing
+ * wheel ticking every reservation.tick.ms, so no table is ever scanned for stale holds.
+ * Reservations do not survive a restart; carts simply reserve again.
+ */
+@Service
+public class ReservationApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationApi.class);
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private final Map<String, Timeout<ReservationModel>> timeoutById = new HashMap<>();
+    private final Map<Integer, Integer> reservedByProductId = new HashMap<>();
+    private TimingWheel<ReservationModel> wheel;
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    public void init() {
+        long tickMs = applicationProperties.getReservationTickMs();
+        wheel = new TimingWheel<>(tickMs, applicationProperties.getReservationWheelSize(), System.currentTimeMillis());
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> expire(System.currentTimeMillis()), tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Reserves the quantities if each fits in the given on-hand stock minus what is already
+     * reserved, all or nothing. The caller reads that stock with the inventory rows locked; the
+     * hold is dropped if its transaction rolls back.
+     */
+    public synchronized ReservationModel reserve(Map<Integer, Integer> quantityByProductId,
+                                                 Map<Integer, Integer> stockByProductId) {
+        for (Map.Entry<Integer, Integer> entry : quantityByProductId.entrySet()) {
+            Integer productId = entry.getKey();
+            int available = stockByProductId.getOrDefault(productId, 0) - getReservedQuantity(productId);
+            if (available < entry.getValue()) {
+                throw new ApiException(ErrorType.BAD_REQUEST, "Insufficient inventory to reserve product "
+                        + productId + ": requested " + entry.getValue() + ", available " + Math.max(available, 0));
+            }
+        }
+        long expiresAtMs = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(applicationProperties.getReservationTtlSeconds());
+        ReservationModel reservation = new ReservationModel(UUID.randomUUID().toString(),
+                Collections.unmodifiableMap(new LinkedHashMap<>(quantityByProductId)),
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMs), ZoneOffset.UTC));
+        hold(reservation);
+        TransactionUtil.afterRollback(() -> discard(reservation.getReservationId()));
+        return reservation;
+    }
+
+    public synchronized ReservationModel getReservation(String reservationId) {
+        return requireTimeout(reservationId).getValue();
+    }
+
+    /**
+     * Removes the reservation for an order that uses it. If the surrounding transaction rolls
+     * back the reservation is restored with its original expiry.
+     */
+    public synchronized ReservationModel consume(String reservationId) {
+        ReservationModel reservation = remove(requireTimeout(reservationId));
+        TransactionUtil.afterRollback(() -> restore(reservation));
+        return reservation;
+    }
+
+    public synchronized void release(String reservationId) {
+        remove(requireTimeout(reservationId));
+    }
+
+    public synchronized int getReservedQuantity(Integer productId) {
+        return reservedByProductId.getOrDefault(productId, 0);
+    }
+
+    /**
+     * Advances the wheel to the given time and releases every reservation that expired.
+     */
+    public synchronized void expire(long nowMs) {
+        wheel.advance(nowMs, reservation -> {
+            timeoutById.remove(reservation.getReservationId());
+            unreserve(reservation);
+            logger.info("Reservation {} expired", reservation.getReservationId());
+        });
+    }
+
+    public synchronized int getActiveCount() {
+        return timeoutById.size();
+    }
+
+    public synchronized void reset() {
+        timeoutById.values().forEach(wheel::cancel);
+        timeoutById.clear();
+        reservedByProductId.clear();
+    }
+
+    private synchronized void restore(ReservationModel reservation) {
+        hold(reservation);
+    }
+
+    private synchronized void discard(String reservationId) {
+        Timeout<ReservationModel> timeout = timeoutById.get(reservationId);
+        if (timeout != null) {
+            remove(timeout);
+        }
+    }
+
+    private void hold(ReservationModel reservation) {
+        reservation.getQuantityByProductId().forEach((productId, quantity) ->
+                reservedByProductId.merge(productId, quantity, Integer::sum));
+        timeoutById.put(reservation.getReservationId(),
+                wheel.schedule(reservation, reservation.getExpiresAt().toInstant().toEpochMilli()));
+    }
+
+    private ReservationModel remove(Timeout<ReservationModel> timeout) {
+        ReservationModel reservation = timeout.getValue();
+        wheel.cancel(timeout);
+        timeoutById.remove(reservation.getReservationId());
+        unreserve(reservation);
+        return reservation;
+    }
+
+    private void unreserve(ReservationModel reservation) {
+        reservation.getQuantityByProductId().forEach((productId, quantity) ->
+                reservedByProductId.computeIfPresent(productId, (id, reserved) -> reserved > quantity ? reserved - quantity : null));
+    }
+
+    private Timeout<ReservationModel> requireTimeout(String reservationId) {
+        Timeout<ReservationModel> timeout = timeoutById.get(reservationId);
+        if (timeout == null) {
+            throw new ApiException(ErrorType.NOT_FOUND, "Reservation " + reservationId + " not found or expired");
+        }
+        return timeout;
+    }
+}
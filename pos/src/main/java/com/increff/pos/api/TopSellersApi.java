@@ -0,0 +1,131 @@
+package com.increff.pos.api;
+
+import com.increff.pos.model.enums.TopSellerMetric;
+import com.increff.pos.model.enums.TopSellerScope;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.SpaceSavingSketch;
+import com.increff.pos.util.SpaceSavingSketch.Counter;
+import com.increff.pos.util.TransactionUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks best-selling barcodes in memory with Space-Saving sketches, so top-K reads never
+ * run a GROUP BY over order items. One pair of sketches covers the current UTC day and a ring
+ * of hourly pairs covers the rolling window; the window is merged on read.
+ *
+ * With m = top.sellers.capacity counters, each estimate overshoots the true value by at most
+ * N / m per sketch involved, where N is the weight that sketch has seen.
+ */
+@Service
+public class TopSellersApi {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private int capacity;
+    private long currentDay;
+    private SpaceSavingSketch<String> dayQuantity;
+    private SpaceSavingSketch<String> dayRevenue;
+    private long[] slotHours;
+    private List<SpaceSavingSketch<String>> hourlyQuantity;
+    private List<SpaceSavingSketch<String>> hourlyRevenue;
+
+    @PostConstruct
+    public void init() {
+        capacity = applicationProperties.getTopSellersCapacity();
+        int windowHours = applicationProperties.getTopSellersWindowHours();
+        dayQuantity = new SpaceSavingSketch<>(capacity);
+        dayRevenue = new SpaceSavingSketch<>(capacity);
+        slotHours = new long[windowHours];
+        hourlyQuantity = new ArrayList<>(windowHours);
+        hourlyRevenue = new ArrayList<>(windowHours);
+        for (int i = 0; i < windowHours; i++) {
+            hourlyQuantity.add(new SpaceSavingSketch<>(capacity));
+            hourlyRevenue.add(new SpaceSavingSketch<>(capacity));
+        }
+        reset();
+    }
+
+    public void recordSale(ZonedDateTime time, String barcode, int quantity, double revenue) {
+        TransactionUtil.afterCommit(() -> addSale(time, barcode, quantity, revenue));
+    }
+
+    public synchronized List<Counter<String>> getTopSellers(TopSellerScope scope, TopSellerMetric metric, int k) {
+        long nowHour = toEpochHour(ZonedDateTime.now(ZoneOffset.UTC));
+        if (scope == TopSellerScope.TODAY) {
+            if (currentDay != toEpochDay(ZonedDateTime.now(ZoneOffset.UTC))) {
+                return Collections.emptyList();
+            }
+            return sketchFor(metric, dayQuantity, dayRevenue).top(k);
+        }
+        List<SpaceSavingSketch<String>> inWindow = new ArrayList<>();
+        for (int slot = 0; slot < slotHours.length; slot++) {
+            if (slotHours[slot] > nowHour - slotHours.length && slotHours[slot] <= nowHour) {
+                inWindow.add(sketchFor(metric, hourlyQuantity.get(slot), hourlyRevenue.get(slot)));
+            }
+        }
+        return SpaceSavingSketch.mergeTop(inWindow, k);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized void reset() {
+        currentDay = Long.MIN_VALUE;
+        dayQuantity.clear();
+        dayRevenue.clear();
+        for (int slot = 0; slot < slotHours.length; slot++) {
+            slotHours[slot] = Long.MIN_VALUE;
+            hourlyQuantity.get(slot).clear();
+            hourlyRevenue.get(slot).clear();
+        }
+    }
+
+    private synchronized void addSale(ZonedDateTime time, String barcode, int quantity, double revenue) {
+        long day = toEpochDay(time);
+        if (day > currentDay) {
+            currentDay = day;
+            dayQuantity.clear();
+            dayRevenue.clear();
+        }
+        if (day == currentDay) {
+            dayQuantity.offer(barcode, quantity);
+            dayRevenue.offer(barcode, revenue);
+        }
+        long hour = toEpochHour(time);
+        int slot = (int) Math.floorMod(hour, (long) slotHours.length);
+        if (slotHours[slot] > hour) {
+            return;
+        }
+        if (slotHours[slot] != hour) {
+            slotHours[slot] = hour;
+            hourlyQuantity.get(slot).clear();
+            hourlyRevenue.get(slot).clear();
+        }
+        hourlyQuantity.get(slot).offer(barcode, quantity);
+        hourlyRevenue.get(slot).offer(barcode, revenue);
+    }
+
+    private static SpaceSavingSketch<String> sketchFor(TopSellerMetric metric, SpaceSavingSketch<String> quantity,
+                                                       SpaceSavingSketch<String> revenue) {
+        return metric == TopSellerMetric.QUANTITY ? quantity : revenue;
+    }
+
+    private static long toEpochDay(ZonedDateTime time) {
+        return time.withZoneSameInstant(ZoneOffset.UTC).toLocalDate().toEpochDay();
+    }
+
+    private static long toEpochHour(ZonedDateTime time) {
+        return TimeUnit.SECONDS.toHours(time.toEpochSecond());
+    }
+}
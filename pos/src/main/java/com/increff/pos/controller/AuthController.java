@@ -5,19 +5,21 @@ import com.increff.pos.model.form.LoginForm;
 import com.increff.pos.model.form.SignupForm;
 import com.increff.pos.model.response.LoginResponse;
 import com.increff.pos.model.response.UserResponse;
-import org.apache.log4j.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
-    private static final Logger logger = Logger.getLogger(AuthController.class);
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
     @Autowired
     private AuthDto dto;
@@ -34,10 +36,10 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public LoginResponse login(@Valid @RequestBody LoginForm loginForm, HttpServletRequest httpRequest, HttpServletResponse response) {
-        logger.info("Login attempt for email: " + loginForm.getEmail());
-        logger.info("Request Origin: " + httpRequest.getHeader("Origin"));
-        logger.info("Request User-Agent: " + httpRequest.getHeader("User-Agent"));
+    public CompletableFuture<LoginResponse> login(@Valid @RequestBody LoginForm loginForm, HttpServletRequest httpRequest,
+                                                  HttpServletResponse response) {
+        logger.info("Login attempt for email: {}, origin: {}, user agent: {}", loginForm.getEmail(),
+                httpRequest.getHeader("Origin"), httpRequest.getHeader("User-Agent"));
 
         // Set CORS headers for login response
         response.setHeader("Access-Control-Allow-Origin", "http://localhost:4200");
@@ -45,10 +47,8 @@ public class AuthController {
         response.setHeader("Access-Control-Allow-Methods", "GET,POST,PUT,DELETE,OPTIONS,HEAD");
         response.setHeader("Access-Control-Allow-Headers", "*");
 
-        LoginResponse loginResponse = dto.login(loginForm, httpRequest);
-        logger.info("Login successful, JWT token generated");
-        
-        return loginResponse;
+        // Completes off the request thread once the password has been checked
+        return dto.login(loginForm, httpRequest);
     }
 
     @PostMapping("/logout")
@@ -1,8 +1,13 @@
 package com.increff.pos.controller;
 
 import com.increff.pos.dto.InventoryDto;
+import com.increff.pos.model.enums.ExportFormat;
+import com.increff.pos.model.form.InventoryAdjustForm;
+import com.increff.pos.model.form.InventoryThresholdForm;
 import com.increff.pos.model.form.InventoryUpdateForm;
 import com.increff.pos.model.response.InventoryResponse;
+import com.increff.pos.model.response.LowStockAlertResponse;
+import com.increff.pos.model.response.StockLevelResponse;
 
 import com.increff.pos.model.response.UploadResponse;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +15,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -30,14 +36,59 @@ public class InventoryController {
         return dto.searchInventory(productName, barcode, page, size);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInventory(@RequestParam(defaultValue = "TSV") ExportFormat format) {
+        return dto.exportInventory(format);
+    }
+
+    @GetMapping("/alerts/below-threshold")
+    public List<StockLevelResponse> getBelowThreshold(@RequestParam(defaultValue = "100") int limit) {
+        return dto.getBelowThreshold(limit);
+    }
+
+    @GetMapping("/alerts")
+    public List<LowStockAlertResponse> getLowStockAlerts(@RequestParam(name = "after", defaultValue = "0") long afterSequence) {
+        return dto.getLowStockAlerts(afterSequence);
+    }
+
+    @GetMapping("/reports/valuation")
+    public ResponseEntity<StreamingResponseBody> getStockValuationReport(
+            @RequestParam(defaultValue = "TSV") ExportFormat format) {
+        return dto.getStockValuationReport(format);
+    }
+
+    @GetMapping("/reports/out-of-stock")
+    public ResponseEntity<StreamingResponseBody> getOutOfStockReport(
+            @RequestParam(defaultValue = "TSV") ExportFormat format) {
+        return dto.getOutOfStockReport(format);
+    }
+
+    @GetMapping("/reports/low-stock")
+    public ResponseEntity<StreamingResponseBody> getLowStockReport(
+            @RequestParam(required = false) Integer threshold,
+            @RequestParam(defaultValue = "TSV") ExportFormat format) {
+        return dto.getLowStockReport(threshold, format);
+    }
+
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<UploadResponse> uploadInventory(@RequestPart(value = "file") MultipartFile file) {
         return dto.uploadInventory(file);
     }
 
+    @PatchMapping("/adjust")
+    public List<InventoryResponse> adjustInventory(@Valid @RequestBody List<InventoryAdjustForm> adjustForms) {
+        return dto.adjustInventory(adjustForms);
+    }
+
     @PutMapping("/{product-id}")
     public InventoryResponse updateInventoryByProductId(@PathVariable("product-id") Integer productId,
             @Valid @RequestBody InventoryUpdateForm inventoryUpdateForm) {
         return dto.updateInventoryByProductId(productId, inventoryUpdateForm);
     }
-}
\ No newline at end of file
+
+    @PutMapping("/{product-id}/threshold")
+    public InventoryResponse updateReorderThreshold(@PathVariable("product-id") Integer productId,
+            @Valid @RequestBody InventoryThresholdForm thresholdForm) {
+        return dto.updateReorderThreshold(productId, thresholdForm);
+    }
+}
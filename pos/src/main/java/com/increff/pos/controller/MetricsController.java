@@ -0,0 +1,19 @@
+package com.increff.pos.controller;
+
+import com.increff.pos.dto.MetricsDto;
+import com.increff.pos.util.PrometheusTextWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    @Autowired
+    private MetricsDto dto;
+
+    @GetMapping(produces = PrometheusTextWriter.CONTENT_TYPE)
+    public String scrape() {
+        return dto.scrape();
+    }
+}
@@ -1,11 +1,14 @@
 package com.increff.pos.controller;
 
 import com.increff.pos.dto.OrderDto;
+import com.increff.pos.model.enums.ExportFormat;
 import com.increff.pos.model.form.OrderItemForm;
 import com.increff.pos.model.response.OrderResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.time.LocalDate;
@@ -31,9 +34,20 @@ public class OrderController {
         return dto.searchOrders(startDate, endDate, orderId, page, size);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(name = "start-date")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(name = "end-date")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "TSV") ExportFormat format) {
+        return dto.exportOrders(startDate, endDate, format);
+    }
+
     @PostMapping
-    public OrderResponse createOrders(@Valid @RequestBody List<OrderItemForm> orderItems) {
-        return dto.createOrders(orderItems);
+    public OrderResponse createOrders(@Valid @RequestBody List<OrderItemForm> orderItems,
+                                      @RequestParam(required = false, name = "reservation-id") String reservationId) {
+        return dto.createOrders(orderItems, reservationId);
     }
 
     @GetMapping("/{id}/order-items")
@@ -2,6 +2,8 @@ package com.increff.pos.controller;
 
 import com.increff.pos.dto.ProductDto;
 import com.increff.pos.model.form.ProductSearchForm;
+import com.increff.pos.model.response.AvailabilityResponse;
+import com.increff.pos.model.response.CacheStatsResponse;
 import com.increff.pos.model.response.ProductResponse;
 import com.increff.pos.model.form.ProductForm;
 import com.increff.pos.model.form.ProductUpdateForm;
@@ -40,6 +42,11 @@ public class ProductController {
         return dto.uploadProducts(file);
     }
     
+    @PostMapping(value = "/upload/update", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UploadResponse> uploadProductUpdates(@RequestPart(value = "file") MultipartFile file) {
+        return dto.uploadProductUpdates(file);
+    }
+
     @PutMapping("/{id}")
     public ProductResponse updateProduct(@PathVariable Integer id, @Valid @RequestBody ProductUpdateForm productUpdateForm) {
         return dto.updateProduct(id, productUpdateForm);
@@ -49,4 +56,19 @@ public class ProductController {
     public boolean checkProductExists(@PathVariable String barcode) {
         return dto.checkProductExists(barcode);
     }
+
+    @GetMapping("/availability/stats")
+    public CacheStatsResponse getAvailabilityCacheStats() {
+        return dto.getAvailabilityCacheStats();
+    }
+
+    @GetMapping("/catalog/stats")
+    public CacheStatsResponse getCatalogCacheStats() {
+        return dto.getCatalogCacheStats();
+    }
+
+    @GetMapping("/availability/{barcode}")
+    public AvailabilityResponse getAvailability(@PathVariable String barcode) {
+        return dto.getAvailability(barcode);
+    }
 }
\ No newline at end of file
@@ -2,10 +2,20 @@ package com.increff.pos.controller;
 
 import com.increff.pos.dto.ReportDto;
 import com.increff.pos.flow.ReportFlow;
+import com.increff.pos.model.enums.ExportFormat;
+import com.increff.pos.model.enums.LiveSalesGranularity;
+import com.increff.pos.model.enums.TopSellerMetric;
+import com.increff.pos.model.enums.TopSellerScope;
+import com.increff.pos.model.response.CacheRegionStatsResponse;
+import com.increff.pos.model.response.DbPoolStatsResponse;
 import com.increff.pos.model.response.DaySalesResponse;
+import com.increff.pos.model.response.LiveSalesResponse;
+import com.increff.pos.model.response.TopSellerResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -30,6 +40,41 @@ public class ReportController {
         return dto.getDaySalesByDateRange(startDate, endDate);
     }
 
+    @GetMapping("/live")
+    public List<LiveSalesResponse> getLiveSales(
+            @RequestParam(defaultValue = "MINUTE") LiveSalesGranularity granularity,
+            @RequestParam(defaultValue = "60") int window) {
+        return dto.getLiveSales(granularity, window);
+    }
+
+    @GetMapping("/top-sellers")
+    public List<TopSellerResponse> getTopSellers(
+            @RequestParam(defaultValue = "TODAY") TopSellerScope scope,
+            @RequestParam(defaultValue = "QUANTITY") TopSellerMetric metric,
+            @RequestParam(defaultValue = "20") int k) {
+        return dto.getTopSellers(scope, metric, k);
+    }
+
+    @GetMapping("/day-sales/export")
+    public ResponseEntity<StreamingResponseBody> exportDaySalesReport(
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "TSV") ExportFormat format) {
+        return dto.exportDaySales(startDate, endDate, format);
+    }
+
+    @GetMapping("/cache-regions")
+    public List<CacheRegionStatsResponse> getCacheRegionStats() {
+        return dto.getCacheRegionStats();
+    }
+
+    @GetMapping("/db-pool")
+    public DbPoolStatsResponse getDbPoolStats() {
+        return dto.getDbPoolStats();
+    }
+
     @PostMapping("/run-daily-sales")
     public void runDailySalesNow() {
         flow.calculateDailySales();
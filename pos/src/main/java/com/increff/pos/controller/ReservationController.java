@@ -0,0 +1,33 @@
+package com.increff.pos.controller;
+
+import com.increff.pos.dto.ReservationDto;
+import com.increff.pos.model.form.ReservationItemForm;
+import com.increff.pos.model.response.ReservationResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/reservations")
+public class ReservationController {
+
+    @Autowired
+    private ReservationDto dto;
+
+    @PostMapping
+    public ReservationResponse reserve(@Valid @RequestBody List<ReservationItemForm> reservationItems) {
+        return dto.reserve(reservationItems);
+    }
+
+    @GetMapping("/{reservation-id}")
+    public ReservationResponse getReservation(@PathVariable("reservation-id") String reservationId) {
+        return dto.getReservation(reservationId);
+    }
+
+    @DeleteMapping("/{reservation-id}")
+    public void release(@PathVariable("reservation-id") String reservationId) {
+        dto.release(reservationId);
+    }
+}
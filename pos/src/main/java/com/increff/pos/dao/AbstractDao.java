@@ -1,16 +1,39 @@
 package com.increff.pos.dao;
 
 import com.increff.pos.entity.AbstractPojo;
+import com.increff.pos.model.Constants;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.query.Query;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.Cacheable;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnit;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Repository
 @Transactional
@@ -18,10 +41,18 @@ public abstract class AbstractDao<T extends AbstractPojo> {
 
 	@PersistenceContext
 	protected EntityManager entityManager;
+	@PersistenceUnit
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	@Qualifier("queryExecutor")
+	private Executor queryExecutor;
 	private final Class<T> entityClass;
+	// Lookups on second-level cached entities also go through the query cache
+	private final boolean cacheable;
 
 	protected AbstractDao(Class<T> entityClass) {
 		this.entityClass = entityClass;
+		this.cacheable = entityClass.isAnnotationPresent(Cacheable.class);
 	}
 
 	public void insert(T pojo) {
@@ -66,7 +97,9 @@ public abstract class AbstractDao<T extends AbstractPojo> {
 		CriteriaQuery<T> query = cb.createQuery(entityClass);
 		Root<T> root = query.from(entityClass);
 		query.select(root).where(cb.equal(root.get(fieldName), value));
-		List<T> results = entityManager.createQuery(query).getResultList();
+		List<T> results = entityManager.createQuery(query)
+				.setHint(QueryHints.HINT_CACHEABLE, cacheable)
+				.getResultList();
 		return results.isEmpty() ? null : results.get(0);
 	}
 	public <V> List<T> selectByFieldOrdered(String fieldName, V value,
@@ -108,7 +141,7 @@ public abstract class AbstractDao<T extends AbstractPojo> {
 		if (searchTerm == null || searchTerm.isEmpty()) {
 			query.select(root);
 		} else {
-			query.select(root).where(cb.like(cb.lower(root.get(fieldName)), searchTerm.toLowerCase() + "%"));
+			query.select(root).where(cb.like(cb.lower(root.get(fieldName)), searchTerm.toLowerCase(Locale.ROOT) + "%"));
 		}
 
 		if (orderByField != null) {
@@ -123,28 +156,142 @@ public abstract class AbstractDao<T extends AbstractPojo> {
 		return typedQuery.getResultList();
 	}
 
+	/**
+	 * Selects rows whose field matches any of the values, in padded chunks (see selectInChunks).
+	 * With more than one chunk the merged rows are sorted in memory.
+	 */
 	public <V> List<T> selectByFieldValues(String fieldName, Collection<V> values,
 										   String orderByField, SortOrder sortOrder) {
 		if (values == null || values.isEmpty()) {
 			return Collections.emptyList();
 		}
-		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-		CriteriaQuery<T> query = cb.createQuery(entityClass);
-		Root<T> root = query.from(entityClass);
-		query.select(root).where(root.get(fieldName).in(values));
-		if (orderByField != null) {
-			Order order = sortOrder == SortOrder.DESC ?
-					cb.desc(root.get(orderByField)) :
-					cb.asc(root.get(orderByField));
-			query.orderBy(order);
+		List<T> results = selectInChunks(values, false, (em, chunk) -> {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<T> query = cb.createQuery(entityClass);
+			Root<T> root = query.from(entityClass);
+			query.select(root).where(root.get(fieldName).in(chunk));
+			if (orderByField != null) {
+				Order order = sortOrder == SortOrder.DESC ?
+						cb.desc(root.get(orderByField)) :
+						cb.asc(root.get(orderByField));
+				query.orderBy(order);
+			}
+			return em.createQuery(query).getResultList();
+		});
+		if (orderByField != null && values.size() > maxChunkSize()) {
+			results.sort(fieldComparator(orderByField, sortOrder));
 		}
-		return entityManager.createQuery(query).getResultList();
+		return results;
+	}
+
+	/**
+	 * Runs a multi-value lookup one chunk at a time and merges the rows. Values are deduplicated
+	 * and split into chunks of Constants.IN_LIST_CHUNK_SIZES, the last one padded by repeating
+	 * its final value, so only a handful of statement shapes ever reach the database.
+	 *
+	 * When parallel is set and there is more than one chunk, chunks run concurrently on the
+	 * query executor, each in its own read-only connection. Those connections cannot see rows
+	 * written by the caller's open transaction and return detached entities, so use it only
+	 * for read-only lookups of committed data.
+	 */
+	protected <V, R> List<R> selectInChunks(Collection<V> values, boolean parallel,
+											BiFunction<EntityManager, List<V>, List<R>> chunkQuery) {
+		List<List<V>> chunks = toPaddedChunks(values);
+		List<R> results = new ArrayList<>();
+		if (!parallel || chunks.size() == 1) {
+			chunks.forEach(chunk -> results.addAll(chunkQuery.apply(entityManager, chunk)));
+			return results;
+		}
+		List<CompletableFuture<List<R>>> futures = chunks.stream()
+				.map(chunk -> CompletableFuture.supplyAsync(() -> selectOnOwnConnection(chunk, chunkQuery), queryExecutor))
+				.collect(Collectors.toList());
+		try {
+			futures.forEach(future -> results.addAll(future.join()));
+		} catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(true));
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		}
+		return results;
+	}
+
+	private static <V> List<List<V>> toPaddedChunks(Collection<V> values) {
+		List<V> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+		int maxChunkSize = maxChunkSize();
+		List<List<V>> chunks = new ArrayList<>();
+		for (int start = 0; start < distinct.size(); start += maxChunkSize) {
+			List<V> chunk = new ArrayList<>(distinct.subList(start, Math.min(start + maxChunkSize, distinct.size())));
+			int paddedSize = paddedSize(chunk.size());
+			V last = chunk.get(chunk.size() - 1);
+			while (chunk.size() < paddedSize) {
+				chunk.add(last);
+			}
+			chunks.add(chunk);
+		}
+		return chunks;
+	}
+
+	private <V, R> List<R> selectOnOwnConnection(List<V> chunk, BiFunction<EntityManager, List<V>, List<R>> chunkQuery) {
+		EntityManager em = entityManagerFactory.createEntityManager();
+		try {
+			em.unwrap(Session.class).setDefaultReadOnly(true);
+			em.getTransaction().begin();
+			List<R> rows = chunkQuery.apply(em, chunk);
+			em.getTransaction().commit();
+			return rows;
+		} finally {
+			if (em.getTransaction().isActive()) {
+				em.getTransaction().rollback();
+			}
+			em.close();
+		}
+	}
+
+	private static int maxChunkSize() {
+		return Constants.IN_LIST_CHUNK_SIZES[Constants.IN_LIST_CHUNK_SIZES.length - 1];
+	}
+
+	private static int paddedSize(int size) {
+		for (int chunkSize : Constants.IN_LIST_CHUNK_SIZES) {
+			if (size <= chunkSize) {
+				return chunkSize;
+			}
+		}
+		return maxChunkSize();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Comparator<T> fieldComparator(String fieldName, SortOrder sortOrder) {
+		Comparator<T> comparator = Comparator.comparing(
+				pojo -> (Comparable<Object>) new BeanWrapperImpl(pojo).getPropertyValue(fieldName),
+				Comparator.nullsFirst(Comparator.naturalOrder()));
+		return sortOrder == SortOrder.DESC ? comparator.reversed() : comparator;
 	}
 
 	protected <R> TypedQuery<R> getQuery(String jpql, Class<R> resultClass) {
 		return entityManager.createQuery(jpql, resultClass);
 	}
 
+	/**
+	 * Runs a scalar JPQL query through a forward-only cursor and hands every row to the consumer.
+	 * Nothing is collected in memory, so the cost stays flat regardless of how many rows match.
+	 * Returns the number of rows read.
+	 */
+	protected long scroll(String jpql, Map<String, Object> params, int fetchSize, Consumer<Object[]> rowConsumer) {
+		Session session = entityManager.unwrap(Session.class);
+		Query<Object[]> query = session.createQuery(jpql, Object[].class);
+		params.forEach(query::setParameter);
+		query.setFetchSize(fetchSize);
+		query.setReadOnly(true);
+		long rowCount = 0;
+		try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+			while (results.next()) {
+				rowConsumer.accept(results.get());
+				rowCount++;
+			}
+		}
+		return rowCount;
+	}
+
 	public enum SortOrder {
 		ASC, DESC
 	}
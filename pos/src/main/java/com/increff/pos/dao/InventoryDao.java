@@ -2,23 +2,57 @@ package com.increff.pos.dao;
 
 import com.increff.pos.entity.InventoryPojo;
 import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.InventoryDetailModel;
 import com.increff.pos.model.enums.ErrorType;
 import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
 import javax.transaction.Transactional;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Repository
 @Transactional
 public class InventoryDao extends AbstractDao<InventoryPojo> {
 
+    private static final String EXPORT_INVENTORY = "select p.barcode, p.name, p.clientId, p.mrp, i.quantity " +
+            "from InventoryPojo i, ProductPojo p where p.id = i.productId order by p.barcode asc";
+
+    private static final String STOCK_VALUATION = "select c.clientId, c.name, count(p.id), sum(i.quantity), " +
+            "sum(i.quantity * p.mrp) from InventoryPojo i, ProductPojo p, ClientPojo c " +
+            "where p.id = i.productId and c.clientId = p.clientId " +
+            "group by c.clientId, c.name order by c.clientId asc";
+
+    private static final String OUT_OF_STOCK = "select p.barcode, p.name, p.clientId, p.mrp " +
+            "from ProductPojo p left join InventoryPojo i on i.productId = p.id " +
+            "where i.id is null or i.quantity <= 0 order by p.barcode asc";
+
+    private static final String LOW_STOCK = "select p.barcode, p.name, p.clientId, p.mrp, i.quantity " +
+            "from InventoryPojo i, ProductPojo p where p.id = i.productId and i.quantity < :threshold " +
+            "order by i.quantity asc, p.barcode asc";
+
+    private static final String EXISTING_PRODUCT_IDS = "select p.id from ProductPojo p where p.id in (:productIds)";
+
+    private static final String LOCK_INVENTORY = "select i from InventoryPojo i where i.productId in (:productIds) " +
+            "order by i.productId asc";
+
+    private static final String STOCK_LEVELS = "select i.productId, i.quantity, i.reorderThreshold from InventoryPojo i";
+
+    private static final String INVENTORY_DETAILS = "select new com.increff.pos.model.InventoryDetailModel(" +
+            "i.id, i.productId, i.quantity, i.reorderThreshold, p.barcode, p.name, p.mrp, c.clientId, c.name) " +
+            "from InventoryPojo i, ProductPojo p, ClientPojo c where p.id = i.productId and c.clientId = p.clientId";
+
     public InventoryDao() {
         super(InventoryPojo.class);
     }
@@ -27,37 +61,42 @@ public class InventoryDao extends AbstractDao<InventoryPojo> {
         return selectByField("productId", productId);
     }
 
-    public List<InventoryPojo> findByProductNameLike(String productName, String barcode, int page, int size) {
-        String sql = "SELECT i.* FROM inventory i " + "JOIN product p ON i.product_id = p.id " +
-                "WHERE i.quantity > 0";
-        // Build dynamic conditions
-        if (productName != null && !productName.trim().isEmpty()) {
-            sql += " AND LOWER(p.name) LIKE ?";
+    /**
+     * Searches stocked inventory by name and barcode prefix and returns it joined with product
+     * and client details in one query. Prefixes are matched against the lowercase search columns
+     * so the product indexes stay usable.
+     */
+    public List<InventoryDetailModel> searchWithProductDetails(String productName, String barcode, int page, int size) {
+        StringBuilder jpql = new StringBuilder(INVENTORY_DETAILS).append(" and i.quantity > 0");
+        if (productName != null && !productName.isEmpty()) {
+            jpql.append(" and p.nameLower like :productName");
         }
-        if (barcode != null && !barcode.trim().isEmpty()) {
-            sql += " AND LOWER(p.barcode) LIKE ?";
+        if (barcode != null && !barcode.isEmpty()) {
+            jpql.append(" and p.barcodeLower like :barcode");
         }
-        sql += " ORDER BY p.name ASC LIMIT ? OFFSET ?";
-        Query nativeQuery = entityManager.createNativeQuery(sql, InventoryPojo.class);
-        int paramIndex = 1;
-        if (productName != null && !productName.trim().isEmpty()) {
-            nativeQuery.setParameter(paramIndex++, productName.toLowerCase() + "%");
+        jpql.append(" order by p.nameLower asc");
+        TypedQuery<InventoryDetailModel> query = entityManager.createQuery(jpql.toString(), InventoryDetailModel.class);
+        if (productName != null && !productName.isEmpty()) {
+            query.setParameter("productName", productName + "%");
         }
-        if (barcode != null && !barcode.trim().isEmpty()) {
-            nativeQuery.setParameter(paramIndex++, barcode.toLowerCase() + "%");
+        if (barcode != null && !barcode.isEmpty()) {
+            query.setParameter("barcode", barcode + "%");
         }
-        nativeQuery.setParameter(paramIndex++, size);             // LIMIT
-        nativeQuery.setParameter(paramIndex, page * size);        // OFFSET
-        return nativeQuery.getResultList();
+        return query.setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
     }
 
     public void bulkInsert(List<Integer> productIds) {
         Session session = entityManager.unwrap(Session.class);
         session.doWork(connection -> {
-        String sql = "INSERT INTO inventory (product_id, quantity) VALUES (?, 0)";
+        String sql = "INSERT INTO inventory (product_id, quantity, version, created_at, updated_at) VALUES (?, 0, 0, ?, ?)";
+        Timestamp now = Timestamp.from(Instant.now());
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             for (Integer productId : productIds) {
                 stmt.setInt(1, productId);
+                stmt.setTimestamp(2, now);
+                stmt.setTimestamp(3, now);
                 stmt.addBatch();
             }
             stmt.executeBatch();
@@ -67,6 +106,10 @@ public class InventoryDao extends AbstractDao<InventoryPojo> {
         });
     }
 
+    /**
+     * Sends the rows as a single JDBC batch. With rewriteBatchedStatements on the MySQL driver
+     * turns it into multi-row INSERTs, so callers should pass fixed-size chunks.
+     */
     public void bulkUpsert(List<InventoryPojo> inventoryList) {
         Session session = entityManager.unwrap(Session.class);
         session.doWork(connection -> {
@@ -85,27 +128,14 @@ public class InventoryDao extends AbstractDao<InventoryPojo> {
     }
 
     public Map<Integer, Boolean> validateProductsExist(List<Integer> productIds) {
+        Set<Integer> foundIds = new HashSet<>(selectInChunks(productIds, false, (em, chunk) ->
+                em.createQuery(EXISTING_PRODUCT_IDS, Integer.class)
+                        .setParameter("productIds", chunk)
+                        .getResultList()));
         Map<Integer, Boolean> result = new HashMap<>();
-
-        Session session = entityManager.unwrap(Session.class);
-        session.doWork(connection -> {
-            String sql = "SELECT id FROM product WHERE id IN (" +
-                    productIds.stream().map(id -> "?").collect(Collectors.joining(",")) + ")";
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                for (int i = 0; i < productIds.size(); i++) {
-                    stmt.setInt(i + 1, productIds.get(i));
-                }
-                try (ResultSet rs = stmt.executeQuery()) {
-                    Set<Integer> foundIds = new HashSet<>();
-                    while (rs.next()) {
-                        foundIds.add(rs.getInt(1));
-                    }
-                    for (Integer id : productIds) {
-                        result.put(id, foundIds.contains(id));
-                    }
-                }
-            }
-        });
+        for (Integer id : productIds) {
+            result.put(id, foundIds.contains(id));
+        }
         return result;
     }
 
@@ -113,4 +143,70 @@ public class InventoryDao extends AbstractDao<InventoryPojo> {
         return selectByFieldValues("productId", productIds.stream().collect(Collectors.toSet()),
                 null, SortOrder.ASC );
     }
-}
\ No newline at end of file
+
+    public long scrollInventoryForExport(int fetchSize, Consumer<Object[]> rowConsumer) {
+        return scroll(EXPORT_INVENTORY, Collections.emptyMap(), fetchSize, rowConsumer);
+    }
+
+    public long scrollStockValuationByClient(int fetchSize, Consumer<Object[]> rowConsumer) {
+        return scroll(STOCK_VALUATION, Collections.emptyMap(), fetchSize, rowConsumer);
+    }
+
+    public long scrollOutOfStock(int fetchSize, Consumer<Object[]> rowConsumer) {
+        return scroll(OUT_OF_STOCK, Collections.emptyMap(), fetchSize, rowConsumer);
+    }
+
+    /**
+     * Adds each delta to its product's quantity in a single UPDATE, without loading the rows.
+     * Rows whose quantity would go below zero are left untouched, so a return value smaller than
+     * the number of products means at least one product was missing or would have gone negative.
+     */
+    public int bulkAdjust(Map<Integer, Integer> deltaByProductId) {
+        StringBuilder deltaCase = new StringBuilder("case i.productId");
+        for (int param = 0; param < deltaByProductId.size(); param++) {
+            deltaCase.append(" when :p").append(param).append(" then :d").append(param);
+        }
+        deltaCase.append(" end");
+        String jpql = "update InventoryPojo i set i.quantity = i.quantity + " + deltaCase +
+                ", i.version = i.version + 1, i.updatedAt = :updatedAt " +
+                "where i.productId in (:productIds) and i.quantity + " + deltaCase + " >= 0";
+        Query query = entityManager.createQuery(jpql);
+        int index = 0;
+        for (Map.Entry<Integer, Integer> entry : deltaByProductId.entrySet()) {
+            query.setParameter("p" + index, entry.getKey());
+            query.setParameter("d" + index, entry.getValue());
+            index++;
+        }
+        query.setParameter("productIds", deltaByProductId.keySet());
+        query.setParameter("updatedAt", ZonedDateTime.now(ZoneOffset.UTC));
+        return query.executeUpdate();
+    }
+
+    public List<Object[]> selectStockLevelsByProductIds(Collection<Integer> productIds) {
+        return selectInChunks(productIds, false, (em, chunk) ->
+                em.createQuery(STOCK_LEVELS + " where i.productId in (:productIds)", Object[].class)
+                        .setParameter("productIds", chunk)
+                        .getResultList());
+    }
+
+    /**
+     * Selects the inventory rows with a write lock held until the transaction ends. Rows are
+     * locked in product id order, so callers locking overlapping carts cannot deadlock.
+     */
+    public List<InventoryPojo> selectForUpdate(Collection<Integer> productIds) {
+        List<Integer> sortedIds = productIds.stream().sorted().distinct().collect(Collectors.toList());
+        return selectInChunks(sortedIds, false, (em, chunk) ->
+                em.createQuery(LOCK_INVENTORY, InventoryPojo.class)
+                        .setParameter("productIds", chunk)
+                        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                        .getResultList());
+    }
+
+    public long scrollStockLevels(int fetchSize, Consumer<Object[]> rowConsumer) {
+        return scroll(STOCK_LEVELS, Collections.emptyMap(), fetchSize, rowConsumer);
+    }
+
+    public long scrollBelowThreshold(int threshold, int fetchSize, Consumer<Object[]> rowConsumer) {
+        return scroll(LOW_STOCK, Collections.singletonMap("threshold", threshold), fetchSize, rowConsumer);
+    }
+}
@@ -8,12 +8,25 @@ import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Repository
 @Transactional
 public class OrderDao extends AbstractDao<OrdersPojo> {
 
+    private static final String EXPORT_ORDER_ITEMS = "select o.id, o.time, p.barcode, p.name, oi.quantity, oi.sellingPrice " +
+            "from OrdersPojo o, OrderItemsPojo oi, ProductPojo p " +
+            "where oi.orderId = o.id and p.id = oi.productId and o.time >= :startDate and o.time <= :endDate " +
+            "order by o.id asc, oi.id asc";
+
+    private static final String ORDER_TOTALS_SINCE = "select o.time, sum(oi.quantity), sum(oi.quantity * oi.sellingPrice) " +
+            "from OrdersPojo o, OrderItemsPojo oi " +
+            "where oi.orderId = o.id and o.time >= :startDate " +
+            "group by o.id, o.time";
+
     public OrderDao() {
         super(OrdersPojo.class);
     }
@@ -60,4 +73,16 @@ public class OrderDao extends AbstractDao<OrdersPojo> {
 
         entityManager.createQuery(update).executeUpdate();
     }
-}
\ No newline at end of file
+
+    public long scrollOrderItemsForExport(ZonedDateTime startDate, ZonedDateTime endDate, int fetchSize,
+                                          Consumer<Object[]> rowConsumer) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("startDate", startDate);
+        params.put("endDate", endDate);
+        return scroll(EXPORT_ORDER_ITEMS, params, fetchSize, rowConsumer);
+    }
+
+    public long scrollOrderTotalsSince(ZonedDateTime startDate, int fetchSize, Consumer<Object[]> rowConsumer) {
+        return scroll(ORDER_TOTALS_SINCE, Collections.singletonMap("startDate", startDate), fetchSize, rowConsumer);
+    }
+}
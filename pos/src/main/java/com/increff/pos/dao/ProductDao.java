@@ -2,6 +2,8 @@ package com.increff.pos.dao;
 
 import com.increff.pos.entity.ProductPojo;
 import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.AvailabilityModel;
+import com.increff.pos.model.ProductSearchDocModel;
 import com.increff.pos.model.enums.ErrorType;
 import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
@@ -11,14 +13,30 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
 import javax.transaction.Transactional;
 
 @Repository
 @Transactional
 public class ProductDao extends AbstractDao<ProductPojo> {
 
+    private static final String AVAILABILITY_BY_BARCODE = "select new com.increff.pos.model.AvailabilityModel(" +
+            "p.id, p.barcode, p.mrp, i.quantity) from ProductPojo p left join InventoryPojo i on i.productId = p.id " +
+            "where p.barcode = :barcode";
+
+    private static final String IDS_BY_BARCODES = "select p.barcode, p.id from ProductPojo p where p.barcode in (:barcodes)";
+
+    private static final String ALL_BARCODES = "select p.id, p.barcode from ProductPojo p";
+
+    private static final String ALL_SEARCH_DOCS = "select p.id, p.barcode, p.name, p.clientId, c.name " +
+            "from ProductPojo p, ClientPojo c where c.clientId = p.clientId";
+
     public ProductDao() {
         super(ProductPojo.class);
     }
@@ -27,6 +45,48 @@ public class ProductDao extends AbstractDao<ProductPojo> {
        return selectByField("barcode", barcode);
     }
 
+    public AvailabilityModel selectAvailabilityByBarcode(String barcode) {
+        List<AvailabilityModel> result = entityManager.createQuery(AVAILABILITY_BY_BARCODE, AvailabilityModel.class)
+                .setParameter("barcode", barcode)
+                .getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Maps barcodes to product ids with chunked IN-list lookups, optionally run in parallel.
+     */
+    public Map<String, Integer> selectIdsByBarcodes(Collection<String> barcodes, boolean parallel) {
+        Map<String, Integer> idByBarcode = new HashMap<>();
+        if (barcodes.isEmpty()) {
+            return idByBarcode;
+        }
+        List<Object[]> rows = selectInChunks(barcodes, parallel, (em, chunk) ->
+                em.createQuery(IDS_BY_BARCODES, Object[].class)
+                        .setParameter("barcodes", chunk)
+                        .getResultList());
+        for (Object[] row : rows) {
+            idByBarcode.put((String) row[0], (Integer) row[1]);
+        }
+        return idByBarcode;
+    }
+
+    public long scrollBarcodes(int fetchSize, Consumer<Object[]> rowConsumer) {
+        return scroll(ALL_BARCODES, Collections.emptyMap(), fetchSize, rowConsumer);
+    }
+
+    /**
+     * Streams every product joined with its client name, as needed to rebuild the search index.
+     */
+    public long scrollSearchDocuments(int fetchSize, Consumer<ProductSearchDocModel> docConsumer) {
+        return scroll(ALL_SEARCH_DOCS, Collections.emptyMap(), fetchSize, row -> docConsumer.accept(
+                new ProductSearchDocModel((Integer) row[0], (String) row[1], (String) row[2], (Integer) row[3],
+                        (String) row[4])));
+    }
+
+    public List<ProductPojo> selectByIds(Collection<Integer> ids) {
+        return selectByFieldValues("id", ids, null, SortOrder.ASC);
+    }
+
     public List<ProductPojo> selectByBarcodes(Set<String> barcodes) {
         return selectByFieldValues("barcode", barcodes, null, SortOrder.ASC);
     }
@@ -39,10 +99,10 @@ public class ProductDao extends AbstractDao<ProductPojo> {
 
         // Add search predicates
         if (!Objects.isNull(barcode) && !barcode.isEmpty()) {
-            predicates.add(cb.like(cb.lower(root.get("barcode")), barcode + "%"));
+            predicates.add(cb.like(root.get("barcodeLower"), barcode + "%"));
         }
         if (!Objects.isNull(productName) && !productName.isEmpty()) {
-            predicates.add(cb.like(cb.lower(root.get("name")), productName + "%"));
+            predicates.add(cb.like(root.get("nameLower"), productName + "%"));
         }
 
         // Apply predicates if any
@@ -51,7 +111,7 @@ public class ProductDao extends AbstractDao<ProductPojo> {
         }
 
         // Order by name
-        query.orderBy(cb.asc(root.get("name")));
+        query.orderBy(cb.asc(root.get("nameLower")));
 
         // Apply pagination
         return entityManager.createQuery(query)
@@ -60,25 +120,79 @@ public class ProductDao extends AbstractDao<ProductPojo> {
                 .getResultList();
     }
 
+    /**
+     * Fills the lowercase search columns for rows written before they existed.
+     */
+    public int backfillSearchColumns() {
+        return entityManager.createQuery("update ProductPojo p set p.nameLower = lower(p.name), " +
+                "p.barcodeLower = lower(p.barcode) where p.nameLower is null or p.barcodeLower is null")
+                .executeUpdate();
+    }
+
+    /**
+     * Inserts the products as one JDBC batch and sets each generated id on its pojo, in insert
+     * order. Callers should pass fixed-size chunks; see InventoryDao.bulkUpsert.
+     */
     public void bulkInsert(List<ProductPojo> products) {
         // Get the underlying JDBC connection for batch processing
         Session session = entityManager.unwrap(Session.class);
         session.doWork(connection -> {
-            String sql = "INSERT INTO product (barcode, client_id, name, mrp, image_url) VALUES (?, ?, ?, ?, ?)";
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            String sql = "INSERT INTO product (barcode, client_id, name, mrp, image_url, name_lower, barcode_lower, " +
+                    "version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+            Timestamp now = Timestamp.from(Instant.now());
+            try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
                 for (ProductPojo product : products) {
                     stmt.setString(1, product.getBarcode());
                     stmt.setInt(2, product.getClientId());
                     stmt.setString(3, product.getName());
                     stmt.setDouble(4, product.getMrp());
                     stmt.setString(5, product.getImageUrl());
+                    stmt.setString(6, product.getName().toLowerCase(Locale.ROOT));
+                    stmt.setString(7, product.getBarcode().toLowerCase(Locale.ROOT));
+                    stmt.setTimestamp(8, now);
+                    stmt.setTimestamp(9, now);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    Iterator<ProductPojo> pending = products.iterator();
+                    while (keys.next() && pending.hasNext()) {
+                        pending.next().setId(keys.getInt(1));
+                    }
+                    if (pending.hasNext()) {
+                        throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Product ids were not returned by the batch insert");
+                    }
+                }
+            } catch (SQLException e) {
+                throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Failed inserting product data: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Updates name, MRP and image URL by barcode as one JDBC batch. The lowercase search column
+     * and version are kept in step with what Hibernate would write.
+     */
+    public void bulkUpdate(List<ProductPojo> products) {
+        Session session = entityManager.unwrap(Session.class);
+        session.doWork(connection -> {
+            String sql = "UPDATE product SET mrp = ?, name = ?, image_url = ?, name_lower = ?, " +
+                    "version = version + 1, updated_at = ? WHERE barcode = ?";
+            Timestamp now = Timestamp.from(Instant.now());
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                for (ProductPojo product : products) {
+                    stmt.setDouble(1, product.getMrp());
+                    stmt.setString(2, product.getName());
+                    stmt.setString(3, product.getImageUrl());
+                    stmt.setString(4, product.getName().toLowerCase(Locale.ROOT));
+                    stmt.setTimestamp(5, now);
+                    stmt.setString(6, product.getBarcode());
                     stmt.addBatch();
                 }
                 stmt.executeBatch();
             } catch (SQLException e) {
-                throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Failed inserting product data");
+                throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Failed updating product data: " + e.getMessage());
             }
         });
     }
-}
\ No newline at end of file
+}
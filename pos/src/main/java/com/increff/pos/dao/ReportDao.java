@@ -9,7 +9,10 @@ import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * DAO layer for Report entity operations
@@ -18,6 +21,9 @@ import java.util.List;
 @Repository
 public class ReportDao extends AbstractDao<DaySalesPojo> {
 
+    private static final String EXPORT_DAY_SALES = "select d.date, d.invoicedOrdersCount, d.invoicedItemsCount, d.totalRevenue " +
+            "from DaySalesPojo d where d.date >= :startDate and d.date <= :endDate order by d.date asc";
+
     public ReportDao() {
         super(DaySalesPojo.class);
     }
@@ -29,4 +35,12 @@ public class ReportDao extends AbstractDao<DaySalesPojo> {
     public DaySalesPojo getDaySalesByDate(ZonedDateTime date) {
         return selectByField("date", date);
     }
+
+    public long scrollDaySalesForExport(ZonedDateTime startDate, ZonedDateTime endDate, int fetchSize,
+                                        Consumer<Object[]> rowConsumer) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("startDate", startDate);
+        params.put("endDate", endDate);
+        return scroll(EXPORT_DAY_SALES, params, fetchSize, rowConsumer);
+    }
 }
@@ -1,10 +1,12 @@
 package com.increff.pos.dao;
 
 import com.increff.pos.entity.UserPojo;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.TypedQuery;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Repository
@@ -18,7 +20,8 @@ public class UserDao extends AbstractDao<UserPojo> {
 
     public Optional<UserPojo> selectByEmail(String email) {
         TypedQuery<UserPojo> query = getQuery(select_by_email, UserPojo.class);
-        query.setParameter("email", email.toLowerCase().trim());
+        query.setParameter("email", email.toLowerCase(Locale.ROOT).trim());
+        query.setHint(QueryHints.HINT_CACHEABLE, true);
         List<UserPojo> users = query.getResultList();
         return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
     }
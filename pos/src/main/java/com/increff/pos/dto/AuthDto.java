@@ -8,12 +8,15 @@ import com.increff.pos.model.form.SignupForm;
 import com.increff.pos.model.response.LoginResponse;
 import com.increff.pos.model.response.UserResponse;
 import com.increff.pos.util.JwtUtil;
-import org.apache.log4j.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static com.increff.pos.util.StringUtil.normalize;
 import static com.increff.pos.util.StringUtil.toLowerCase;
@@ -21,7 +24,7 @@ import static com.increff.pos.util.StringUtil.toLowerCase;
 @Service
 public class AuthDto {
 
-    private static final Logger logger = Logger.getLogger(AuthDto.class);
+    private static final Logger logger = LoggerFactory.getLogger(AuthDto.class);
 
     @Autowired
     private AuthApi api;
@@ -33,13 +36,31 @@ public class AuthDto {
         return api.signup(normalize(signupForm.getName()), toLowerCase(signupForm.getEmail()), signupForm.getPassword());
     }
 
-    public LoginResponse login(LoginForm loginForm, HttpServletRequest httpRequest) {
-        UserResponse user = api.login(normalize(loginForm.getEmail()), loginForm.getPassword());
-        
+    /**
+     * Verifies the password on the credential pool and finishes the login on the pool thread, so
+     * no request thread waits for the hash. A failed login completes the future with the
+     * ApiException itself.
+     */
+    public CompletableFuture<LoginResponse> login(LoginForm loginForm, HttpServletRequest httpRequest) {
+        String email = normalize(loginForm.getEmail());
+        CompletableFuture<LoginResponse> result = new CompletableFuture<>();
+        api.verifyLogin(email, loginForm.getPassword())
+                .thenApply(passwordHash -> toLoginResponse(api.completeLogin(email, passwordHash)))
+                .whenComplete((response, error) -> {
+                    if (error == null) {
+                        result.complete(response);
+                    } else {
+                        result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    }
+                });
+        return result;
+    }
+
+    private LoginResponse toLoginResponse(UserResponse user) {
         // Generate JWT token instead of using session
         String token = jwtUtil.generateToken(user.getId(), user.getRole().name());
-        logger.info("JWT token generated for user: " + user.getId() + " with role: " + user.getRole());
-        
+        logger.info("JWT token generated for user: {} with role: {}", user.getId(), user.getRole());
         return new LoginResponse("Login successful", user, token);
     }
 
@@ -1,26 +1,40 @@
 package com.increff.pos.dto;
 
 import com.increff.pos.api.InventoryApi;
+import com.increff.pos.api.LowStockAlertApi;
+import com.increff.pos.api.MetricsApi;
 import com.increff.pos.entity.InventoryPojo;
+import com.increff.pos.exception.ApiException;
 import com.increff.pos.flow.InventoryFlow;
+import com.increff.pos.model.InventoryDetailModel;
+import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.model.enums.ExportFormat;
+import com.increff.pos.model.form.InventoryAdjustForm;
+import com.increff.pos.model.form.InventoryThresholdForm;
 import com.increff.pos.model.form.InventoryUpdateForm;
 import com.increff.pos.model.response.InventoryResponse;
+import com.increff.pos.model.response.LowStockAlertResponse;
+import com.increff.pos.model.response.StockLevelResponse;
 import com.increff.pos.model.form.InventoryForm;
-import com.increff.pos.model.form.InventoryFormWithRow;
 import com.increff.pos.model.response.UploadResponse;
 import com.increff.pos.model.response.ValidationError;
+import com.increff.pos.spring.ApplicationProperties;
 import com.increff.pos.util.ConvertUtil;
+import com.increff.pos.util.ExportResponseUtil;
 import com.increff.pos.util.TsvParserUtil;
 import com.increff.pos.util.TsvResponseUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import static com.increff.pos.util.StringUtil.normalize;
 import static com.increff.pos.util.StringUtil.toLowerCase;
 
 @Service
@@ -29,33 +43,48 @@ public class InventoryDto extends AbstractDto<InventoryForm> {
     @Autowired
     private InventoryApi inventoryApi;
 
+    @Autowired
+    private LowStockAlertApi lowStockAlertApi;
+
     @Autowired
     private ConvertUtil convertUtil;
 
     @Autowired
     private InventoryFlow flow;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MetricsApi metricsApi;
+
+    private static final String[] EXPORT_HEADERS = {"barcode", "product_name", "client_id", "mrp", "quantity"};
+    private static final String[] VALUATION_HEADERS =
+            {"client_id", "client_name", "product_count", "total_quantity", "stock_value"};
+    private static final String[] OUT_OF_STOCK_HEADERS = {"barcode", "product_name", "client_id", "mrp"};
+
     public List<InventoryResponse> searchInventory(String productName, String barcode, int page, int size) {
-        List<InventoryPojo> inventoryPojos = inventoryApi.searchInventory(toLowerCase(productName), toLowerCase(barcode), page, size);
-        return convertUtil.convertList(inventoryPojos, InventoryResponse.class);
+        List<InventoryDetailModel> inventoryDetails = inventoryApi.searchInventory(toLowerCase(productName), toLowerCase(barcode), page, size);
+        return convertUtil.convertList(inventoryDetails, InventoryResponse.class);
     }
 
     public ResponseEntity<UploadResponse> uploadInventory(MultipartFile file) {
         validationUtil.validateTsvFile(file);
-        List<InventoryFormWithRow> allForms = TsvParserUtil.parseInventoryTsvWithRow(file);
-        List<ValidationError> allErrors = new ArrayList<>();
-        allErrors.addAll(validateInventoryForms(allForms));
-
-        List<InventoryFormWithRow> validForms = filterValidForms(allForms, allErrors);
-        Map<Integer, ValidationError> flowErrors = flow.validateInventoryUpload(validForms);
-        allErrors.addAll(flowErrors.values());
-
-        List<InventoryFormWithRow> finalValidForms = filterValidForms(validForms, allErrors);
-        if (!finalValidForms.isEmpty() && allErrors.isEmpty()) {
-            flow.processTsvUpload(finalValidForms);
+        AtomicInteger rows = new AtomicInteger();
+        Map<Integer, ValidationError> errorByRow;
+        try {
+            errorByRow = flow.processTsvUpload(consumer -> TsvParserUtil.forEachInventoryRow(file, formWithRow -> {
+                rows.incrementAndGet();
+                consumer.accept(formWithRow);
+            }));
+        } catch (RuntimeException e) {
+            metricsApi.recordFailedUpload("inventory", rows.get());
+            throw e;
         }
+        List<ValidationError> allErrors = new ArrayList<>(new TreeMap<>(errorByRow).values());
+        metricsApi.recordUploadRows("inventory", rows.get(), allErrors);
 
-        UploadResponse response = TsvResponseUtil.createInventoryUploadResponse(allForms, allErrors);
+        UploadResponse response = TsvResponseUtil.createInventoryUploadResponse(file, allErrors);
         return ResponseEntity.ok(response);
     }
 
@@ -66,18 +95,66 @@ public class InventoryDto extends AbstractDto<InventoryForm> {
         return convertUtil.convert(updated, InventoryResponse.class);
     }
 
-    private List<ValidationError> validateInventoryForms(List<InventoryFormWithRow> inventoryFormsWithRow) {
-        return validationUtil.validateInventoryFormsWithRow(inventoryFormsWithRow);
+    public List<InventoryResponse> adjustInventory(List<InventoryAdjustForm> adjustForms) {
+        validationUtil.validateForms(adjustForms);
+        for (InventoryAdjustForm form : adjustForms) {
+            if (form.getProductId() == null && (form.getBarcode() == null || form.getBarcode().trim().isEmpty())) {
+                throw new ApiException(ErrorType.BAD_REQUEST, "Either product Id or barcode is required");
+            }
+            form.setBarcode(normalize(form.getBarcode()));
+        }
+        Map<Integer, Integer> quantityByProductId = flow.adjustInventory(adjustForms);
+        return quantityByProductId.entrySet().stream()
+                .map(entry -> {
+                    InventoryResponse response = new InventoryResponse();
+                    response.setProductId(entry.getKey());
+                    response.setQuantity(entry.getValue());
+                    return response;
+                })
+                .collect(Collectors.toList());
     }
 
-    private List<InventoryFormWithRow> filterValidForms(List<InventoryFormWithRow> allForms, List<ValidationError> allErrors) {
-        Set<Integer> invalidRows = allErrors.stream()
-                .map(ValidationError::getRowNumber)
-                .collect(Collectors.toSet());
+    public InventoryResponse updateReorderThreshold(Integer productId, InventoryThresholdForm thresholdForm) {
+        validateId(productId, "product Id");
+        validateForm(thresholdForm);
+        InventoryPojo updated = inventoryApi.updateReorderThreshold(productId, thresholdForm.getThreshold());
+        return convertUtil.convert(updated, InventoryResponse.class);
+    }
 
-        return allForms.stream()
-                .filter(form -> !invalidRows.contains(form.getRowNumber()))
-                .collect(Collectors.toList());
+    public List<StockLevelResponse> getBelowThreshold(int limit) {
+        if (limit <= 0) {
+            throw new ApiException(ErrorType.BAD_REQUEST, "Limit must be positive");
+        }
+        return convertUtil.convertList(lowStockAlertApi.getBelowThreshold(limit), StockLevelResponse.class);
+    }
+
+    public List<LowStockAlertResponse> getLowStockAlerts(long afterSequence) {
+        return convertUtil.convertList(lowStockAlertApi.getAlertsAfter(afterSequence), LowStockAlertResponse.class);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportInventory(ExportFormat format) {
+        return ExportResponseUtil.stream("inventory", format, EXPORT_HEADERS,
+                writer -> inventoryApi.exportInventory(applicationProperties.getExportFetchSize(), writer::writeRow));
+    }
+
+    public ResponseEntity<StreamingResponseBody> getStockValuationReport(ExportFormat format) {
+        return ExportResponseUtil.stream("stock_valuation", format, VALUATION_HEADERS,
+                writer -> inventoryApi.reportStockValuation(applicationProperties.getExportFetchSize(), writer::writeRow));
+    }
+
+    public ResponseEntity<StreamingResponseBody> getOutOfStockReport(ExportFormat format) {
+        return ExportResponseUtil.stream("out_of_stock", format, OUT_OF_STOCK_HEADERS,
+                writer -> inventoryApi.reportOutOfStock(applicationProperties.getExportFetchSize(), writer::writeRow));
+    }
+
+    public ResponseEntity<StreamingResponseBody> getLowStockReport(Integer threshold, ExportFormat format) {
+        int effectiveThreshold = threshold != null ? threshold : applicationProperties.getLowStockThreshold();
+        if (effectiveThreshold <= 0) {
+            throw new ApiException(ErrorType.BAD_REQUEST, "Threshold must be positive");
+        }
+        return ExportResponseUtil.stream("low_stock", format, EXPORT_HEADERS,
+                writer -> inventoryApi.reportBelowThreshold(effectiveThreshold,
+                        applicationProperties.getExportFetchSize(), writer::writeRow));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.increff.pos.dto;
+
+import com.increff.pos.api.AvailabilityCacheApi;
+import com.increff.pos.api.CatalogCacheApi;
+import com.increff.pos.api.DbPoolMetricsApi;
+import com.increff.pos.api.MetricsApi;
+import com.increff.pos.model.CacheStatsModel;
+import com.increff.pos.model.DbPoolStatsModel;
+import com.increff.pos.util.PrometheusTextWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MetricsDto {
+
+    @Autowired
+    private MetricsApi metricsApi;
+
+    @Autowired
+    private CatalogCacheApi catalogCacheApi;
+
+    @Autowired
+    private AvailabilityCacheApi availabilityCacheApi;
+
+    @Autowired
+    private DbPoolMetricsApi dbPoolMetricsApi;
+
+    /**
+     * Renders the recorded timers and counters, followed by cache and connection pool figures
+     * read from their own statistics at scrape time.
+     */
+    public String scrape() {
+        PrometheusTextWriter writer = new PrometheusTextWriter();
+        metricsApi.writeTo(writer);
+
+        CacheStatsModel catalog = catalogCacheApi.getStats();
+        CacheStatsModel availability = availabilityCacheApi.getStats();
+        writeCacheCounter(writer, "pos_cache_hits_total", catalog.getHits(),
+                availability.getHits() + availability.getNegativeHits());
+        writeCacheCounter(writer, "pos_cache_misses_total", catalog.getMisses(), availability.getMisses());
+        writeCacheCounter(writer, "pos_cache_evictions_total", catalog.getEvictions(), availability.getEvictions());
+        writer.type("pos_cache_size", "gauge")
+                .sample("pos_cache_size", PrometheusTextWriter.labels("cache", "catalog"), catalog.getSize())
+                .sample("pos_cache_size", PrometheusTextWriter.labels("cache", "availability"), availability.getSize());
+
+        DbPoolStatsModel pool = dbPoolMetricsApi.getStats();
+        writer.type("pos_db_pool_connections", "gauge")
+                .sample("pos_db_pool_connections", PrometheusTextWriter.labels("state", "active"), pool.getActiveConnections())
+                .sample("pos_db_pool_connections", PrometheusTextWriter.labels("state", "idle"), pool.getIdleConnections())
+                .sample("pos_db_pool_connections", PrometheusTextWriter.labels("state", "max"), pool.getMaxConnections());
+        writer.type("pos_db_pool_waiting_threads", "gauge")
+                .sample("pos_db_pool_waiting_threads", null, pool.getWaitingThreads());
+        writer.type("pos_db_pool_acquire_timeouts_total", "counter")
+                .sample("pos_db_pool_acquire_timeouts_total", null, pool.getAcquireTimeouts());
+        return writer.toString();
+    }
+
+    private static void writeCacheCounter(PrometheusTextWriter writer, String name, long catalog, long availability) {
+        writer.type(name, "counter")
+                .sample(name, PrometheusTextWriter.labels("cache", "catalog"), catalog)
+                .sample(name, PrometheusTextWriter.labels("cache", "availability"), availability);
+    }
+}
@@ -7,14 +7,19 @@ import com.increff.pos.flow.OrderFlow;
 import com.increff.pos.entity.OrderItemsPojo;
 import com.increff.pos.entity.OrdersPojo;
 import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.model.enums.ExportFormat;
 import com.increff.pos.model.form.OrderItemForm;
 import com.increff.pos.model.response.OrderItemResponse;
 import com.increff.pos.model.response.OrderResponse;
 import com.increff.pos.util.ConvertUtil;
 import com.increff.pos.util.DateUtil;
 import com.increff.pos.api.ProductApi;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.ExportResponseUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
@@ -40,9 +45,19 @@ public class OrderDto extends AbstractDto<OrderItemForm> {
     @Autowired
     private ConvertUtil convertUtil;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private static final String[] EXPORT_HEADERS =
+            {"order_id", "time", "barcode", "product_name", "quantity", "selling_price"};
+
     public OrderResponse createOrders(List<OrderItemForm> orderItems) {
+        return createOrders(orderItems, null);
+    }
+
+    public OrderResponse createOrders(List<OrderItemForm> orderItems, String reservationId) {
         validationUtil.validateForms(orderItems);
-        OrdersPojo createdOrder = orderFlow.createOrder(orderItems);
+        OrdersPojo createdOrder = orderFlow.createOrder(orderItems, reservationId);
         List<OrderItemsPojo> orderItemPojos = orderItemApi.getOrderItemsByOrderId(createdOrder.getId());
         return convertToOrderResponse(createdOrder, orderItemPojos);
     }
@@ -68,6 +83,20 @@ public class OrderDto extends AbstractDto<OrderItemForm> {
         return convertToOrderResponse(order, orderItems);
     }
 
+    public ResponseEntity<StreamingResponseBody> exportOrders(LocalDate startDate, LocalDate endDate, ExportFormat format) {
+        if (startDate == null || endDate == null) {
+            throw new ApiException(ErrorType.BAD_REQUEST, "Start date and end date are required for export");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new ApiException(ErrorType.BAD_REQUEST, "End date cannot be before start date");
+        }
+        ZonedDateTime startDateTime = DateUtil.toStartOfDayUTC(startDate);
+        ZonedDateTime endDateTime = DateUtil.toEndOfDayUTC(endDate);
+        return ExportResponseUtil.stream("orders_" + startDate + "_" + endDate, format, EXPORT_HEADERS,
+                writer -> orderApi.exportOrderItems(startDateTime, endDateTime,
+                        applicationProperties.getExportFetchSize(), writer::writeRow));
+    }
+
     private OrderResponse convertToOrderResponse(OrdersPojo order, List<OrderItemsPojo> orderItems) {
         OrderResponse response = convertUtil.convert(order, OrderResponse.class);
         if (orderItems != null && !orderItems.isEmpty()) {
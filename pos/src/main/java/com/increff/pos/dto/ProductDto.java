@@ -1,9 +1,17 @@
 package com.increff.pos.dto;
 
+import com.increff.pos.api.AvailabilityCacheApi;
+import com.increff.pos.api.CatalogCacheApi;
+import com.increff.pos.api.MetricsApi;
 import com.increff.pos.api.ProductApi;
 import com.increff.pos.entity.ProductPojo;
+import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.AvailabilityModel;
+import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.flow.ProductFlow;
 import com.increff.pos.model.form.*;
+import com.increff.pos.model.response.AvailabilityResponse;
+import com.increff.pos.model.response.CacheStatsResponse;
 import com.increff.pos.model.response.ProductResponse;
 import com.increff.pos.model.response.UploadResponse;
 import com.increff.pos.model.response.ValidationError;
@@ -15,6 +23,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static com.increff.pos.util.StringUtil.toLowerCase;
@@ -32,9 +41,18 @@ public class ProductDto extends AbstractDto<ProductForm> {
     @Autowired
     private ConvertUtil convertUtil;
 
+    @Autowired
+    private AvailabilityCacheApi availabilityCacheApi;
+
+    @Autowired
+    private CatalogCacheApi catalogCacheApi;
+
+    @Autowired
+    private MetricsApi metricsApi;
+
     public List<ProductResponse> searchProducts(ProductSearchForm searchRequest, int page, int size) {
-        List<ProductPojo> products = api.searchProducts(toLowerCase(searchRequest.getBarcode()),
-                toLowerCase(searchRequest.getProductName()), page, size);
+        List<ProductPojo> products = api.searchProducts(searchRequest.getQuery(),
+                toLowerCase(searchRequest.getBarcode()), toLowerCase(searchRequest.getProductName()), page, size);
         return convertUtil.convertList(products, ProductResponse.class);
     }
 
@@ -54,59 +72,81 @@ public class ProductDto extends AbstractDto<ProductForm> {
 
     public ResponseEntity<UploadResponse> uploadProducts(MultipartFile file) {
         validationUtil.validateTsvFile(file);
-        List<ProductFormWithRow> allForms = TsvParserUtil.parseProductTsv(file);
-        List<ValidationError> allErrors = validateAllProductForms(allForms);
-        if (allErrors.isEmpty()) {
-            createProductsFromValidForms(allForms, allErrors);
+        AtomicInteger rows = new AtomicInteger();
+        Map<Integer, ValidationError> errorByRow;
+        try {
+            errorByRow = flow.processProductTsvUpload(consumer -> TsvParserUtil.forEachProductRow(file,
+                    formWithRow -> {
+                        rows.incrementAndGet();
+                        consumer.accept(formWithRow);
+                    }));
+        } catch (RuntimeException e) {
+            metricsApi.recordFailedUpload("product", rows.get());
+            throw e;
         }
-        UploadResponse response = TsvResponseUtil.createProductUploadResponse(allForms, allErrors);
+        List<ValidationError> allErrors = new ArrayList<>(new TreeMap<>(errorByRow).values());
+        metricsApi.recordUploadRows("product", rows.get(), allErrors);
+        UploadResponse response = TsvResponseUtil.createProductUploadResponse(file, allErrors);
         return ResponseEntity.ok(response);
     }
 
-    public boolean checkProductExists(String barcode) {
-        return api.checkProductExists(toUpperCase(barcode));
+    public ResponseEntity<UploadResponse> uploadProductUpdates(MultipartFile file) {
+        validationUtil.validateTsvFile(file);
+        List<ProductBulkUpdateFormWithRow> allForms = TsvParserUtil.parseProductUpdateTsv(file);
+        List<ValidationError> allErrors;
+        try {
+            allErrors = applyProductUpdates(allForms);
+        } catch (RuntimeException e) {
+            metricsApi.recordFailedUpload("product_update", allForms.size());
+            throw e;
+        }
+        metricsApi.recordUploadRows("product_update", allForms.size(), allErrors);
+        return ResponseEntity.ok(TsvResponseUtil.createProductUpdateResponse(allForms, allErrors));
     }
 
-    private void createProductsFromValidForms(List<ProductFormWithRow> allForms, List<ValidationError> allErrors) {
-        List<ProductFormWithRow> validForms = filterValidProductForms(allForms, allErrors);
-        List<ProductPojo> productPojos = convertToProductPojos(validForms);
-        flow.processProductTsvUpload(productPojos);
+    public AvailabilityResponse getAvailability(String barcode) {
+        AvailabilityModel availability = availabilityCacheApi.getAvailability(toUpperCase(barcode), false);
+        if (availability == null) {
+            throw new ApiException(ErrorType.NOT_FOUND, "Product with barcode: " + barcode + " not found");
+        }
+        return convertUtil.convert(availability, AvailabilityResponse.class);
     }
 
-    private List<ValidationError> validateAllProductForms(List<ProductFormWithRow> allForms) {
-        List<ValidationError> allErrors = new ArrayList<>();
-        allErrors.addAll(validateProductForms(allForms));
-        List<ProductFormWithRow> validForms = filterValidProductForms(allForms, allErrors);
-        allErrors.addAll(validateProductWithFlow(validForms));
-        return allErrors;
+    public CacheStatsResponse getAvailabilityCacheStats() {
+        return convertUtil.convert(availabilityCacheApi.getStats(), CacheStatsResponse.class);
     }
 
-    private List<ValidationError> validateProductForms(List<ProductFormWithRow> productForms) {
-        return validationUtil.validateProductFormsWithRow(productForms);
+    public CacheStatsResponse getCatalogCacheStats() {
+        return convertUtil.convert(catalogCacheApi.getStats(), CacheStatsResponse.class);
     }
 
-    private List<ProductFormWithRow> filterValidProductForms(List<ProductFormWithRow> allForms, List<ValidationError> allErrors) {
+    public boolean checkProductExists(String barcode) {
+        return api.checkProductExists(toUpperCase(barcode));
+    }
+
+    /**
+     * Validates the update rows and, when none is invalid, applies them. Returns the errors.
+     */
+    private List<ValidationError> applyProductUpdates(List<ProductBulkUpdateFormWithRow> allForms) {
+        List<ValidationError> allErrors = new ArrayList<>(validationUtil.validateProductUpdateFormsWithRow(allForms));
+
         Set<Integer> invalidRows = allErrors.stream()
                 .map(ValidationError::getRowNumber)
                 .collect(Collectors.toSet());
-        return allForms.stream()
-                .filter(form -> !invalidRows.contains(form.getRowNumber()))
+        List<ProductBulkUpdateFormWithRow> validForms = allForms.stream()
+                .filter(formWithRow -> !invalidRows.contains(formWithRow.getRowNumber()))
                 .collect(Collectors.toList());
-    }
-
-    private List<ValidationError> validateProductWithFlow(List<ProductFormWithRow> validForms) {
-        if (validForms.isEmpty()) return Collections.emptyList();
-        Map<Integer, ValidationError> errorsByRowNum = flow.validateProductTsvUpload(validForms);
-        return errorsByRowNum.entrySet().stream()
+        Map<String, Integer> barcodeToProductId = validForms.isEmpty()
+                ? Collections.emptyMap() : flow.resolveUpdateBarcodes(validForms);
+        Map<Integer, ValidationError> flowErrors = flow.validateProductUpdateUpload(validForms, barcodeToProductId);
+        flowErrors.entrySet().stream()
                 .sorted(Map.Entry.comparingByKey())
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toList());
-    }
+                .forEach(entry -> allErrors.add(entry.getValue()));
 
-    private List<ProductPojo> convertToProductPojos(List<ProductFormWithRow> validForms) {
-        return validForms.stream()
-                .map(form -> convertUtil.convert(form.getForm(), ProductPojo.class))
-                .collect(Collectors.toList());
+        if (!validForms.isEmpty() && allErrors.isEmpty()) {
+            flow.processProductUpdateUpload(validForms, barcodeToProductId);
+        }
+        return allErrors;
     }
 
     private void validateUpdateInput(Integer id, ProductUpdateForm productUpdateForm) {
@@ -1,20 +1,41 @@
 package com.increff.pos.dto;
 
+import com.increff.pos.api.CacheMetricsApi;
+import com.increff.pos.api.DbPoolMetricsApi;
+import com.increff.pos.api.LiveSalesApi;
 import com.increff.pos.api.ReportApi;
+import com.increff.pos.api.TopSellersApi;
 import com.increff.pos.entity.DaySalesPojo;
+import com.increff.pos.model.LiveSalesModel;
 import com.increff.pos.exception.ApiException;
 import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.model.enums.ExportFormat;
+import com.increff.pos.model.enums.LiveSalesGranularity;
+import com.increff.pos.model.enums.TopSellerMetric;
+import com.increff.pos.model.enums.TopSellerScope;
+import com.increff.pos.model.response.CacheRegionStatsResponse;
+import com.increff.pos.model.response.DbPoolStatsResponse;
 import com.increff.pos.model.response.DaySalesResponse;
+import com.increff.pos.model.response.LiveSalesResponse;
+import com.increff.pos.model.response.TopSellerResponse;
+import com.increff.pos.spring.ApplicationProperties;
 import com.increff.pos.util.ConvertUtil;
 import com.increff.pos.util.DateUtil;
+import com.increff.pos.util.ExportResponseUtil;
+import com.increff.pos.util.SpaceSavingSketch.Counter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,9 +44,27 @@ public class ReportDto {
     @Autowired
     private ReportApi api;
 
+    @Autowired
+    private LiveSalesApi liveSalesApi;
+
+    @Autowired
+    private TopSellersApi topSellersApi;
+
+    @Autowired
+    private DbPoolMetricsApi dbPoolMetricsApi;
+
+    @Autowired
+    private CacheMetricsApi cacheMetricsApi;
+
     @Autowired
     private ConvertUtil convertUtil;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private static final String[] EXPORT_HEADERS =
+            {"date", "invoiced_orders_count", "invoiced_items_count", "total_revenue"};
+
     public List<DaySalesResponse> getDaySalesByDateRange(LocalDate startDate, LocalDate endDate) {
         if (endDate.isBefore(startDate)) {
             throw new ApiException(ErrorType.BAD_REQUEST, "End date cannot be before start date");
@@ -38,6 +77,68 @@ public class ReportDto {
                 .collect(Collectors.toList());
     }
 
+    public List<CacheRegionStatsResponse> getCacheRegionStats() {
+        return convertUtil.convertList(cacheMetricsApi.getRegionStats(), CacheRegionStatsResponse.class);
+    }
+
+    public DbPoolStatsResponse getDbPoolStats() {
+        return convertUtil.convert(dbPoolMetricsApi.getStats(), DbPoolStatsResponse.class);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportDaySales(LocalDate startDate, LocalDate endDate, ExportFormat format) {
+        if (endDate.isBefore(startDate)) {
+            throw new ApiException(ErrorType.BAD_REQUEST, "End date cannot be before start date");
+        }
+        ZonedDateTime startDateTime = DateUtil.toStartOfDayUTC(startDate);
+        ZonedDateTime endDateTime = DateUtil.toEndOfDayUTC(endDate);
+        return ExportResponseUtil.stream("day_sales_" + startDate + "_" + endDate, format, EXPORT_HEADERS,
+                writer -> api.exportDaySales(startDateTime, endDateTime,
+                        applicationProperties.getExportFetchSize(), writer::writeRow));
+    }
+
+    public List<LiveSalesResponse> getLiveSales(LiveSalesGranularity granularity, int windowMinutes) {
+        if (windowMinutes <= 0 || windowMinutes > liveSalesApi.getWindowMinutes()) {
+            throw new ApiException(ErrorType.BAD_REQUEST,
+                    "Window must be between 1 and " + liveSalesApi.getWindowMinutes() + " minutes");
+        }
+        long step = granularity.getMinutes();
+        long nowMinute = LiveSalesApi.toEpochMinute(ZonedDateTime.now(ZoneOffset.UTC));
+        long firstMinute = nowMinute - windowMinutes + 1;
+        List<LiveSalesResponse> buckets = new ArrayList<>();
+        for (long bucketStart = Math.floorDiv(firstMinute, step) * step; bucketStart <= nowMinute; bucketStart += step) {
+            long from = Math.max(bucketStart, firstMinute);
+            long to = Math.min(bucketStart + step - 1, nowMinute);
+            buckets.add(convertToLiveSalesResponse(bucketStart,
+                    liveSalesApi.getPlacedSales(from, to), liveSalesApi.getInvoicedSales(from, to)));
+        }
+        return buckets;
+    }
+
+    public List<TopSellerResponse> getTopSellers(TopSellerScope scope, TopSellerMetric metric, int k) {
+        if (k <= 0 || k > topSellersApi.getCapacity()) {
+            throw new ApiException(ErrorType.BAD_REQUEST, "k must be between 1 and " + topSellersApi.getCapacity());
+        }
+        return topSellersApi.getTopSellers(scope, metric, k).stream()
+                .map(this::convertToTopSellerResponse)
+                .collect(Collectors.toList());
+    }
+
+    private TopSellerResponse convertToTopSellerResponse(Counter<String> counter) {
+        return new TopSellerResponse(counter.getKey(), counter.getCount(), counter.getError());
+    }
+
+    private LiveSalesResponse convertToLiveSalesResponse(long bucketStart, LiveSalesModel placed, LiveSalesModel invoiced) {
+        LiveSalesResponse response = new LiveSalesResponse();
+        response.setTime(ZonedDateTime.ofInstant(Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(bucketStart)), ZoneOffset.UTC));
+        response.setOrdersCount(placed.getOrdersCount());
+        response.setItemsCount(placed.getItemsCount());
+        response.setRevenue(placed.getRevenue());
+        response.setInvoicedOrdersCount(invoiced.getOrdersCount());
+        response.setInvoicedItemsCount(invoiced.getItemsCount());
+        response.setInvoicedRevenue(invoiced.getRevenue());
+        return response;
+    }
+
     private DaySalesResponse convertToResponse(DaySalesPojo daySales) {
         DaySalesResponse response = convertUtil.convert(daySales, DaySalesResponse.class);
         return response;
@@ -0,0 +1,46 @@
+package com.increff.pos.dto;
+
+import com.increff.pos.api.ReservationApi;
+import com.increff.pos.flow.OrderFlow;
+import com.increff.pos.model.ReservationModel;
+import com.increff.pos.model.form.ReservationItemForm;
+import com.increff.pos.model.response.ReservationItemResponse;
+import com.increff.pos.model.response.ReservationResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class ReservationDto extends AbstractDto<ReservationItemForm> {
+
+    @Autowired
+    private OrderFlow orderFlow;
+
+    @Autowired
+    private ReservationApi reservationApi;
+
+    public ReservationResponse reserve(List<ReservationItemForm> reservationItems) {
+        validationUtil.validateForms(reservationItems);
+        return toResponse(orderFlow.reserveStock(reservationItems));
+    }
+
+    public ReservationResponse getReservation(String reservationId) {
+        return toResponse(reservationApi.getReservation(reservationId));
+    }
+
+    public void release(String reservationId) {
+        reservationApi.release(reservationId);
+    }
+
+    private ReservationResponse toResponse(ReservationModel reservation) {
+        ReservationResponse response = new ReservationResponse();
+        response.setReservationId(reservation.getReservationId());
+        response.setExpiresAt(reservation.getExpiresAt());
+        response.setItems(reservation.getQuantityByProductId().entrySet().stream()
+                .map(entry -> new ReservationItemResponse(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList()));
+        return response;
+    }
+}
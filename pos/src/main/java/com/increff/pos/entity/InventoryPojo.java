@@ -24,6 +24,10 @@ public class InventoryPojo extends AbstractPojo {
     @Column(nullable = false)
     private Integer quantity = 0;
 
+    // Null means the default low stock threshold applies
+    @Column
+    private Integer reorderThreshold;
+
     public InventoryPojo(Integer productId, Integer quantity) {
         this.productId = productId;
         this.quantity = quantity;
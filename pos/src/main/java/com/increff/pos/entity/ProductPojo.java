@@ -6,8 +6,13 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.*;
+import java.util.Locale;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_name_lower", columnList = "name_lower"),
+        @Index(name = "idx_product_barcode_lower", columnList = "barcode_lower")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,10 +38,24 @@ public class ProductPojo extends AbstractPojo {
     @Column(length = 512)
     private String imageUrl;
 
+    // Lowercase copies kept in sync on write so prefix searches can use an index instead of LOWER()
+    @Column(name = "name_lower", length = 255)
+    private String nameLower;
+
+    @Column(name = "barcode_lower", length = 255)
+    private String barcodeLower;
+
     public ProductPojo(String barcode, Integer clientId, String name, Double mrp) {
         this.barcode = barcode;
         this.clientId = clientId;
         this.name = name;
         this.mrp = mrp;
     }
+
+    @PrePersist
+    @PreUpdate
+    protected void syncSearchColumns() {
+        nameLower = name == null ? null : name.toLowerCase(Locale.ROOT);
+        barcodeLower = barcode == null ? null : barcode.toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
@@ -1,16 +1,21 @@
 package com.increff.pos.entity;
 
+import com.increff.pos.model.Constants;
 import com.increff.pos.model.enums.Role;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.time.ZonedDateTime;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.USER_CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,15 +1,26 @@
 package com.increff.pos.flow;
 
 import com.increff.pos.api.InventoryApi;
+import com.increff.pos.api.LowStockAlertApi;
 import com.increff.pos.api.ProductApi;
 import com.increff.pos.entity.InventoryPojo;
+import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.model.form.InventoryAdjustForm;
 import com.increff.pos.model.form.InventoryForm;
 import com.increff.pos.model.form.InventoryFormWithRow;
 import com.increff.pos.model.response.ValidationError;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.TransactionUtil;
+import com.increff.pos.util.ValidationUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import javax.transaction.Transactional;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,100 +30,116 @@ public class InventoryFlow {
     private ProductApi productApi;
     @Autowired
     private InventoryApi inventoryApi;
+    @Autowired
+    private LowStockAlertApi lowStockAlertApi;
+    @Autowired
+    private ApplicationProperties applicationProperties;
+    @Autowired
+    private ValidationUtil validationUtil;
 
-    public Map<Integer, ValidationError> validateInventoryUpload(List<InventoryFormWithRow> formsWithRow) {
-        Map<Integer, ValidationError> errorByRow = new HashMap<>();
-        // First validate duplicate barcodes in the file
-        Map<Integer, ValidationError> duplicateErrors = validateDuplicateBarcodesInFile(formsWithRow);
-        errorByRow.putAll(duplicateErrors);
-        // Filter out forms with duplicate errors for database validation
-        List<InventoryFormWithRow> formsWithoutDuplicates = filterFormsWithoutDuplicates(formsWithRow, duplicateErrors);
-        // Validate against database
-        Map<Integer, ValidationError> dbErrors = validateAgainstDatabase(formsWithoutDuplicates);
-        errorByRow.putAll(dbErrors);
-        return errorByRow;
+    /**
+     * Loads current stock levels into the low stock index on startup, after which it is kept
+     * up to date by InventoryApi and never polls the inventory table.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuildStockLevels() {
+        lowStockAlertApi.reset();
+        inventoryApi.scanStockLevels(applicationProperties.getExportFetchSize(), row -> lowStockAlertApi.load(
+                (Integer) row[0], (Integer) row[1], (Integer) row[2]));
     }
 
-    private Map<Integer, ValidationError> validateDuplicateBarcodesInFile(List<InventoryFormWithRow> inventoryForms) {
-        Map<String, List<InventoryFormWithRow>> barcodeGroups = inventoryForms.stream()
-                .collect(Collectors.groupingBy(
-                        inventoryForm -> inventoryForm.getForm().getBarcode()
-                ));
-        Map<Integer, ValidationError> duplicateErrors = new HashMap<>();
-        for (Map.Entry<String, List<InventoryFormWithRow>> entry : barcodeGroups.entrySet()) {
-            String barcode = entry.getKey();
-            List<InventoryFormWithRow> formsWithSameBarcode = entry.getValue();
-            if (formsWithSameBarcode.size() > 1) {
-                addDuplicateErrorsForBarcode(duplicateErrors, barcode, formsWithSameBarcode);
+    public Map<Integer, Integer> adjustInventory(List<InventoryAdjustForm> adjustForms) {
+        List<String> barcodes = adjustForms.stream()
+                .filter(form -> form.getProductId() == null)
+                .map(InventoryAdjustForm::getBarcode)
+                .collect(Collectors.toList());
+        Map<String, Integer> barcodeToProductId = barcodes.isEmpty()
+                ? Collections.emptyMap() : productApi.findProductsByBarcodes(barcodes);
+        // Deltas for the same product are summed so each row is updated once
+        Map<Integer, Integer> deltaByProductId = new LinkedHashMap<>();
+        for (InventoryAdjustForm form : adjustForms) {
+            Integer productId = form.getProductId() != null ? form.getProductId() : barcodeToProductId.get(form.getBarcode());
+            if (productId == null) {
+                throw new ApiException(ErrorType.NOT_FOUND, "Product with barcode: " + form.getBarcode() + " not found");
             }
+            deltaByProductId.merge(productId, form.getDelta(), Integer::sum);
         }
-        return duplicateErrors;
-    }
-
-    private List<InventoryFormWithRow> filterFormsWithoutDuplicates(List<InventoryFormWithRow> inventoryForms, Map<Integer, ValidationError> duplicateErrors) {
-        return inventoryForms.stream()
-                .filter(form -> !duplicateErrors.containsKey(form.getRowNumber()))
-                .collect(Collectors.toList());
+        return inventoryApi.adjustInventory(deltaByProductId);
     }
 
-    private void addDuplicateErrorsForBarcode(Map<Integer, ValidationError> duplicateErrors, String barcode,
-                                              List<InventoryFormWithRow> formsWithSameBarcode) {
-        for (InventoryFormWithRow form : formsWithSameBarcode) {
-            ValidationError error = new ValidationError(form.getRowNumber(), "barcode", "Barcode is multiple times in your file");
-            duplicateErrors.put(form.getRowNumber(), error);
+    /**
+     * Applies an inventory upload as its rows are read. Rows are validated, resolved to product
+     * ids and upserted one batch of upload.batch.size at a time, so only the current batch and
+     * the barcodes seen so far are held in memory; the barcodes catch rows repeated anywhere in
+     * the file. After the first invalid row nothing more is written, the remaining rows are only
+     * checked, and the transaction is rolled back, so an upload with errors applies no rows.
+     * Returns the errors by row number.
+     */
+    @Transactional
+    public Map<Integer, ValidationError> processTsvUpload(Consumer<Consumer<InventoryFormWithRow>> rowReader) {
+        int batchSize = applicationProperties.getUploadBatchSize();
+        Map<Integer, ValidationError> errorByRow = new HashMap<>();
+        Map<String, Integer> firstRowByBarcode = new HashMap<>();
+        List<InventoryFormWithRow> batch = new ArrayList<>(batchSize);
+        rowReader.accept(formWithRow -> {
+            batch.add(formWithRow);
+            if (batch.size() == batchSize) {
+                processBatch(batch, firstRowByBarcode, errorByRow);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            processBatch(batch, firstRowByBarcode, errorByRow);
         }
+        if (!errorByRow.isEmpty()) {
+            TransactionUtil.setRollbackOnly();
+        }
+        return errorByRow;
     }
 
-    private Map<Integer, ValidationError> validateAgainstDatabase(List<InventoryFormWithRow> inventoryForms) {
-        if (inventoryForms.isEmpty()) {
-            return new HashMap<>();
+    private void processBatch(List<InventoryFormWithRow> batch, Map<String, Integer> firstRowByBarcode,
+                              Map<Integer, ValidationError> errorByRow) {
+        for (ValidationError error : validationUtil.validateInventoryFormsWithRow(batch)) {
+            errorByRow.put(error.getRowNumber(), error);
         }
-        Set<String> barcodes = inventoryForms.stream()
+        List<InventoryFormWithRow> uniqueForms = new ArrayList<>(batch.size());
+        for (InventoryFormWithRow formWithRow : batch) {
+            Integer row = formWithRow.getRowNumber();
+            if (errorByRow.containsKey(row)) {
+                continue;
+            }
+            Integer firstRow = firstRowByBarcode.putIfAbsent(formWithRow.getForm().getBarcode(), row);
+            if (firstRow != null) {
+                // The first occurrence may already be written; the rollback undoes it
+                errorByRow.put(firstRow, duplicateError(firstRow));
+                errorByRow.put(row, duplicateError(row));
+            } else {
+                uniqueForms.add(formWithRow);
+            }
+        }
+        List<String> barcodes = uniqueForms.stream()
                 .map(form -> form.getForm().getBarcode())
-                .collect(Collectors.toSet());
-        Map<String, Boolean> barcodeValidation = validateBarcodesExistBatch(barcodes);
-        return constructErrorByRow(inventoryForms, barcodeValidation);
-    }
-    private Map<String, Boolean> validateBarcodesExistBatch(Set<String> barcodes) {
-        Map<String, Integer> existingBarcodes = productApi.findProductsByBarcodes(new ArrayList<>(barcodes));
-        return barcodes.stream()
-                .collect(Collectors.toMap(
-                        barcode -> barcode,
-                        barcode -> existingBarcodes.containsKey(barcode)
-                ));
-    }
-
-    private Map<Integer, ValidationError> constructErrorByRow(List<InventoryFormWithRow> inventoryFormsWithRow,
-                                                              Map<String, Boolean> barcodeValidation) {
-        Map<Integer, ValidationError> errorByRow = new HashMap<>();
-        for (InventoryFormWithRow form : inventoryFormsWithRow) {
-            Integer row = form.getRowNumber();
-            String barcode = form.getForm().getBarcode();
-
-            if (!barcodeValidation.getOrDefault(barcode, false)) {
+                .collect(Collectors.toList());
+        Map<String, Integer> barcodeToProductId = barcodes.isEmpty() ? Collections.emptyMap()
+                : productApi.findProductsByBarcodes(barcodes, applicationProperties.isUploadParallelLookups());
+        List<InventoryPojo> inventories = new ArrayList<>(uniqueForms.size());
+        for (InventoryFormWithRow formWithRow : uniqueForms) {
+            Integer row = formWithRow.getRowNumber();
+            InventoryForm form = formWithRow.getForm();
+            Integer productId = barcodeToProductId.get(form.getBarcode());
+            if (productId == null) {
                 errorByRow.put(row, new ValidationError(row, "barcode",
-                        "Product with barcode '" + barcode + "' does not exist"
-                ));
+                        "Product with barcode '" + form.getBarcode() + "' does not exist"));
+            } else {
+                inventories.add(new InventoryPojo(productId, form.getQuantity()));
             }
         }
-        return errorByRow;
+        if (errorByRow.isEmpty() && !inventories.isEmpty()) {
+            inventoryApi.upsertInventory(inventories);
+        }
     }
 
-    public List<InventoryPojo> processTsvUpload(List<InventoryFormWithRow> validForms) {
-        // Get barcode to product ID mapping
-        List<String> barcodes = validForms.stream()
-                .map(form -> form.getForm().getBarcode())
-                .collect(Collectors.toList());
-        Map<String, Integer> barcodeToProductIdMap = productApi.findProductsByBarcodes(barcodes);
-        // Convert to InventoryPojo with product IDs
-        List<InventoryPojo> inventoryPojos = validForms.stream()
-                .map(formWithRow -> {
-                    InventoryForm form = formWithRow.getForm();
-                    Integer productId = barcodeToProductIdMap.get(form.getBarcode());
-                    InventoryPojo pojo = new InventoryPojo(productId, form.getQuantity());
-                    return pojo;
-                })
-                .collect(Collectors.toList());
-        return inventoryApi.bulkCreateOrUpdateInventory(inventoryPojos);
+    private static ValidationError duplicateError(Integer row) {
+        return new ValidationError(row, "barcode", "Barcode is multiple times in your file");
     }
 }
@@ -1,6 +1,7 @@
 package com.increff.pos.flow;
 
 import com.increff.pos.api.InvoiceApi;
+import com.increff.pos.api.LiveSalesApi;
 import com.increff.pos.api.OrderApi;
 import com.increff.pos.api.OrderItemApi;
 import com.increff.pos.api.ProductApi;
@@ -46,6 +47,9 @@ public class InvoiceFlow {
     @Autowired
     private ProductApi productApi;
 
+    @Autowired
+    private LiveSalesApi liveSalesApi;
+
     public OrderWithInvoiceResponse getOrderDataForInvoice(Integer orderId) {
         if (invoiceApi.existsByOrderId(orderId)) {
             throw new ApiException(ErrorType.CONFLICT, "Invoice already exists for order: " +  orderId);
@@ -66,6 +70,7 @@ public class InvoiceFlow {
         InvoicePojo invoice = new InvoicePojo(orderId, orderData.getTime(),
                 orderData.getOrderItems().size(), invoicePath, orderData.getTotalRevenue());
         invoiceApi.createInvoice(invoice);
+        liveSalesApi.recordInvoice(invoice.getTimeStamp(), invoice.getCountOfItems(), invoice.getFinalRevenue());
         return invoicePath;
     }
 
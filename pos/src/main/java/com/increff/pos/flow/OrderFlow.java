@@ -1,19 +1,28 @@
 package com.increff.pos.flow;
 
+import com.increff.pos.api.AvailabilityCacheApi;
 import com.increff.pos.api.InventoryApi;
+import com.increff.pos.api.LiveSalesApi;
 import com.increff.pos.api.OrderApi;
 import com.increff.pos.api.OrderItemApi;
-import com.increff.pos.api.ProductApi;
+import com.increff.pos.api.ReservationApi;
+import com.increff.pos.api.TopSellersApi;
 import com.increff.pos.entity.OrderItemsPojo;
 import com.increff.pos.entity.OrdersPojo;
 import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.AvailabilityModel;
+import com.increff.pos.model.ReservationModel;
 import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.model.form.OrderItemForm;
+import com.increff.pos.model.form.ReservationItemForm;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -29,41 +38,131 @@ public class OrderFlow {
     private OrderItemApi orderItemApi;
 
     @Autowired
-    private ProductApi productApi;
+    private AvailabilityCacheApi availabilityCacheApi;
 
     @Autowired
     private InventoryApi inventoryApi;
 
+    @Autowired
+    private LiveSalesApi liveSalesApi;
+
+    @Autowired
+    private TopSellersApi topSellersApi;
+
+    @Autowired
+    private ReservationApi reservationApi;
+
     @Transactional
     public OrdersPojo createOrder(List<OrderItemForm> orderItems) {
-        Map<String, Integer> productBarcodeToId =  validateOrderCreation(orderItems);
+        return createOrder(orderItems, null);
+    }
+
+    /**
+     * Creates the order, consuming the given reservation if any. Items covered by a reservation
+     * are not checked for stock again.
+     */
+    @Transactional
+    public OrdersPojo createOrder(List<OrderItemForm> orderItems, String reservationId) {
+        boolean reserved = reservationId != null;
+        Map<String, Integer> productBarcodeToId = reserved
+                ? validateAgainstReservation(orderItems, reservationApi.consume(reservationId))
+                : validateOrderCreation(orderItems);
+        // Checked and reduced under row locks, so a concurrent reservation sees either all or none of it
+        inventoryApi.lockQuantities(productBarcodeToId.values());
         OrdersPojo createdOrder = orderApi.createOrder();
-        List<OrderItemsPojo> orderItemsToCreate = constructOrderItemList(orderItems, productBarcodeToId, createdOrder.getId());
+        List<OrderItemsPojo> orderItemsToCreate = constructOrderItemList(orderItems, productBarcodeToId,
+                createdOrder.getId(), reserved);
         orderItemApi.createOrderItemsGroup(orderItemsToCreate);
+        recordLiveSales(createdOrder, orderItems, orderItemsToCreate);
         return createdOrder;
     }
 
+    /**
+     * Holds stock for a cart. Quantities for the same barcode are summed and checked against
+     * current stock minus what other carts already hold. The stock is read with the inventory
+     * rows locked, so an order cannot commit between the read and the hold.
+     */
+    @Transactional
+    public ReservationModel reserveStock(List<ReservationItemForm> reservationItems) {
+        Map<Integer, Integer> quantityByProductId = new LinkedHashMap<>();
+        for (ReservationItemForm item : reservationItems) {
+            quantityByProductId.merge(resolveProductId(item.getBarcode()), item.getQuantity(), Integer::sum);
+        }
+        Map<Integer, Integer> stockByProductId = inventoryApi.lockQuantities(quantityByProductId.keySet());
+        return reservationApi.reserve(quantityByProductId, stockByProductId);
+    }
+
+    private void recordLiveSales(OrdersPojo order, List<OrderItemForm> orderItemForms, List<OrderItemsPojo> orderItems) {
+        int itemsCount = orderItems.stream().mapToInt(OrderItemsPojo::getQuantity).sum();
+        double revenue = orderItems.stream().mapToDouble(item -> item.getQuantity() * item.getSellingPrice()).sum();
+        ZonedDateTime time = order.getTime() != null ? order.getTime() : ZonedDateTime.now(ZoneOffset.UTC);
+        liveSalesApi.recordOrder(time, itemsCount, revenue);
+        for (OrderItemForm orderItem : orderItemForms) {
+            topSellersApi.recordSale(time, orderItem.getBarcode(), orderItem.getQuantity(),
+                    orderItem.getQuantity() * orderItem.getMrp());
+        }
+    }
+
+    /**
+     * Pre-checks the cart against the availability cache. The authoritative stock check is
+     * still made against the inventory row when it is reduced.
+     */
     private Map<String, Integer> validateOrderCreation(List<OrderItemForm> orderItems) {
-        List<String> barcodes = orderItems.stream().map(OrderItemForm::getBarcode).collect(Collectors.toList());
-        Map<String, Integer> productBarcodeToId = productApi.findProductsByBarcodes(barcodes);
+        Map<String, AvailabilityModel> availabilityByBarcode = new LinkedHashMap<>();
         for (OrderItemForm orderItem : orderItems) {
-            if (!productBarcodeToId.containsKey(orderItem.getBarcode())) {
+            AvailabilityModel availability = availabilityByBarcode.computeIfAbsent(orderItem.getBarcode(),
+                    availabilityCacheApi::getAvailability);
+            if (availability == null) {
                 throw new ApiException(ErrorType.NOT_FOUND, "Product with barcode: " + orderItem.getBarcode() + " not found");
             }
         }
         for (OrderItemForm orderItem : orderItems) {
-            Integer productId = productBarcodeToId.get(orderItem.getBarcode());
-            inventoryApi.validateInventoryAvailability(productId, orderItem.getQuantity(), orderItem.getBarcode());
+            AvailabilityModel availability = availabilityByBarcode.get(orderItem.getBarcode());
+            if (availability.getQuantity() == null) {
+                throw new ApiException(ErrorType.BAD_REQUEST, "No inventory found for cart product: " + availability.getProductId());
+            }
+            int reservedByCarts = reservationApi.getReservedQuantity(availability.getProductId());
+            if (availability.getQuantity() - reservedByCarts < orderItem.getQuantity()) {
+                throw new ApiException(ErrorType.BAD_REQUEST, "Insufficient inventory for cart product " + orderItem.getBarcode());
+            }
+        }
+        return availabilityByBarcode.values().stream()
+                .collect(Collectors.toMap(AvailabilityModel::getBarcode, AvailabilityModel::getProductId));
+    }
+
+    private Map<String, Integer> validateAgainstReservation(List<OrderItemForm> orderItems, ReservationModel reservation) {
+        Map<String, Integer> productBarcodeToId = new LinkedHashMap<>();
+        Map<Integer, Integer> orderedByProductId = new LinkedHashMap<>();
+        for (OrderItemForm orderItem : orderItems) {
+            Integer productId = productBarcodeToId.computeIfAbsent(orderItem.getBarcode(), this::resolveProductId);
+            int ordered = orderedByProductId.merge(productId, orderItem.getQuantity(), Integer::sum);
+            if (ordered > reservation.getQuantityByProductId().getOrDefault(productId, 0)) {
+                throw new ApiException(ErrorType.BAD_REQUEST, "Quantity for barcode " + orderItem.getBarcode()
+                        + " exceeds reservation " + reservation.getReservationId());
+            }
         }
         return productBarcodeToId;
     }
 
+    private Integer resolveProductId(String barcode) {
+        AvailabilityModel availability = availabilityCacheApi.getAvailability(barcode);
+        if (availability == null) {
+            throw new ApiException(ErrorType.NOT_FOUND, "Product with barcode: " + barcode + " not found");
+        }
+        return availability.getProductId();
+    }
+
     private List<OrderItemsPojo> constructOrderItemList(List<OrderItemForm> orderItemForms,
-                                                        Map<String, Integer> productBarcodeToId, Integer orderId) {
+                                                        Map<String, Integer> productBarcodeToId, Integer orderId,
+                                                        boolean reserved) {
         List<OrderItemsPojo> orderItemsToCreate = new ArrayList<>();
         for (OrderItemForm orderItem : orderItemForms) {
             Integer productId = productBarcodeToId.get(orderItem.getBarcode());
-            inventoryApi.reduceInventory(productId, orderItem.getQuantity());
+            if (reserved) {
+                inventoryApi.reduceReservedInventory(productId, orderItem.getQuantity());
+            } else {
+                inventoryApi.reduceInventory(productId, orderItem.getQuantity());
+            }
             OrderItemsPojo orderItemPojo = new OrderItemsPojo(orderId, productId,
                     orderItem.getQuantity(), orderItem.getMrp());
             orderItemsToCreate.add(orderItemPojo);
@@ -1,20 +1,31 @@
 package com.increff.pos.flow;
 
+import com.increff.pos.api.AvailabilityCacheApi;
+import com.increff.pos.api.CatalogCacheApi;
 import com.increff.pos.api.ClientApi;
 import com.increff.pos.api.InventoryApi;
 import com.increff.pos.api.ProductApi;
+import com.increff.pos.api.ProductSearchIndexApi;
 import com.increff.pos.entity.ProductPojo;
 import com.increff.pos.exception.ApiException;
 import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.model.form.ProductBulkUpdateForm;
+import com.increff.pos.model.form.ProductBulkUpdateFormWithRow;
 import com.increff.pos.model.form.ProductForm;
 import com.increff.pos.model.form.ProductFormWithRow;
 import com.increff.pos.model.response.ValidationError;
+import com.increff.pos.spring.ApplicationProperties;
 import com.increff.pos.util.ConvertUtil;
+import com.increff.pos.util.TransactionUtil;
+import com.increff.pos.util.ValidationUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -36,6 +47,58 @@ public class ProductFlow {
     @Autowired
     private ConvertUtil convertUtil;
 
+    @Autowired
+    private AvailabilityCacheApi availabilityCacheApi;
+
+    @Autowired
+    private CatalogCacheApi catalogCacheApi;
+
+    @Autowired
+    private ProductSearchIndexApi productSearchIndexApi;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private ValidationUtil validationUtil;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void backfillProductSearchColumns() {
+        productApi.backfillSearchColumns();
+    }
+
+    /**
+     * Builds the availability Bloom filter from every barcode on startup and swaps it in; product
+     * creation keeps it complete afterwards.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuildAvailabilityIndex() {
+        availabilityCacheApi.reset();
+        availabilityCacheApi.rebuildKnownBarcodes(barcodes -> productApi.scanBarcodes(
+                applicationProperties.getExportFetchSize(), row -> barcodes.accept((String) row[1])));
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void preloadCatalogCache() {
+        catalogCacheApi.reset();
+        if (applicationProperties.isCatalogCachePreload()) {
+            catalogCacheApi.preload();
+        }
+    }
+
+    /**
+     * Rebuilds the search index from the database on startup, so the index directory can be
+     * discarded at any time.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuildSearchIndex() {
+        if (!productSearchIndexApi.isEnabled()) {
+            return;
+        }
+        productSearchIndexApi.rebuild(docs -> productApi.scanSearchDocuments(
+                applicationProperties.getExportFetchSize(), docs));
+    }
+
     public ProductPojo validateAndCreateProduct(ProductPojo productPojo) {
         // Validate client exists
         clientApi.getClientById(productPojo.getClientId());
@@ -47,57 +110,128 @@ public class ProductFlow {
         return createdProduct;
     }
 
-    public List<ProductPojo> processProductTsvUpload(List<ProductPojo> products) {
-        List<ProductPojo> createdProducts = new ArrayList<>();
-        if (!products.isEmpty()) {
-            createdProducts = productApi.bulkCreateProducts(products);
-            List<Integer> productIds = createdProducts.stream()
-                    .map(ProductPojo::getId)
-                    .collect(Collectors.toList());
-            inventoryApi.bulkCreateInventory(productIds);
+    /**
+     * Creates the products of an upload as its rows are read. Rows are validated, checked
+     * against the database and inserted with their inventory one chunk of upload.batch.size at
+     * a time, so only the current chunk and the barcodes seen so far are held in memory; each
+     * chunk's generated ids are read from its insert batch, so nothing is selected back. After
+     * the first invalid row nothing more is written, the remaining rows are only checked, and
+     * the transaction is rolled back, so an upload with errors creates no products. Returns the
+     * errors by row number.
+     */
+    public Map<Integer, ValidationError> processProductTsvUpload(Consumer<Consumer<ProductFormWithRow>> rowReader) {
+        int batchSize = applicationProperties.getUploadBatchSize();
+        Map<Integer, ValidationError> errorByRow = new HashMap<>();
+        Map<String, Integer> firstRowByBarcode = new HashMap<>();
+        List<ProductFormWithRow> chunk = new ArrayList<>(batchSize);
+        rowReader.accept(formWithRow -> {
+            chunk.add(formWithRow);
+            if (chunk.size() == batchSize) {
+                processProductChunk(chunk, firstRowByBarcode, errorByRow);
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            processProductChunk(chunk, firstRowByBarcode, errorByRow);
         }
-        return createdProducts;
+        if (!errorByRow.isEmpty()) {
+            TransactionUtil.setRollbackOnly();
+        }
+        return errorByRow;
     }
 
-    public Map<Integer, ValidationError> validateProductTsvUpload(List<ProductFormWithRow> productFormsWithRow) {
+    public Map<String, Integer> resolveUpdateBarcodes(List<ProductBulkUpdateFormWithRow> formsWithRow) {
+        List<String> barcodes = formsWithRow.stream()
+                .map(formWithRow -> formWithRow.getForm().getBarcode())
+                .distinct()
+                .collect(Collectors.toList());
+        return productApi.findProductsByBarcodes(barcodes, applicationProperties.isUploadParallelLookups());
+    }
+
+    /**
+     * Flags barcodes repeated in the file and barcodes with no product. Both checks use the
+     * barcodes resolved up front, so validation needs no further queries.
+     */
+    public Map<Integer, ValidationError> validateProductUpdateUpload(List<ProductBulkUpdateFormWithRow> formsWithRow,
+                                                                     Map<String, Integer> barcodeToProductId) {
+        Map<String, Long> countByBarcode = formsWithRow.stream()
+                .collect(Collectors.groupingBy(formWithRow -> formWithRow.getForm().getBarcode(), Collectors.counting()));
         Map<Integer, ValidationError> errorByRow = new HashMap<>();
-        Map<Integer, ValidationError> duplicateErrors  = validateDuplicateBarcodesInFile(productFormsWithRow);
-        errorByRow.putAll(duplicateErrors);
-        List<ProductFormWithRow> productFormsWithoutDuplicates = filterFormsWithoutDuplicates(productFormsWithRow, duplicateErrors);
-        Map<Integer, ValidationError> dbErrors = validateAgainstDatabase(productFormsWithoutDuplicates);
-        errorByRow.putAll(dbErrors);
+        for (ProductBulkUpdateFormWithRow formWithRow : formsWithRow) {
+            int row = formWithRow.getRowNumber();
+            String barcode = formWithRow.getForm().getBarcode();
+            if (countByBarcode.get(barcode) > 1) {
+                errorByRow.put(row, new ValidationError(row, "barcode", "Barcode is multiple times in your file"));
+            } else if (!barcodeToProductId.containsKey(barcode)) {
+                errorByRow.put(row, new ValidationError(row, "barcode",
+                        "Product with barcode '" + barcode + "' does not exist"));
+            }
+        }
         return errorByRow;
     }
 
-    private Map<Integer, ValidationError> validateDuplicateBarcodesInFile(List<ProductFormWithRow> productForms) {
-        Map<String, List<ProductFormWithRow>> barcodeGroups = productForms.stream()
-                .collect(Collectors.groupingBy(
-                        productForm -> productForm.getForm().getBarcode()
-                ));
-        Map<Integer, ValidationError> duplicateErrors = new HashMap<>();
-        for(Map.Entry<String, List<ProductFormWithRow>> entry: barcodeGroups.entrySet()) {
-            String barcode = entry.getKey();
-            List<ProductFormWithRow> formsWithSameBarcode = entry.getValue();
-            if(formsWithSameBarcode.size() > 1) {
-                addDuplicateErrorsForBarcode(duplicateErrors, barcode, formsWithSameBarcode);
+    /**
+     * Applies validated updates in fixed-size JDBC batches keyed by barcode.
+     */
+    public void processProductUpdateUpload(List<ProductBulkUpdateFormWithRow> validForms,
+                                           Map<String, Integer> barcodeToProductId) {
+        int batchSize = applicationProperties.getUploadBatchSize();
+        List<ProductPojo> batch = new ArrayList<>(Math.min(batchSize, validForms.size()));
+        for (ProductBulkUpdateFormWithRow formWithRow : validForms) {
+            ProductBulkUpdateForm form = formWithRow.getForm();
+            ProductPojo product = new ProductPojo(form.getBarcode(), null, form.getName(), form.getMrp());
+            product.setId(barcodeToProductId.get(form.getBarcode()));
+            product.setImageUrl(form.getImageUrl());
+            batch.add(product);
+            if (batch.size() == batchSize) {
+                productApi.bulkUpdateProducts(batch);
+                batch = new ArrayList<>(batchSize);
             }
         }
-        return duplicateErrors;
+        if (!batch.isEmpty()) {
+            productApi.bulkUpdateProducts(batch);
+        }
     }
 
-    private void addDuplicateErrorsForBarcode(Map<Integer, ValidationError> duplicateErrors, String barcode,
-                                              List<ProductFormWithRow> formsWithSameBarcode) {
-        for (ProductFormWithRow form : formsWithSameBarcode) {
-            ValidationError error = new ValidationError(form.getRowNumber(), "barcode", "Barcode is multiple times in your file");
-            duplicateErrors.put(form.getRowNumber(), error);
+    private void processProductChunk(List<ProductFormWithRow> chunk, Map<String, Integer> firstRowByBarcode,
+                                     Map<Integer, ValidationError> errorByRow) {
+        for (ValidationError error : validationUtil.validateProductFormsWithRow(chunk)) {
+            errorByRow.put(error.getRowNumber(), error);
+        }
+        List<ProductFormWithRow> uniqueForms = new ArrayList<>(chunk.size());
+        for (ProductFormWithRow formWithRow : chunk) {
+            Integer row = formWithRow.getRowNumber();
+            if (errorByRow.containsKey(row)) {
+                continue;
+            }
+            Integer firstRow = firstRowByBarcode.putIfAbsent(formWithRow.getForm().getBarcode(), row);
+            if (firstRow != null) {
+                // The first occurrence may already be inserted; the rollback undoes it
+                errorByRow.put(firstRow, duplicateError(firstRow));
+                errorByRow.put(row, duplicateError(row));
+            } else {
+                uniqueForms.add(formWithRow);
+            }
+        }
+        if (uniqueForms.isEmpty()) {
+            return;
         }
+        errorByRow.putAll(validateAgainstDatabase(uniqueForms));
+        if (!errorByRow.isEmpty()) {
+            return;
+        }
+        List<ProductPojo> products = uniqueForms.stream()
+                .map(formWithRow -> convertUtil.convert(formWithRow.getForm(), ProductPojo.class))
+                .collect(Collectors.toList());
+        productApi.bulkCreateProducts(products);
+        List<Integer> productIds = products.stream()
+                .map(ProductPojo::getId)
+                .collect(Collectors.toList());
+        inventoryApi.bulkCreateInventory(productIds);
     }
 
-    private List<ProductFormWithRow> filterFormsWithoutDuplicates(List<ProductFormWithRow> productForms, Map<Integer, ValidationError> duplicateErrors) {
-        List<ProductFormWithRow> validForms = productForms.stream()
-                .filter(p -> !duplicateErrors.containsKey(p.getRowNumber()))
-                .collect(Collectors.toList());
-        return validForms;
+    private static ValidationError duplicateError(Integer row) {
+        return new ValidationError(row, "barcode", "Barcode is multiple times in your file");
     }
 
     private Map<Integer, ValidationError> validateAgainstDatabase(List<ProductFormWithRow> productForms) {
@@ -1,15 +1,23 @@
 package com.increff.pos.flow;
 
 import com.increff.pos.api.InvoiceApi;
+import com.increff.pos.api.LiveSalesApi;
+import com.increff.pos.api.OrderApi;
 import com.increff.pos.api.ReportApi;
+import com.increff.pos.api.TopSellersApi;
 import com.increff.pos.entity.DaySalesPojo;
+import com.increff.pos.entity.InvoicePojo;
 import com.increff.pos.model.DaySalesModel;
+import com.increff.pos.spring.ApplicationProperties;
 import com.increff.pos.util.DateUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
 
@@ -23,6 +31,55 @@ public class ReportFlow {
     @Autowired
     private ReportApi reportApi;
 
+    @Autowired
+    private OrderApi orderApi;
+
+    @Autowired
+    private LiveSalesApi liveSalesApi;
+
+    @Autowired
+    private TopSellersApi topSellersApi;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    /**
+     * Rebuilds the live sales buffers from today's orders and invoices on startup,
+     * so the dashboard survives restarts without reading the DB on every request.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional
+    public void rebuildLiveSales() {
+        ZonedDateTime startOfDay = DateUtil.getStartOfDay(ZonedDateTime.now(ZoneOffset.UTC));
+        ZonedDateTime endOfDay = DateUtil.getEndOfDay(startOfDay);
+        liveSalesApi.reset();
+        orderApi.scanOrderTotalsSince(startOfDay, applicationProperties.getExportFetchSize(),
+                row -> liveSalesApi.recordOrder((ZonedDateTime) row[0],
+                        ((Number) row[1]).intValue(), ((Number) row[2]).doubleValue()));
+        for (InvoicePojo invoice : invoiceApi.getInvoicesByDateRange(startOfDay, endOfDay)) {
+            liveSalesApi.recordInvoice(invoice.getTimeStamp(), invoice.getCountOfItems(), invoice.getFinalRevenue());
+        }
+    }
+
+    /**
+     * Replays order lines from the start of today or of the rolling window, whichever is earlier,
+     * into the top sellers sketches.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional
+    public void rebuildTopSellers() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        ZonedDateTime windowStart = now.minusHours(applicationProperties.getTopSellersWindowHours());
+        ZonedDateTime startOfDay = DateUtil.getStartOfDay(now);
+        ZonedDateTime from = windowStart.isBefore(startOfDay) ? windowStart : startOfDay;
+        topSellersApi.reset();
+        orderApi.exportOrderItems(from, now, applicationProperties.getExportFetchSize(), row -> {
+            int quantity = ((Number) row[4]).intValue();
+            topSellersApi.recordSale((ZonedDateTime) row[1], (String) row[2], quantity,
+                    quantity * ((Number) row[5]).doubleValue());
+        });
+    }
+
     @Scheduled(cron = "0 59 23 * * ?", zone = "UTC")
     @Transactional
     public void calculateDailySales() {
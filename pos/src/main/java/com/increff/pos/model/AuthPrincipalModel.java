@@ -0,0 +1,17 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Claims of a verified JWT, as needed to authenticate a request.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthPrincipalModel {
+    private Integer userId;
+    private String role;
+    private long expiresAtMs;
+}
@@ -0,0 +1,19 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot of a barcode's product and stock. Quantity is null when the product has no
+ * inventory row.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityModel {
+    private Integer productId;
+    private String barcode;
+    private Double mrp;
+    private Integer quantity;
+}
@@ -0,0 +1,25 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hibernate second-level or query cache counters for one region. Element count is -1 when the
+ * cache provider does not report it.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsModel {
+    private String regionName;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long elementCount;
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
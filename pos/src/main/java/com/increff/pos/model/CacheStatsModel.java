@@ -0,0 +1,23 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsModel {
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long negativeHits;
+    private long expirations;
+
+    public double getHitRate() {
+        long lookups = hits + misses + negativeHits;
+        return lookups == 0 ? 0.0 : (double) (hits + negativeHits) / lookups;
+    }
+}
@@ -2,17 +2,29 @@ package com.increff.pos.model;
 
 public class Constants {
 
-    public static final int DB_INITIAL_SIZE = 2;
     public static final boolean DB_DEFAULT_AUTO_COMMIT = false;
-    public static final int DB_MIN_IDLE = 2;
-    public static final String DB_VALIDATION_QUERY = "Select 1";
-    public static final boolean DB_TEST_WHILE_IDLE = true;
-    public static final long DB_EVICTION_RUN_INTERVAL_MS = 10 * 60 * 100L;
+    public static final String DB_POOL_NAME = "pos-pool";
+    public static final String DB_REPLICA_POOL_NAME = "pos-replica-pool";
     public static final String PACKAGE_POJO_LOCATION = "com.increff.pos.entity";
     public static final String PACKAGE_CONTROLLER = "com.increff.pos.controller";
     public static final String SESSION_USER_ID = "userId";
     public static final String SESSION_ROLE = "userRole";
     public static final String SESSION_LAST_CHECKED_TIME = "lastCheckedTime";
     public static final long SESSION_REVALIDATION_INTERVAL_MS = 300_000; // 5 minutes in milliseconds
+    public static final int EXPORT_QUEUE_CAPACITY = 50;
+    public static final int INVENTORY_ADJUST_CHUNK_SIZE = 500;
+    // IN-list lookups are split into chunks padded up to one of these sizes, largest last
+    public static final int[] IN_LIST_CHUNK_SIZES = {8, 32, 128, 512};
+    public static final String CLIENT_CACHE_REGION = "client";
+    public static final String USER_CACHE_REGION = "user";
+    public static final String JCACHE_PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+    public static final String JCACHE_CONFIG = "com/increff/pos/ehcache.xml";
+    // Metric names exported on /metrics
+    public static final String METRIC_HTTP_REQUEST_SECONDS = "pos_http_request_duration_seconds";
+    public static final String METRIC_HTTP_ERRORS = "pos_http_errors_total";
+    public static final String METRIC_DAO_CALL_SECONDS = "pos_dao_call_duration_seconds";
+    public static final String METRIC_INVOICE_CALL_SECONDS = "pos_invoice_call_duration_seconds";
+    public static final String METRIC_INVOICE_CALL_ERRORS = "pos_invoice_call_errors_total";
+    public static final String METRIC_UPLOAD_ROWS = "pos_upload_rows_total";
     // Optional: Add comments if needed
 }
@@ -0,0 +1,28 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Connection pool gauges and latency percentiles. Acquire time is how long a caller waited for
+ * a connection; usage time is how long it held one.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DbPoolStatsModel {
+    private int activeConnections;
+    private int idleConnections;
+    private int waitingThreads;
+    private int totalConnections;
+    private int maxConnections;
+    private long acquireCount;
+    private long acquireTimeouts;
+    private double acquireP50Ms;
+    private double acquireP95Ms;
+    private double acquireP99Ms;
+    private double acquireMaxMs;
+    private double usageP99Ms;
+    private double usageMaxMs;
+}
@@ -0,0 +1,23 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inventory row joined with its product and client, built directly by the search projection.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryDetailModel {
+    private Integer id;
+    private Integer productId;
+    private Integer quantity;
+    private Integer reorderThreshold;
+    private String barcode;
+    private String productName;
+    private Double mrp;
+    private Integer clientId;
+    private String clientName;
+}
@@ -0,0 +1,14 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveSalesModel {
+    private Integer ordersCount;
+    private Integer itemsCount;
+    private Double revenue;
+}
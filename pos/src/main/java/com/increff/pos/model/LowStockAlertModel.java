@@ -0,0 +1,18 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlertModel {
+    private Long sequence;
+    private Integer productId;
+    private Integer quantity;
+    private Integer threshold;
+    private ZonedDateTime time;
+}
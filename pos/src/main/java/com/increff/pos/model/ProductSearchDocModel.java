@@ -0,0 +1,19 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fields of one product as held in the full-text search index.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchDocModel {
+    private Integer productId;
+    private String barcode;
+    private String name;
+    private Integer clientId;
+    private String clientName;
+}
@@ -0,0 +1,17 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationModel {
+    private String reservationId;
+    private Map<Integer, Integer> quantityByProductId;
+    private ZonedDateTime expiresAt;
+}
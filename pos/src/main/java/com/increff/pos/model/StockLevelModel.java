@@ -0,0 +1,18 @@
+package com.increff.pos.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelModel {
+    private Integer productId;
+    private Integer quantity;
+    private Integer threshold;
+
+    public int getSlack() {
+        return quantity - threshold;
+    }
+}
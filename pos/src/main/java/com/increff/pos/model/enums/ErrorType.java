@@ -7,6 +7,7 @@ public enum ErrorType {
     NOT_FOUND(404, "Not Found"),
 
     CONFLICT(409, "Conflict"),
+    TOO_MANY_REQUESTS(429, "Too Many Requests"),
     BAD_GATEWAY(502, "Bad Gateway"),
     INTERNAL_SERVER_ERROR(500, "Internal Server Error");
 
@@ -0,0 +1,31 @@
+package com.increff.pos.model.enums;
+
+/**
+ * Formats supported by the streaming export endpoints.
+ */
+public enum ExportFormat {
+    TSV('\t', "text/tab-separated-values", "tsv"),
+    CSV(',', "text/csv", "csv");
+
+    private final char delimiter;
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(char delimiter, String contentType, String extension) {
+        this.delimiter = delimiter;
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
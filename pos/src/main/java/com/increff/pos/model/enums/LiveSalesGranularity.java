@@ -0,0 +1,17 @@
+package com.increff.pos.model.enums;
+
+public enum LiveSalesGranularity {
+
+    MINUTE(1),
+    HOUR(60);
+
+    private final int minutes;
+
+    LiveSalesGranularity(int minutes) {
+        this.minutes = minutes;
+    }
+
+    public int getMinutes() {
+        return minutes;
+    }
+}
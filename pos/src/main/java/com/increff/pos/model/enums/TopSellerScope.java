@@ -0,0 +1,6 @@
+package com.increff.pos.model.enums;
+
+public enum TopSellerScope {
+    TODAY,
+    WINDOW
+}
@@ -0,0 +1,23 @@
+package com.increff.pos.model.form;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAdjustForm {
+
+    // Either productId or barcode identifies the product
+    private Integer productId;
+
+    private String barcode;
+
+    @NotNull(message = "Delta cannot be null")
+    private Integer delta;
+}
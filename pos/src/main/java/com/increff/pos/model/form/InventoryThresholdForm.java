@@ -0,0 +1,19 @@
+package com.increff.pos.model.form;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.PositiveOrZero;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryThresholdForm {
+
+    // Null falls back to the default inventory.low.stock.threshold
+    @PositiveOrZero(message = "Threshold must be zero or positive")
+    private Integer threshold;
+}
@@ -0,0 +1,31 @@
+package com.increff.pos.model.form;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+/**
+ * One row of a bulk product update upload. The barcode identifies the product; name, MRP and
+ * image URL replace the stored values.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductBulkUpdateForm {
+
+    @NotBlank(message = "Barcode cannot be empty")
+    private String barcode;
+
+    @NotBlank(message = "Product name cannot be empty")
+    private String name;
+
+    @NotNull(message = "MRP cannot be null")
+    @Positive(message = "MRP must be greater than 0")
+    private Double mrp;
+
+    private String imageUrl;
+}
@@ -0,0 +1,16 @@
+package com.increff.pos.model.form;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBulkUpdateFormWithRow {
+    private int rowNumber;
+    private ProductBulkUpdateForm form;
+    private String originalData;
+}
@@ -10,4 +10,6 @@ import lombok.Setter;
 public class ProductSearchForm {
     private String barcode;
     private String productName;
+    // Free text over name, barcode and client name; typos and partial words are matched
+    private String query;
 }
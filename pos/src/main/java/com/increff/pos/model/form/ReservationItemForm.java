@@ -0,0 +1,20 @@
+package com.increff.pos.model.form;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+public class ReservationItemForm {
+
+    @NotBlank(message = "Barcode cannot be empty")
+    private String barcode;
+
+    @NotNull(message = "Quantity cannot be null")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+}
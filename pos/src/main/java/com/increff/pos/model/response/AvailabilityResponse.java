@@ -0,0 +1,15 @@
+package com.increff.pos.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class AvailabilityResponse {
+    private Integer productId;
+    private String barcode;
+    private Double mrp;
+    private Integer quantity;
+}
@@ -0,0 +1,17 @@
+package com.increff.pos.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheRegionStatsResponse {
+    private String regionName;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long elementCount;
+    private double hitRate;
+}
@@ -0,0 +1,19 @@
+package com.increff.pos.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheStatsResponse {
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long negativeHits;
+    private long expirations;
+    private double hitRate;
+}
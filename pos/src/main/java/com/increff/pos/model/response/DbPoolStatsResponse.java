@@ -0,0 +1,24 @@
+package com.increff.pos.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class DbPoolStatsResponse {
+    private int activeConnections;
+    private int idleConnections;
+    private int waitingThreads;
+    private int totalConnections;
+    private int maxConnections;
+    private long acquireCount;
+    private long acquireTimeouts;
+    private double acquireP50Ms;
+    private double acquireP95Ms;
+    private double acquireP99Ms;
+    private double acquireMaxMs;
+    private double usageP99Ms;
+    private double usageMaxMs;
+}
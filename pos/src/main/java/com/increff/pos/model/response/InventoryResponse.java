@@ -13,5 +13,11 @@ import java.time.ZonedDateTime;
 public class InventoryResponse {
     private Integer productId;
     private Integer quantity;
+    private Integer reorderThreshold;
+    private String barcode;
+    private String productName;
+    private Double mrp;
+    private Integer clientId;
+    private String clientName;
     private Integer id;
 }
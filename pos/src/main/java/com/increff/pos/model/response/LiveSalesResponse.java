@@ -0,0 +1,22 @@
+package com.increff.pos.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class LiveSalesResponse {
+    private ZonedDateTime time;
+
+    private Integer ordersCount;
+    private Integer itemsCount;
+    private Double revenue;
+
+    private Integer invoicedOrdersCount;
+    private Integer invoicedItemsCount;
+    private Double invoicedRevenue;
+}
@@ -0,0 +1,18 @@
+package com.increff.pos.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class LowStockAlertResponse {
+    private Long sequence;
+    private Integer productId;
+    private Integer quantity;
+    private Integer threshold;
+    private ZonedDateTime time;
+}
@@ -0,0 +1,15 @@
+package com.increff.pos.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationItemResponse {
+    private Integer productId;
+    private Integer quantity;
+}
@@ -0,0 +1,17 @@
+package com.increff.pos.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReservationResponse {
+    private String reservationId;
+    private ZonedDateTime expiresAt;
+    private List<ReservationItemResponse> items;
+}
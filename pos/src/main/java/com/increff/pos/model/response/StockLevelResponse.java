@@ -0,0 +1,14 @@
+package com.increff.pos.model.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockLevelResponse {
+    private Integer productId;
+    private Integer quantity;
+    private Integer threshold;
+}
@@ -0,0 +1,16 @@
+package com.increff.pos.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopSellerResponse {
+    private String barcode;
+    private Double value;
+    private Double maxError;
+}
@@ -31,6 +31,62 @@ public class ApplicationProperties {
     @Value("${jdbc.password}")
     private String jdbcPassword;
 
+    // Read replica; blank keeps every transaction on the primary
+    @Value("${jdbc.replica.url:}")
+    private String jdbcReplicaUrl;
+
+    @Value("${jdbc.replica.username:${jdbc.username}}")
+    private String jdbcReplicaUsername;
+
+    @Value("${jdbc.replica.password:${jdbc.password}}")
+    private String jdbcReplicaPassword;
+
+    @Value("${db.replica.pool.max.size:10}")
+    private int dbReplicaPoolMaxSize;
+
+    // Read-only transactions go back to the primary while the replica lags further than this
+    @Value("${db.replica.max.lag.seconds:5}")
+    private long dbReplicaMaxLagSeconds;
+
+    @Value("${db.replica.lag.check.ms:1000}")
+    private long dbReplicaLagCheckMs;
+
+    // Short, so an unreachable replica fails over to the primary quickly instead of stalling the request
+    @Value("${db.replica.connection.timeout.ms:1000}")
+    private long dbReplicaConnectionTimeoutMs;
+
+    // Must return the lag in a Seconds_Behind_Master column
+    @Value("${db.replica.lag.query:SHOW SLAVE STATUS}")
+    private String dbReplicaLagQuery;
+
+    // Connection pool properties
+    @Value("${db.pool.max.size:10}")
+    private int dbPoolMaxSize;
+
+    @Value("${db.pool.min.idle:2}")
+    private int dbPoolMinIdle;
+
+    // Longest a caller waits for a free connection before failing
+    @Value("${db.pool.connection.timeout.ms:30000}")
+    private long dbPoolConnectionTimeoutMs;
+
+    @Value("${db.pool.idle.timeout.ms:600000}")
+    private long dbPoolIdleTimeoutMs;
+
+    @Value("${db.pool.max.lifetime.ms:1800000}")
+    private long dbPoolMaxLifetimeMs;
+
+    // 0 disables; streaming exports legitimately hold a connection for up to export.timeout.ms
+    @Value("${db.pool.leak.detection.ms:0}")
+    private long dbPoolLeakDetectionMs;
+
+    // Driver-side prepared statement cache, applied to MySQL connections only
+    @Value("${db.statement.cache.size:250}")
+    private int dbStatementCacheSize;
+
+    @Value("${db.statement.cache.sql.limit:2048}")
+    private int dbStatementCacheSqlLimit;
+
     // Hibernate configuration properties
     @Value("${hibernate.dialect}")
     private String hibernateDialect;
@@ -50,6 +106,13 @@ public class ApplicationProperties {
     @Value("${hibernate.jdbc.time_zone:UTC}")
     private String hibernateTimeZone;
 
+    @Value("${hibernate.cache.enabled:true}")
+    private boolean hibernateCacheEnabled;
+
+    // Statistics add bookkeeping to every session; enable only while reading /cache-regions
+    @Value("${hibernate.statistics:false}")
+    private boolean hibernateStatistics;
+
     // File upload configuration properties
     @Value("${spring.servlet.multipart.enabled:true}")
     private String multipartEnabled;
@@ -65,4 +128,100 @@ public class ApplicationProperties {
 
     @Value("${invoice.storage.path:invoices}")
     private String invoiceStoragePath;
-} 
\ No newline at end of file
+
+    // Export configuration properties
+    @Value("${export.fetch.size:1000}")
+    private int exportFetchSize;
+
+    @Value("${export.timeout.ms:600000}")
+    private long exportTimeoutMs;
+
+    @Value("${export.threads:4}")
+    private int exportThreads;
+
+    // TSV upload properties
+    @Value("${upload.tsv.max.rows:500000}")
+    private int uploadMaxRows;
+
+    @Value("${upload.batch.size:1000}")
+    private int uploadBatchSize;
+
+    // Resolves upload barcodes on separate connections; rows written earlier in the same transaction are not seen
+    @Value("${upload.parallel.lookups:false}")
+    private boolean uploadParallelLookups;
+
+    @Value("${dao.query.threads:4}")
+    private int queryThreads;
+
+    // Availability cache properties
+    @Value("${availability.cache.size:10000}")
+    private int availabilityCacheSize;
+
+    @Value("${availability.bloom.expected.insertions:1000000}")
+    private long availabilityBloomExpectedInsertions;
+
+    @Value("${availability.bloom.fpp:0.01}")
+    private double availabilityBloomFpp;
+
+    // Password hashing properties; BCrypt cost is the log2 of hashing rounds
+    @Value("${auth.bcrypt.cost:10}")
+    private int bcryptCost;
+
+    @Value("${auth.verify.threads:4}")
+    private int credentialThreads;
+
+    // Logins beyond threads plus queue are rejected with 429 instead of waiting
+    @Value("${auth.verify.queue.capacity:64}")
+    private int credentialQueueCapacity;
+
+    @Value("${auth.verify.timeout.ms:5000}")
+    private long credentialTimeoutMs;
+
+    // Verified JWTs are cached by token hash until they expire
+    @Value("${auth.token.cache.size:10000}")
+    private int authTokenCacheSize;
+
+    // Product catalog cache properties
+    @Value("${catalog.cache.size:10000}")
+    private int catalogCacheSize;
+
+    @Value("${catalog.cache.ttl.seconds:300}")
+    private int catalogCacheTtlSeconds;
+
+    @Value("${catalog.cache.preload:true}")
+    private boolean catalogCachePreload;
+
+    // Full-text product search properties
+    @Value("${search.index.enabled:false}")
+    private boolean searchIndexEnabled;
+
+    // Blank keeps the index in memory; it is rebuilt from the database on every start anyway
+    @Value("${search.index.dir:./search-index}")
+    private String searchIndexDir;
+
+    // Cart reservation properties
+    @Value("${reservation.ttl.seconds:600}")
+    private int reservationTtlSeconds;
+
+    @Value("${reservation.tick.ms:1000}")
+    private long reservationTickMs;
+
+    @Value("${reservation.wheel.size:64}")
+    private int reservationWheelSize;
+
+    @Value("${inventory.low.stock.threshold:10}")
+    private int lowStockThreshold;
+
+    @Value("${inventory.low.stock.outbox.size:1000}")
+    private int lowStockOutboxSize;
+
+    // Live sales dashboard properties
+    @Value("${live.sales.window.minutes:1440}")
+    private int liveSalesWindowMinutes;
+
+    @Value("${top.sellers.capacity:200}")
+    private int topSellersCapacity;
+
+    @Value("${top.sellers.window.hours:24}")
+    private int topSellersWindowHours;
+}
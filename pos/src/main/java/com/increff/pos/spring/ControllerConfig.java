@@ -1,12 +1,17 @@
 package com.increff.pos.spring;
 
+import com.increff.pos.api.MetricsApi;
 import com.increff.pos.model.Constants;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
@@ -37,6 +42,12 @@ public class ControllerConfig extends WebMvcConfigurerAdapter {
 
 	private ApplicationContext applicationContext;
 
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
+	@Autowired
+	private MetricsApi metricsApi;
+
 	public void setApplicationContext(ApplicationContext applicationContext) {
 		this.applicationContext = applicationContext;
 	}
@@ -57,6 +68,31 @@ public class ControllerConfig extends WebMvcConfigurerAdapter {
 		registry.addResourceHandler("/static/**").addResourceLocations("/static/");
 	}
 
+	/**
+	 * Streamed exports are written on this pool, so a burst of large downloads
+	 * cannot grow the number of threads without bound.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor exportTaskExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(applicationProperties.getExportThreads());
+		executor.setMaxPoolSize(applicationProperties.getExportThreads());
+		executor.setQueueCapacity(Constants.EXPORT_QUEUE_CAPACITY);
+		executor.setThreadNamePrefix("export-");
+		return executor;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new MetricsInterceptor(metricsApi)).excludePathPatterns("/metrics");
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(exportTaskExecutor());
+		configurer.setDefaultTimeout(applicationProperties.getExportTimeoutMs());
+	}
+
 	@Bean
 	public HandlerMappingIntrospector mvcHandlerMappingIntrospector(ApplicationContext context) {
 		return new HandlerMappingIntrospector(context);
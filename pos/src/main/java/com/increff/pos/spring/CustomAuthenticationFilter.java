@@ -1,8 +1,10 @@
 package com.increff.pos.spring;
 
+import com.increff.pos.model.AuthPrincipalModel;
 import com.increff.pos.model.Constants;
 import com.increff.pos.util.JwtUtil;
-import org.apache.log4j.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -23,7 +25,7 @@ import java.util.List;
 @Component
 public class CustomAuthenticationFilter extends OncePerRequestFilter {
 
-    private static final Logger logger = Logger.getLogger(CustomAuthenticationFilter.class);
+    private static final Logger logger = LoggerFactory.getLogger(CustomAuthenticationFilter.class);
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -42,17 +44,17 @@ public class CustomAuthenticationFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization");
         boolean isAuthenticated = false;
         
-        logger.debug("Request path: " + requestPath + ", Authorization header: " + (authHeader != null ? "present" : "null"));
+        logger.debug("Request path: {}, Authorization header present: {}", requestPath, authHeader != null);
         
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7); // Remove "Bearer " prefix
-            logger.debug("JWT token found: " + token.substring(0, Math.min(20, token.length())) + "...");
             
-            if (jwtUtil.validateToken(token)) {
-                Integer userId = jwtUtil.getUserIdFromToken(token);
-                String userRole = jwtUtil.getRoleFromToken(token);
-                
-                logger.debug("JWT token validated - userId: " + userId + ", userRole: " + userRole);
+            AuthPrincipalModel principal = jwtUtil.verifyToken(token);
+            if (principal != null) {
+                Integer userId = principal.getUserId();
+                String userRole = principal.getRole();
+
+                logger.debug("JWT token validated - userId: {}, userRole: {}", userId, userRole);
 
                 // Create authentication token
                 List<GrantedAuthority> authorities = new ArrayList<>();
@@ -65,16 +67,15 @@ public class CustomAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 isAuthenticated = true;
 
-                logger.debug("JWT token validated for user: " + userId);
             } else {
                 logger.debug("JWT token validation failed");
             }
         }
         if (!isAuthenticated) {
-            logger.warn("Unauthorized access attempt to: " + requestPath + " - No valid JWT token found");
+            logger.warn("Unauthorized access attempt to: {} - No valid JWT token found", requestPath);
             response.setHeader("Access-Control-Allow-Origin", "http://localhost:4200");
             response.setHeader("Access-Control-Allow-Credentials", "true");
-            response.setHeader("Access-Control-Allow-Methods", "GET,POST,PUT,DELETE,OPTIONS,HEAD");
+            response.setHeader("Access-Control-Allow-Methods", "GET,POST,PUT,PATCH,DELETE,OPTIONS,HEAD");
             response.setHeader("Access-Control-Allow-Headers", "*");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("{\"error\": \"Authentication required\"}");
@@ -86,6 +87,7 @@ public class CustomAuthenticationFilter extends OncePerRequestFilter {
 
     private boolean isPublicEndpoint(String path) {
         return path.startsWith("/auth/") ||
+                path.equals("/metrics") ||
                 path.startsWith("/public/") ||
                 path.startsWith("/swagger-") ||
                 path.startsWith("/v2/api-docs") ||
@@ -0,0 +1,88 @@
+package com.increff.pos.spring;
+
+import com.increff.pos.api.MetricsApi;
+import com.increff.pos.dao.AbstractDao;
+import com.increff.pos.model.Constants;
+import com.increff.pos.util.LatencyHistogram;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.MethodClassKey;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Times every public DAO method into a per-method timer. The advice joins the transactional
+ * proxy the DAOs already have rather than adding another one. MetricsApi is looked up on the
+ * first call, since post-processors are created before the beans they would depend on.
+ */
+@Component
+public class DaoMetricsPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public DaoMetricsPostProcessor() {
+        setProxyTargetClass(true);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        ComposablePointcut pointcut = new ComposablePointcut(new RootClassFilter(AbstractDao.class))
+                .intersection(new StaticMethodMatcher() {
+                    @Override
+                    public boolean matches(Method method, Class<?> targetClass) {
+                        return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+                    }
+                });
+        this.advisor = new DefaultPointcutAdvisor(pointcut, new TimingInterceptor(beanFactory));
+    }
+
+    private static class TimingInterceptor implements MethodInterceptor {
+
+        private final BeanFactory beanFactory;
+        // Keyed by method and DAO class, since inherited methods are shared by every DAO
+        private final ConcurrentMap<MethodClassKey, LatencyHistogram> timers = new ConcurrentHashMap<>();
+        private volatile MetricsApi metricsApi;
+
+        private TimingInterceptor(BeanFactory beanFactory) {
+            this.beanFactory = beanFactory;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            long startNanos = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                timer(invocation).record(System.nanoTime() - startNanos);
+            }
+        }
+
+        private LatencyHistogram timer(MethodInvocation invocation) {
+            Class<?> daoClass = AopUtils.getTargetClass(invocation.getThis());
+            MethodClassKey key = new MethodClassKey(invocation.getMethod(), daoClass);
+            LatencyHistogram timer = timers.get(key);
+            if (timer == null) {
+                timer = timers.computeIfAbsent(key, ignored -> metricsApi().timer(Constants.METRIC_DAO_CALL_SECONDS,
+                        "dao", daoClass.getSimpleName(), "method", invocation.getMethod().getName()));
+            }
+            return timer;
+        }
+
+        private MetricsApi metricsApi() {
+            if (metricsApi == null) {
+                metricsApi = beanFactory.getBean(MetricsApi.class);
+            }
+            return metricsApi;
+        }
+    }
+}
@@ -5,13 +5,16 @@ import java.util.Properties;
 import javax.sql.DataSource;
 
 import com.increff.pos.model.Constants;
-import org.apache.commons.dbcp.BasicDataSource;
+import com.increff.pos.api.DbPoolMetricsApi;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @EnableTransactionManagement
@@ -21,21 +24,62 @@ public class DbConfig {
 	@Autowired
 	private ApplicationProperties applicationProperties;
 
-	@Bean(name = "dataSource")
+	@Autowired
+	private DbPoolMetricsApi dbPoolMetricsApi;
+
+	/**
+	 * The primary pool, or a ReplicaRoutingDataSource over primary and replica pools when
+	 * jdbc.replica.url is set. Pool metrics cover the primary only.
+	 */
+	@Bean(name = "dataSource", destroyMethod = "close")
 	public DataSource getDataSource() {
-		BasicDataSource bean = new BasicDataSource();
-		bean.setDriverClassName(applicationProperties.getJdbcDriver());
-		bean.setUrl(applicationProperties.getJdbcUrl());
-		bean.setUsername(applicationProperties.getJdbcUsername());
-		bean.setPassword(applicationProperties.getJdbcPassword());
+		HikariConfig primaryConfig = poolConfig(Constants.DB_POOL_NAME, applicationProperties.getJdbcUrl(),
+				applicationProperties.getJdbcUsername(), applicationProperties.getJdbcPassword(),
+				applicationProperties.getDbPoolMaxSize());
+		primaryConfig.setMetricsTrackerFactory(dbPoolMetricsApi);
+		HikariDataSource primary = new HikariDataSource(primaryConfig);
+		String replicaUrl = applicationProperties.getJdbcReplicaUrl();
+		if (replicaUrl == null || replicaUrl.trim().isEmpty()) {
+			return primary;
+		}
+		HikariConfig replicaConfig = poolConfig(Constants.DB_REPLICA_POOL_NAME, replicaUrl,
+				applicationProperties.getJdbcReplicaUsername(), applicationProperties.getJdbcReplicaPassword(),
+				applicationProperties.getDbReplicaPoolMaxSize());
+		replicaConfig.setReadOnly(true);
+		replicaConfig.setConnectionTimeout(applicationProperties.getDbReplicaConnectionTimeoutMs());
+		// Start even while the replica is down; reads stay on the primary until it is reachable
+		replicaConfig.setInitializationFailTimeout(-1);
+		HikariDataSource replica = new HikariDataSource(replicaConfig);
+		ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replica, applicationProperties.getDbReplicaLagQuery(),
+				applicationProperties.getDbReplicaMaxLagSeconds());
+		lagMonitor.start(applicationProperties.getDbReplicaLagCheckMs());
+		return new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+	}
 
-		bean.setInitialSize(Constants.DB_INITIAL_SIZE); //
-		bean.setDefaultAutoCommit(Constants.DB_DEFAULT_AUTO_COMMIT);
-		bean.setMinIdle(Constants.DB_MIN_IDLE);
-		bean.setValidationQuery(Constants.DB_VALIDATION_QUERY);
-		bean.setTestWhileIdle(Constants.DB_TEST_WHILE_IDLE);
-		bean.setTimeBetweenEvictionRunsMillis(Constants.DB_EVICTION_RUN_INTERVAL_MS);
-		return bean;
+	private HikariConfig poolConfig(String poolName, String jdbcUrl, String username, String password, int maxSize) {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName(poolName);
+		config.setDriverClassName(applicationProperties.getJdbcDriver());
+		config.setJdbcUrl(jdbcUrl);
+		config.setUsername(username);
+		config.setPassword(password);
+		config.setAutoCommit(Constants.DB_DEFAULT_AUTO_COMMIT);
+
+		config.setMaximumPoolSize(maxSize);
+		config.setMinimumIdle(Math.min(applicationProperties.getDbPoolMinIdle(), maxSize));
+		config.setConnectionTimeout(applicationProperties.getDbPoolConnectionTimeoutMs());
+		config.setIdleTimeout(applicationProperties.getDbPoolIdleTimeoutMs());
+		config.setMaxLifetime(applicationProperties.getDbPoolMaxLifetimeMs());
+		config.setLeakDetectionThreshold(applicationProperties.getDbPoolLeakDetectionMs());
+
+		// Other drivers, H2 among them, reject connection properties they do not know
+		if (jdbcUrl.startsWith("jdbc:mysql:")) {
+			config.addDataSourceProperty("cachePrepStmts", "true");
+			config.addDataSourceProperty("useServerPrepStmts", "true");
+			config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(applicationProperties.getDbStatementCacheSize()));
+			config.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(applicationProperties.getDbStatementCacheSqlLimit()));
+		}
+		return config;
 	}
 
 	@Bean(name = "entityManagerFactory")
@@ -54,15 +98,40 @@ public class DbConfig {
 		jpaProperties.put("hibernate.hbm2ddl.auto", applicationProperties.getHibernateHbm2ddl());
 		jpaProperties.put("hibernate.physical_naming_strategy", applicationProperties.getNamingStrategy());
 		jpaProperties.put("hibernate.jdbc.time_zone", applicationProperties.getHibernateTimeZone());
+		// Second-level and query cache for the small, rarely written tables marked @Cacheable
+		boolean cacheEnabled = applicationProperties.isHibernateCacheEnabled();
+		jpaProperties.put("hibernate.cache.use_second_level_cache", String.valueOf(cacheEnabled));
+		jpaProperties.put("hibernate.cache.use_query_cache", String.valueOf(cacheEnabled));
+		if (cacheEnabled) {
+			jpaProperties.put("hibernate.cache.region.factory_class", "jcache");
+			jpaProperties.put("hibernate.javax.cache.provider", Constants.JCACHE_PROVIDER);
+			// Regions are sized and expired in ehcache.xml; one missing from it fails startup
+			jpaProperties.put("hibernate.javax.cache.uri", Constants.JCACHE_CONFIG);
+			jpaProperties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+		}
+		jpaProperties.put("hibernate.generate_statistics", String.valueOf(applicationProperties.isHibernateStatistics()));
 
 		bean.setJpaProperties(jpaProperties);
 		return bean;
 	}
 
+	/**
+	 * Runs IN-list chunks concurrently when a DAO asks for a parallel lookup. Each task opens
+	 * its own connection, so the pool size also caps the extra connections taken.
+	 */
+	@Bean(name = "queryExecutor")
+	public ThreadPoolTaskExecutor queryExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(applicationProperties.getQueryThreads());
+		executor.setMaxPoolSize(applicationProperties.getQueryThreads());
+		executor.setThreadNamePrefix("query-");
+		return executor;
+	}
+
 	@Bean(name = "transactionManager")
 	@Autowired
 	public JpaTransactionManager transactionManager(LocalContainerEntityManagerFactoryBean emf) {
-		JpaTransactionManager bean = new JpaTransactionManager();
+		JpaTransactionManager bean = new ReplicaRoutingTransactionManager();
 		bean.setEntityManagerFactory(emf.getObject());
 		return bean;
 	}
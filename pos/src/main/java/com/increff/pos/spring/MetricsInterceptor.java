@@ -0,0 +1,53 @@
+package com.increff.pos.spring;
+
+import com.increff.pos.api.MetricsApi;
+import com.increff.pos.model.Constants;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Times each request into a timer per method and mapped path pattern, so /products/1 and
+ * /products/2 share one series, and counts responses of 400 and above per endpoint and status.
+ * Requests rejected by Spring Security never reach a handler and are not counted here.
+ */
+public class MetricsInterceptor extends HandlerInterceptorAdapter {
+
+    private static final String START_NANOS_ATTRIBUTE = MetricsInterceptor.class.getName() + ".startNanos";
+
+    private final MetricsApi metricsApi;
+
+    public MetricsInterceptor(MetricsApi metricsApi) {
+        this.metricsApi = metricsApi;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Keep the original start when a streamed export is dispatched again to complete
+        if (request.getAttribute(START_NANOS_ATTRIBUTE) == null) {
+            request.setAttribute(START_NANOS_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object startNanos = request.getAttribute(START_NANOS_ATTRIBUTE);
+        if (startNanos == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern == null ? "unmapped" : pattern.toString();
+        metricsApi.timer(Constants.METRIC_HTTP_REQUEST_SECONDS, "method", request.getMethod(), "endpoint", endpoint)
+                .record(System.nanoTime() - (Long) startNanos);
+        int status = ex != null && response.getStatus() < 400 ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                : response.getStatus();
+        if (status >= 400) {
+            metricsApi.counter(Constants.METRIC_HTTP_ERRORS, "method", request.getMethod(), "endpoint", endpoint,
+                    "status", String.valueOf(status)).increment();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.increff.pos.spring;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method as a read-only transaction, which ReplicaRoutingDataSource serves from the
+ * read replica when one is configured. Takes precedence over a class-level javax Transactional.
+ * Only applies where the method starts the transaction; called inside a read-write transaction
+ * it joins that one on the primary.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyTransactional {
+}
@@ -0,0 +1,104 @@
+package com.increff.pos.spring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica for its replication lag. The replica is considered healthy only while the
+ * lag query returns a row with Seconds_Behind_Master at or below the limit; no row, a null lag
+ * (replication stopped) or a failed query all send reads back to the primary until the next
+ * successful check.
+ */
+public class ReplicaLagMonitor implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    public static final String LAG_COLUMN = "Seconds_Behind_Master";
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private ScheduledExecutorService poller;
+    private volatile boolean healthy;
+    private volatile long lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    /**
+     * Starts polling. The first check also runs on the poller, so an unreachable replica never
+     * holds up startup; reads stay on the primary until it succeeds.
+     */
+    public void start(long intervalMs) {
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::check, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs the lag query once and updates the health flag.
+     */
+    public void check() {
+        boolean wasHealthy = healthy;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            long lag = -1;
+            if (resultSet.next()) {
+                lag = resultSet.getLong(LAG_COLUMN);
+                lag = resultSet.wasNull() ? -1 : lag;
+            }
+            lagSeconds = lag;
+            healthy = lag >= 0 && lag <= maxLagSeconds;
+        } catch (SQLException e) {
+            lagSeconds = -1;
+            healthy = false;
+            logger.debug("Replica lag check failed", e);
+        }
+        if (wasHealthy != healthy) {
+            logger.warn("Replica is now {} (lag {}s, limit {}s)", healthy ? "in use" : "bypassed", lagSeconds,
+                    maxLagSeconds);
+        }
+    }
+
+    /**
+     * Bypasses the replica until the next successful check, after it failed to hand out a connection.
+     */
+    public void markUnhealthy() {
+        healthy = false;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Last measured lag in seconds, or -1 when unknown.
+     */
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    @Override
+    public void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+}
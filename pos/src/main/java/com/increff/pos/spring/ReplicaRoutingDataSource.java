@@ -0,0 +1,89 @@
+package com.increff.pos.spring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * Hands out replica connections to read-only transactions while the replica is within the lag
+ * limit, and primary connections otherwise. A replica that cannot supply a connection is
+ * bypassed until its next lag check, and the caller gets a primary connection instead.
+ *
+ * Hibernate takes its connection when the transaction begins, before Spring publishes the
+ * read-only flag, so ReplicaRoutingTransactionManager passes the flag in through
+ * runReadOnly for the duration of the begin.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+    }
+
+    /**
+     * Runs the action with connections requested by this thread routed as for a transaction with
+     * the given read-only flag.
+     */
+    public static void runReadOnly(boolean readOnly, Runnable action) {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(readOnly);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                READ_ONLY.remove();
+            } else {
+                READ_ONLY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routesToReplica()) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            logger.warn("Replica connection failed, falling back to primary: {}", e.getMessage());
+            lagMonitor.markUnhealthy();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections come from the configured pools");
+    }
+
+    public boolean routesToReplica() {
+        return Boolean.TRUE.equals(READ_ONLY.get()) && lagMonitor.isHealthy();
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    @Override
+    public void close() {
+        lagMonitor.close();
+        replica.close();
+        primary.close();
+    }
+}
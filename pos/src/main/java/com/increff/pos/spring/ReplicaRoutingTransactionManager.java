@@ -0,0 +1,16 @@
+package com.increff.pos.spring;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Lets ReplicaRoutingDataSource see the read-only flag while the transaction's connection is
+ * being acquired.
+ */
+public class ReplicaRoutingTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        ReplicaRoutingDataSource.runReadOnly(definition.isReadOnly(), () -> super.doBegin(transaction, definition));
+    }
+}
@@ -121,7 +121,8 @@
 //}
 package com.increff.pos.spring;
 
-import org.apache.log4j.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -148,11 +149,14 @@ import java.util.Collections;
 @EnableGlobalMethodSecurity(securedEnabled = true)
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
-    private static Logger logger = Logger.getLogger(SecurityConfig.class);
+    private static Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
 
     @Autowired
     private CustomAuthenticationFilter customAuthFilter;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http
@@ -164,17 +168,20 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .authorizeRequests()
                 .antMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Allow all OPTIONS requests
                 .antMatchers("/auth/**", "/public/**").permitAll()
+                .antMatchers(HttpMethod.GET, "/metrics").permitAll()
 
                 .antMatchers(HttpMethod.POST, "/clients").hasRole("SUPERVISOR")
                 .antMatchers(HttpMethod.PUT, "/clients/**").hasRole("SUPERVISOR")
 
-                .antMatchers(HttpMethod.POST, "/products", "/products/upload").hasRole("SUPERVISOR")
+                .antMatchers(HttpMethod.POST, "/products", "/products/upload", "/products/upload/update").hasRole("SUPERVISOR")
                 .antMatchers(HttpMethod.PUT, "/products/**").hasRole("SUPERVISOR")
 
                 .antMatchers(HttpMethod.POST, "/inventory/upload").hasRole("SUPERVISOR")
                 .antMatchers(HttpMethod.PUT, "/inventory/**").hasRole("SUPERVISOR")
+                .antMatchers(HttpMethod.PATCH, "/inventory/adjust").hasRole("SUPERVISOR")
 
                 .antMatchers(HttpMethod.POST, "/orders").hasAnyRole("SUPERVISOR", "OPERATOR")
+                .antMatchers("/reservations/**").hasAnyRole("SUPERVISOR", "OPERATOR")
 
                 .antMatchers(HttpMethod.GET, "/clients/**").hasAnyRole("SUPERVISOR", "OPERATOR")
                 .antMatchers(HttpMethod.GET, "/products/**").hasAnyRole("SUPERVISOR", "OPERATOR")
@@ -190,7 +197,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .authenticationEntryPoint((request, response, authException) -> {
                     response.setHeader("Access-Control-Allow-Origin", "http://localhost:4200");
                     response.setHeader("Access-Control-Allow-Credentials", "true");
-                    response.setHeader("Access-Control-Allow-Methods", "GET,POST,PUT,DELETE,OPTIONS,HEAD");
+                    response.setHeader("Access-Control-Allow-Methods", "GET,POST,PUT,PATCH,DELETE,OPTIONS,HEAD");
                     response.setHeader("Access-Control-Allow-Headers", "*");
 
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -211,7 +218,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         configuration.setAllowedOrigins(Collections.singletonList("http://localhost:4200"));
 
         // Allow specific methods including OPTIONS for preflight
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "HEAD"));
 
         // Allow all headers including custom ones
         configuration.setAllowedHeaders(Arrays.asList("*"));
@@ -226,7 +233,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
 
-        logger.info("CORS Configuration: Origin=http://localhost:4200, Methods=GET,POST,PUT,DELETE,OPTIONS,HEAD, Credentials=true");
+        logger.info("CORS Configuration: Origin=http://localhost:4200, Methods=GET,POST,PUT,PATCH,DELETE,OPTIONS,HEAD, Credentials=true");
         return source;
     }
 
@@ -238,6 +245,6 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(applicationProperties.getBcryptCost());
     }
 }
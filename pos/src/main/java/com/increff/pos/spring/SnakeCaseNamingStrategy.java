@@ -4,6 +4,8 @@ import org.hibernate.boot.model.naming.Identifier;
 import org.hibernate.boot.model.naming.PhysicalNamingStrategy;
 import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
 
+import java.util.Locale;
+
 public class SnakeCaseNamingStrategy implements PhysicalNamingStrategy {
 
     @Override
@@ -41,6 +43,6 @@ public class SnakeCaseNamingStrategy implements PhysicalNamingStrategy {
 
     private String toSnakeCase(String input) {
         // Convert camelCase or PascalCase to snake_case
-        return input.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+        return input.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
     }
 }
@@ -4,8 +4,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.datatype.jsr310.ser.ZonedDateTimeSerializer;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.context.annotation.*;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -14,8 +12,6 @@ import org.springframework.web.multipart.commons.CommonsMultipartResolver;
 import javax.validation.Validation;
 import javax.validation.Validator;
 import javax.validation.ValidatorFactory;
-import java.time.Instant;
-import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.TimeZone;
 
@@ -44,26 +40,6 @@ public class SpringConfig {
 		return resolver;
 	}
 
-	@Bean
-	public ModelMapper modelMapper() {
-		ModelMapper mapper = new ModelMapper();
-		mapper.getConfiguration()
-				.setMatchingStrategy(MatchingStrategies.STRICT)
-				.setFieldMatchingEnabled(true)
-				.setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
-		
-		// Add custom converter for Instant to ZonedDateTime
-		mapper.addConverter(context -> {
-			if (context.getSource() instanceof Instant) {
-				Instant instant = (Instant) context.getSource();
-				return instant != null ? instant.atZone(ZoneOffset.UTC) : null;
-			}
-			return null;
-		});
-		
-		return mapper;
-	}
-
 	@Bean
 	@Primary
 	public ObjectMapper objectMapper() {
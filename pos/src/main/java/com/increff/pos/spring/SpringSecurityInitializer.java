@@ -2,6 +2,13 @@ package com.increff.pos.spring;
 
 import org.springframework.security.web.context.AbstractSecurityWebApplicationInitializer;
 
+import javax.servlet.ServletContext;
+
 public class SpringSecurityInitializer extends AbstractSecurityWebApplicationInitializer {
-    //no code needed
+
+    @Override
+    protected void beforeSpringSecurityFilterChain(ServletContext servletContext) {
+        // Outermost, so the logged latency and status include authentication
+        insertFilters(servletContext, new AccessLogFilter());
+    }
 }
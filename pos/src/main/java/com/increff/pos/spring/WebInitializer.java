@@ -1,10 +1,13 @@
 package com.increff.pos.spring;
 
+import org.apache.log4j.LogManager;
 import org.springframework.web.WebApplicationInitializer;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
 
 import javax.servlet.MultipartConfigElement;
 import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRegistration;
 import javax.servlet.SessionTrackingMode;
@@ -54,6 +57,18 @@ public class WebInitializer extends AbstractAnnotationConfigDispatcherServletIni
 		servletContext.setSessionTrackingModes(
 				java.util.EnumSet.of(SessionTrackingMode.COOKIE)
 		);
+
+		// Async appenders buffer events on a daemon thread; flush them before the webapp stops
+		servletContext.addListener(new ServletContextListener() {
+			@Override
+			public void contextInitialized(ServletContextEvent event) {
+			}
+
+			@Override
+			public void contextDestroyed(ServletContextEvent event) {
+				LogManager.shutdown();
+			}
+		});
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.increff.pos.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe LRU map holding at most maxSize entries. The least recently read entry is
+ * evicted first and handed to the optional eviction listener. With a positive ttlMs, entries
+ * also expire that long after they were written; expired entries are dropped lazily on read.
+ * Hits, misses, evictions and expirations are counted for monitoring.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final BiConsumer<K, V> evictionListener;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public BoundedCache(int maxSize) {
+        this(maxSize, null);
+    }
+
+    public BoundedCache(int maxSize, BiConsumer<K, V> evictionListener) {
+        this(maxSize, 0, System::currentTimeMillis, evictionListener);
+    }
+
+    public BoundedCache(int maxSize, long ttlMs, LongSupplier clock, BiConsumer<K, V> evictionListener) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        if (ttlMs < 0) {
+            throw new IllegalArgumentException("TTL must not be negative");
+        }
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        this.evictionListener = evictionListener;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= BoundedCache.this.maxSize) {
+                    return false;
+                }
+                evictions++;
+                notifyEvicted(eldest.getKey(), eldest.getValue().value);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value and marks it recently used, counting a hit or a miss.
+     */
+    public synchronized V get(K key) {
+        V value = lookup(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached value without counting a hit or a miss.
+     */
+    public synchronized V peek(K key) {
+        return lookup(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        long expiresAt = ttlMs == 0 ? Long.MAX_VALUE : clock.getAsLong() + ttlMs;
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * Caches the value until the given clock time, or until the TTL elapses if that comes first.
+     */
+    public synchronized void put(K key, V value, long expiresAt) {
+        long ttlExpiresAt = ttlMs == 0 ? Long.MAX_VALUE : clock.getAsLong() + ttlMs;
+        entries.put(key, new Entry<>(value, Math.min(expiresAt, ttlExpiresAt)));
+    }
+
+    public synchronized V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry == null ? null : entry.value;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        expirations = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= clock.getAsLong()) {
+            entries.remove(key);
+            expirations++;
+            notifyEvicted(key, entry.value);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private void notifyEvicted(K key, V value) {
+        if (evictionListener != null) {
+            evictionListener.accept(key, value);
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.increff.pos.util;
 
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
@@ -11,14 +9,13 @@ import java.util.stream.Collectors;
 @Component
 public class ConvertUtil {
 
-    @Autowired
-    private ModelMapper modelMapper;
+    private final MapperRegistry mapperRegistry = new MapperRegistry();
 
     public <S, D> D convert(S source, Class<D> destinationType) {
         if (source == null) {
             return null;
         }
-        return modelMapper.map(source, destinationType);
+        return mapperRegistry.map(source, destinationType);
     }
 
     public <S, D> List<D> convertList(List<S> sourceList, Class<D> destinationType) {
@@ -0,0 +1,32 @@
+package com.increff.pos.util;
+
+import com.increff.pos.model.enums.ExportFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.Consumer;
+
+/**
+ * Utility class for building streamed export responses.
+ * The body is written on the async executor after the controller returns, so the rows
+ * are produced while the client downloads instead of being collected up front.
+ */
+public class ExportResponseUtil {
+
+    public static ResponseEntity<StreamingResponseBody> stream(String fileName, ExportFormat format, String[] headers,
+                                                               Consumer<ExportWriter> rowsWriter) {
+        StreamingResponseBody body = outputStream -> {
+            ExportWriter writer = new ExportWriter(outputStream, format);
+            writer.writeRow((Object[]) headers);
+            rowsWriter.accept(writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + fileName + "." + format.getExtension())
+                .body(body);
+    }
+}
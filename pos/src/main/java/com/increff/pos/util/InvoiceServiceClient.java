@@ -1,6 +1,8 @@
 package com.increff.pos.util;
 
+import com.increff.pos.api.MetricsApi;
 import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.Constants;
 import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.model.form.InvoiceGenerationForm;
 import com.increff.pos.model.form.InvoiceItemForm;
@@ -24,9 +26,13 @@ public class InvoiceServiceClient {
     @Autowired
     private ApplicationProperties applicationProperties;
 
+    @Autowired
+    private MetricsApi metricsApi;
+
     private RestTemplate restTemplate = new RestTemplate();
 
     public String generateInvoicePdf(OrderWithInvoiceResponse orderData) {
+        long startNanos = System.nanoTime();
         try {
             // Convert order data to external service format
             InvoiceGenerationForm request = createInvoiceGenerationForm(orderData);
@@ -49,6 +55,7 @@ public class InvoiceServiceClient {
             return response.getBase64Pdf();
 
         } catch (Exception e) {
+            metricsApi.counter(Constants.METRIC_INVOICE_CALL_ERRORS).increment();
             // Handle different types of exceptions
             if (e instanceof ApiException) {
                 throw e; // Re-throw our custom exceptions
@@ -56,6 +63,8 @@ public class InvoiceServiceClient {
 
             // Handle external service communication errors
             throw new ApiException(ErrorType.BAD_GATEWAY, "Error calling invoice service: " + e.getMessage());
+        } finally {
+            metricsApi.timer(Constants.METRIC_INVOICE_CALL_SECONDS).record(System.nanoTime() - startNanos);
         }
     }
 
@@ -1,14 +1,22 @@
 package com.increff.pos.util;
 
+import com.increff.pos.model.AuthPrincipalModel;
+import com.increff.pos.spring.ApplicationProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 @Component
 public class JwtUtil {
@@ -16,6 +24,18 @@ public class JwtUtil {
     private static final String SECRET_KEY = "your-secret-key-here-make-it-long-and-secure-in-production";
     private static final long EXPIRATION_TIME = 30 * 60 * 1000; // 30 minutes
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    // Keyed by a SHA-256 of the token so raw bearer tokens are not held in memory
+    private BoundedCache<String, AuthPrincipalModel> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        verifiedTokens = new BoundedCache<>(applicationProperties.getAuthTokenCacheSize(), EXPIRATION_TIME,
+                System::currentTimeMillis, null);
+    }
+
     public String generateToken(Integer userId, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
@@ -33,37 +53,41 @@ public class JwtUtil {
                 .compact();
     }
 
-    public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+    /**
+     * Returns the principal of a valid, unexpired token, or null otherwise. The signature is
+     * checked and the claims parsed once per token; later calls with the same token are served
+     * from the cache until the token expires.
+     */
+    public AuthPrincipalModel verifyToken(String token) {
+        String tokenHash = hash(token);
+        AuthPrincipalModel cached = verifiedTokens.get(tokenHash);
+        if (cached != null) {
+            return cached;
         }
+        AuthPrincipalModel principal = parse(token);
+        if (principal != null) {
+            verifiedTokens.put(tokenHash, principal, principal.getExpiresAtMs());
+        }
+        return principal;
     }
 
-    public Integer getUserIdFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("userId", Integer.class));
-    }
-
-    public String getRoleFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("role", String.class));
-    }
-
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private AuthPrincipalModel parse(String token) {
+        try {
+            // Throws for a bad signature or an expired token
+            Claims claims = Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+            return new AuthPrincipalModel(claims.get("userId", Integer.class), claims.get("role", String.class),
+                    claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
-    private Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,324 @@
+package com.increff.pos.util;
+
+import org.springframework.util.ClassUtils;
+
+import java.beans.Introspector;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Builds and caches one mapper per (source, destination) class pair. Each destination property
+ * is copied from the source property of the same name, read through its getter or, failing
+ * that, its field, and written through its setter or field. Accessors are bound once with
+ * LambdaMetafactory, so a conversion is a constructor call plus one getter and one setter call
+ * per property, with no reflection.
+ *
+ * Values are copied by reference and only between compatible types (boxing allowed). A pair
+ * that would need any other conversion fails when its mapper is built rather than mapping
+ * silently.
+ */
+public class MapperRegistry {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String HIBERNATE_PROXY_MARKER = "$HibernateProxy$";
+
+    private final Map<Class<?>, Map<Class<?>, Mapper>> mappers = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <S, D> D map(S source, Class<D> destinationType) {
+        Class<?> sourceType = source.getClass();
+        Map<Class<?>, Mapper> bySource = mappers.computeIfAbsent(sourceType, type -> new ConcurrentHashMap<>());
+        Mapper mapper = bySource.get(destinationType);
+        if (mapper == null) {
+            mapper = bySource.computeIfAbsent(destinationType, type -> build(userClass(sourceType), type));
+        }
+        return (D) mapper.map(source);
+    }
+
+    private static Mapper build(Class<?> sourceType, Class<?> destinationType) {
+        Map<String, Accessor> sourceProperties = readableProperties(sourceType);
+        List<PropertyCopy> copies = new ArrayList<>();
+        for (Map.Entry<String, Accessor> entry : writableProperties(destinationType).entrySet()) {
+            Accessor source = sourceProperties.get(entry.getKey());
+            if (source == null) {
+                continue;
+            }
+            Accessor destination = entry.getValue();
+            if (!isCompatible(source, destination)) {
+                throw new IllegalArgumentException("Cannot map " + sourceType.getSimpleName() + "." + entry.getKey()
+                        + " of type " + source.genericType.getTypeName() + " to "
+                        + destinationType.getSimpleName() + "." + entry.getKey() + " of type "
+                        + destination.genericType.getTypeName());
+            }
+            copies.add(new PropertyCopy(source.bindGetter(), destination.bindSetter(), destination.type.isPrimitive()));
+        }
+        return new Mapper(constructor(destinationType), copies.toArray(new PropertyCopy[0]));
+    }
+
+    /**
+     * Getters take precedence over fields of the same name, so derived values like hit rates
+     * are read through their getter.
+     */
+    private static Map<String, Accessor> readableProperties(Class<?> type) {
+        Map<String, Accessor> properties = new LinkedHashMap<>();
+        for (Field field : instanceFields(type)) {
+            properties.put(field.getName(), new Accessor(field.getType(), field.getGenericType(), field));
+        }
+        for (Method method : type.getMethods()) {
+            String name = getterProperty(method);
+            if (name != null) {
+                properties.put(name, new Accessor(method.getReturnType(), method.getGenericReturnType(),
+                        publicDeclaration(method)));
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * A getter overridden in a non-public subclass cannot be bound directly, so it is bound through
+     * the public class it overrides; the call still dispatches to the override.
+     */
+    private static Method publicDeclaration(Method method) {
+        for (Class<?> current = method.getDeclaringClass(); current != null; current = current.getSuperclass()) {
+            if (Modifier.isPublic(current.getModifiers())) {
+                try {
+                    return current.getMethod(method.getName());
+                } catch (NoSuchMethodException e) {
+                    return method;
+                }
+            }
+        }
+        return method;
+    }
+
+    private static Map<String, Accessor> writableProperties(Class<?> type) {
+        Map<String, Accessor> properties = new LinkedHashMap<>();
+        for (Field field : instanceFields(type)) {
+            if (!Modifier.isFinal(field.getModifiers())) {
+                properties.put(field.getName(), new Accessor(field.getType(), field.getGenericType(), field));
+            }
+        }
+        for (Method method : type.getMethods()) {
+            if (method.getName().length() > 3 && method.getName().startsWith("set") && method.getParameterCount() == 1
+                    && !Modifier.isStatic(method.getModifiers()) && !method.isBridge()) {
+                properties.put(Introspector.decapitalize(method.getName().substring(3)), new Accessor(
+                        method.getParameterTypes()[0], method.getGenericParameterTypes()[0], method));
+            }
+        }
+        return properties;
+    }
+
+    private static String getterProperty(Method method) {
+        if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers()) || method.isBridge()
+                || method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.length() > 3 && name.startsWith("get") && method.getReturnType() != void.class) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.length() > 2 && name.startsWith("is") && method.getReturnType() == boolean.class) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    private static List<Field> instanceFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Collections, maps and arrays would need their elements mapped, so they are only copied
+     * when both sides declare exactly the same type.
+     */
+    private static boolean isCompatible(Accessor source, Accessor destination) {
+        if (Collection.class.isAssignableFrom(destination.type) || Map.class.isAssignableFrom(destination.type)
+                || destination.type.isArray()) {
+            return source.genericType.equals(destination.genericType);
+        }
+        return ClassUtils.resolvePrimitiveIfNecessary(destination.type)
+                .isAssignableFrom(ClassUtils.resolvePrimitiveIfNecessary(source.type));
+    }
+
+    /**
+     * Mappers are keyed by the runtime class but built from the entity class behind a proxy.
+     */
+    private static Class<?> userClass(Class<?> type) {
+        Class<?> userClass = ClassUtils.getUserClass(type);
+        while (userClass.getName().contains(HIBERNATE_PROXY_MARKER)) {
+            userClass = userClass.getSuperclass();
+        }
+        return userClass;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), handle,
+                    MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType()),
+                            method.getDeclaringClass()));
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot bind getter " + method, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(),
+                            ClassUtils.resolvePrimitiveIfNecessary(method.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot bind setter " + method, e);
+        }
+    }
+
+    private static Function<Object, Object> fieldGetter(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            return source -> {
+                try {
+                    return handle.invokeExact(source);
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Cannot read " + field, e);
+                }
+            };
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access " + field, e);
+        }
+    }
+
+    private static BiConsumer<Object, Object> fieldSetter(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (destination, value) -> {
+                try {
+                    handle.invokeExact(destination, value);
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Cannot write " + field, e);
+                }
+            };
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access " + field, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            if (Modifier.isPublic(constructor.getModifiers()) && Modifier.isPublic(type.getModifiers())) {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), LOOKUP.unreflectConstructor(constructor),
+                        MethodType.methodType(type));
+                return (Supplier<Object>) site.getTarget().invokeExact();
+            }
+            constructor.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return handle.invokeExact();
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Cannot instantiate " + type, e);
+                }
+            };
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has no no-argument constructor", e);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot bind constructor of " + type, e);
+        }
+    }
+
+    /**
+     * A property found on a class, bound to a lambda only once it is matched.
+     */
+    private static class Accessor {
+        private final Class<?> type;
+        private final Type genericType;
+        private final Member member;
+
+        private Accessor(Class<?> type, Type genericType, Member member) {
+            this.type = type;
+            this.genericType = genericType;
+            this.member = member;
+        }
+
+        private Function<Object, Object> bindGetter() {
+            return member instanceof Method ? getter((Method) member) : fieldGetter((Field) member);
+        }
+
+        private BiConsumer<Object, Object> bindSetter() {
+            return member instanceof Method ? setter((Method) member) : fieldSetter((Field) member);
+        }
+    }
+
+    private static class PropertyCopy {
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+        // A null cannot be unboxed into a primitive, so the destination keeps its default
+        private final boolean skipNull;
+
+        private PropertyCopy(Function<Object, Object> getter, BiConsumer<Object, Object> setter, boolean skipNull) {
+            this.getter = getter;
+            this.setter = setter;
+            this.skipNull = skipNull;
+        }
+    }
+
+    private static class Mapper {
+        private final Supplier<Object> constructor;
+        private final PropertyCopy[] copies;
+
+        private Mapper(Supplier<Object> constructor, PropertyCopy[] copies) {
+            this.constructor = constructor;
+            this.copies = copies;
+        }
+
+        private Object map(Object source) {
+            Object destination = constructor.get();
+            for (PropertyCopy copy : copies) {
+                Object value = copy.getter.apply(source);
+                if (value != null || !copy.skipNull) {
+                    copy.setter.accept(destination, value);
+                }
+            }
+            return destination;
+        }
+    }
+}
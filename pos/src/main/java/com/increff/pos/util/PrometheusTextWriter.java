@@ -0,0 +1,112 @@
+package com.increff.pos.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a scrape body in the Prometheus text exposition format (version 0.0.4). Samples of
+ * one metric must be written together, after its type line.
+ */
+public class PrometheusTextWriter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // Bucket bounds in seconds for latency histograms, from a 1 ms DAO call to a 10 s upload
+    private static final double[] BUCKET_BOUNDS_SECONDS =
+            {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS_SECONDS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS_SECONDS.length; i++) {
+            BUCKET_BOUNDS_NANOS[i] = Math.round(BUCKET_BOUNDS_SECONDS[i] * NANOS_PER_SECOND);
+        }
+    }
+
+    private final StringBuilder out = new StringBuilder(4096);
+
+    /**
+     * Renders label pairs (name, value, name, value, ...) as the inside of a label set.
+     */
+    public static String labels(String... pairs) {
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            if (labels.length() > 0) {
+                labels.append(',');
+            }
+            labels.append(pairs[i]).append("=\"");
+            appendEscaped(labels, pairs[i + 1]);
+            labels.append('"');
+        }
+        return labels.toString();
+    }
+
+    public PrometheusTextWriter type(String name, String type) {
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    public PrometheusTextWriter sample(String name, String labels, long value) {
+        appendName(name, labels, null).append(value).append('\n');
+        return this;
+    }
+
+    public PrometheusTextWriter sample(String name, String labels, double value) {
+        appendName(name, labels, null).append(value).append('\n');
+        return this;
+    }
+
+    /**
+     * Writes the cumulative bucket, sum and count samples of a histogram from one of nanoseconds,
+     * converted to seconds. Percentiles are left to the server, which can take them over a recent
+     * window, for example histogram_quantile(0.99, rate(name_bucket[5m])).
+     */
+    public PrometheusTextWriter histogramSeconds(String name, String labels, LatencyHistogram histogram) {
+        long[] cumulative = histogram.getCumulativeCounts(BUCKET_BOUNDS_NANOS);
+        for (int i = 0; i < BUCKET_BOUNDS_SECONDS.length; i++) {
+            appendName(name + "_bucket", labels, "le=\"" + BUCKET_BOUNDS_SECONDS[i] + "\"")
+                    .append(cumulative[i]).append('\n');
+        }
+        long count = cumulative[BUCKET_BOUNDS_SECONDS.length];
+        appendName(name + "_bucket", labels, "le=\"+Inf\"").append(count).append('\n');
+        sample(name + "_sum", labels, histogram.getSum() / NANOS_PER_SECOND);
+        sample(name + "_count", labels, count);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private StringBuilder appendName(String name, String labels, String extraLabel) {
+        out.append(name);
+        boolean hasLabels = labels != null && !labels.isEmpty();
+        if (hasLabels || extraLabel != null) {
+            out.append('{');
+            if (hasLabels) {
+                out.append(labels);
+            }
+            if (extraLabel != null) {
+                out.append(hasLabels ? "," : "").append(extraLabel);
+            }
+            out.append('}');
+        }
+        return out.append(' ');
+    }
+
+    private static void appendEscaped(StringBuilder target, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                target.append('\\').append(c);
+            } else if (c == '\n') {
+                target.append("\\n");
+            } else {
+                target.append(c);
+            }
+        }
+    }
+}
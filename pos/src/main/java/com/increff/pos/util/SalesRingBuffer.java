@@ -0,0 +1,85 @@
+package com.increff.pos.util;
+
+import com.increff.pos.model.LiveSalesModel;
+
+/**
+ * Fixed-size ring of per-minute sales buckets keyed by epoch minute.
+ * A slot is reused once its minute falls out of the window, so memory stays constant
+ * and recording or reading a bucket never allocates.
+ */
+public class SalesRingBuffer {
+
+    private static final long EMPTY_SLOT = Long.MIN_VALUE;
+
+    private final int capacity;
+    private final long[] bucketMinutes;
+    private final int[] ordersCounts;
+    private final int[] itemsCounts;
+    private final double[] revenues;
+
+    public SalesRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.bucketMinutes = new long[capacity];
+        this.ordersCounts = new int[capacity];
+        this.itemsCounts = new int[capacity];
+        this.revenues = new double[capacity];
+        clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized void add(long epochMinute, int orders, int items, double revenue) {
+        int slot = slotOf(epochMinute);
+        if (bucketMinutes[slot] > epochMinute) {
+            // Slot already holds a newer minute, this sample is outside the window
+            return;
+        }
+        if (bucketMinutes[slot] != epochMinute) {
+            bucketMinutes[slot] = epochMinute;
+            ordersCounts[slot] = 0;
+            itemsCounts[slot] = 0;
+            revenues[slot] = 0;
+        }
+        ordersCounts[slot] += orders;
+        itemsCounts[slot] += items;
+        revenues[slot] += revenue;
+    }
+
+    /**
+     * Sums the buckets between the two minutes, both inclusive.
+     * Minutes that were never recorded or have been overwritten count as zero.
+     */
+    public synchronized LiveSalesModel sum(long fromMinute, long toMinute) {
+        int orders = 0;
+        int items = 0;
+        double revenue = 0;
+        long start = Math.max(fromMinute, toMinute - capacity + 1);
+        for (long minute = start; minute <= toMinute; minute++) {
+            int slot = slotOf(minute);
+            if (bucketMinutes[slot] == minute) {
+                orders += ordersCounts[slot];
+                items += itemsCounts[slot];
+                revenue += revenues[slot];
+            }
+        }
+        return new LiveSalesModel(orders, items, revenue);
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < capacity; i++) {
+            bucketMinutes[i] = EMPTY_SLOT;
+            ordersCounts[i] = 0;
+            itemsCounts[i] = 0;
+            revenues[i] = 0;
+        }
+    }
+
+    private int slotOf(long epochMinute) {
+        return (int) Math.floorMod(epochMinute, (long) capacity);
+    }
+}
@@ -0,0 +1,213 @@
+package com.increff.pos.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted Space-Saving heavy-hitters summary (Metwally et al.) over a fixed number of counters.
+ *
+ * With m counters and a total offered weight of N, every reported count is an overestimate by at
+ * most its error, and that error never exceeds N / m. Any key whose true weight is above N / m is
+ * guaranteed to be tracked. Not thread-safe, callers synchronize.
+ *
+ * Counters sit in an array-backed min-heap that records each counter's slot, so an offer finds
+ * its counter by hash and only sifts it down from there, or replaces the root on eviction,
+ * without allocating for known keys. The stream-summary bucket list offers O(1) updates only for
+ * unit increments; offers here carry quantities and revenue, which would make a counter walk
+ * past every bucket between its old and new count.
+ */
+public class SpaceSavingSketch<K> {
+
+    private static final Comparator<Counter<?>> BY_COUNT = Comparator
+            .<Counter<?>>comparingDouble(Counter::getCount)
+            .thenComparingLong(counter -> counter.sequence);
+
+    private final int capacity;
+    private final Map<K, Counter<K>> counters = new HashMap<>();
+    // Min-heap by count, least recently updated first among equal counts
+    private final List<Counter<K>> heap = new ArrayList<>();
+    private double totalWeight;
+    private long sequence;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void offer(K key, double weight) {
+        totalWeight += weight;
+        Counter<K> counter = counters.get(key);
+        if (counter != null) {
+            counter.count += weight;
+            counter.sequence = sequence++;
+            siftDown(counter.index);
+        } else if (counters.size() < capacity) {
+            counter = new Counter<>(key, weight, 0);
+            counter.sequence = sequence++;
+            counter.index = heap.size();
+            counters.put(key, counter);
+            heap.add(counter);
+            siftUp(counter.index);
+        } else {
+            // Take over the smallest counter; its count becomes the new key's error bound
+            Counter<K> evicted = heap.get(0);
+            counters.remove(evicted.key);
+            counter = new Counter<>(key, evicted.count + weight, evicted.count);
+            counter.sequence = sequence++;
+            counters.put(key, counter);
+            heap.set(0, counter);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Returns up to k counters with the largest estimated weight, largest first.
+     */
+    public List<Counter<K>> top(int k) {
+        List<Counter<K>> sorted = new ArrayList<>(heap);
+        sorted.sort(BY_COUNT.reversed());
+        List<Counter<K>> result = new ArrayList<>(Math.min(k, sorted.size()));
+        for (Counter<K> counter : sorted) {
+            if (result.size() == k) {
+                break;
+            }
+            result.add(counter.copy());
+        }
+        return result;
+    }
+
+    /**
+     * Smallest count a key absent from this sketch could have been evicted with.
+     * Zero while the sketch still has free counters.
+     */
+    public double getMinCount() {
+        return counters.size() < capacity ? 0 : heap.get(0).count;
+    }
+
+    public Counter<K> get(K key) {
+        Counter<K> counter = counters.get(key);
+        return counter == null ? null : counter.copy();
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        counters.clear();
+        heap.clear();
+        totalWeight = 0;
+    }
+
+    private void siftUp(int index) {
+        Counter<K> counter = heap.get(index);
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (BY_COUNT.compare(counter, heap.get(parent)) >= 0) {
+                break;
+            }
+            place(heap.get(parent), index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter<K> counter = heap.get(index);
+        int size = heap.size();
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && BY_COUNT.compare(heap.get(child + 1), heap.get(child)) < 0) {
+                child++;
+            }
+            if (BY_COUNT.compare(counter, heap.get(child)) <= 0) {
+                break;
+            }
+            place(heap.get(child), index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter<K> counter, int index) {
+        heap.set(index, counter);
+        counter.index = index;
+    }
+
+    /**
+     * Combines several sketches into the top k keys across all of them.
+     * A key missing from a full sketch may have been evicted there, so that sketch's minimum count
+     * is added to both its count and its error; the bounds of the inputs therefore add up.
+     */
+    public static <K> List<Counter<K>> mergeTop(List<SpaceSavingSketch<K>> sketches, int k) {
+        Map<K, Counter<K>> merged = new HashMap<>();
+        for (SpaceSavingSketch<K> sketch : sketches) {
+            for (Counter<K> counter : sketch.counters.values()) {
+                merged.putIfAbsent(counter.key, new Counter<>(counter.key, 0, 0));
+            }
+        }
+        for (Counter<K> target : merged.values()) {
+            for (SpaceSavingSketch<K> sketch : sketches) {
+                Counter<K> counter = sketch.counters.get(target.key);
+                if (counter != null) {
+                    target.count += counter.count;
+                    target.error += counter.error;
+                } else {
+                    target.count += sketch.getMinCount();
+                    target.error += sketch.getMinCount();
+                }
+            }
+        }
+        List<Counter<K>> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparingDouble((Counter<K> counter) -> counter.count).reversed());
+        return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+    }
+
+    public static class Counter<K> {
+        private final K key;
+        private double count;
+        private double error;
+        private long sequence;
+        private int index;
+
+        private Counter(K key, double count, double error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * Estimated weight, never below the true weight.
+         */
+        public double getCount() {
+            return count;
+        }
+
+        /**
+         * Maximum overestimation, so the true weight is at least count - error.
+         */
+        public double getError() {
+            return error;
+        }
+
+        private Counter<K> copy() {
+            return new Counter<>(key, count, error);
+        }
+    }
+}
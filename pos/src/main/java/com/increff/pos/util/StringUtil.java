@@ -1,5 +1,7 @@
 package com.increff.pos.util;
 
+import java.util.Locale;
+
 public class StringUtil {
 
 	public static boolean isEmpty(String s) {
@@ -7,11 +9,11 @@ public class StringUtil {
 	}
 
 	public static String toLowerCase(String s) {
-		return s == null ? null : s.trim().toLowerCase();
+		return s == null ? null : s.trim().toLowerCase(Locale.ROOT);
 	}
 
 	public static String toUpperCase(String s) {
-		return s == null ? null : s.trim().toUpperCase();
+		return s == null ? null : s.trim().toUpperCase(Locale.ROOT);
 	}
 
 	public static String normalize(String input) {
@@ -0,0 +1,167 @@
+package com.increff.pos.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level 0 has wheelSize slots of tickMs each; every further level
+ * is created on demand with slots as wide as the whole level below it. Scheduling and
+ * cancelling are O(1), and each advanced tick only drains one slot per level, cascading a
+ * coarse slot into the finer levels once it comes due.
+ *
+ * A timeout fires on the first tick at or after its expiration, so it is at most one tick late
+ * and never early. Not thread-safe; callers synchronize.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<ArrayDeque<Timeout<T>>> slots;
+    private final TimingWheel<T> root;
+    private TimingWheel<T> overflow;
+    private long currentTime;
+    private int pending;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this(tickMs, wheelSize, startMs, null);
+    }
+
+    private TimingWheel(long tickMs, int wheelSize, long startMs, TimingWheel<T> root) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("Tick must be positive and the wheel must have at least two slots");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.root = root == null ? this : root;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Schedules a value to expire at the given time. A time already passed fires on the next
+     * advance.
+     */
+    public Timeout<T> schedule(T value, long expirationMs) {
+        Timeout<T> timeout = new Timeout<>(value, Math.max(expirationMs, currentTime));
+        add(timeout);
+        pending++;
+        return timeout;
+    }
+
+    public void cancel(Timeout<T> timeout) {
+        if (!timeout.cancelled) {
+            timeout.cancelled = true;
+            pending--;
+        }
+    }
+
+    /**
+     * Advances the wheel to the given time and hands every expired value to the consumer.
+     */
+    public void advance(long nowMs, Consumer<T> onExpire) {
+        if (pending == 0) {
+            // Nothing to fire, so skip the ticks and realign every level to the new time
+            realign(nowMs);
+            return;
+        }
+        while (currentTime + tickMs <= nowMs) {
+            currentTime += tickMs;
+            drain(slotFor(currentTime - tickMs), onExpire);
+            if (overflow != null && currentTime % interval == 0) {
+                overflow.tick(onExpire);
+            }
+        }
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    private void tick(Consumer<T> onExpire) {
+        currentTime += tickMs;
+        ArrayDeque<Timeout<T>> due = slotFor(currentTime);
+        List<Timeout<T>> cascaded = new ArrayList<>(due);
+        due.clear();
+        for (Timeout<T> timeout : cascaded) {
+            if (!timeout.cancelled) {
+                root.add(timeout);
+            }
+        }
+        if (overflow != null && currentTime % interval == 0) {
+            overflow.tick(onExpire);
+        }
+    }
+
+    private void add(Timeout<T> timeout) {
+        if (timeout.expirationMs < currentTime + interval) {
+            slotFor(timeout.expirationMs).addLast(timeout);
+            return;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(interval, wheelSize, currentTime, root);
+        }
+        overflow.add(timeout);
+    }
+
+    private void drain(ArrayDeque<Timeout<T>> slot, Consumer<T> onExpire) {
+        Timeout<T> timeout;
+        while ((timeout = slot.pollFirst()) != null) {
+            if (!timeout.cancelled) {
+                timeout.cancelled = true;
+                pending--;
+                onExpire.accept(timeout.value);
+            }
+        }
+    }
+
+    private void realign(long nowMs) {
+        for (TimingWheel<T> level = this; level != null; level = level.overflow) {
+            long aligned = nowMs - (nowMs % level.tickMs);
+            if (aligned > level.currentTime) {
+                level.currentTime = aligned;
+                level.slots.forEach(ArrayDeque::clear);
+            }
+        }
+    }
+
+    private ArrayDeque<Timeout<T>> slotFor(long timeMs) {
+        return slots.get((int) ((timeMs / tickMs) % wheelSize));
+    }
+
+    /**
+     * Handle for a scheduled value, used to cancel it.
+     */
+    public static class Timeout<T> {
+        private final T value;
+        private final long expirationMs;
+        private boolean cancelled;
+
+        private Timeout(T value, long expirationMs) {
+            this.value = value;
+            this.expirationMs = expirationMs;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getExpirationMs() {
+            return expirationMs;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.increff.pos.exception.ApiException;
 import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.model.form.InventoryForm;
 import com.increff.pos.model.form.InventoryFormWithRow;
+import com.increff.pos.model.form.ProductBulkUpdateForm;
+import com.increff.pos.model.form.ProductBulkUpdateFormWithRow;
 import com.increff.pos.model.form.ProductForm;
 import com.increff.pos.model.form.ProductFormWithRow;
 import org.springframework.web.multipart.MultipartFile;
@@ -11,99 +13,93 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Locale;
+import java.util.function.Consumer;
 
 public class TsvParserUtil {
 
-    public static List<ProductFormWithRow> parseProductTsv(MultipartFile file) {
-        List<ProductFormWithRow> productForms = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            boolean isFirstLine = true;
-            String[] expectedHeaders = {"barcode", "client_id", "name", "mrp", "imageUrl"};
-            int rowNumber = 0;
-
+    /**
+     * Reads a product file with columns barcode, client_id, name, mrp and an optional imageUrl
+     * one row at a time, handing each row to the consumer as soon as it is parsed. Row numbers
+     * count the header, so the first product is row 2. Exceptions thrown by the consumer are
+     * passed on unchanged.
+     */
+    public static void forEachProductRow(MultipartFile file, Consumer<ProductFormWithRow> consumer) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (line == null) {
+                return;
+            }
+            validateHeaders(line, new String[]{"barcode", "client_id", "name", "mrp", "imageUrl"}, 4);
+            int rowNumber = 1;
             while ((line = reader.readLine()) != null) {
                 rowNumber++;
-                
-                if (isFirstLine) {
-                    // Validate headers
-                    validateHeaders(line, expectedHeaders);
-                    isFirstLine = false;
-                    continue; // Skip header
-                }
-
                 String[] fields = parseTabDelimitedLine(line);
-                // System.out.println("TSV line parsed: " + Arrays.toString(fields));
+                ProductForm form = new ProductForm();
+                form.setBarcode(getField(fields, 0));
+                form.setClientId(safeParseInteger(getField(fields, 1)));
+                form.setName(getField(fields, 2));
+                form.setMrp(safeParseDouble(getField(fields, 3)));
+                form.setImageUrl(getField(fields, 4));
+                consumer.accept(new ProductFormWithRow(form, rowNumber, line));
+            }
+        } catch (IOException e) {
+            throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Error parsing product TSV file");
+        }
+    }
 
-//                if (fields.length >= 4) { // barcode, client_id, name, mrp (imageUrl optional)
-                    ProductForm form = new ProductForm();
-//                    form.setBarcode(fields[0].trim());
-                    form.setBarcode(getField(fields, 0));
-//                    form.setClientId(Integer.parseInt(fields[1].trim()));
-                    form.setClientId(safeParseInteger(getField(fields, 1)));
-                    form.setName(getField(fields, 2));
-//                    form.setName(fields[2].trim());
-//                    form.setMrp(Double.parseDouble(fields[3].trim()));
-                    form.setMrp(safeParseDouble(getField(fields, 3)));
-//                    if (fields.length > 4 && !fields[4].trim().isEmpty()) {
-//                        form.setImageUrl(fields[4].trim());
-//                    }
-                    form.setImageUrl(getField(fields, 4));
-                    productForms.add(new ProductFormWithRow(form, rowNumber, line));
-//                }
+    /**
+     * Parses a bulk product update file with columns barcode, name, mrp and an optional imageUrl.
+     */
+    public static List<ProductBulkUpdateFormWithRow> parseProductUpdateTsv(MultipartFile file) {
+        List<ProductBulkUpdateFormWithRow> result = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (line == null) {
+                return result;
             }
+            validateHeaders(line, new String[]{"barcode", "name", "mrp", "imageUrl"}, 3);
+            int rowNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                String[] fields = parseTabDelimitedLine(line);
+                ProductBulkUpdateForm form = new ProductBulkUpdateForm();
+                form.setBarcode(getField(fields, 0));
+                form.setName(getField(fields, 1));
+                form.setMrp(safeParseDouble(getField(fields, 2)));
+                form.setImageUrl(getField(fields, 3));
+                result.add(new ProductBulkUpdateFormWithRow(rowNumber, form, line));
+            }
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
-            throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Error parsing product TSV file");
+            throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Error parsing product update TSV file");
         }
-        return productForms;
+        return result;
     }
 
-    private static void validateHeaders(String headerLine, String[] expectedHeaders) {
+    private static void validateHeaders(String headerLine, String[] expectedHeaders, int requiredColumns) {
         String[] actualHeaders = parseTabDelimitedLine(headerLine);
-        if (actualHeaders.length < 4) {
-            throw new ApiException(ErrorType.BAD_REQUEST, 
-                "Invalid TSV format: Expected at least 4 columns (barcode, client_id, name, mrp), got " + actualHeaders.length);
+        if (actualHeaders.length < requiredColumns) {
+            String required = String.join(", ", Arrays.copyOf(expectedHeaders, requiredColumns));
+            throw new ApiException(ErrorType.BAD_REQUEST, "Invalid TSV format: Expected at least " + requiredColumns
+                    + " columns (" + required + "), got " + actualHeaders.length);
         }
         // Check if required headers are present (case-insensitive)
         for (int i = 0; i < Math.min(actualHeaders.length, expectedHeaders.length); i++) {
-            if (!actualHeaders[i].trim().toLowerCase().equals(expectedHeaders[i].toLowerCase())) {
+            if (!actualHeaders[i].trim().toLowerCase(Locale.ROOT).equals(expectedHeaders[i].toLowerCase(Locale.ROOT))) {
                 throw new ApiException(ErrorType.BAD_REQUEST, 
                     "Invalid header at column " + (i + 1) + ": Expected '" + expectedHeaders[i] + "', got '" + actualHeaders[i] + "'");
             }
         }
     }
 
-    public static List<InventoryForm> parseInventoryTsv(MultipartFile file) {
-        List<InventoryForm> inventoryForms = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            boolean isFirstLine = true;
-            while ((line = reader.readLine()) != null) {
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue; // Skip header
-                }
-              String[] fields = parseTabDelimitedLine(line);
-//                if (fields.length >= 2) { // barcode, quantity
-                    InventoryForm form = new InventoryForm();
-//                    form.setBarcode(Integer.parseInt(fields[0].trim()));
-                    form.setBarcode(getField(fields, 0));
-//                    form.setQuantity(Integer.parseInt(fields[1].trim()));
-                    form.setQuantity(safeParseInteger(getField(fields, 1)));
-                    inventoryForms.add(form);
-//                }
-            }
-        } catch (Exception e) {
-            throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Error parsing inventory TSV file");
-        }
-        return inventoryForms;
-    }
-
     private static String[] parseTabDelimitedLine(String line) {
         List<String> fields = new ArrayList<>();
         StringBuilder currentField = new StringBuilder();
@@ -126,15 +122,29 @@ public class TsvParserUtil {
         return fields.toArray(new String[0]);
     }
 
-    public static List<InventoryFormWithRow> parseInventoryTsvWithRow(MultipartFile file) {
-        List<InventoryForm> forms = parseInventoryTsv(file);
-        List<InventoryFormWithRow> result =
-                IntStream.range(0, forms.size())
-                        .mapToObj(i -> new InventoryFormWithRow(i + 1, forms.get(i))) // +1 for row number
-                        .collect(Collectors.toList());
-
-        return result;
+    /**
+     * Reads an inventory file with columns barcode and quantity one row at a time, handing each
+     * row to the consumer as soon as it is parsed, so the file is never held in memory. Row
+     * numbers start at 1. Exceptions thrown by the consumer are passed on unchanged.
+     */
+    public static void forEachInventoryRow(MultipartFile file, Consumer<InventoryFormWithRow> consumer) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            // Skip header
+            String line = reader.readLine();
+            int rowNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = parseTabDelimitedLine(line);
+                InventoryForm form = new InventoryForm();
+                form.setBarcode(getField(fields, 0));
+                form.setQuantity(safeParseInteger(getField(fields, 1)));
+                consumer.accept(new InventoryFormWithRow(++rowNumber, form));
+            }
+        } catch (IOException e) {
+            throw new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Error parsing inventory TSV file");
+        }
     }
+
     private static String getField(String[] fields, int idx) {
         return (fields.length > idx) ? fields[idx].trim() : null;
     }
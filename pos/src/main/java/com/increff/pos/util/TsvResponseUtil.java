@@ -1,11 +1,12 @@
 package com.increff.pos.util;
 
 import com.increff.pos.model.form.InventoryForm;
-import com.increff.pos.model.form.InventoryFormWithRow;
+import com.increff.pos.model.form.ProductBulkUpdateForm;
+import com.increff.pos.model.form.ProductBulkUpdateFormWithRow;
 import com.increff.pos.model.form.ProductForm;
-import com.increff.pos.model.form.ProductFormWithRow;
 import com.increff.pos.model.response.UploadResponse;
 import com.increff.pos.model.response.ValidationError;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
@@ -19,8 +20,11 @@ import java.util.stream.Collectors;
  */
 public class TsvResponseUtil {
 
-    public static String generateInventoryTsvResponse( List<InventoryFormWithRow> inventoryFormsWithRow,
-            List<ValidationError> validationErrors) {
+    /**
+     * Builds the result file of an inventory upload by reading the uploaded file again, row by
+     * row, rather than from parsed rows kept since the upload.
+     */
+    public static String generateInventoryTsvResponse(MultipartFile file, List<ValidationError> validationErrors) {
         if(validationErrors.isEmpty()) {
             return "";
         }
@@ -34,7 +38,7 @@ public class TsvResponseUtil {
                     (existing, replacement) -> existing + "; " + replacement
                 ));
         
-        for (InventoryFormWithRow formWithRow : inventoryFormsWithRow) {
+        TsvParserUtil.forEachInventoryRow(file, formWithRow -> {
             InventoryForm form = formWithRow.getForm();
             String errorMessage = errorMap.get(formWithRow.getRowNumber());
 
@@ -45,12 +49,14 @@ public class TsvResponseUtil {
                     .append(nullToString(form.getQuantity())).append("\t")
                     .append(validity).append("\t")
                     .append(remarks).append("\n");
-        }
+        });
         return tsvContent.toString();
     }
 
-    public static String buildProductTsvContent( List<ProductFormWithRow> productFormsWithRow,
-            List<ValidationError> validationErrors) {
+    /**
+     * Builds the result file of a product upload by reading the uploaded file again, row by row.
+     */
+    public static String buildProductTsvContent(MultipartFile file, List<ValidationError> validationErrors) {
         if(validationErrors.isEmpty()) {
             return "";
         }
@@ -62,7 +68,7 @@ public class TsvResponseUtil {
                         ValidationError::getErrorMessage,
                         (a, b) -> a + "; " + b // merge multiple errors for same row
                 ));
-        for (ProductFormWithRow row : productFormsWithRow) {
+        TsvParserUtil.forEachProductRow(file, row -> {
             ProductForm form = row.getForm();
             String errorMessage = errorMap.get(row.getRowNumber());
             String validity = (errorMessage == null) ? "valid" : "invalid";
@@ -74,6 +80,34 @@ public class TsvResponseUtil {
                     .append(nullToString(form.getImageUrl())).append("\t")
                     .append(validity).append("\t")
                     .append(remarks).append("\n");
+        });
+        return sb.toString();
+    }
+
+    public static String buildProductUpdateTsvContent(List<ProductBulkUpdateFormWithRow> formsWithRow,
+            List<ValidationError> validationErrors) {
+        if(validationErrors.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("barcode\tname\tmrp\timageUrl\tvalidity\tremarks\n");
+        Map<Integer, String> errorMap = validationErrors.stream()
+                .collect(Collectors.toMap(
+                        ValidationError::getRowNumber,
+                        ValidationError::getErrorMessage,
+                        (a, b) -> a + "; " + b
+                ));
+        for (ProductBulkUpdateFormWithRow row : formsWithRow) {
+            ProductBulkUpdateForm form = row.getForm();
+            String errorMessage = errorMap.get(row.getRowNumber());
+            String validity = (errorMessage == null) ? "valid" : "invalid";
+            String remarks = (errorMessage == null) ? "" : errorMessage;
+            sb.append(nullToString(form.getBarcode())).append("\t")
+                    .append(nullToString(form.getName())).append("\t")
+                    .append(nullToString(form.getMrp())).append("\t")
+                    .append(nullToString(form.getImageUrl())).append("\t")
+                    .append(validity).append("\t")
+                    .append(remarks).append("\n");
         }
         return sb.toString();
     }
@@ -82,8 +116,8 @@ public class TsvResponseUtil {
         return val == null ? "" : val.toString();
     }
 
-    public static UploadResponse createInventoryUploadResponse(List<InventoryFormWithRow> allForms, List<ValidationError> allErrors) {
-        String tsvContent = allErrors.isEmpty() ? "" : generateInventoryTsvResponse(allForms, allErrors);
+    public static UploadResponse createInventoryUploadResponse(MultipartFile file, List<ValidationError> allErrors) {
+        String tsvContent = allErrors.isEmpty() ? "" : generateInventoryTsvResponse(file, allErrors);
         String base64Tsv = tsvContent.isEmpty() ? "" : Base64.getEncoder().encodeToString(tsvContent.getBytes(StandardCharsets.UTF_8));
         UploadResponse response = new UploadResponse();
         response.setStatus(allErrors.isEmpty() ? "success" : "error");
@@ -92,8 +126,8 @@ public class TsvResponseUtil {
         return response;
     }
 
-    public static UploadResponse createProductUploadResponse(List<ProductFormWithRow> allForms, List<ValidationError> allErrors) {
-        String tsvContent = allErrors.isEmpty() ? "" : buildProductTsvContent(allForms, allErrors);
+    public static UploadResponse createProductUploadResponse(MultipartFile file, List<ValidationError> allErrors) {
+        String tsvContent = allErrors.isEmpty() ? "" : buildProductTsvContent(file, allErrors);
         String base64Tsv = tsvContent.isEmpty() ? "" : Base64.getEncoder().encodeToString(tsvContent.getBytes(StandardCharsets.UTF_8));
         UploadResponse response = new UploadResponse();
         response.setStatus(allErrors.isEmpty() ? "success" : "error");
@@ -101,4 +135,14 @@ public class TsvResponseUtil {
         response.setFilename("product_upload_results.tsv");
         return response;
     }
+
+    public static UploadResponse createProductUpdateResponse(List<ProductBulkUpdateFormWithRow> allForms, List<ValidationError> allErrors) {
+        String tsvContent = allErrors.isEmpty() ? "" : buildProductUpdateTsvContent(allForms, allErrors);
+        String base64Tsv = tsvContent.isEmpty() ? "" : Base64.getEncoder().encodeToString(tsvContent.getBytes(StandardCharsets.UTF_8));
+        UploadResponse response = new UploadResponse();
+        response.setStatus(allErrors.isEmpty() ? "success" : "error");
+        response.setTsvBase64(base64Tsv);
+        response.setFilename("product_update_results.tsv");
+        return response;
+    }
 } 
\ No newline at end of file
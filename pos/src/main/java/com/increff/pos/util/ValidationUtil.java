@@ -3,17 +3,23 @@ package com.increff.pos.util;
 import com.increff.pos.exception.ApiException;
 import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.model.form.ProductFormWithRow;
+import com.increff.pos.spring.ApplicationProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 import com.increff.pos.model.form.InventoryFormWithRow;
+import com.increff.pos.model.form.ProductBulkUpdateFormWithRow;
 import com.increff.pos.model.response.ValidationError;
 
 import static com.increff.pos.util.StringUtil.extractFieldFromValidationError;
@@ -24,6 +30,9 @@ public class ValidationUtil {
     @Autowired
     private Validator validator;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     public <T> void validateForm(T form) {
         if (form == null) {
             throw new ApiException(ErrorType.BAD_REQUEST, "Form cannot be null");
@@ -57,7 +66,7 @@ public class ValidationUtil {
     /**
      * Validate TSV file.
      * Ensures the file is not null/empty, has the correct .tsv extension,
-     * and does not exceed the maximum allowed number of rows (5000).
+     * and does not exceed the configured maximum number of rows.
      * 
      * @param file The TSV file to validate
      * @throws ApiException with VALIDATION_ERROR type if file is invalid
@@ -74,42 +83,27 @@ public class ValidationUtil {
     
     /**
      * Validate the number of rows in a TSV file.
-     * Counts the number of lines in the file and throws an exception if it exceeds 5000 rows.
-     * This prevents processing of excessively large files that could impact performance.
+     * Lines are counted while streaming the file so large uploads are never held in memory as a
+     * single string, and counting stops as soon as the limit is crossed.
      * 
      * @param file The TSV file to check for row count
      * @throws ApiException with VALIDATION_ERROR type if row count exceeds limit
      */
     private void validateTsvRowCount(MultipartFile file) {
-        try {
-            // Read the file content as string and split by newlines to count rows
-            String content = new String(file.getBytes(), "UTF-8");
-            String[] lines = content.split("\n");
-            
-            // Count non-empty lines (actual data rows)
+        int maxRows = applicationProperties.getUploadMaxRows();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
             int rowCount = 0;
-            for (String line : lines) {
+            String line;
+            while ((line = reader.readLine()) != null) {
                 // Skip empty lines or lines with only whitespace
-                if (line != null && !line.trim().isEmpty()) {
-                    rowCount++;
+                if (!line.trim().isEmpty() && ++rowCount > maxRows) {
+                    throw new ApiException(ErrorType.BAD_REQUEST, "FILE ROW LIMIT EXCEEDED");
                 }
             }
-            // Check if row count exceeds the maximum allowed limit
-            final int MAX_ROWS = 5000;
-            if (rowCount > MAX_ROWS) {
-                throw new ApiException(ErrorType.BAD_REQUEST, "FILE ROW LIMIT EXCEEDED");
-            }
-
-        } catch (java.io.IOException e) {
+        } catch (IOException e) {
             // Handle IOException specifically for file reading issues
             throw new ApiException(ErrorType.BAD_REQUEST, "Unable to read TSV file content");
-        } catch (Exception e) {
-            // If we can't read the file content, throw a generic error
-            // This handles cases where the file might be corrupted or unreadable
-            if (e instanceof ApiException) {
-                throw e; // Re-throw ApiException as-is
-            }
-            throw new ApiException(ErrorType.BAD_REQUEST, "Unable to validate TSV file content");
         }
     }
 
@@ -172,4 +166,28 @@ public class ValidationUtil {
         }
         return errors;
     }
-}
\ No newline at end of file
+
+    /**
+     * Validates individual bulk product update forms and returns validation errors with row
+     * information.
+     *
+     * @param formsWithRow List of product update forms with row information
+     * @return List of validation errors
+     */
+    public List<ValidationError> validateProductUpdateFormsWithRow(List<ProductBulkUpdateFormWithRow> formsWithRow) {
+        List<ValidationError> errors = new ArrayList<>();
+        for (ProductBulkUpdateFormWithRow formWithRow : formsWithRow) {
+            try {
+                validateForm(formWithRow.getForm());
+            } catch (ApiException e) {
+                errors.add(new ValidationError(
+                    formWithRow.getRowNumber(),
+                    extractFieldFromValidationError(e.getMessage()),
+                    e.getMessage(),
+                    formWithRow.getOriginalData()
+                ));
+            }
+        }
+        return errors;
+    }
+}
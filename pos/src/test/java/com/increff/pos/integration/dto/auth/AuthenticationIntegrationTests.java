@@ -2,6 +2,7 @@ package com.increff.pos.integration.dto.auth;
 
 import com.increff.pos.dto.AuthDto;
 import com.increff.pos.entity.UserPojo;
+import com.increff.pos.model.AuthPrincipalModel;
 import com.increff.pos.exception.ApiException;
 import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.model.enums.Role;
@@ -11,10 +12,19 @@ import com.increff.pos.model.response.LoginResponse;
 import com.increff.pos.model.response.UserResponse;
 import com.increff.pos.setup.AbstractIntegrationTest;
 import com.increff.pos.setup.TestData;
+import com.increff.pos.util.JwtUtil;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.Assert.*;
 import java.lang.reflect.Field;
@@ -30,12 +40,20 @@ import java.lang.reflect.Field;
  * - Business logic integration across layers
  * 
  * Each test focuses on exactly one DTO method and verifies both
- * the return value and the actual database state.
+ * the return value and the actual database state. A successful login is recorded in its own
+ * transaction on the credential pool, so tests that log in commit their users and delete them
+ * afterwards.
  */
 public class AuthenticationIntegrationTests extends AbstractIntegrationTest {
 
     @Autowired
     private AuthDto authDto;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
     
     private MockHttpServletRequest mockRequest;
     
@@ -44,6 +62,32 @@ public class AuthenticationIntegrationTests extends AbstractIntegrationTest {
         mockRequest = new MockHttpServletRequest();
     }
     
+    /**
+     * Logs in and waits for the credential pool, rethrowing the failure of the login itself
+     */
+    private LoginResponse login(LoginForm form, MockHttpServletRequest request) {
+        try {
+            return authDto.login(form, request).join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Deletes users committed by the tests that log in on the credential pool
+     */
+    private void deleteUsers(String... emails) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("delete from UserPojo u where u.email in :emails")
+                    .setParameter("emails", Arrays.asList(emails)).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
     /**
      * Helper method to set private fields in LoginForm using reflection
      */
@@ -166,33 +210,38 @@ public class AuthenticationIntegrationTests extends AbstractIntegrationTest {
      * Verifies complete login workflow.
      */
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void testLogin_Success() {
-        // Given: Create user via signup (to ensure proper password encoding)
-        SignupForm signupForm = new SignupForm();
-        signupForm.setName("Login User");
-        signupForm.setEmail("login@example.com");
-        signupForm.setPassword("password123");
-        authDto.signup(signupForm);
+        try {
+            // Given: Create user via signup (to ensure proper password encoding)
+            SignupForm signupForm = new SignupForm();
+            signupForm.setName("Login User");
+            signupForm.setEmail("login@example.com");
+            signupForm.setPassword("password123");
+            authDto.signup(signupForm);
         
-        // Create login form
-        LoginForm loginForm = new LoginForm();
-        setLoginFormFields(loginForm, "login@example.com", "password123");
-
-        // When: Login user
-        LoginResponse result = authDto.login(loginForm, mockRequest);
-
-        // Then: Verify response
-        assertNotNull("Result should not be null", result);
-        assertEquals("Message should indicate success", "Login successful", result.getMessage());
-        assertNotNull("User response should not be null", result.getUser());
-        assertEquals("User name should match", "Login User", result.getUser().getName());
-        assertEquals("User email should be normalized", "login@example.com", result.getUser().getEmail());
-        assertEquals("User role should match", Role.OPERATOR, result.getUser().getRole());
+            // Create login form
+            LoginForm loginForm = new LoginForm();
+            setLoginFormFields(loginForm, "login@example.com", "password123");
+
+            // When: Login user
+            LoginResponse result = login(loginForm, mockRequest);
+
+            // Then: Verify response
+            assertNotNull("Result should not be null", result);
+            assertEquals("Message should indicate success", "Login successful", result.getMessage());
+            assertNotNull("User response should not be null", result.getUser());
+            assertEquals("User name should match", "Login User", result.getUser().getName());
+            assertEquals("User email should be normalized", "login@example.com", result.getUser().getEmail());
+            assertEquals("User role should match", Role.OPERATOR, result.getUser().getRole());
         
-        // Verify database state unchanged
-        UserPojo dbUser = userDao.selectByEmail("login@example.com").orElse(null);
-        assertNotNull("User should still exist in database", dbUser);
-        assertEquals("Database user should be unchanged", "Login User", dbUser.getName());
+            // Verify database state unchanged
+            UserPojo dbUser = userDao.selectByEmail("login@example.com").orElse(null);
+            assertNotNull("User should still exist in database", dbUser);
+            assertEquals("Database user should be unchanged", "Login User", dbUser.getName());
+        } finally {
+            deleteUsers("login@example.com");
+        }
     }
 
     /**
@@ -211,7 +260,7 @@ public class AuthenticationIntegrationTests extends AbstractIntegrationTest {
 
         // When & Then: Login should throw exception
         try {
-            authDto.login(loginForm, mockRequest);
+            login(loginForm, mockRequest);
             fail("Should throw ApiException for invalid credentials");
         } catch (ApiException e) {
             assertEquals("Should throw BAD_REQUEST", ErrorType.BAD_REQUEST, e.getErrorType());
@@ -237,7 +286,7 @@ public class AuthenticationIntegrationTests extends AbstractIntegrationTest {
 
         // When & Then: Login should throw exception
         try {
-            authDto.login(loginForm, mockRequest);
+            login(loginForm, mockRequest);
             fail("Should throw ApiException for non-existent user");
         } catch (ApiException e) {
             assertEquals("Should throw BAD_REQUEST", ErrorType.BAD_REQUEST, e.getErrorType());
@@ -312,48 +361,53 @@ public class AuthenticationIntegrationTests extends AbstractIntegrationTest {
      * Verifies system can handle multiple users correctly.
      */
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void testMultipleUsersWorkflow() {
-        // Given: Create multiple signup forms
-        SignupForm user1Form = new SignupForm();
-        user1Form.setName("User One");
-        user1Form.setEmail("user1@example.com");
-        user1Form.setPassword("pass1");
+        try {
+            // Given: Create multiple signup forms
+            SignupForm user1Form = new SignupForm();
+            user1Form.setName("User One");
+            user1Form.setEmail("user1@example.com");
+            user1Form.setPassword("pass1");
         
-        SignupForm user2Form = new SignupForm();
-        user2Form.setName("User Two");
-        user2Form.setEmail("user2@example.com");
-        user2Form.setPassword("pass2");
-
-        // When: Signup multiple users
-        UserResponse user1 = authDto.signup(user1Form);
-        UserResponse user2 = authDto.signup(user2Form);
-
-        // Then: Verify both users created
-        assertNotNull("User 1 should be created", user1);
-        assertNotNull("User 2 should be created", user2);
-        assertEquals("User 1 name should match", "User One", user1.getName());
-        assertEquals("User 2 name should match", "User Two", user2.getName());
+            SignupForm user2Form = new SignupForm();
+            user2Form.setName("User Two");
+            user2Form.setEmail("user2@example.com");
+            user2Form.setPassword("pass2");
+
+            // When: Signup multiple users
+            UserResponse user1 = authDto.signup(user1Form);
+            UserResponse user2 = authDto.signup(user2Form);
+
+            // Then: Verify both users created
+            assertNotNull("User 1 should be created", user1);
+            assertNotNull("User 2 should be created", user2);
+            assertEquals("User 1 name should match", "User One", user1.getName());
+            assertEquals("User 2 name should match", "User Two", user2.getName());
         
-        // Verify database state
-        UserPojo dbUser1 = userDao.selectByEmail("user1@example.com").orElse(null);
-        UserPojo dbUser2 = userDao.selectByEmail("user2@example.com").orElse(null);
-        assertNotNull("User 1 should exist in database", dbUser1);
-        assertNotNull("User 2 should exist in database", dbUser2);
+            // Verify database state
+            UserPojo dbUser1 = userDao.selectByEmail("user1@example.com").orElse(null);
+            UserPojo dbUser2 = userDao.selectByEmail("user2@example.com").orElse(null);
+            assertNotNull("User 1 should exist in database", dbUser1);
+            assertNotNull("User 2 should exist in database", dbUser2);
         
-        // Test login for both users
-        LoginForm login1 = new LoginForm();
-        setLoginFormFields(login1, "user1@example.com", "pass1");
+            // Test login for both users
+            LoginForm login1 = new LoginForm();
+            setLoginFormFields(login1, "user1@example.com", "pass1");
         
-        LoginForm login2 = new LoginForm();
-        setLoginFormFields(login2, "user2@example.com", "pass2");
+            LoginForm login2 = new LoginForm();
+            setLoginFormFields(login2, "user2@example.com", "pass2");
         
-        LoginResponse loginResult1 = authDto.login(login1, mockRequest);
-        LoginResponse loginResult2 = authDto.login(login2, mockRequest);
+            LoginResponse loginResult1 = login(login1, mockRequest);
+            LoginResponse loginResult2 = login(login2, mockRequest);
         
-        assertEquals("User 1 login should succeed", "Login successful", loginResult1.getMessage());
-        assertEquals("User 2 login should succeed", "Login successful", loginResult2.getMessage());
-        assertEquals("User 1 should login correctly", "User One", loginResult1.getUser().getName());
-        assertEquals("User 2 should login correctly", "User Two", loginResult2.getUser().getName());
+            assertEquals("User 1 login should succeed", "Login successful", loginResult1.getMessage());
+            assertEquals("User 2 login should succeed", "Login successful", loginResult2.getMessage());
+            assertEquals("User 1 should login correctly", "User One", loginResult1.getUser().getName());
+            assertEquals("User 2 should login correctly", "User Two", loginResult2.getUser().getName());
+        } finally {
+            deleteUsers("user1@example.com", "user2@example.com");
+        }
     }
 
     /**
@@ -387,7 +441,7 @@ public class AuthenticationIntegrationTests extends AbstractIntegrationTest {
 
         // When & Then: Login should throw exception
         try {
-            authDto.login(nullForm, mockRequest);
+            login(nullForm, mockRequest);
             fail("Should throw exception for null form");
         } catch (Exception e) {
             // Should throw NullPointerException or ApiException
@@ -395,4 +449,55 @@ public class AuthenticationIntegrationTests extends AbstractIntegrationTest {
                 e instanceof NullPointerException || e instanceof ApiException);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Test verifying the token issued at login.
+     * Verifies that the claims are read once and repeat verifications are served from the cache.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testLogin_TokenVerifiedOnceAndCached() {
+        try {
+            // Given: A logged in user
+            SignupForm signupForm = new SignupForm();
+            signupForm.setName("Token User");
+            signupForm.setEmail("token@example.com");
+            signupForm.setPassword("password123");
+            UserResponse user = authDto.signup(signupForm);
+            LoginForm loginForm = new LoginForm();
+            setLoginFormFields(loginForm, "token@example.com", "password123");
+            String token = login(loginForm, mockRequest).getToken();
+
+            // When: The token is verified twice
+            AuthPrincipalModel first = jwtUtil.verifyToken(token);
+            AuthPrincipalModel second = jwtUtil.verifyToken(token);
+
+            // Then: The same principal should be returned with the user's claims
+            assertNotNull(first);
+            assertSame("Repeat verification should be served from the cache", first, second);
+            assertEquals(user.getId(), first.getUserId());
+            assertEquals(Role.OPERATOR.name(), first.getRole());
+            assertTrue(first.getExpiresAtMs() > System.currentTimeMillis());
+        } finally {
+            deleteUsers("token@example.com");
+        }
+    }
+
+    /**
+     * Test verifying a tampered token.
+     * Verifies that a token with a modified signature is rejected.
+     */
+    @Test
+    public void testVerifyToken_TamperedTokenRejected() {
+        // Given: A valid token with its signature altered
+        String token = jwtUtil.generateToken(1, Role.SUPERVISOR.name());
+        int index = token.length() - 5;
+        char original = token.charAt(index);
+        String tampered = token.substring(0, index) + (original == 'A' ? 'B' : 'A') + token.substring(index + 1);
+
+        // When & Then: Only the original token should verify
+        assertNotNull(jwtUtil.verifyToken(token));
+        assertNull(jwtUtil.verifyToken(tampered));
+        assertNull(jwtUtil.verifyToken("not-a-jwt"));
+    }
+}
@@ -6,12 +6,25 @@ import com.increff.pos.entity.InventoryPojo;
 import com.increff.pos.entity.ProductPojo;
 import com.increff.pos.exception.ApiException;
 import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.model.enums.ExportFormat;
+import com.increff.pos.model.form.InventoryAdjustForm;
+import com.increff.pos.model.form.InventoryThresholdForm;
 import com.increff.pos.model.form.InventoryUpdateForm;
 import com.increff.pos.model.response.InventoryResponse;
+import com.increff.pos.model.response.UploadResponse;
 import com.increff.pos.setup.AbstractIntegrationTest;
 import com.increff.pos.setup.TestData;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.*;
 
@@ -250,4 +263,159 @@ public class InventoryCreationIntegrationTests extends AbstractIntegrationTest {
         assertEquals("Database product 2 quantity should be 30", Integer.valueOf(30), dbInventory2.getQuantity());
     }
 
-} 
\ No newline at end of file
+    /**
+     * Test exporting inventory as TSV.
+     * Verifies that the header and one line per inventory row are streamed.
+     */
+    @Test
+    public void testExportInventory_Tsv() throws Exception {
+        // Given: Two products with inventory
+        ClientPojo client = createAndPersistClient("Test Client");
+        ProductPojo product1 = createAndPersistProduct("EXP001", client.getClientId(), "Product One", 100.0);
+        ProductPojo product2 = createAndPersistProduct("EXP002", client.getClientId(), "Product Two", 50.0);
+        createAndPersistInventory(product1.getId(), 10);
+        createAndPersistInventory(product2.getId(), 20);
+
+        // When: Inventory is exported and the body is written out
+        ResponseEntity<StreamingResponseBody> response = inventoryDto.exportInventory(ExportFormat.TSV);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Then: Header and rows should be present in barcode order
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("barcode\tproduct_name\tclient_id\tmrp\tquantity", lines[0]);
+        assertTrue(lines[1].startsWith("EXP001\tProduct One\t"));
+        assertTrue(lines[2].endsWith("\t20"));
+        assertTrue(response.getHeaders().getFirst("Content-Disposition").contains("inventory.tsv"));
+    }
+
+    /**
+     * Test updating the reorder threshold of a product.
+     * Verifies that the threshold is persisted and returned.
+     */
+    @Test
+    public void testUpdateReorderThreshold_Success() {
+        // Given: A product with inventory
+        ClientPojo client = createAndPersistClient("Test Client");
+        ProductPojo product = createAndPersistProduct("THR001", client.getClientId(), "Threshold Product", 100.0);
+        createAndPersistInventory(product.getId(), 10);
+
+        // When: The threshold is updated
+        InventoryResponse result = inventoryDto.updateReorderThreshold(product.getId(), new InventoryThresholdForm(25));
+
+        // Then: Response and database should carry the new threshold
+        assertEquals(Integer.valueOf(25), result.getReorderThreshold());
+        assertEquals(Integer.valueOf(25), inventoryDao.selectByProductId(product.getId()).getReorderThreshold());
+    }
+
+    /**
+     * Test updating the reorder threshold with a negative value.
+     * Verifies that validation rejects it.
+     */
+    @Test
+    public void testUpdateReorderThreshold_Negative() {
+        // Given: A product with inventory
+        ClientPojo client = createAndPersistClient("Test Client");
+        ProductPojo product = createAndPersistProduct("THR002", client.getClientId(), "Threshold Product", 100.0);
+        createAndPersistInventory(product.getId(), 10);
+
+        // When & Then: A negative threshold should be rejected
+        try {
+            inventoryDto.updateReorderThreshold(product.getId(), new InventoryThresholdForm(-1));
+            fail("Expected ApiException for negative threshold");
+        } catch (ApiException e) {
+            assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
+        }
+    }
+
+    /**
+     * Test adjusting inventory by product ID and barcode.
+     * Verifies that deltas for the same product are combined and new quantities returned.
+     */
+    @Test
+    public void testAdjustInventory_Success() {
+        // Given: Two products with inventory
+        ClientPojo client = createAndPersistClient("Test Client");
+        ProductPojo product1 = createAndPersistProduct("ADJ101", client.getClientId(), "Adjust One", 100.0);
+        ProductPojo product2 = createAndPersistProduct("ADJ102", client.getClientId(), "Adjust Two", 100.0);
+        createAndPersistInventory(product1.getId(), 10);
+        createAndPersistInventory(product2.getId(), 10);
+
+        // When: Deltas are applied by ID and by barcode, twice for the first product
+        List<InventoryResponse> result = inventoryDto.adjustInventory(Arrays.asList(
+                new InventoryAdjustForm(product1.getId(), null, 5),
+                new InventoryAdjustForm(null, "ADJ102", -4),
+                new InventoryAdjustForm(null, "ADJ101", 2)));
+
+        // Then: Each product should appear once with its new quantity
+        assertEquals(2, result.size());
+        assertEquals(product1.getId(), result.get(0).getProductId());
+        assertEquals(Integer.valueOf(17), result.get(0).getQuantity());
+        assertEquals(Integer.valueOf(6), result.get(1).getQuantity());
+    }
+
+    /**
+     * Test adjusting inventory below zero.
+     * Verifies that the whole adjustment is rejected.
+     */
+    @Test
+    public void testAdjustInventory_WouldGoNegative() {
+        // Given: A product with little stock
+        ClientPojo client = createAndPersistClient("Test Client");
+        ProductPojo product = createAndPersistProduct("ADJ103", client.getClientId(), "Adjust Three", 100.0);
+        createAndPersistInventory(product.getId(), 2);
+
+        // When & Then: A delta taking stock negative should fail
+        try {
+            inventoryDto.adjustInventory(Arrays.asList(new InventoryAdjustForm(product.getId(), null, -3)));
+            fail("Expected ApiException for negative stock");
+        } catch (ApiException e) {
+            assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
+            assertTrue(e.getMessage().contains("negative"));
+        }
+    }
+
+    /**
+     * Test adjusting inventory without a product reference.
+     * Verifies that a product ID or barcode is required.
+     */
+    @Test
+    public void testAdjustInventory_MissingProduct() {
+        // When & Then: A form with neither ID nor barcode should be rejected
+        try {
+            inventoryDto.adjustInventory(Arrays.asList(new InventoryAdjustForm(null, " ", 1)));
+            fail("Expected ApiException for missing product reference");
+        } catch (ApiException e) {
+            assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
+        }
+    }
+
+    /**
+     * Test uploading an inventory file with invalid rows.
+     * Verifies that duplicates are caught across the file, every bad row is reported, and no
+     * stock is changed.
+     */
+    @Test
+    public void testUploadInventory_InvalidRows_ReportsAllAndAppliesNone() {
+        // Given: A product with stock, and a file repeating its barcode around an unknown one and a blank quantity
+        ClientPojo client = createAndPersistClient("Test Client");
+        ProductPojo product = createAndPersistProduct("UPL001", client.getClientId(), "Upload Product", 100.0);
+        createAndPersistInventory(product.getId(), 10);
+        MockMultipartFile file = new MockMultipartFile("file", "inventory.tsv", "text/tab-separated-values",
+                "barcode\tquantity\nUPL001\t5\nNOPE001\t7\nUPL002\t\nUPL001\t9\n".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        UploadResponse response = inventoryDto.uploadInventory(file).getBody();
+
+        // Then: Each row is reported against the original file, and stock is unchanged
+        assertEquals("error", response.getStatus());
+        String[] lines = new String(Base64.getDecoder().decode(response.getTsvBase64()), StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("UPL001\t5\tinvalid\tBarcode is multiple times in your file", lines[1]);
+        assertTrue(lines[2].contains("'NOPE001' does not exist"));
+        assertTrue(lines[3].startsWith("UPL002\t\tinvalid\t"));
+        assertEquals("UPL001\t9\tinvalid\tBarcode is multiple times in your file", lines[4]);
+        assertEquals(Integer.valueOf(10), inventoryDao.selectByProductId(product.getId()).getQuantity());
+    }
+}
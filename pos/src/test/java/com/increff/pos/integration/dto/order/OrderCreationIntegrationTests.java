@@ -1,18 +1,33 @@
 package com.increff.pos.integration.dto.order;
 
+import com.increff.pos.api.ReservationApi;
 import com.increff.pos.dto.OrderDto;
+import com.increff.pos.dto.ReservationDto;
 import com.increff.pos.entity.*;
 import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.model.form.OrderForm;
 import com.increff.pos.model.form.OrderItemForm;
+import com.increff.pos.model.form.ReservationItemForm;
 import com.increff.pos.model.response.OrderResponse;
 import com.increff.pos.setup.AbstractIntegrationTest;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -26,6 +41,8 @@ import static org.junit.Assert.*;
  * - Order item validation and processing
  * - Business logic integration across layers
  * 
+ * - Reservations cannot take stock from an order committing concurrently
+ * 
  * Each test focuses on exactly one DTO method and verifies both
  * the return value and the actual database state.
  */
@@ -34,6 +51,18 @@ public class OrderCreationIntegrationTests extends AbstractIntegrationTest {
     @Autowired
     private OrderDto orderDto;
 
+    @Autowired
+    private ReservationDto reservationDto;
+
+    @Autowired
+    private ReservationApi reservationApi;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
     /**
      * Test creating order successfully.
      * Verifies that order and order items are created, persisted, and can be retrieved with correct FK-Id relationships.
@@ -197,4 +226,91 @@ public class OrderCreationIntegrationTests extends AbstractIntegrationTest {
         assertEquals(0, orderItemDao.selectAll(0, 100).size());
     }
 
-} 
\ No newline at end of file
+    /**
+     * Test reserving stock while an order for the same product commits.
+     * Verifies that the reservation waits for the order and only sees the stock it left.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testReserve_WaitsForConcurrentOrder() throws Exception {
+        ClientPojo client = createAndPersistClient("race client");
+        ProductPojo product = createAndPersistProduct("RACE001", client.getClientId(), "Race Product", 10.0);
+        createAndPersistInventory(product.getId(), 10);
+        CountDownLatch ordered = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        try {
+            // Given: An order for 6 of the 10 units that has reduced stock but not yet committed
+            CompletableFuture<Void> order = CompletableFuture.runAsync(() ->
+                    new TransactionTemplate(transactionManager).execute(status -> {
+                        orderDto.createOrders(Collections.singletonList(orderItem("RACE001", 6, 10.0)));
+                        ordered.countDown();
+                        await(commit);
+                        return null;
+                    }));
+            assertTrue(ordered.await(5, TimeUnit.SECONDS));
+
+            // When: A cart reserves 6 units before the order commits
+            ReservationItemForm item = new ReservationItemForm();
+            item.setBarcode("RACE001");
+            item.setQuantity(6);
+            CompletableFuture<Void> reservation = CompletableFuture.runAsync(() ->
+                    reservationDto.reserve(Collections.singletonList(item)));
+            Thread.sleep(200);
+            boolean waitedForOrder = !reservation.isDone();
+            commit.countDown();
+            order.get(5, TimeUnit.SECONDS);
+
+            // Then: The reservation waited on the order's row lock and was refused the 4 units left
+            assertTrue("Reservation should wait for the order to commit", waitedForOrder);
+            try {
+                reservation.join();
+                fail("Reservation should be refused once the order has taken the stock");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof ApiException);
+                assertEquals(ErrorType.BAD_REQUEST, ((ApiException) e.getCause()).getErrorType());
+            }
+            assertEquals(0, reservationApi.getReservedQuantity(product.getId()));
+        } finally {
+            commit.countDown();
+            reservationApi.reset();
+            deleteRaceData(product.getId(), client.getClientId());
+        }
+    }
+
+    private static OrderItemForm orderItem(String barcode, Integer quantity, Double mrp) {
+        OrderItemForm item = new OrderItemForm();
+        item.setBarcode(barcode);
+        item.setQuantity(quantity);
+        item.setMrp(mrp);
+        return item;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deleteRaceData(Integer productId, Integer clientId) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("delete from OrdersPojo o where o.id in "
+                    + "(select i.orderId from OrderItemsPojo i where i.productId = :productId)")
+                    .setParameter("productId", productId).executeUpdate();
+            em.createQuery("delete from OrderItemsPojo i where i.productId = :productId")
+                    .setParameter("productId", productId).executeUpdate();
+            em.createQuery("delete from InventoryPojo i where i.productId = :productId")
+                    .setParameter("productId", productId).executeUpdate();
+            em.createQuery("delete from ProductPojo p where p.id = :productId")
+                    .setParameter("productId", productId).executeUpdate();
+            em.createQuery("delete from ClientPojo c where c.clientId = :clientId")
+                    .setParameter("clientId", clientId).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
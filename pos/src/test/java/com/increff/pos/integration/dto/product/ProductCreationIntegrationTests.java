@@ -6,10 +6,15 @@ import com.increff.pos.entity.ProductPojo;
 import com.increff.pos.exception.ApiException;
 import com.increff.pos.model.form.ProductForm;
 import com.increff.pos.model.response.ProductResponse;
+import com.increff.pos.model.response.UploadResponse;
 import com.increff.pos.setup.AbstractIntegrationTest;
 import com.increff.pos.setup.TestData;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 
 import static org.junit.Assert.*;
 
@@ -293,4 +298,38 @@ public class ProductCreationIntegrationTests extends AbstractIntegrationTest {
         assertEquals("A", persistedProduct.getName());
         assertEquals(Double.valueOf(0.01), persistedProduct.getMrp());
     }
-} 
\ No newline at end of file
+
+    /**
+     * Test uploading a product file with invalid rows.
+     * Verifies that every bad row is reported against the original file and no product is created.
+     */
+    @Test
+    public void testUploadProducts_InvalidRows_ReportsAllAndCreatesNone() {
+        // Given: An existing product, and a file with a new row, a repeated barcode, a taken barcode and a blank name
+        ClientPojo client = createAndPersistClient("Test Client");
+        createAndPersistProduct("TAKEN01", client.getClientId(), "Existing Product", 100.0);
+        int clientId = client.getClientId();
+        String tsv = "barcode\tclient_id\tname\tmrp\timageUrl\n"
+                + "NEW001\t" + clientId + "\tNew Product\t10.5\t\n"
+                + "TWICE01\t" + clientId + "\tFirst\t11\t\n"
+                + "TAKEN01\t" + clientId + "\tTaken\t12\t\n"
+                + "TWICE01\t" + clientId + "\tSecond\t13\t\n"
+                + "BLANK01\t" + clientId + "\t\t14\t\n";
+        MockMultipartFile file = new MockMultipartFile("file", "products.tsv", "text/tab-separated-values",
+                tsv.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        UploadResponse response = productDto.uploadProducts(file).getBody();
+
+        // Then: Each row is reported against the original file, and nothing is created
+        assertEquals("error", response.getStatus());
+        String[] lines = new String(Base64.getDecoder().decode(response.getTsvBase64()), StandardCharsets.UTF_8).split("\n");
+        assertEquals(6, lines.length);
+        assertTrue(lines[1].startsWith("NEW001\t") && lines[1].endsWith("\tvalid\t"));
+        assertTrue(lines[2].endsWith("\tinvalid\tBarcode is multiple times in your file"));
+        assertTrue(lines[3].endsWith("\tinvalid\tBarcode alr exists in db"));
+        assertTrue(lines[4].endsWith("\tinvalid\tBarcode is multiple times in your file"));
+        assertTrue(lines[5].startsWith("BLANK01\t") && lines[5].contains("\tinvalid\t"));
+        assertNull(productDao.selectByBarcode("NEW001"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.increff.pos.integration.dto.product;
+
+import com.increff.pos.dto.ProductDto;
+import com.increff.pos.entity.ClientPojo;
+import com.increff.pos.model.response.UploadResponse;
+import com.increff.pos.setup.AbstractIntegrationTest;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration tests for the ProductDto bulk update upload.
+ *
+ * These tests verify:
+ * - Row-level validation across form, file and database checks
+ * - The TSV report returned for a rejected file
+ * - Products are left untouched when any row is invalid
+ */
+public class ProductUpdateUploadIntegrationTests extends AbstractIntegrationTest {
+
+    @Autowired
+    private ProductDto productDto;
+
+    /**
+     * Test uploading updates that contain invalid rows.
+     * Verifies that every problem is reported against its row and nothing is written.
+     */
+    @Test
+    public void testUploadProductUpdates_ReportsRowErrors() {
+        // Given: One existing product and a file with a valid row, an unknown barcode,
+        // a bad MRP and a repeated barcode
+        ClientPojo client = createAndPersistClient("Update Client");
+        createAndPersistProduct("UPD001", client.getClientId(), "Original", 10.0);
+        createAndPersistProduct("UPD002", client.getClientId(), "Repeated", 20.0);
+        String content = "barcode\tname\tmrp\timageUrl\n"
+                + "UPD001\tRenamed\t12.5\t\n"
+                + "MISSING\tGhost\t5.0\t\n"
+                + "UPD001X\tNo Price\tabc\t\n"
+                + "UPD002\tFirst\t21.0\t\n"
+                + "UPD002\tSecond\t22.0\t\n";
+        MockMultipartFile file = new MockMultipartFile("file", "updates.tsv", "text/tab-separated-values",
+                content.getBytes(StandardCharsets.UTF_8));
+
+        // When: The file is uploaded
+        UploadResponse response = productDto.uploadProductUpdates(file).getBody();
+
+        // Then: The file is rejected with a row-level report
+        assertEquals("error", response.getStatus());
+        assertEquals("product_update_results.tsv", response.getFilename());
+        String[] lines = new String(Base64.getDecoder().decode(response.getTsvBase64()), StandardCharsets.UTF_8).split("\n");
+        assertEquals("barcode\tname\tmrp\timageUrl\tvalidity\tremarks", lines[0]);
+        assertTrue(lines[1].startsWith("UPD001\tRenamed\t12.5\t\tvalid"));
+        assertTrue(lines[2].contains("invalid") && lines[2].contains("does not exist"));
+        assertTrue(lines[3].contains("invalid") && lines[3].contains("MRP"));
+        assertTrue(lines[4].contains("multiple times"));
+        assertTrue(lines[5].contains("multiple times"));
+
+        // And: The valid row was not applied
+        assertEquals("Original", productDao.selectByBarcode("UPD001").getName());
+    }
+}
@@ -1,13 +1,25 @@
 package com.increff.pos.integration.dto.report;
 
+import com.increff.pos.api.LiveSalesApi;
+import com.increff.pos.dto.MetricsDto;
 import com.increff.pos.dto.ReportDto;
 import com.increff.pos.entity.DaySalesPojo;
+import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.model.enums.ExportFormat;
+import com.increff.pos.model.enums.LiveSalesGranularity;
 import com.increff.pos.model.response.DaySalesResponse;
+import com.increff.pos.model.response.DbPoolStatsResponse;
+import com.increff.pos.model.response.LiveSalesResponse;
 import com.increff.pos.setup.AbstractIntegrationTest;
 import com.increff.pos.setup.TestData;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.time.ZoneOffset;
@@ -34,6 +46,12 @@ public class ReportGenerationIntegrationTests extends AbstractIntegrationTest {
     @Autowired
     private ReportDto reportDto;
 
+    @Autowired
+    private LiveSalesApi liveSalesApi;
+
+    @Autowired
+    private MetricsDto metricsDto;
+
     /**
      * Test getting day sales by date range successfully.
      * Verifies complete workflow from string date parsing to response conversion.
@@ -364,4 +382,98 @@ public class ReportGenerationIntegrationTests extends AbstractIntegrationTest {
         assertNotNull("Database record should exist", dbRecord);
         assertEquals("Database revenue should be zero", Double.valueOf(0.0), dbRecord.getTotalRevenue());
     }
-} 
\ No newline at end of file
+
+    /**
+     * Test exporting day sales as CSV.
+     * Verifies that only records inside the range are streamed.
+     */
+    @Test
+    public void testExportDaySales_Csv() throws Exception {
+        // Given: Day sales on two dates
+        reportDao.insert(TestData.daySales(ZonedDateTime.of(2024, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC), 2, 5, 500.0));
+        reportDao.insert(TestData.daySales(ZonedDateTime.of(2024, 3, 5, 0, 0, 0, 0, ZoneOffset.UTC), 1, 1, 100.0));
+
+        // When: Day sales are exported for the first date only
+        ResponseEntity<StreamingResponseBody> response = reportDto.exportDaySales(
+            LocalDate.parse("2024-03-01"), LocalDate.parse("2024-03-02"), ExportFormat.CSV);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Then: Header and a single data row should be written
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("date,invoiced_orders_count,invoiced_items_count,total_revenue", lines[0]);
+        assertTrue(lines[1].endsWith(",2,5,500.0"));
+    }
+
+    /**
+     * Test getting live sales by minute.
+     * Verifies that one bucket is returned per minute of the window and that
+     * sales recorded inside an uncommitted transaction are not reported.
+     */
+    @Test
+    public void testGetLiveSales_Minute() {
+        // Given: An order recorded inside the (rolled back) test transaction
+        liveSalesApi.recordOrder(ZonedDateTime.now(ZoneOffset.UTC), 3, 300.0);
+
+        // When: Live sales are read for the last 15 minutes
+        List<LiveSalesResponse> result = reportDto.getLiveSales(LiveSalesGranularity.MINUTE, 15);
+
+        // Then: There should be 15 empty buckets
+        assertEquals(15, result.size());
+        assertTrue(result.stream().allMatch(bucket -> bucket.getOrdersCount() == 0));
+    }
+
+    /**
+     * Test getting live sales with a window larger than the buffer.
+     * Verifies that the request is rejected.
+     */
+    @Test
+    public void testGetLiveSales_WindowTooLarge() {
+        // When & Then: Window beyond the retained minutes should be rejected
+        try {
+            reportDto.getLiveSales(LiveSalesGranularity.HOUR, 100000);
+            fail("Expected ApiException for window too large");
+        } catch (ApiException e) {
+            assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
+        }
+    }
+
+    /**
+     * Test reading connection pool statistics.
+     * Verifies that the pool reports the connection held by this test and its acquire times.
+     */
+    @Test
+    public void testGetDbPoolStats_ReportsPool() {
+        // Given: A query run inside the test transaction, holding a connection
+        reportDao.selectAll(0, 1);
+
+        // When: Pool statistics are read
+        DbPoolStatsResponse stats = reportDto.getDbPoolStats();
+
+        // Then: The held connection and the acquire that took it should be counted
+        assertTrue(stats.getActiveConnections() >= 1);
+        assertEquals(10, stats.getMaxConnections());
+        assertTrue(stats.getAcquireCount() >= 1);
+        assertTrue(stats.getAcquireMaxMs() >= stats.getAcquireP50Ms());
+    }
+
+    /**
+     * Test scraping the metrics endpoint.
+     * Verifies that DAO calls are timed per DAO and method alongside cache and pool figures.
+     */
+    @Test
+    public void testScrapeMetrics_IncludesDaoTimersAndGauges() {
+        // Given: A DAO call made through the Spring proxy
+        reportDao.selectAll(0, 1);
+
+        // When
+        String body = metricsDto.scrape();
+
+        // Then
+        assertTrue(body.contains("# TYPE pos_dao_call_duration_seconds histogram\n"));
+        assertTrue(body.contains("pos_dao_call_duration_seconds_count{dao=\"ReportDao\",method=\"selectAll\"} "));
+        assertTrue(body.contains("pos_cache_hits_total{cache=\"catalog\"} "));
+        assertTrue(body.contains("pos_db_pool_connections{state=\"max\"} 10\n"));
+    }
+}
@@ -1,7 +1,5 @@
 package com.increff.pos.setup;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.ComponentScan.Filter;
@@ -47,17 +45,4 @@ public class QaConfig {
         ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
         return factory.getValidator();
     }
-
-    /**
-     * Creates and configures the ModelMapper bean for test environment.
-     * This bean provides object-to-object mapping capabilities.
-     * 
-     * @return Configured ModelMapper bean
-     */
-    @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
-        return mapper;
-    }
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.increff.pos.unit.api;
 
 import com.increff.pos.api.AuthApi;
+import com.increff.pos.api.CredentialApi;
 import com.increff.pos.dao.UserDao;
 import com.increff.pos.entity.UserPojo;
 import com.increff.pos.exception.ApiException;
@@ -8,17 +9,26 @@ import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.model.enums.Role;
 import com.increff.pos.model.response.UserResponse;
 import com.increff.pos.setup.TestData;
+import com.increff.pos.spring.ApplicationProperties;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.lang.reflect.Field;
 import java.time.ZonedDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,7 +40,7 @@ import static org.mockito.Mockito.*;
  * 
  * These tests verify:
  * - User signup functionality
- * - User login functionality
+ * - User login functionality, verified on the credential pool
  * - Role determination logic
  * - Password validation
  * - Email uniqueness validation
@@ -45,11 +55,17 @@ public class AuthApiTest {
     @Mock
     private UserDao userDao;
 
+    @Mock
+    private ApplicationProperties applicationProperties;
+
     private PasswordEncoder passwordEncoder;
 
     @InjectMocks
     private AuthApi authApi;
 
+    @InjectMocks
+    private CredentialApi credentialApi;
+
     private UserPojo testUser;
 
     @Before
@@ -70,10 +86,41 @@ public class AuthApiTest {
         };
         
         // Manually inject the passwordEncoder using reflection
+        setPasswordEncoder(passwordEncoder);
+
+        // Run credential checks on a real pool with one thread and room for one waiting task
+        when(applicationProperties.getCredentialThreads()).thenReturn(1);
+        when(applicationProperties.getCredentialQueueCapacity()).thenReturn(1);
+        when(applicationProperties.getCredentialTimeoutMs()).thenReturn(5000L);
+        when(applicationProperties.getBcryptCost()).thenReturn(5);
+        credentialApi.init();
+        try {
+            Field field = AuthApi.class.getDeclaredField("credentialApi");
+            field.setAccessible(true);
+            field.set(authApi, credentialApi);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to inject credentialApi", e);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        credentialApi.shutdown();
+    }
+
+    private UserResponse login(String email, String password) {
+        try {
+            return authApi.completeLogin(email, authApi.verifyLogin(email, password).join());
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private void setPasswordEncoder(PasswordEncoder encoder) {
         try {
             Field field = AuthApi.class.getDeclaredField("passwordEncoder");
             field.setAccessible(true);
-            field.set(authApi, passwordEncoder);
+            field.set(authApi, encoder);
         } catch (Exception e) {
             throw new RuntimeException("Failed to inject passwordEncoder", e);
         }
@@ -147,7 +194,7 @@ public class AuthApiTest {
         when(userDao.selectByEmail(email)).thenReturn(Optional.of(testUser));
 
         // When: User logs in
-        UserResponse result = authApi.login(email, password);
+        UserResponse result = login(email, password);
 
         // Then: Login should be successful
         assertNotNull(result);
@@ -155,8 +202,8 @@ public class AuthApiTest {
         assertEquals(testUser.getName(), result.getName());
         assertEquals(testUser.getRole(), result.getRole());
 
-        // And: DAO should be called to find user and update last login
-        verify(userDao).selectByEmail(email);
+        // And: DAO should be called to find user on verify and on completion, and update last login
+        verify(userDao, times(2)).selectByEmail(email);
         verify(userDao).updateUser(testUser);
     }
 
@@ -173,7 +220,7 @@ public class AuthApiTest {
 
         // When & Then: Login should throw bad request exception
         try {
-            authApi.login(email, password);
+            login(email, password);
             fail("Should throw ApiException for invalid email");
         } catch (ApiException e) {
             assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
@@ -198,7 +245,7 @@ public class AuthApiTest {
 
         // When & Then: Login should throw bad request exception
         try {
-            authApi.login(email, password);
+            login(email, password);
             fail("Should throw ApiException for invalid password");
         } catch (ApiException e) {
             assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
@@ -333,7 +380,7 @@ public class AuthApiTest {
 
         // When & Then: Should throw exception for null email
         try {
-            authApi.login(email, password);
+            login(email, password);
             fail("Should throw exception for null email");
         } catch (Exception e) {
             // Should throw either ApiException or NullPointerException
@@ -352,7 +399,7 @@ public class AuthApiTest {
 
         // When & Then: Should throw exception for null password
         try {
-            authApi.login(email, password);
+            login(email, password);
             fail("Should throw exception for null password");
         } catch (Exception e) {
             // Should throw either ApiException or NullPointerException
@@ -423,11 +470,90 @@ public class AuthApiTest {
         when(userDao.selectByEmail(email)).thenReturn(Optional.of(testUser));
 
         // When: User logs in
-        authApi.login(email, password);
+        login(email, password);
 
         // Then: Last login time should be updated
         verify(userDao).updateUser(argThat(user -> 
             user.getLastLogin() != null
         ));
     }
-} 
\ No newline at end of file
+
+    /**
+     * Test login with a hash made at an older BCrypt cost
+     */
+    @Test
+    public void testLogin_RehashesWhenCostChanged() throws ApiException {
+        // Given: A user whose password was hashed at cost 4 while the configured cost is 5
+        setPasswordEncoder(new BCryptPasswordEncoder(5));
+        testUser.setPassword(new BCryptPasswordEncoder(4).encode("password123"));
+        when(userDao.selectByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // When: User logs in
+        login("test@example.com", "password123");
+
+        // Then: The stored hash should be replaced with one at the configured cost
+        verify(userDao).updateUser(argThat(user -> user.getPassword().startsWith("$2a$05$")
+                && new BCryptPasswordEncoder(5).matches("password123", user.getPassword())));
+    }
+
+    /**
+     * Test login while the credential pool is saturated
+     */
+    @Test
+    public void testLogin_RejectedWhenPoolSaturated() throws Exception {
+        // Given: The only worker is busy and the single queue slot is taken
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2; i++) {
+                callers.submit(() -> credentialApi.run(() -> release.await(5, TimeUnit.SECONDS)));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((credentialApi.getActiveCount() < 1 || credentialApi.getQueueDepth() < 1)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            when(userDao.selectByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+            // When & Then: A login should be rejected immediately with 429
+            try {
+                login("test@example.com", "password123");
+                fail("Should throw ApiException when the pool is saturated");
+            } catch (ApiException e) {
+                assertEquals(ErrorType.TOO_MANY_REQUESTS, e.getErrorType());
+            }
+            verify(userDao, never()).updateUser(any(UserPojo.class));
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    /**
+     * Test a login that waits in the queue past the credential timeout
+     */
+    @Test
+    public void testVerifyLogin_SkippedWhenQueuedPastTimeout() throws Exception {
+        // Given: A 50 ms timeout and the only worker busy for longer than that
+        credentialApi.shutdown();
+        when(applicationProperties.getCredentialTimeoutMs()).thenReturn(50L);
+        credentialApi.init();
+        CountDownLatch release = new CountDownLatch(1);
+        credentialApi.submit(() -> release.await(5, TimeUnit.SECONDS));
+        when(userDao.selectByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // When: A login is queued behind it and the worker is freed after the timeout
+        CompletableFuture<String> verified = authApi.verifyLogin("test@example.com", "password123");
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then: The login fails with 429 without its password being checked
+        try {
+            verified.join();
+            fail("Should fail when the login waited past the timeout");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof ApiException);
+            assertEquals(ErrorType.TOO_MANY_REQUESTS, ((ApiException) e.getCause()).getErrorType());
+        }
+    }
+}
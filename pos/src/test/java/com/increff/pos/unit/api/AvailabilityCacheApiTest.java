@@ -0,0 +1,204 @@
+package com.increff.pos.unit.api;
+
+import com.increff.pos.api.AvailabilityCacheApi;
+import com.increff.pos.dao.ProductDao;
+import com.increff.pos.model.AvailabilityModel;
+import com.increff.pos.model.CacheStatsModel;
+import com.increff.pos.spring.ApplicationProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AvailabilityCacheApi class.
+ *
+ * These tests verify:
+ * - Unknown barcodes are rejected by the Bloom filter without a query once it is built
+ * - Authoritative lookups, and lookups before the first build, confirm negatives in the database
+ * - A rebuild keeps the current filter serving and keeps barcodes added meanwhile
+ * - Known barcodes are read through once and then served from the cache
+ * - Product and stock writes update cached entries
+ * - The least recently used entry is evicted once the cache is full
+ *
+ * No transaction is active here, so writes are applied immediately.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AvailabilityCacheApiTest {
+
+    @Mock
+    private ProductDao productDao;
+
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    @InjectMocks
+    private AvailabilityCacheApi availabilityCacheApi;
+
+    @Before
+    public void setUp() {
+        when(applicationProperties.getAvailabilityCacheSize()).thenReturn(2);
+        when(applicationProperties.getAvailabilityBloomExpectedInsertions()).thenReturn(1000L);
+        when(applicationProperties.getAvailabilityBloomFpp()).thenReturn(0.01);
+        availabilityCacheApi.init();
+    }
+
+    /**
+     * Test looking up an unknown barcode.
+     * Verifies that the Bloom filter answers without touching the database.
+     */
+    @Test
+    public void testGetAvailability_UnknownBarcodeSkipsQuery() {
+        // Given: The filter is built from some known barcodes
+        availabilityCacheApi.rebuildKnownBarcodes(barcodes -> barcodes.accept("KNOWN1"));
+
+        // When: A barcode that was never added is looked up
+        AvailabilityModel result = availabilityCacheApi.getAvailability("UNKNOWN", false);
+
+        // Then: It should be absent and no query issued
+        assertNull(result);
+        verify(productDao, never()).selectAvailabilityByBarcode(any());
+        assertEquals(1, availabilityCacheApi.getStats().getNegativeHits());
+    }
+
+    /**
+     * Test looking up a barcode before the filter is first built.
+     * Verifies that the database is read instead of an empty filter answering.
+     */
+    @Test
+    public void testGetAvailability_BeforeFirstBuildReadsDatabase() {
+        // Given: A product in the database and no filter yet
+        when(productDao.selectAvailabilityByBarcode("BC1")).thenReturn(new AvailabilityModel(1, "BC1", 10.0, 5));
+
+        // When: It is looked up
+        AvailabilityModel result = availabilityCacheApi.getAvailability("BC1", false);
+
+        // Then: It should be found
+        assertEquals(Integer.valueOf(1), result.getProductId());
+        assertEquals(0, availabilityCacheApi.getStats().getNegativeHits());
+    }
+
+    /**
+     * Test an authoritative lookup of a barcode the filter has not seen.
+     * Verifies that the database is checked and the barcode is added to the filter.
+     */
+    @Test
+    public void testGetAvailability_AuthoritativeNegativeChecksDatabase() {
+        // Given: A built filter, and a product created elsewhere that it does not know
+        availabilityCacheApi.rebuildKnownBarcodes(barcodes -> barcodes.accept("KNOWN1"));
+        when(productDao.selectAvailabilityByBarcode("ELSEWHERE")).thenReturn(
+                new AvailabilityModel(2, "ELSEWHERE", 10.0, 5));
+
+        // When: It is looked up authoritatively, then again through the filter
+        AvailabilityModel result = availabilityCacheApi.getAvailability("ELSEWHERE");
+        AvailabilityModel cached = availabilityCacheApi.getAvailability("ELSEWHERE", false);
+
+        // Then: Both find it, and only the first read the database
+        assertEquals(Integer.valueOf(2), result.getProductId());
+        assertEquals(Integer.valueOf(2), cached.getProductId());
+        verify(productDao, times(1)).selectAvailabilityByBarcode("ELSEWHERE");
+    }
+
+    /**
+     * Test rebuilding the filter.
+     * Verifies that the current filter serves during the scan and barcodes added meanwhile survive the swap.
+     */
+    @Test
+    public void testRebuildKnownBarcodes_SwapsWithoutGap() {
+        // Given: A filter built from an old barcode
+        availabilityCacheApi.rebuildKnownBarcodes(barcodes -> barcodes.accept("OLD1"));
+        when(productDao.selectAvailabilityByBarcode("OLD1")).thenReturn(new AvailabilityModel(1, "OLD1", 10.0, 5));
+        AvailabilityModel[] duringScan = new AvailabilityModel[1];
+
+        // When: A rebuild scans the old barcode while a new one is created
+        availabilityCacheApi.rebuildKnownBarcodes(barcodes -> {
+            duringScan[0] = availabilityCacheApi.getAvailability("OLD1", false);
+            availabilityCacheApi.addKnownBarcode("NEW1");
+            barcodes.accept("OLD1");
+        });
+
+        // Then: The old barcode was served during the scan, and the new one is known afterwards
+        assertEquals(Integer.valueOf(1), duringScan[0].getProductId());
+        when(productDao.selectAvailabilityByBarcode("NEW1")).thenReturn(new AvailabilityModel(3, "NEW1", 10.0, 0));
+        assertEquals(Integer.valueOf(3), availabilityCacheApi.getAvailability("NEW1", false).getProductId());
+        assertNull(availabilityCacheApi.getAvailability("NEVER", false));
+        verify(productDao, never()).selectAvailabilityByBarcode("NEVER");
+    }
+
+    /**
+     * Test read-through for a known barcode.
+     * Verifies that the first lookup loads from the database and the second is a hit.
+     */
+    @Test
+    public void testGetAvailability_ReadsThroughOnce() {
+        // Given: A known barcode in the database
+        availabilityCacheApi.addKnownBarcode("BC1");
+        when(productDao.selectAvailabilityByBarcode("BC1")).thenReturn(new AvailabilityModel(1, "BC1", 10.0, 5));
+
+        // When: It is looked up twice
+        availabilityCacheApi.getAvailability("BC1");
+        AvailabilityModel result = availabilityCacheApi.getAvailability("BC1");
+
+        // Then: The database should be read once
+        assertEquals(Integer.valueOf(5), result.getQuantity());
+        verify(productDao, times(1)).selectAvailabilityByBarcode("BC1");
+        CacheStatsModel stats = availabilityCacheApi.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    /**
+     * Test write-through from stock and product changes.
+     * Verifies that cached entries reflect new quantity and MRP without another query.
+     */
+    @Test
+    public void testWriteThrough_UpdatesCachedEntry() {
+        // Given: A cached barcode
+        availabilityCacheApi.addKnownBarcode("BC1");
+        when(productDao.selectAvailabilityByBarcode("BC1")).thenReturn(new AvailabilityModel(1, "BC1", 10.0, 5));
+        availabilityCacheApi.getAvailability("BC1");
+
+        // When: Stock and MRP change
+        availabilityCacheApi.onStockChanged(1, 2);
+        availabilityCacheApi.onProductChanged(1, "BC1", 12.5);
+
+        // Then: The cached entry should carry both changes
+        AvailabilityModel result = availabilityCacheApi.getAvailability("BC1");
+        assertEquals(Integer.valueOf(2), result.getQuantity());
+        assertEquals(Double.valueOf(12.5), result.getMrp());
+        verify(productDao, times(1)).selectAvailabilityByBarcode("BC1");
+    }
+
+    /**
+     * Test size-bounded eviction.
+     * Verifies that the least recently used barcode is evicted and stock writes for it are ignored.
+     */
+    @Test
+    public void testEviction_DropsLeastRecentlyUsed() {
+        // Given: Three known barcodes and a cache of two
+        for (int i = 1; i <= 3; i++) {
+            String barcode = "BC" + i;
+            availabilityCacheApi.addKnownBarcode(barcode);
+            when(productDao.selectAvailabilityByBarcode(barcode)).thenReturn(new AvailabilityModel(i, barcode, 10.0, i));
+        }
+
+        // When: All three are loaded
+        availabilityCacheApi.getAvailability("BC1");
+        availabilityCacheApi.getAvailability("BC2");
+        availabilityCacheApi.getAvailability("BC3");
+        availabilityCacheApi.onStockChanged(1, 99);
+
+        // Then: The first should have been evicted and reloaded on the next read
+        CacheStatsModel stats = availabilityCacheApi.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(Integer.valueOf(1), availabilityCacheApi.getAvailability("BC1").getQuantity());
+        verify(productDao, times(2)).selectAvailabilityByBarcode("BC1");
+    }
+}
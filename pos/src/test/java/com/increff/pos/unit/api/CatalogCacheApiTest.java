@@ -0,0 +1,196 @@
+package com.increff.pos.unit.api;
+
+import com.increff.pos.api.CatalogCacheApi;
+import com.increff.pos.dao.ProductDao;
+import com.increff.pos.entity.ProductPojo;
+import com.increff.pos.model.CacheStatsModel;
+import com.increff.pos.setup.TestData;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.BoundedCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CatalogCacheApi class.
+ *
+ * These tests verify:
+ * - Products and barcode ids are read through once and then served from the cache
+ * - Only barcodes missing from the cache are queried
+ * - Product writes invalidate cached entries
+ * - Preloading warms the cache unless a product changes meanwhile, and entries expire after the TTL
+ *
+ * No transaction is active here, so invalidations are applied immediately.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CatalogCacheApiTest {
+
+    @Mock
+    private ProductDao productDao;
+
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    @InjectMocks
+    private CatalogCacheApi catalogCacheApi;
+
+    @Before
+    public void setUp() {
+        when(applicationProperties.getCatalogCacheSize()).thenReturn(100);
+        when(applicationProperties.getCatalogCacheTtlSeconds()).thenReturn(300);
+        catalogCacheApi.init();
+    }
+
+    /**
+     * Test read-through by id.
+     * Verifies that the first lookup loads a detached copy and the second is a hit.
+     */
+    @Test
+    public void testGetProduct_ReadsThroughOnce() {
+        // Given: A product in the database
+        ProductPojo product = TestData.product(1, "BC1", 1, "Product 1", 10.0);
+        when(productDao.selectById(1)).thenReturn(product);
+
+        // When: It is looked up twice
+        ProductPojo first = catalogCacheApi.getProduct(1);
+        ProductPojo second = catalogCacheApi.getProduct(1);
+
+        // Then: One query, a copy of the entity, and a recorded hit
+        verify(productDao, times(1)).selectById(1);
+        assertNotSame(product, first);
+        assertSame(first, second);
+        assertEquals("Product 1", second.getName());
+        assertEquals(1, catalogCacheApi.getStats().getHits());
+    }
+
+    /**
+     * Test barcode resolution with a partially warm cache.
+     * Verifies that only barcodes not already cached are queried.
+     */
+    @Test
+    public void testGetProductIds_QueriesOnlyMisses() {
+        // Given: One barcode already resolved
+        when(productDao.selectByBarcodes(Collections.singleton("BC1")))
+                .thenReturn(Collections.singletonList(TestData.product(1, "BC1", 1, "Product 1", 10.0)));
+        catalogCacheApi.getProductIds(Collections.singleton("BC1"));
+        when(productDao.selectByBarcodes(Collections.singleton("BC2")))
+                .thenReturn(Collections.singletonList(TestData.product(2, "BC2", 1, "Product 2", 20.0)));
+
+        // When: That barcode is resolved together with a new and an unknown one
+        Map<String, Integer> result = catalogCacheApi.getProductIds(Arrays.asList("BC1", "BC2"));
+
+        // Then: Both known barcodes resolve and the cached one is not queried again
+        assertEquals(Integer.valueOf(1), result.get("BC1"));
+        assertEquals(Integer.valueOf(2), result.get("BC2"));
+        verify(productDao, times(1)).selectByBarcodes(Collections.singleton("BC1"));
+        // The barcode lookup also warmed the id cache
+        catalogCacheApi.getProduct(2);
+        verify(productDao, never()).selectById(any());
+    }
+
+    /**
+     * Test invalidation on product change.
+     * Verifies that a changed product is reloaded on the next lookup.
+     */
+    @Test
+    public void testOnProductChanged_Invalidates() {
+        // Given: A cached product
+        when(productDao.selectById(1))
+                .thenReturn(TestData.product(1, "BC1", 1, "Old Name", 10.0))
+                .thenReturn(TestData.product(1, "BC1", 1, "New Name", 12.0));
+        catalogCacheApi.getProduct(1);
+
+        // When: The product changes
+        catalogCacheApi.onProductChanged(1, "BC1");
+
+        // Then: The next lookup reloads it
+        ProductPojo result = catalogCacheApi.getProduct(1);
+        assertEquals("New Name", result.getName());
+        verify(productDao, times(2)).selectById(1);
+    }
+
+    /**
+     * Test preloading the catalog.
+     * Verifies that preloaded products are served without a query.
+     */
+    @Test
+    public void testPreload_WarmsCache() {
+        // Given: Products in the database
+        when(productDao.selectAll(0, 100)).thenReturn(Arrays.asList(
+                TestData.product(1, "BC1", 1, "Product 1", 10.0),
+                TestData.product(2, "BC2", 1, "Product 2", 20.0)));
+
+        // When: The cache is preloaded and then read
+        int loaded = catalogCacheApi.preload();
+        Map<String, Integer> ids = catalogCacheApi.getProductIds(new HashSet<>(Arrays.asList("BC1", "BC2")));
+
+        // Then: Everything is a hit
+        assertEquals(2, loaded);
+        assertEquals(2, ids.size());
+        verify(productDao, never()).selectByBarcodes(any());
+        CacheStatsModel stats = catalogCacheApi.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1.0, stats.getHitRate(), 0.0001);
+    }
+
+    /**
+     * Test preloading while a product is updated.
+     * Verifies that rows selected before the update are not cached.
+     */
+    @Test
+    public void testPreload_SkippedWhenProductChangesDuringSelect() {
+        // Given: A product that is renamed while the bulk select runs
+        when(productDao.selectAll(0, 100)).thenAnswer(invocation -> {
+            catalogCacheApi.onProductChanged(1, "BC1");
+            return Collections.singletonList(TestData.product(1, "BC1", 1, "Old Name", 10.0));
+        });
+        when(productDao.selectById(1)).thenReturn(TestData.product(1, "BC1", 1, "New Name", 12.0));
+
+        // When: The cache is preloaded and then read
+        int loaded = catalogCacheApi.preload();
+        ProductPojo result = catalogCacheApi.getProduct(1);
+
+        // Then: Nothing was cached and the lookup reads the new name
+        assertEquals(0, loaded);
+        assertEquals("New Name", result.getName());
+        verify(productDao, times(1)).selectById(1);
+    }
+
+    /**
+     * Test TTL expiry in the underlying bounded cache.
+     * Verifies that an entry is dropped once its TTL elapses and counted as an expiration.
+     */
+    @Test
+    public void testBoundedCache_ExpiresAfterTtl() {
+        // Given: A cache with a 100ms TTL and a controllable clock
+        AtomicLong now = new AtomicLong(1000);
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 100, now::get, null);
+        cache.put("BC1", 1);
+
+        // When: Time passes up to and beyond the TTL
+        now.set(1099);
+        Integer beforeExpiry = cache.get("BC1");
+        now.set(1100);
+        Integer afterExpiry = cache.get("BC1");
+
+        // Then: The entry is served until it expires, then counted as a miss
+        assertEquals(Integer.valueOf(1), beforeExpiry);
+        assertNull(afterExpiry);
+        assertEquals(1, cache.getExpirations());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.size());
+    }
+}
@@ -1,6 +1,7 @@
 package com.increff.pos.unit.api;
 
 import com.increff.pos.api.ClientApi;
+import com.increff.pos.api.ProductSearchIndexApi;
 import com.increff.pos.dao.ClientDao;
 import com.increff.pos.entity.ClientPojo;
 import com.increff.pos.exception.ApiException;
@@ -37,6 +38,9 @@ public class ClientApiTest {
     @Mock
     private ClientDao clientDao;
 
+    @Mock
+    private ProductSearchIndexApi productSearchIndexApi;
+
     @InjectMocks
     private ClientApi clientApi;
 
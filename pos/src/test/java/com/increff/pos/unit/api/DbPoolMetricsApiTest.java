@@ -0,0 +1,105 @@
+package com.increff.pos.unit.api;
+
+import com.increff.pos.api.DbPoolMetricsApi;
+import com.increff.pos.model.DbPoolStatsModel;
+import com.increff.pos.util.LatencyHistogram;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for DbPoolMetricsApi class.
+ *
+ * These tests verify:
+ * - Histogram percentiles stay within one bucket of the true value
+ * - Acquire times, usage times and timeouts reported by the pool are aggregated
+ * - Pool gauges are read from the pool's statistics
+ */
+public class DbPoolMetricsApiTest {
+
+    /**
+     * Test histogram percentiles over a uniform range.
+     * Verifies that each percentile is at or above the true value and within 12.5% of it.
+     */
+    @Test
+    public void testLatencyHistogram_PercentilesWithinBucketError() {
+        // Given: Values 1 to 10000 recorded once each
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        // When & Then: Percentiles should bound the true values closely
+        for (double percentile : new double[]{50, 95, 99}) {
+            long expected = (long) (percentile * 100);
+            long actual = histogram.getPercentile(percentile);
+            assertTrue(percentile + "th was " + actual, actual >= expected && actual <= expected * 1.125);
+        }
+        assertEquals(10_000, histogram.getPercentile(100));
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+    }
+
+    /**
+     * Test histogram edge values.
+     * Verifies that zero, negative and very large values are recorded without error.
+     */
+    @Test
+    public void testLatencyHistogram_EdgeValues() {
+        // Given: An empty histogram
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+
+        // When: Edge values are recorded
+        histogram.record(-5);
+        histogram.record(0);
+        histogram.record(Long.MAX_VALUE);
+
+        // Then: Negative values count as zero and the maximum is exact
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+        assertEquals(3, histogram.getCount());
+    }
+
+    /**
+     * Test aggregation of pool events and gauges.
+     * Verifies that the stats combine the tracker's events with the pool's gauges.
+     */
+    @Test
+    public void testGetStats_CombinesEventsAndGauges() {
+        // Given: A pool with 3 active and 2 idle connections and 4 waiting threads
+        DbPoolMetricsApi dbPoolMetricsApi = new DbPoolMetricsApi();
+        IMetricsTracker tracker = dbPoolMetricsApi.create("test", new PoolStats(0) {
+            @Override
+            protected void update() {
+                activeConnections = 3;
+                idleConnections = 2;
+                pendingThreads = 4;
+                totalConnections = 5;
+                maxConnections = 10;
+            }
+        });
+
+        // When: The pool reports acquires, a release and a timeout
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(2));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(40));
+        tracker.recordConnectionUsageMillis(15);
+        tracker.recordConnectionTimeout();
+        DbPoolStatsModel stats = dbPoolMetricsApi.getStats();
+
+        // Then: Gauges and latencies should be reported
+        assertEquals(3, stats.getActiveConnections());
+        assertEquals(2, stats.getIdleConnections());
+        assertEquals(4, stats.getWaitingThreads());
+        assertEquals(10, stats.getMaxConnections());
+        assertEquals(2, stats.getAcquireCount());
+        assertEquals(1, stats.getAcquireTimeouts());
+        assertEquals(40.0, stats.getAcquireMaxMs(), 0.0001);
+        assertTrue(stats.getAcquireP50Ms() >= 2.0 && stats.getAcquireP50Ms() <= 2.25);
+        assertEquals(15.0, stats.getUsageMaxMs(), 0.0001);
+    }
+}
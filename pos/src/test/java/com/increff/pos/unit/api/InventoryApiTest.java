@@ -1,9 +1,13 @@
 package com.increff.pos.unit.api;
 
+import com.increff.pos.api.AvailabilityCacheApi;
 import com.increff.pos.api.InventoryApi;
+import com.increff.pos.api.LowStockAlertApi;
+import com.increff.pos.api.ReservationApi;
 import com.increff.pos.dao.InventoryDao;
 import com.increff.pos.entity.InventoryPojo;
 import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.InventoryDetailModel;
 import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.model.response.ValidationError;
 import com.increff.pos.setup.TestData;
@@ -38,6 +42,15 @@ public class InventoryApiTest {
     @Mock
     private InventoryDao inventoryDao;
 
+    @Mock
+    private LowStockAlertApi lowStockAlertApi;
+
+    @Mock
+    private AvailabilityCacheApi availabilityCacheApi;
+
+    @Mock
+    private ReservationApi reservationApi;
+
     @InjectMocks
     private InventoryApi inventoryApi;
 
@@ -61,20 +74,20 @@ public class InventoryApiTest {
         String productName = "test";
         int page = 0;
         int size = 10;
-        List<InventoryPojo> expectedInventory = Arrays.asList(
-            TestData.inventory(1, testProductId, 50),
-            TestData.inventory(2, testProductId + 1, 75)
+        List<InventoryDetailModel> expectedInventory = Arrays.asList(
+            new InventoryDetailModel(1, testProductId, 50, null, "TEST001", "test product", 100.0, 1, "client"),
+            new InventoryDetailModel(2, testProductId + 1, 75, null, "TEST002", "test product 2", 50.0, 1, "client")
         );
 
         // When: DAO returns matching inventory
-        when(inventoryDao.findByProductNameLike(productName, page, size)).thenReturn(expectedInventory);
+        when(inventoryDao.searchWithProductDetails(productName, null, page, size)).thenReturn(expectedInventory);
 
         // Then: API should return the same inventory
-        List<InventoryPojo> result = inventoryApi.searchInventory(productName, page, size);
+        List<InventoryDetailModel> result = inventoryApi.searchInventory(productName, null, page, size);
 
         assertEquals(2, result.size());
         assertEquals(expectedInventory, result);
-        verify(inventoryDao).findByProductNameLike(productName, page, size);
+        verify(inventoryDao).searchWithProductDetails(productName, null, page, size);
     }
 
     /**
@@ -170,6 +183,7 @@ public class InventoryApiTest {
         assertEquals(newQuantity, result.getQuantity());
         
         verify(inventoryDao).selectByProductId(productId);
+        verify(lowStockAlertApi).onStockChanged(productId, newQuantity, null);
     }
 
     /**
@@ -208,11 +222,32 @@ public class InventoryApiTest {
         when(inventoryDao.selectByProductId(productId)).thenReturn(inventory);
 
         // When & Then: No exception should be thrown
-        inventoryApi.validateInventoryAvailability(productId, requiredQuantity);
+        inventoryApi.validateInventoryAvailability(productId, requiredQuantity, "TEST_BARCODE");
 
         verify(inventoryDao).selectByProductId(productId);
     }
 
+    /**
+     * Test validating inventory availability with stock held by carts.
+     * Verifies that reserved quantity is not available to other orders.
+     */
+    @Test
+    public void testValidateInventoryAvailability_ReservedStockUnavailable() {
+        // Given: 100 in stock of which 80 are reserved
+        Integer productId = 1;
+        when(inventoryDao.selectByProductId(productId)).thenReturn(TestData.inventory(1, productId, 100));
+        when(reservationApi.getReservedQuantity(productId)).thenReturn(80);
+
+        // When & Then: Asking for more than the unreserved 20 should fail
+        try {
+            inventoryApi.validateInventoryAvailability(productId, 30, "TEST_BARCODE");
+            fail("Expected ApiException for stock held by reservations");
+        } catch (ApiException e) {
+            assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
+        }
+        inventoryApi.validateInventoryAvailability(productId, 20, "TEST_BARCODE");
+    }
+
     /**
      * Test validating inventory availability - insufficient stock.
      * Verifies that validation fails when insufficient stock is available.
@@ -227,7 +262,7 @@ public class InventoryApiTest {
 
         // When & Then: Exception should be thrown
         try {
-            inventoryApi.validateInventoryAvailability(productId, requiredQuantity);
+            inventoryApi.validateInventoryAvailability(productId, requiredQuantity, "TEST_BARCODE");
             fail("Expected ApiException to be thrown for insufficient stock");
         } catch (ApiException e) {
             assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
@@ -250,7 +285,7 @@ public class InventoryApiTest {
 
         // When & Then: Exception should be thrown
         try {
-            inventoryApi.validateInventoryAvailability(productId, requiredQuantity);
+            inventoryApi.validateInventoryAvailability(productId, requiredQuantity, "TEST_BARCODE");
             fail("Expected ApiException to be thrown for non-existent inventory");
         } catch (ApiException e) {
             assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
@@ -314,14 +349,6 @@ public class InventoryApiTest {
     public void testBulkCreateInventory_Success() {
         // Given: List of product IDs
         List<Integer> productIds = Arrays.asList(1, 2, 3);
-        
-        // And: Mock the return from selectByProductIds
-        List<InventoryPojo> expectedInventories = Arrays.asList(
-            TestData.inventory(1, 0),
-            TestData.inventory(2, 0),
-            TestData.inventory(3, 0)
-        );
-        when(inventoryDao.selectByProductIds(productIds)).thenReturn(expectedInventories);
 
         // When: API creates bulk inventory
         List<InventoryPojo> result = inventoryApi.bulkCreateInventory(productIds);
@@ -335,37 +362,32 @@ public class InventoryApiTest {
         }
 
         verify(inventoryDao).bulkInsert(productIds);
+        // Rows start at zero, so nothing is selected back
+        verify(inventoryDao, never()).selectByProductIds(any());
     }
 
     /**
-     * Test bulk creating or updating inventory successfully.
-     * Verifies that inventory records are created or updated with proper FK-Id relationships.
+     * Test upserting a batch of uploaded inventory.
+     * Verifies that the batch is written once and rows are not selected back.
      */
     @Test
-    public void testBulkCreateOrUpdateInventory_Success() {
-        // Given: List of inventory to create/update
+    public void testUpsertInventory_NoReadBack() {
+        // Given: A batch of inventory to create/update
         List<InventoryPojo> inventoryList = Arrays.asList(
             TestData.inventory(1, 50),
             TestData.inventory(2, 75),
             TestData.inventory(3, 100)
         );
-        
-        // And: Mock the return from selectByProductIds
-        List<Integer> productIds = Arrays.asList(1, 2, 3);
-        when(inventoryDao.selectByProductIds(productIds)).thenReturn(inventoryList);
-
-        // When: API creates or updates bulk inventory
-        List<InventoryPojo> result = inventoryApi.bulkCreateOrUpdateInventory(inventoryList);
 
-        // Then: All inventory records should be processed
-        assertEquals(3, result.size());
-        for (int i = 0; i < result.size(); i++) {
-            InventoryPojo inventory = result.get(i);
-            assertEquals(inventoryList.get(i).getProductId(), inventory.getProductId()); // Verify FK-Id relationships
-            assertEquals(inventoryList.get(i).getQuantity(), inventory.getQuantity());
-        }
+        // When: API upserts the batch
+        inventoryApi.upsertInventory(inventoryList);
 
+        // Then: The batch should be written and the low stock index fed from the written values
         verify(inventoryDao).bulkUpsert(inventoryList);
+        verify(inventoryDao, never()).selectByProductIds(anyList());
+        verify(lowStockAlertApi).onQuantityChanged(1, 50);
+        verify(lowStockAlertApi).onQuantityChanged(3, 100);
+        verify(availabilityCacheApi).onStockChanged(2, 75);
     }
 
     /**
@@ -498,7 +520,7 @@ public class InventoryApiTest {
         when(inventoryDao.selectByProductId(productId)).thenReturn(inventory);
 
         // When & Then: No exception should be thrown
-        inventoryApi.validateInventoryAvailability(productId, requiredQuantity);
+        inventoryApi.validateInventoryAvailability(productId, requiredQuantity, "TEST_BARCODE");
 
         verify(inventoryDao).selectByProductId(productId);
     }
@@ -0,0 +1,128 @@
+package com.increff.pos.unit.api;
+
+import com.increff.pos.api.LiveSalesApi;
+import com.increff.pos.model.LiveSalesModel;
+import com.increff.pos.spring.ApplicationProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for LiveSalesApi class.
+ *
+ * These tests verify:
+ * - Per-minute bucketing of placed and invoiced orders
+ * - Range sums across buckets
+ * - Overwriting of buckets that fall out of the window
+ *
+ * No transaction is active here, so recorded sales are applied immediately.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LiveSalesApiTest {
+
+    private static final int WINDOW_MINUTES = 60;
+
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    @InjectMocks
+    private LiveSalesApi liveSalesApi;
+
+    private ZonedDateTime baseTime;
+    private long baseMinute;
+
+    @Before
+    public void setUp() {
+        when(applicationProperties.getLiveSalesWindowMinutes()).thenReturn(WINDOW_MINUTES);
+        liveSalesApi.init();
+        baseTime = ZonedDateTime.of(2024, 1, 15, 10, 0, 0, 0, ZoneOffset.UTC);
+        baseMinute = LiveSalesApi.toEpochMinute(baseTime);
+    }
+
+    /**
+     * Test recording orders within the same minute.
+     * Verifies that they are accumulated into one bucket.
+     */
+    @Test
+    public void testRecordOrder_SameMinute() {
+        // Given: Two orders placed within the same minute
+        liveSalesApi.recordOrder(baseTime.plusSeconds(5), 2, 50.0);
+        liveSalesApi.recordOrder(baseTime.plusSeconds(40), 3, 75.0);
+
+        // When: The minute is read
+        LiveSalesModel result = liveSalesApi.getPlacedSales(baseMinute, baseMinute);
+
+        // Then: Both orders should be counted
+        assertEquals(Integer.valueOf(2), result.getOrdersCount());
+        assertEquals(Integer.valueOf(5), result.getItemsCount());
+        assertEquals(125.0, result.getRevenue(), 0.001);
+    }
+
+    /**
+     * Test summing a range of minutes.
+     * Verifies that only buckets inside the range are included and invoices are kept apart.
+     */
+    @Test
+    public void testGetPlacedSales_Range() {
+        // Given: Orders across three minutes and one invoice
+        liveSalesApi.recordOrder(baseTime, 1, 10.0);
+        liveSalesApi.recordOrder(baseTime.plusMinutes(1), 1, 20.0);
+        liveSalesApi.recordOrder(baseTime.plusMinutes(2), 1, 40.0);
+        liveSalesApi.recordInvoice(baseTime.plusMinutes(1), 1, 20.0);
+
+        // When: The first two minutes are read
+        LiveSalesModel placed = liveSalesApi.getPlacedSales(baseMinute, baseMinute + 1);
+        LiveSalesModel invoiced = liveSalesApi.getInvoicedSales(baseMinute, baseMinute + 2);
+
+        // Then: Only the matching buckets should be summed
+        assertEquals(Integer.valueOf(2), placed.getOrdersCount());
+        assertEquals(30.0, placed.getRevenue(), 0.001);
+        assertEquals(Integer.valueOf(1), invoiced.getOrdersCount());
+        assertEquals(20.0, invoiced.getRevenue(), 0.001);
+    }
+
+    /**
+     * Test recording an order one full window later.
+     * Verifies that the old bucket is overwritten and no longer reported.
+     */
+    @Test
+    public void testRecordOrder_WrapsAroundWindow() {
+        // Given: An order, then another one a full window later in the same slot
+        liveSalesApi.recordOrder(baseTime, 1, 10.0);
+        liveSalesApi.recordOrder(baseTime.plusMinutes(WINDOW_MINUTES), 4, 80.0);
+
+        // When: Both minutes are read
+        LiveSalesModel oldBucket = liveSalesApi.getPlacedSales(baseMinute, baseMinute);
+        LiveSalesModel newBucket = liveSalesApi.getPlacedSales(baseMinute + WINDOW_MINUTES, baseMinute + WINDOW_MINUTES);
+
+        // Then: Only the newer order should remain
+        assertEquals(Integer.valueOf(0), oldBucket.getOrdersCount());
+        assertEquals(Integer.valueOf(1), newBucket.getOrdersCount());
+        assertEquals(Integer.valueOf(4), newBucket.getItemsCount());
+    }
+
+    /**
+     * Test resetting the buffers.
+     * Verifies that all buckets are cleared.
+     */
+    @Test
+    public void testReset() {
+        // Given: A recorded order
+        liveSalesApi.recordOrder(baseTime, 1, 10.0);
+
+        // When: Buffers are reset
+        liveSalesApi.reset();
+
+        // Then: Nothing should be reported
+        assertEquals(Integer.valueOf(0), liveSalesApi.getPlacedSales(baseMinute, baseMinute).getOrdersCount());
+    }
+}
@@ -0,0 +1,155 @@
+package com.increff.pos.unit.api;
+
+import com.increff.pos.api.LowStockAlertApi;
+import com.increff.pos.model.LowStockAlertModel;
+import com.increff.pos.model.StockLevelModel;
+import com.increff.pos.spring.ApplicationProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Unit tests for LowStockAlertApi class.
+ *
+ * These tests verify:
+ * - Alerts fire only when stock crosses below its threshold
+ * - Below-threshold queries are ordered by quantity minus threshold
+ * - The outbox drops the oldest alerts once full
+ *
+ * No transaction is active here, so stock changes are applied immediately.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LowStockAlertApiTest {
+
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    @InjectMocks
+    private LowStockAlertApi lowStockAlertApi;
+
+    @Before
+    public void setUp() {
+        lenient().when(applicationProperties.getLowStockThreshold()).thenReturn(10);
+        lenient().when(applicationProperties.getLowStockOutboxSize()).thenReturn(2);
+    }
+
+    /**
+     * Test a stock change crossing the threshold.
+     * Verifies that exactly one alert fires and further drops do not repeat it.
+     */
+    @Test
+    public void testOnStockChanged_CrossingFiresOnce() {
+        // Given: A product loaded above its threshold
+        lowStockAlertApi.load(1, 20, 5);
+
+        // When: Stock drops below the threshold twice
+        lowStockAlertApi.onStockChanged(1, 4, 5);
+        lowStockAlertApi.onStockChanged(1, 2, 5);
+
+        // Then: Only the first crossing should raise an alert
+        List<LowStockAlertModel> alerts = lowStockAlertApi.getAlertsAfter(0);
+        assertEquals(1, alerts.size());
+        assertEquals(Integer.valueOf(1), alerts.get(0).getProductId());
+        assertEquals(Integer.valueOf(4), alerts.get(0).getQuantity());
+    }
+
+    /**
+     * Test quantity changes that carry no threshold.
+     * Verifies that the indexed threshold is kept and the crossing raises an alert.
+     */
+    @Test
+    public void testOnQuantityChanged_KeepsIndexedThreshold() {
+        // Given: A product loaded with its own threshold
+        lowStockAlertApi.load(1, 40, 30);
+
+        // When: Only the quantity changes
+        lowStockAlertApi.onQuantityChanged(1, 25);
+
+        // Then: The custom threshold should still apply
+        assertEquals(Integer.valueOf(30), lowStockAlertApi.getStockLevel(1).getThreshold());
+        assertEquals(1, lowStockAlertApi.getAlertsAfter(0).size());
+    }
+
+    /**
+     * Test the first stock level of a new product.
+     * Verifies that a product created with zero stock is listed but raises no alert.
+     */
+    @Test
+    public void testOnStockChanged_NewProductDoesNotAlert() {
+        // When: A product is created with an empty inventory row, as product creation does
+        lowStockAlertApi.onStockChanged(1, 0, null);
+
+        // Then: It is below threshold but no crossing happened
+        assertTrue(lowStockAlertApi.getAlertsAfter(0).isEmpty());
+        assertEquals(1, lowStockAlertApi.getBelowThreshold(10).size());
+    }
+
+    /**
+     * Test loading levels from the database.
+     * Verifies that no alerts are raised for products already below threshold.
+     */
+    @Test
+    public void testLoad_DoesNotAlert() {
+        // When: A product below threshold is loaded
+        lowStockAlertApi.load(1, 1, 5);
+
+        // Then: It is listed but no alert is raised
+        assertTrue(lowStockAlertApi.getAlertsAfter(0).isEmpty());
+        assertEquals(1, lowStockAlertApi.getBelowThreshold(10).size());
+    }
+
+    /**
+     * Test querying products below threshold.
+     * Verifies ordering by deficit and the default threshold for null values.
+     */
+    @Test
+    public void testGetBelowThreshold_OrderedByDeficit() {
+        // Given: Products with different deficits, one using the default threshold
+        lowStockAlertApi.load(1, 8, 10);
+        lowStockAlertApi.load(2, 0, 10);
+        lowStockAlertApi.load(3, 50, 10);
+        lowStockAlertApi.load(4, 7, null);
+
+        // When: Products below threshold are read
+        List<StockLevelModel> result = lowStockAlertApi.getBelowThreshold(10);
+
+        // Then: Largest deficit should come first and the stocked product excluded
+        assertEquals(3, result.size());
+        assertEquals(Integer.valueOf(2), result.get(0).getProductId());
+        assertEquals(Integer.valueOf(4), result.get(1).getProductId());
+        assertEquals(Integer.valueOf(10), result.get(1).getThreshold());
+        assertEquals(Integer.valueOf(1), result.get(2).getProductId());
+    }
+
+    /**
+     * Test the bounded outbox.
+     * Verifies that the oldest alert is dropped and sequences keep increasing.
+     */
+    @Test
+    public void testOutbox_DropsOldest() {
+        // Given: Three stocked products crossing the threshold with an outbox of two
+        lowStockAlertApi.load(1, 20, 5);
+        lowStockAlertApi.load(2, 20, 5);
+        lowStockAlertApi.load(3, 20, 5);
+        lowStockAlertApi.onStockChanged(1, 1, 5);
+        lowStockAlertApi.onStockChanged(2, 1, 5);
+        lowStockAlertApi.onStockChanged(3, 1, 5);
+
+        // When: All alerts are read
+        List<LowStockAlertModel> alerts = lowStockAlertApi.getAlertsAfter(0);
+
+        // Then: Only the latest two should remain
+        assertEquals(2, alerts.size());
+        assertEquals(Long.valueOf(2), alerts.get(0).getSequence());
+        assertEquals(Long.valueOf(3), alerts.get(1).getSequence());
+        assertEquals(1, lowStockAlertApi.getAlertsAfter(2).size());
+    }
+}
@@ -0,0 +1,118 @@
+package com.increff.pos.unit.api;
+
+import com.increff.pos.api.MetricsApi;
+import com.increff.pos.model.Constants;
+import com.increff.pos.model.response.ValidationError;
+import com.increff.pos.util.PrometheusTextWriter;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for MetricsApi class.
+ *
+ * These tests verify:
+ * - Timers are exported as cumulative histograms in seconds, one series per label set
+ * - Counters of one metric share a single type line and label values are escaped
+ * - Upload rows are split into applied, invalid and skipped, and failed uploads are counted
+ */
+public class MetricsApiTest {
+
+    /**
+     * Test exporting a timer.
+     * Verifies that recorded nanoseconds appear as cumulative buckets, sum and count in seconds.
+     */
+    @Test
+    public void testWriteTo_TimerAsHistogram() {
+        // Given: Two calls of 2ms recorded on one endpoint
+        MetricsApi metricsApi = new MetricsApi();
+        metricsApi.timer(Constants.METRIC_HTTP_REQUEST_SECONDS, "method", "GET", "endpoint", "/products/{id}")
+                .record(TimeUnit.MILLISECONDS.toNanos(2));
+        metricsApi.timer(Constants.METRIC_HTTP_REQUEST_SECONDS, "method", "GET", "endpoint", "/products/{id}")
+                .record(TimeUnit.MILLISECONDS.toNanos(2));
+
+        // When
+        PrometheusTextWriter writer = new PrometheusTextWriter();
+        metricsApi.writeTo(writer);
+        String body = writer.toString();
+
+        // Then: One histogram with both calls above 1ms and within 2.5ms, reported in seconds
+        String series = Constants.METRIC_HTTP_REQUEST_SECONDS + "_bucket{method=\"GET\",endpoint=\"/products/{id}\"";
+        assertTrue(body.contains("# TYPE " + Constants.METRIC_HTTP_REQUEST_SECONDS + " histogram\n"));
+        assertTrue(body.contains(series + ",le=\"0.001\"} 0\n"));
+        assertTrue(body.contains(series + ",le=\"0.0025\"} 2\n"));
+        assertTrue(body.contains(series + ",le=\"10.0\"} 2\n"));
+        assertTrue(body.contains(series + ",le=\"+Inf\"} 2\n"));
+        assertTrue(body.contains(Constants.METRIC_HTTP_REQUEST_SECONDS + "_sum{method=\"GET\",endpoint=\"/products/{id}\"} 0.004\n"));
+        assertTrue(body.contains(Constants.METRIC_HTTP_REQUEST_SECONDS + "_count{method=\"GET\",endpoint=\"/products/{id}\"} 2\n"));
+    }
+
+    /**
+     * Test exporting counters.
+     * Verifies that series of one metric are grouped under one type line and quotes are escaped.
+     */
+    @Test
+    public void testWriteTo_CountersGroupedAndEscaped() {
+        // Given: Two error series and an invoice error count
+        MetricsApi metricsApi = new MetricsApi();
+        metricsApi.counter(Constants.METRIC_HTTP_ERRORS, "endpoint", "/a", "status", "404").increment();
+        metricsApi.counter(Constants.METRIC_INVOICE_CALL_ERRORS).add(3);
+        metricsApi.counter(Constants.METRIC_HTTP_ERRORS, "endpoint", "/say \"hi\"", "status", "500").increment();
+
+        // When
+        PrometheusTextWriter writer = new PrometheusTextWriter();
+        metricsApi.writeTo(writer);
+        String body = writer.toString();
+
+        // Then
+        assertEquals(body.indexOf("# TYPE " + Constants.METRIC_HTTP_ERRORS),
+                body.lastIndexOf("# TYPE " + Constants.METRIC_HTTP_ERRORS));
+        assertTrue(body.contains(Constants.METRIC_HTTP_ERRORS + "{endpoint=\"/a\",status=\"404\"} 1\n"));
+        assertTrue(body.contains(Constants.METRIC_HTTP_ERRORS + "{endpoint=\"/say \\\"hi\\\"\",status=\"500\"} 1\n"));
+        assertTrue(body.contains(Constants.METRIC_INVOICE_CALL_ERRORS + " 3\n"));
+    }
+
+    /**
+     * Test counting upload rows.
+     * Verifies that a rejected upload counts invalid rows once each and the rest as skipped.
+     */
+    @Test
+    public void testRecordUploadRows_SplitsByResult() {
+        // Given: A clean 5 row upload and a 4 row upload with two errors on row 2 and one on row 3
+        MetricsApi metricsApi = new MetricsApi();
+        metricsApi.recordUploadRows("product", 5, Collections.emptyList());
+        metricsApi.recordUploadRows("product", 4, Arrays.asList(error(2), error(2), error(3)));
+
+        // When & Then
+        assertEquals(5, metricsApi.counter(Constants.METRIC_UPLOAD_ROWS, "upload", "product", "result", "applied").sum());
+        assertEquals(2, metricsApi.counter(Constants.METRIC_UPLOAD_ROWS, "upload", "product", "result", "invalid").sum());
+        assertEquals(2, metricsApi.counter(Constants.METRIC_UPLOAD_ROWS, "upload", "product", "result", "skipped").sum());
+    }
+
+    /**
+     * Test counting an upload that threw.
+     * Verifies that all of its rows are counted as failed.
+     */
+    @Test
+    public void testRecordFailedUpload_CountsAllRows() {
+        // Given
+        MetricsApi metricsApi = new MetricsApi();
+
+        // When: A 7 row inventory upload fails
+        metricsApi.recordFailedUpload("inventory", 7);
+
+        // Then
+        assertEquals(7, metricsApi.counter(Constants.METRIC_UPLOAD_ROWS, "upload", "inventory", "result", "failed").sum());
+        assertEquals(0, metricsApi.counter(Constants.METRIC_UPLOAD_ROWS, "upload", "inventory", "result", "applied").sum());
+    }
+
+    private static ValidationError error(int rowNumber) {
+        ValidationError error = new ValidationError();
+        error.setRowNumber(rowNumber);
+        return error;
+    }
+}
@@ -1,9 +1,13 @@
 package com.increff.pos.unit.api;
 
+import com.increff.pos.api.AvailabilityCacheApi;
+import com.increff.pos.api.CatalogCacheApi;
 import com.increff.pos.api.ProductApi;
+import com.increff.pos.api.ProductSearchIndexApi;
 import com.increff.pos.dao.ProductDao;
 import com.increff.pos.entity.ProductPojo;
 import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.AvailabilityModel;
 import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.setup.TestData;
 import org.junit.Before;
@@ -36,6 +40,15 @@ public class ProductApiTest {
     @Mock
     private ProductDao productDao;
 
+    @Mock
+    private AvailabilityCacheApi availabilityCacheApi;
+
+    @Mock
+    private CatalogCacheApi catalogCacheApi;
+
+    @Mock
+    private ProductSearchIndexApi productSearchIndexApi;
+
     @InjectMocks
     private ProductApi productApi;
 
@@ -57,14 +70,13 @@ public class ProductApiTest {
     public void testFindProductsByBarcodes_Success() {
         // Given: Multiple products with different barcodes
         List<String> barcodes = Arrays.asList("BC001", "BC002", "BC003");
-        List<ProductPojo> products = Arrays.asList(
-            TestData.product(1, "BC001", testClientId, "Product 1", 50.0),
-            TestData.product(2, "BC002", testClientId, "Product 2", 75.0),
-            TestData.product(3, "BC003", testClientId, "Product 3", 100.0)
-        );
+        Map<String, Integer> ids = new HashMap<>();
+        ids.put("BC001", 1);
+        ids.put("BC002", 2);
+        ids.put("BC003", 3);
 
-        // When: DAO returns the products
-        when(productDao.selectByBarcodes(any(Set.class))).thenReturn(products);
+        // When: The catalog cache resolves the barcodes
+        when(catalogCacheApi.getProductIds(any())).thenReturn(ids);
 
         // Then: API should return correct barcode to ID mapping
         Map<String, Integer> result = productApi.findProductsByBarcodes(barcodes);
@@ -74,8 +86,8 @@ public class ProductApiTest {
         assertEquals(Integer.valueOf(2), result.get("BC002"));
         assertEquals(Integer.valueOf(3), result.get("BC003"));
 
-        // Verify DAO was called with unique barcodes set
-        verify(productDao).selectByBarcodes(argThat(set -> set.size() == 3));
+        // Verify the cache was asked for the unique barcodes set
+        verify(catalogCacheApi).getProductIds(argThat(set -> set.size() == 3));
     }
 
     /**
@@ -86,19 +98,18 @@ public class ProductApiTest {
     public void testFindProductsByBarcodes_WithDuplicates() {
         // Given: List with duplicate barcodes
         List<String> barcodes = Arrays.asList("BC001", "BC002", "BC001", "BC002");
-        List<ProductPojo> products = Arrays.asList(
-            TestData.product(1, "BC001", testClientId, "Product 1", 50.0),
-            TestData.product(2, "BC002", testClientId, "Product 2", 75.0)
-        );
+        Map<String, Integer> ids = new HashMap<>();
+        ids.put("BC001", 1);
+        ids.put("BC002", 2);
 
-        when(productDao.selectByBarcodes(any(Set.class))).thenReturn(products);
+        when(catalogCacheApi.getProductIds(any())).thenReturn(ids);
 
         // When: API processes the list
         Map<String, Integer> result = productApi.findProductsByBarcodes(barcodes);
 
         // Then: Duplicates should be removed and result should be correct
         assertEquals(2, result.size());
-        verify(productDao).selectByBarcodes(argThat(set -> set.size() == 2));
+        verify(catalogCacheApi).getProductIds(argThat(set -> set.size() == 2));
     }
 
     /**
@@ -130,15 +141,39 @@ public class ProductApiTest {
         verify(productDao).findBySearchCriteria(barcode, productName, page, size);
     }
 
+    /**
+     * Test free-text search with the search index enabled.
+     * Verifies that ranked ids from the index are loaded in one query, in rank order, without the catalog cache.
+     */
+    @Test
+    public void testSearchProducts_FreeTextUsesIndex() {
+        // Given: The index ranks product 2 above product 1
+        when(productSearchIndexApi.isEnabled()).thenReturn(true);
+        when(productSearchIndexApi.search("choclate", null, 0, 10)).thenReturn(Arrays.asList(2, 1));
+        when(productDao.selectByIds(Arrays.asList(2, 1))).thenReturn(Arrays.asList(
+                TestData.product(1, "TEST123", testClientId, "Chocolate", 100.0),
+                TestData.product(2, "TEST456", testClientId, "Chocolate Bar", 150.0)));
+
+        // When: Searching with a misspelled word
+        List<ProductPojo> result = productApi.searchProducts("choclate", null, null, 0, 10);
+
+        // Then: Products follow the index ranking and bypass the catalog cache
+        assertEquals(2, result.size());
+        assertEquals(Integer.valueOf(2), result.get(0).getId());
+        assertEquals(Integer.valueOf(1), result.get(1).getId());
+        verify(productDao, never()).findBySearchCriteria(any(), any(), anyInt(), anyInt());
+        verifyNoInteractions(catalogCacheApi);
+    }
+
     /**
      * Test getting product by ID - successful case.
      * Verifies that existing product is returned correctly.
      */
     @Test
     public void testGetProductById_Success() {
-        // Given: Product exists in database
+        // Given: Product exists in the catalog
         Integer productId = 1;
-        when(productDao.selectById(productId)).thenReturn(testProduct);
+        when(catalogCacheApi.getProduct(productId)).thenReturn(testProduct);
 
         // When: API retrieves product
         ProductPojo result = productApi.getProductById(productId);
@@ -146,7 +181,7 @@ public class ProductApiTest {
         // Then: Product should be returned
         assertEquals(testProduct, result);
         assertEquals(testClientId, result.getClientId()); // Verify FK-Id relationship
-        verify(productDao).selectById(productId);
+        verify(catalogCacheApi).getProduct(productId);
     }
 
     /**
@@ -157,7 +192,7 @@ public class ProductApiTest {
     public void testGetProductById_NotFound() {
         // Given: Product doesn't exist
         Integer productId = 999;
-        when(productDao.selectById(productId)).thenReturn(null);
+        when(catalogCacheApi.getProduct(productId)).thenReturn(null);
 
         // When & Then: Exception should be thrown
         try {
@@ -168,7 +203,7 @@ public class ProductApiTest {
 //            assertEquals("Product not found", e.getMessage());
         }
 
-        verify(productDao).selectById(productId);
+        verify(catalogCacheApi).getProduct(productId);
     }
 
     /**
@@ -373,14 +408,16 @@ public class ProductApiTest {
     public void testCheckProductExists_Exists() {
         // Given: Product exists
         String barcode = "EXISTS123";
-        when(productDao.selectByBarcode(barcode)).thenReturn(testProduct);
+        when(availabilityCacheApi.getAvailability(barcode))
+                .thenReturn(new AvailabilityModel(testProduct.getId(), barcode, testProduct.getMrp(), 5));
 
         // When: API checks existence
         boolean result = productApi.checkProductExists(barcode);
 
-        // Then: Should return true
+        // Then: Should return true from the availability cache
         assertTrue(result);
-        verify(productDao).selectByBarcode(barcode);
+        verify(availabilityCacheApi).getAvailability(barcode);
+        verify(productDao, never()).selectByBarcode(any());
     }
 
     /**
@@ -391,13 +428,13 @@ public class ProductApiTest {
     public void testCheckProductExists_NotExists() {
         // Given: Product doesn't exist
         String barcode = "NOTEXISTS123";
-        when(productDao.selectByBarcode(barcode)).thenReturn(null);
+        when(availabilityCacheApi.getAvailability(barcode)).thenReturn(null);
 
         // When: API checks existence
         boolean result = productApi.checkProductExists(barcode);
 
         // Then: Should return false
         assertFalse(result);
-        verify(productDao).selectByBarcode(barcode);
+        verify(availabilityCacheApi).getAvailability(barcode);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.increff.pos.unit.api;
+
+import com.increff.pos.api.ProductSearchIndexApi;
+import com.increff.pos.dao.ClientDao;
+import com.increff.pos.entity.ProductPojo;
+import com.increff.pos.model.ProductSearchDocModel;
+import com.increff.pos.setup.TestData;
+import com.increff.pos.spring.ApplicationProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductSearchIndexApi class.
+ *
+ * These tests verify:
+ * - Misspelled and partial words match through fuzzy and prefix queries
+ * - Fuzzy matching keeps the first two characters and skips barcodes
+ * - Exact matches rank above fuzzy ones
+ * - Barcode prefixes narrow the result
+ * - Product and client changes update the index incrementally
+ * - A rebuild keeps serving the old contents and keeps updates made while it runs
+ *
+ * The index is kept in memory. No transaction is active here, so changes are applied immediately.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ProductSearchIndexApiTest {
+
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    @Mock
+    private ClientDao clientDao;
+
+    @InjectMocks
+    private ProductSearchIndexApi productSearchIndexApi;
+
+    @Before
+    public void setUp() {
+        when(applicationProperties.isSearchIndexEnabled()).thenReturn(true);
+        when(applicationProperties.getSearchIndexDir()).thenReturn("");
+        productSearchIndexApi.init();
+        productSearchIndexApi.index(new ProductSearchDocModel(1, "CHOC001", "Dark Chocolate", 1, "Acme Foods"));
+        productSearchIndexApi.index(new ProductSearchDocModel(2, "CHOC002", "Chocolate Chip Cookies", 1, "Acme Foods"));
+        productSearchIndexApi.index(new ProductSearchDocModel(3, "SOAP001", "Lavender Soap", 2, "Bright Home"));
+        productSearchIndexApi.commit();
+    }
+
+    @After
+    public void tearDown() {
+        productSearchIndexApi.shutdown();
+    }
+
+    /**
+     * Test searching with a typo.
+     * Verifies that a word one edit away still matches.
+     */
+    @Test
+    public void testSearch_MatchesTypos() {
+        // When: Searching for a misspelled product name
+        List<Integer> result = productSearchIndexApi.search("lavendr", null, 0, 10);
+
+        // Then: The soap should be found
+        assertEquals(Collections.singletonList(3), result);
+    }
+
+    /**
+     * Test the limits on fuzzy matching.
+     * Verifies that a typo in the first two characters and a mistyped barcode do not match.
+     */
+    @Test
+    public void testSearch_FuzzyLimits() {
+        // When: Searching with an early typo and with a barcode one edit away
+        List<Integer> earlyTypo = productSearchIndexApi.search("lvender", null, 0, 10);
+        List<Integer> barcodeTypo = productSearchIndexApi.search("choc003", null, 0, 10);
+
+        // Then: Neither matches
+        assertTrue(earlyTypo.isEmpty());
+        assertTrue(barcodeTypo.isEmpty());
+    }
+
+    /**
+     * Test typeahead on a partial word.
+     * Verifies that a prefix matches and an exact word ranks first.
+     */
+    @Test
+    public void testSearch_PrefixAndRanking() {
+        // When: Searching for a partial word and for a whole word
+        List<Integer> partial = productSearchIndexApi.search("choco", null, 0, 10);
+        List<Integer> exact = productSearchIndexApi.search("chocolate cookies", null, 0, 10);
+
+        // Then: Both chocolate products match the prefix, and only the cookies match both words
+        assertEquals(2, partial.size());
+        assertTrue(partial.containsAll(Arrays.asList(1, 2)));
+        assertEquals(Collections.singletonList(2), exact);
+    }
+
+    /**
+     * Test searching by client name and barcode prefix.
+     * Verifies that client names are searchable and barcode prefixes narrow the result.
+     */
+    @Test
+    public void testSearch_ClientNameAndBarcodePrefix() {
+        // When: Searching by client name, by barcode prefix, and both
+        List<Integer> byClient = productSearchIndexApi.search("bright", null, 0, 10);
+        List<Integer> byBarcode = productSearchIndexApi.search(null, "choc00", 0, 10);
+        List<Integer> narrowed = productSearchIndexApi.search("acme", "CHOC002", 0, 10);
+
+        // Then: Each lookup should find the expected products
+        assertEquals(Collections.singletonList(3), byClient);
+        assertEquals(2, byBarcode.size());
+        assertEquals(Collections.singletonList(2), narrowed);
+    }
+
+    /**
+     * Test incremental updates from product and client writes.
+     * Verifies that a renamed product and client are found under their new names.
+     */
+    @Test
+    public void testOnProductAndClientChanged_UpdatesIndex() {
+        // Given: A product renamed through a bulk update that carries no client id
+        ProductPojo renamed = TestData.product(3, "SOAP001", null, "Rose Soap", 20.0);
+
+        // When: The product and its client are renamed
+        productSearchIndexApi.onProductsChanged(Collections.singletonList(renamed));
+        productSearchIndexApi.onClientRenamed(2, "Garden Home");
+
+        // Then: Only the new names match and the document count is unchanged
+        assertEquals(Collections.singletonList(3), productSearchIndexApi.search("rose garden", null, 0, 10));
+        assertTrue(productSearchIndexApi.search("lavender", null, 0, 10).isEmpty());
+        assertTrue(productSearchIndexApi.search("bright", null, 0, 10).isEmpty());
+        assertEquals(3, productSearchIndexApi.size());
+        verifyNoInteractions(clientDao);
+    }
+
+    /**
+     * Test a bulk update batch without client ids.
+     * Verifies that every product keeps the client of its current document.
+     */
+    @Test
+    public void testOnProductsChanged_BatchKeepsStoredClients() {
+        // Given: Two products renamed in one batch that carries no client ids
+        List<ProductPojo> batch = Arrays.asList(
+                TestData.product(1, "CHOC001", null, "Milk Chocolate", 10.0),
+                TestData.product(2, "CHOC002", null, "Oat Cookies", 12.0));
+
+        // When: The batch is applied
+        productSearchIndexApi.onProductsChanged(batch);
+
+        // Then: Both are found under their new names together with their client
+        assertEquals(Collections.singletonList(1), productSearchIndexApi.search("milk acme", null, 0, 10));
+        assertEquals(Collections.singletonList(2), productSearchIndexApi.search("oat acme", null, 0, 10));
+        assertEquals(3, productSearchIndexApi.size());
+        verifyNoInteractions(clientDao);
+    }
+
+    /**
+     * Test a rebuild that runs while a product is renamed.
+     * Verifies that searches see the old contents until it commits and the rename is not lost.
+     */
+    @Test
+    public void testRebuild_KeepsUpdatesMadeDuringScan() {
+        // Given: A rebuild whose scan reads the soap before it is renamed
+        List<Integer> duringScan = new ArrayList<>();
+
+        // When: The rename commits in the middle of the scan
+        productSearchIndexApi.rebuild(docs -> {
+            docs.accept(new ProductSearchDocModel(1, "CHOC001", "Dark Chocolate", 1, "Acme Foods"));
+            productSearchIndexApi.onProductsChanged(Collections.singletonList(
+                    TestData.product(3, "SOAP001", 2, "Rose Soap", 20.0)));
+            duringScan.addAll(productSearchIndexApi.search("lavender", null, 0, 10));
+            docs.accept(new ProductSearchDocModel(3, "SOAP001", "Lavender Soap", 2, "Bright Home"));
+        });
+
+        // Then: The old soap was searchable during the scan, and afterwards only the new name and scanned rows remain
+        assertEquals(Collections.singletonList(3), duringScan);
+        assertEquals(Collections.singletonList(3), productSearchIndexApi.search("rose", null, 0, 10));
+        assertTrue(productSearchIndexApi.search("lavender", null, 0, 10).isEmpty());
+        assertTrue(productSearchIndexApi.search("cookies", null, 0, 10).isEmpty());
+        assertEquals(2, productSearchIndexApi.size());
+    }
+}
@@ -0,0 +1,152 @@
+package com.increff.pos.unit.api;
+
+import com.increff.pos.api.CatalogCacheApi;
+import com.increff.pos.api.ProductApi;
+import com.increff.pos.entity.ClientPojo;
+import com.increff.pos.entity.ProductPojo;
+import com.increff.pos.setup.AbstractIntegrationTest;
+import com.increff.pos.spring.ReplicaRoutingDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration tests for indexed product search routed to a read replica that lags the primary.
+ *
+ * These tests verify:
+ * - Search reads the replica's copy of a product
+ * - That copy is not cached, so the order path still sees the primary's row
+ *
+ * The replica is a second in-memory H2 database given the primary's schema and a copy of the
+ * product row taken before it is renamed on the primary. It stays bypassed until its status
+ * table exists. Each call commits on its own, and rows are removed after each test.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "jdbc.replica.url=" + ProductSearchReplicaTest.REPLICA_URL,
+        "db.replica.lag.query=SELECT behind AS Seconds_Behind_Master FROM replica_status",
+        "db.replica.lag.check.ms=50",
+        "search.index.enabled=true",
+        "search.index.dir=",
+        "catalog.cache.preload=false"
+})
+public class ProductSearchReplicaTest extends AbstractIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica_search;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ProductApi productApi;
+
+    @Autowired
+    private CatalogCacheApi catalogCacheApi;
+
+    @Autowired
+    private ReplicaRoutingDataSource dataSource;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    private ProductPojo product;
+
+    @Before
+    public void setUp() throws Exception {
+        ClientPojo client = createAndPersistClient("replica client");
+        product = createAndPersistProduct("REPL001", client.getClientId(), "Old Name", 100.0);
+        try (Connection primary = dataSource.getPrimary().getConnection();
+             Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            for (String sql : script(primary, "SCRIPT NODATA")) {
+                execute(replica, sql);
+            }
+            for (String sql : script(primary, "SCRIPT TABLE PRODUCTPOJO")) {
+                if (sql.startsWith("INSERT INTO")) {
+                    execute(replica, sql);
+                }
+            }
+            execute(replica, "CREATE TABLE replica_status (behind BIGINT)");
+            execute(replica, "INSERT INTO replica_status VALUES (0)");
+        }
+        awaitReplicaInUse();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("delete from ProductPojo p where p.barcode = 'REPL001'").executeUpdate();
+            em.createQuery("delete from ClientPojo c where c.name = 'replica client'").executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        catalogCacheApi.reset();
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            execute(replica, "DROP ALL OBJECTS");
+        }
+    }
+
+    /**
+     * Test searching for a product renamed on the primary only.
+     * Verifies that the replica's stale copy is returned but never reaches the catalog cache.
+     */
+    @Test
+    public void testSearchProducts_StaleReplicaRowNotCached() {
+        // Given: The product is renamed on the primary, and the index picks up the new name
+        productApi.updateProduct(product.getId(), "New Name", 120.0, null);
+
+        // When: It is searched by the new name, reading the replica
+        List<ProductPojo> result = productApi.searchProducts("new name", null, null, 0, 10);
+
+        // Then: Search sees the replica's copy, but a catalog lookup still reads the primary
+        assertEquals(1, result.size());
+        assertEquals("Old Name", result.get(0).getName());
+        ProductPojo cached = catalogCacheApi.getProduct(product.getId());
+        assertEquals("New Name", cached.getName());
+        assertEquals(Double.valueOf(120.0), cached.getMrp());
+    }
+
+    private void awaitReplicaInUse() throws InterruptedException {
+        AtomicBoolean inUse = new AtomicBoolean();
+        for (int attempt = 0; attempt < 100 && !inUse.get(); attempt++) {
+            ReplicaRoutingDataSource.runReadOnly(true, () -> inUse.set(dataSource.routesToReplica()));
+            Thread.sleep(50);
+        }
+        assertTrue("Replica never became healthy", inUse.get());
+    }
+
+    private static List<String> script(Connection connection, String command) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(command)) {
+            while (resultSet.next()) {
+                statements.add(resultSet.getString(1));
+            }
+        }
+        return statements;
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
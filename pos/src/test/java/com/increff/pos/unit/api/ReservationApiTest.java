@@ -0,0 +1,172 @@
+package com.increff.pos.unit.api;
+
+import com.increff.pos.api.ReservationApi;
+import com.increff.pos.exception.ApiException;
+import com.increff.pos.model.ReservationModel;
+import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.spring.ApplicationProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ReservationApi class.
+ *
+ * These tests verify:
+ * - Reservations only fit into stock not already held by other carts
+ * - The timing wheel releases reservations once their TTL passes, across wheel levels
+ * - Consuming or releasing a reservation frees its stock
+ *
+ * A small wheel is used so a one minute TTL spans several overflow levels.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ReservationApiTest {
+
+    private static final int TTL_SECONDS = 60;
+
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    @InjectMocks
+    private ReservationApi reservationApi;
+
+    @Before
+    public void setUp() {
+        when(applicationProperties.getReservationTtlSeconds()).thenReturn(TTL_SECONDS);
+        when(applicationProperties.getReservationTickMs()).thenReturn(100L);
+        when(applicationProperties.getReservationWheelSize()).thenReturn(4);
+        reservationApi.init();
+    }
+
+    @After
+    public void tearDown() {
+        reservationApi.shutdown();
+    }
+
+    /**
+     * Test reserving against stock held by another cart.
+     * Verifies that only the unreserved remainder can be reserved.
+     */
+    @Test
+    public void testReserve_RespectsOtherReservations() {
+        // Given: 10 in stock with 7 held by one cart
+        Map<Integer, Integer> stock = Collections.singletonMap(1, 10);
+        reservationApi.reserve(Collections.singletonMap(1, 7), stock);
+
+        // When & Then: A second cart cannot take 4
+        try {
+            reservationApi.reserve(Collections.singletonMap(1, 4), stock);
+            fail("Expected ApiException for stock held by another reservation");
+        } catch (ApiException e) {
+            assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
+        }
+
+        // And: It can take the remaining 3
+        reservationApi.reserve(Collections.singletonMap(1, 3), stock);
+        assertEquals(10, reservationApi.getReservedQuantity(1));
+    }
+
+    /**
+     * Test a failed multi-product reservation.
+     * Verifies that nothing is held when any product is short.
+     */
+    @Test
+    public void testReserve_AllOrNothing() {
+        // Given: One product with stock and one without
+        Map<Integer, Integer> quantities = new HashMap<>();
+        quantities.put(1, 2);
+        quantities.put(2, 1);
+
+        // When: Both are reserved
+        try {
+            reservationApi.reserve(quantities, Collections.singletonMap(1, 5));
+            fail("Expected ApiException for missing stock");
+        } catch (ApiException e) {
+            assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
+        }
+
+        // Then: Nothing should be held
+        assertEquals(0, reservationApi.getReservedQuantity(1));
+        assertEquals(0, reservationApi.getActiveCount());
+    }
+
+    /**
+     * Test TTL expiry through the timing wheel.
+     * Verifies that the reservation survives until its expiry and is released afterwards.
+     */
+    @Test
+    public void testExpire_ReleasesAfterTtl() {
+        // Given: A reservation
+        long now = System.currentTimeMillis();
+        ReservationModel reservation = reservationApi.reserve(Collections.singletonMap(1, 4), Collections.singletonMap(1, 10));
+
+        // When: Time advances to just before the TTL
+        reservationApi.expire(now + (TTL_SECONDS - 1) * 1000L);
+
+        // Then: It is still held
+        assertEquals(4, reservationApi.getReservedQuantity(1));
+        assertNotNull(reservationApi.getReservation(reservation.getReservationId()));
+
+        // When: Time passes the TTL
+        reservationApi.expire(now + (TTL_SECONDS + 1) * 1000L);
+
+        // Then: The stock is released and the reservation is gone
+        assertEquals(0, reservationApi.getReservedQuantity(1));
+        assertEquals(0, reservationApi.getActiveCount());
+    }
+
+    /**
+     * Test consuming a reservation.
+     * Verifies that its stock is released and it cannot be used twice.
+     */
+    @Test
+    public void testConsume_OnlyOnce() {
+        // Given: A reservation
+        ReservationModel reservation = reservationApi.reserve(Collections.singletonMap(1, 4), Collections.singletonMap(1, 10));
+
+        // When: It is consumed
+        ReservationModel consumed = reservationApi.consume(reservation.getReservationId());
+
+        // Then: Its quantities are returned and no longer held
+        assertEquals(Integer.valueOf(4), consumed.getQuantityByProductId().get(1));
+        assertEquals(0, reservationApi.getReservedQuantity(1));
+        try {
+            reservationApi.consume(reservation.getReservationId());
+            fail("Expected ApiException for a consumed reservation");
+        } catch (ApiException e) {
+            assertEquals(ErrorType.NOT_FOUND, e.getErrorType());
+        }
+    }
+
+    /**
+     * Test releasing one of several reservations.
+     * Verifies that a released reservation is not expired later and others are unaffected.
+     */
+    @Test
+    public void testRelease_CancelsTimeout() {
+        // Given: Two reservations for the same product
+        long now = System.currentTimeMillis();
+        Map<Integer, Integer> stock = Collections.singletonMap(1, 10);
+        ReservationModel first = reservationApi.reserve(Collections.singletonMap(1, 3), stock);
+        reservationApi.reserve(Collections.singletonMap(1, 2), stock);
+
+        // When: The first is released and time passes half the TTL
+        reservationApi.release(first.getReservationId());
+        reservationApi.expire(now + TTL_SECONDS * 500L);
+
+        // Then: Only the second is held
+        assertEquals(2, reservationApi.getReservedQuantity(1));
+        assertEquals(1, reservationApi.getActiveCount());
+    }
+}
@@ -0,0 +1,162 @@
+package com.increff.pos.unit.api;
+
+import com.increff.pos.api.TopSellersApi;
+import com.increff.pos.model.enums.TopSellerMetric;
+import com.increff.pos.model.enums.TopSellerScope;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.SpaceSavingSketch.Counter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TopSellersApi class.
+ *
+ * These tests verify:
+ * - Top-K ordering by quantity and by revenue
+ * - Separation of today's sketch from the rolling window
+ * - Error bounds once the counters overflow, checked against exact totals
+ *
+ * No transaction is active here, so recorded sales are applied immediately.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TopSellersApiTest {
+
+    private static final int CAPACITY = 4;
+
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    @InjectMocks
+    private TopSellersApi topSellersApi;
+
+    private ZonedDateTime now;
+
+    @Before
+    public void setUp() {
+        when(applicationProperties.getTopSellersCapacity()).thenReturn(CAPACITY);
+        when(applicationProperties.getTopSellersWindowHours()).thenReturn(24);
+        topSellersApi.init();
+        now = ZonedDateTime.now(ZoneOffset.UTC);
+    }
+
+    /**
+     * Test top sellers for today by quantity and revenue.
+     * Verifies that the two metrics rank independently.
+     */
+    @Test
+    public void testGetTopSellers_TodayByMetric() {
+        // Given: A cheap SKU sold in bulk and an expensive SKU sold once
+        topSellersApi.recordSale(now, "CHEAP", 10, 100.0);
+        topSellersApi.recordSale(now, "PRICEY", 1, 5000.0);
+        topSellersApi.recordSale(now, "CHEAP", 5, 50.0);
+
+        // When: Top sellers are read by each metric
+        List<Counter<String>> byQuantity = topSellersApi.getTopSellers(TopSellerScope.TODAY, TopSellerMetric.QUANTITY, 2);
+        List<Counter<String>> byRevenue = topSellersApi.getTopSellers(TopSellerScope.TODAY, TopSellerMetric.REVENUE, 2);
+
+        // Then: Ranking should follow the metric and counts should be exact below capacity
+        assertEquals("CHEAP", byQuantity.get(0).getKey());
+        assertEquals(15.0, byQuantity.get(0).getCount(), 0.001);
+        assertEquals(0.0, byQuantity.get(0).getError(), 0.001);
+        assertEquals("PRICEY", byRevenue.get(0).getKey());
+    }
+
+    /**
+     * Test top sellers for the rolling window.
+     * Verifies that sales from earlier hours are merged while today's sketch only keeps today.
+     */
+    @Test
+    public void testGetTopSellers_WindowMergesHours() {
+        // Given: Sales in the current hour and in an earlier hour of the window
+        topSellersApi.recordSale(now, "SKU1", 2, 20.0);
+        topSellersApi.recordSale(now.minusHours(3), "SKU1", 3, 30.0);
+        topSellersApi.recordSale(now.minusHours(3), "SKU2", 4, 40.0);
+
+        // When: Window top sellers are read
+        List<Counter<String>> result = topSellersApi.getTopSellers(TopSellerScope.WINDOW, TopSellerMetric.QUANTITY, 5);
+
+        // Then: SKU1 should combine both hours
+        assertEquals(2, result.size());
+        assertEquals("SKU1", result.get(0).getKey());
+        assertEquals(5.0, result.get(0).getCount(), 0.001);
+    }
+
+    /**
+     * Test the error bound when more SKUs are sold than there are counters.
+     * Verifies that the heavy hitter is kept and every estimate is within N / m.
+     */
+    @Test
+    public void testGetTopSellers_ErrorBoundWhenOverflowing() {
+        // Given: One heavy SKU among many single sales
+        double total = 0;
+        for (int i = 0; i < 20; i++) {
+            topSellersApi.recordSale(now, "TAIL" + i, 1, 1.0);
+            topSellersApi.recordSale(now, "HEAVY", 3, 3.0);
+            total += 4;
+        }
+
+        // When: Top sellers are read
+        List<Counter<String>> result = topSellersApi.getTopSellers(TopSellerScope.TODAY, TopSellerMetric.QUANTITY, CAPACITY);
+
+        // Then: HEAVY should lead and bounds should hold
+        assertEquals("HEAVY", result.get(0).getKey());
+        assertTrue(result.get(0).getCount() >= 60.0);
+        assertTrue(result.get(0).getCount() - result.get(0).getError() <= 60.0);
+        for (Counter<String> counter : result) {
+            assertTrue(counter.getError() <= total / CAPACITY);
+        }
+    }
+
+    /**
+     * Test a skewed run of sales over more barcodes than counters.
+     * Verifies the documented bounds against exact totals of the same sales: every estimate
+     * overshoots by at most its error, every error is at most N / m, and every barcode above
+     * N / m is tracked.
+     */
+    @Test
+    public void testGetTopSellers_SkewedSalesWithinExactBounds() {
+        // Given: Three barcodes sold twenty times each among twenty-two sold once
+        Map<String, Integer> exact = new HashMap<>();
+        for (int i = 0; i < 25; i++) {
+            int sales = i < 3 ? 20 : 1;
+            for (int sale = 0; sale < sales; sale++) {
+                topSellersApi.recordSale(now, "SKETCH" + i, 25 - i, 10.0);
+                exact.merge("SKETCH" + i, 25 - i, Integer::sum);
+            }
+        }
+        double bound = exact.values().stream().mapToInt(Integer::intValue).sum() / (double) CAPACITY;
+
+        // When: Every tracked barcode is read
+        List<Counter<String>> result = topSellersApi.getTopSellers(TopSellerScope.TODAY, TopSellerMetric.QUANTITY, CAPACITY);
+
+        // Then: The estimates should respect the Space-Saving guarantees
+        for (Counter<String> counter : result) {
+            int trueCount = exact.get(counter.getKey());
+            assertTrue(counter.getCount() >= trueCount);
+            assertTrue(counter.getCount() - counter.getError() <= trueCount);
+            assertTrue(counter.getError() <= bound);
+        }
+        Set<String> tracked = result.stream().map(Counter::getKey).collect(Collectors.toSet());
+        exact.forEach((barcode, trueCount) -> {
+            if (trueCount > bound) {
+                assertTrue("Heavy hitter " + barcode + " should be tracked", tracked.contains(barcode));
+            }
+        });
+        assertEquals("SKETCH0", result.get(0).getKey());
+    }
+}
@@ -9,6 +9,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -66,4 +69,32 @@ public class OrderDaoTest extends AbstractIntegrationTest {
         // Then: Null should be returned
         assertNull(retrieved);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test scrolling order items for export.
+     * Verifies that every joined row within the range reaches the consumer in order.
+     */
+    @Test
+    public void testScrollOrderItemsForExport() {
+        // Given: An order with two items
+        ClientPojo client = createAndPersistClient("Test Client");
+        ProductPojo product = createAndPersistProduct("EXP001", client.getClientId(), "Export Product", 100.0);
+        OrdersPojo order = createAndPersistOrder();
+        createAndPersistOrderItem(order.getId(), product.getId(), 2, 25.0);
+        createAndPersistOrderItem(order.getId(), product.getId(), 3, 30.0);
+        entityManager.flush();
+
+        // When: Order items are scrolled with a small fetch size
+        List<Object[]> rows = new ArrayList<>();
+        long count = orderDao.scrollOrderItemsForExport(ZonedDateTime.now().minusDays(1),
+                ZonedDateTime.now().plusDays(1), 1, rows::add);
+
+        // Then: Both rows should be streamed with joined product data
+        assertEquals(2, count);
+        assertEquals(2, rows.size());
+        assertEquals(order.getId(), rows.get(0)[0]);
+        assertEquals("EXP001", rows.get(0)[2]);
+        assertEquals(Integer.valueOf(2), rows.get(0)[4]);
+        assertEquals(Integer.valueOf(3), rows.get(1)[4]);
+    }
+}
@@ -1,18 +1,26 @@
 package com.increff.pos.unit.dao;
 
+import com.increff.pos.dao.AbstractDao;
 import com.increff.pos.dao.ProductDao;
 import com.increff.pos.entity.ClientPojo;
 import com.increff.pos.entity.ProductPojo;
+import com.increff.pos.model.AvailabilityModel;
 import com.increff.pos.setup.AbstractIntegrationTest;
 import com.increff.pos.setup.TestData;
+import com.increff.pos.util.StringUtil;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.*;
@@ -38,6 +46,9 @@ public class ProductDaoTest extends AbstractIntegrationTest {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
     private Integer testClientId = 1;
 
     /**
@@ -238,6 +249,34 @@ public class ProductDaoTest extends AbstractIntegrationTest {
         }
     }
 
+    /**
+     * Test search keys under a Turkish default locale.
+     * Verifies that a capital I is stored and queried as a plain "i", as SQL lower() writes it.
+     */
+    @Test
+    public void testFindBySearchCriteria_TurkishLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            // Given: A product whose name and barcode contain a capital I
+            createAndPersistClient("Test Client");
+            ProductPojo product = createAndPersistProduct("ITEM001", testClientId, "Ink Cartridge", 100.0);
+            entityManager.flush();
+
+            // When: The product is searched with locale-independent keys
+            List<ProductPojo> byName = productDao.findBySearchCriteria(null, "ink", 0, 10);
+            List<ProductPojo> byBarcode = productDao.findBySearchCriteria("item", null, 0, 10);
+
+            // Then: Both searches should find it, and queries should be lowercased the same way
+            assertEquals("item001", product.getBarcodeLower());
+            assertEquals(1, byName.size());
+            assertEquals(1, byBarcode.size());
+            assertEquals("ink", StringUtil.toLowerCase("INK"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
     /**
      * Test finding products by search criteria with pagination.
      * Verifies that pagination works correctly.
@@ -336,4 +375,84 @@ public class ProductDaoTest extends AbstractIntegrationTest {
         List<ProductPojo> allProducts = productDao.selectAll(0, 100);
         assertEquals(0, allProducts.size());
     }
-} 
\ No newline at end of file
+
+    /**
+     * Test loading availability by barcode.
+     * Verifies that stock is joined when present and null when the product has no inventory.
+     */
+    @Test
+    public void testSelectAvailabilityByBarcode_JoinsInventory() {
+        // Given: One stocked product and one without inventory
+        createAndPersistClient("Test Client");
+        ProductPojo stocked = createAndPersistProduct("AVAIL001", testClientId, "Stocked", 20.0);
+        createAndPersistInventory(stocked.getId(), 7);
+        createAndPersistProduct("AVAIL002", testClientId, "Unstocked", 30.0);
+
+        // When: Availability is loaded for each barcode
+        AvailabilityModel stockedAvailability = productDao.selectAvailabilityByBarcode("AVAIL001");
+        AvailabilityModel unstockedAvailability = productDao.selectAvailabilityByBarcode("AVAIL002");
+
+        // Then: Product details and stock should be returned
+        assertEquals(stocked.getId(), stockedAvailability.getProductId());
+        assertEquals(Double.valueOf(20.0), stockedAvailability.getMrp());
+        assertEquals(Integer.valueOf(7), stockedAvailability.getQuantity());
+        assertNull(unstockedAvailability.getQuantity());
+        assertNull(productDao.selectAvailabilityByBarcode("MISSING"));
+    }
+
+    /**
+     * Test an IN-list lookup larger than one chunk.
+     * Verifies that every chunk is queried, padding adds no rows and ordering is kept.
+     */
+    @Test
+    public void testSelectByBarcodes_SpansChunks() {
+        // Given: More products than fit in the largest IN-list chunk
+        Set<String> barcodes = new HashSet<>();
+        for (int i = 0; i < 530; i++) {
+            String barcode = String.format("CHUNK%04d", i);
+            createAndPersistProduct(barcode, testClientId, "Chunk " + i, 10.0);
+            barcodes.add(barcode);
+        }
+        barcodes.add("MISSING");
+
+        // When: All barcodes are looked up, ordered descending
+        List<ProductPojo> result = productDao.selectByFieldValues("barcode", barcodes, "barcode", AbstractDao.SortOrder.DESC);
+
+        // Then: Each product should appear once, sorted across chunks
+        assertEquals(530, result.size());
+        assertEquals("CHUNK0529", result.get(0).getBarcode());
+        assertEquals("CHUNK0000", result.get(529).getBarcode());
+    }
+
+    /**
+     * Test a parallel IN-list lookup.
+     * Verifies that chunks run on their own connections and see committed rows.
+     */
+    @Test
+    public void testSelectIdsByBarcodes_Parallel() {
+        // Given: Products committed outside the test transaction
+        List<String> barcodes = new ArrayList<>();
+        EntityManager committer = entityManagerFactory.createEntityManager();
+        try {
+            committer.getTransaction().begin();
+            for (int i = 0; i < 600; i++) {
+                ProductPojo product = TestData.product(String.format("PAR%04d", i), testClientId, "Parallel " + i, 5.0);
+                committer.persist(product);
+                barcodes.add(product.getBarcode());
+            }
+            committer.getTransaction().commit();
+
+            // When: Ids are resolved in parallel chunks
+            Map<String, Integer> result = productDao.selectIdsByBarcodes(barcodes, true);
+
+            // Then: Every barcode should be resolved
+            assertEquals(600, result.size());
+            assertNotNull(result.get("PAR0599"));
+        } finally {
+            committer.getTransaction().begin();
+            committer.createQuery("delete from ProductPojo p where p.barcode like 'PAR%'").executeUpdate();
+            committer.getTransaction().commit();
+            committer.close();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.increff.pos.unit.dao;
+
+import com.increff.pos.spring.ReplicaLagMonitor;
+import com.increff.pos.spring.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ReplicaRoutingDataSource and ReplicaLagMonitor over two in-memory H2 databases.
+ *
+ * These tests verify:
+ * - Read-only transactions are routed to the replica and others to the primary
+ * - A replica lagging past the limit, or with replication stopped, is bypassed
+ * - A replica that cannot hand out connections falls back to the primary
+ * - Starting the lag monitor never waits on the replica
+ */
+public class ReplicaRoutingTest {
+
+    // Connection metadata reports the URL without its settings
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary_rt";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica_rt";
+    private static final String KEEP_OPEN = ";DB_CLOSE_DELAY=-1";
+    private static final String LAG_QUERY = "SELECT behind AS " + ReplicaLagMonitor.LAG_COLUMN + " FROM replica_status";
+    private static final long MAX_LAG_SECONDS = 5;
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource dataSource;
+
+    @Before
+    public void setUp() throws SQLException {
+        primary = pool("primary-rt", PRIMARY_URL);
+        replica = pool("replica-rt", REPLICA_URL);
+        execute("CREATE TABLE replica_status (behind BIGINT)");
+        execute("INSERT INTO replica_status VALUES (0)");
+        lagMonitor = new ReplicaLagMonitor(replica, LAG_QUERY, MAX_LAG_SECONDS);
+        lagMonitor.check();
+        dataSource = new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (!replica.isClosed()) {
+            execute("DROP TABLE replica_status");
+        }
+        dataSource.close();
+    }
+
+    /**
+     * Test routing of a read-only transaction.
+     * Verifies that the connection comes from the replica.
+     */
+    @Test
+    public void testGetConnection_ReadOnly_UsesReplica() throws SQLException {
+        // Given: A replica within the lag limit
+
+        // When & Then: A read-only begin should get a replica connection
+        assertEquals(REPLICA_URL, connectionUrl(true));
+        assertTrue(lagMonitor.isHealthy());
+        assertEquals(0, lagMonitor.getLagSeconds());
+    }
+
+    /**
+     * Test routing of a read-write transaction.
+     * Verifies that the connection comes from the primary, as do connections outside a begin.
+     */
+    @Test
+    public void testGetConnection_ReadWrite_UsesPrimary() throws SQLException {
+        // Given: A healthy replica
+
+        // When & Then: Read-write and unmarked requests should get primary connections
+        assertEquals(PRIMARY_URL, connectionUrl(false));
+        try (Connection connection = dataSource.getConnection()) {
+            assertEquals(PRIMARY_URL, connection.getMetaData().getURL());
+        }
+    }
+
+    /**
+     * Test routing when the replica lags past the limit.
+     * Verifies that reads go to the primary until the lag recovers.
+     */
+    @Test
+    public void testGetConnection_ReplicaLagging_FallsBackToPrimary() throws SQLException {
+        // Given: A replica lagging past the limit
+        execute("UPDATE replica_status SET behind = " + (MAX_LAG_SECONDS + 1));
+        lagMonitor.check();
+
+        // When & Then: Reads should go to the primary
+        assertFalse(lagMonitor.isHealthy());
+        assertEquals(PRIMARY_URL, connectionUrl(true));
+
+        // When: The replica catches up
+        execute("UPDATE replica_status SET behind = 1");
+        lagMonitor.check();
+
+        // Then: Reads should return to the replica
+        assertEquals(REPLICA_URL, connectionUrl(true));
+    }
+
+    /**
+     * Test routing when replication has stopped.
+     * Verifies that a null lag is treated as unhealthy.
+     */
+    @Test
+    public void testCheck_ReplicationStopped_MarksUnhealthy() throws SQLException {
+        // Given: A replica reporting no lag value
+        execute("UPDATE replica_status SET behind = NULL");
+
+        // When
+        lagMonitor.check();
+
+        // Then
+        assertFalse(lagMonitor.isHealthy());
+        assertEquals(-1, lagMonitor.getLagSeconds());
+        assertEquals(PRIMARY_URL, connectionUrl(true));
+    }
+
+    /**
+     * Test routing when the replica cannot supply a connection.
+     * Verifies that the caller gets a primary connection and the replica is bypassed afterwards.
+     */
+    @Test
+    public void testGetConnection_ReplicaDown_FallsBackToPrimary() throws SQLException {
+        // Given: A replica that passed its last check but has since gone away
+        execute("DROP TABLE replica_status");
+        replica.close();
+        assertTrue(lagMonitor.isHealthy());
+
+        // When & Then: The read should be served by the primary
+        assertEquals(PRIMARY_URL, connectionUrl(true));
+        assertFalse(lagMonitor.isHealthy());
+
+        // And the next check should keep the replica bypassed
+        lagMonitor.check();
+        assertFalse(lagMonitor.isHealthy());
+    }
+
+    /**
+     * Test starting the monitor while the replica does not answer.
+     * Verifies that start returns at once and the replica stays bypassed.
+     */
+    @Test
+    public void testStart_ReplicaUnresponsive_DoesNotBlock() {
+        // Given: A replica whose connections hang
+        CountDownLatch release = new CountDownLatch(1);
+        DataSource hanging = new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new SQLException("Replica unreachable");
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return getConnection();
+            }
+        };
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(hanging, LAG_QUERY, MAX_LAG_SECONDS);
+
+        try {
+            // When
+            long startNanos = System.nanoTime();
+            monitor.start(60_000);
+
+            // Then: Startup should not wait for the check
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < 1000);
+            assertFalse(monitor.isHealthy());
+        } finally {
+            release.countDown();
+            monitor.close();
+        }
+    }
+
+    /**
+     * Test the first check after start.
+     * Verifies that it runs straight away rather than after the first interval.
+     */
+    @Test
+    public void testStart_FirstCheckRunsImmediately() throws InterruptedException {
+        // Given: A monitor that has not checked yet
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, LAG_QUERY, MAX_LAG_SECONDS);
+
+        try {
+            // When
+            monitor.start(60_000);
+
+            // Then: The replica should be in use well before the interval elapses
+            for (int attempt = 0; attempt < 100 && !monitor.isHealthy(); attempt++) {
+                Thread.sleep(20);
+            }
+            assertTrue(monitor.isHealthy());
+        } finally {
+            monitor.close();
+        }
+    }
+
+    private String connectionUrl(boolean readOnly) {
+        String[] url = new String[1];
+        ReplicaRoutingDataSource.runReadOnly(readOnly, () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                url[0] = connection.getMetaData().getURL();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return url[0];
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static HikariDataSource pool(String name, String url) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url + KEEP_OPEN);
+        config.setMaximumPoolSize(2);
+        config.setConnectionTimeout(250);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,207 @@
+package com.increff.pos.unit.dao;
+
+import com.increff.pos.api.CacheMetricsApi;
+import com.increff.pos.entity.ClientPojo;
+import com.increff.pos.entity.UserPojo;
+import com.increff.pos.model.CacheRegionStatsModel;
+import com.increff.pos.model.Constants;
+import com.increff.pos.model.enums.Role;
+import com.increff.pos.setup.AbstractIntegrationTest;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration tests for the Hibernate second-level and query cache on ClientPojo and UserPojo.
+ *
+ * These tests verify:
+ * - Lookups by id in a new session are served from the entity region
+ * - Updates replace the cached entity
+ * - Cached query results are invalidated when the table is written
+ * - Region statistics are reported per region
+ *
+ * Each DAO call commits in its own transaction here, since cached state is only shared across
+ * sessions. Rows are removed after each test. Statistics are off by default, so they are
+ * enabled for this context.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "hibernate.statistics=true")
+public class SecondLevelCacheTest extends AbstractIntegrationTest {
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheMetricsApi cacheMetricsApi;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @After
+    public void tearDown() {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("delete from ClientPojo c where c.name like 'l2 %'").executeUpdate();
+            em.createQuery("delete from UserPojo u where u.email like 'l2.%'").executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Test reading a client by id in a new session.
+     * Verifies that the row is served from the client region instead of the database.
+     */
+    @Test
+    public void testSelectById_ServedFromEntityRegion() {
+        // Given: A committed client
+        ClientPojo client = createAndPersistClient("l2 cached");
+
+        // When: It is read twice in separate sessions
+        clientDao.selectById(client.getClientId());
+        ClientPojo result = clientDao.selectById(client.getClientId());
+
+        // Then: Only the first read should reach the database
+        assertEquals("l2 cached", result.getName());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(Constants.CLIENT_CACHE_REGION).getHitCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Test updating a cached client.
+     * Verifies that the next read in a new session sees the new name.
+     */
+    @Test
+    public void testUpdate_ReplacesCachedEntity() {
+        // Given: A client that is already cached
+        ClientPojo client = createAndPersistClient("l2 before");
+        ClientPojo cached = clientDao.selectById(client.getClientId());
+
+        // When: The client is renamed
+        cached.setName("l2 after");
+        clientDao.update(cached);
+
+        // Then: A fresh session should see the new name
+        assertEquals("l2 after", clientDao.selectById(client.getClientId()).getName());
+    }
+
+    /**
+     * Test the query cache on lookups by name.
+     * Verifies that a cached empty result is invalidated once a matching client is inserted.
+     */
+    @Test
+    public void testSelectByName_QueryCacheInvalidatedOnInsert() {
+        // Given: A lookup for a missing name whose empty result is cached
+        assertNull(clientDao.selectByName("l2 late"));
+        assertNull(clientDao.selectByName("l2 late"));
+        long queryHits = statistics.getQueryCacheHitCount();
+        assertTrue(queryHits >= 1);
+
+        // When: A client with that name is inserted
+        createAndPersistClient("l2 late");
+
+        // Then: The lookup should see the new row
+        ClientPojo result = clientDao.selectByName("l2 late");
+        assertNotNull(result);
+        assertEquals(queryHits, statistics.getQueryCacheHitCount());
+    }
+
+    /**
+     * Test the query cache on lookups by email.
+     * Verifies that a repeated lookup is served from cache and reflects a role change.
+     */
+    @Test
+    public void testSelectByEmail_QueryCacheReflectsUpdate() {
+        // Given: A committed user looked up once
+        UserPojo user = createAndPersistUser("l2.user@test.com", "L2 User", "secret", Role.OPERATOR);
+        userDao.selectByEmail("l2.user@test.com");
+
+        // When: The role is changed and the user is looked up again
+        UserPojo cached = userDao.selectByEmail("l2.user@test.com").get();
+        cached.setRole(Role.SUPERVISOR);
+        userDao.updateUser(cached);
+        UserPojo result = userDao.selectByEmail("l2.user@test.com").get();
+
+        // Then: The lookup should see the new role
+        assertEquals(user.getId(), result.getId());
+        assertEquals(Role.SUPERVISOR, result.getRole());
+        assertTrue(statistics.getQueryCacheHitCount() >= 1);
+    }
+
+    /**
+     * Test region-level statistics.
+     * Verifies that both cached regions are reported with their hit counts.
+     */
+    @Test
+    public void testGetRegionStats_ReportsRegions() {
+        // Given: A client read twice, loading it into the cache and then hitting it
+        ClientPojo client = createAndPersistClient("l2 stats");
+        clientDao.selectById(client.getClientId());
+        clientDao.selectById(client.getClientId());
+
+        // When: Region statistics are read
+        CacheRegionStatsModel clientRegion = cacheMetricsApi.getRegionStats().stream()
+                .filter(region -> region.getRegionName().equals(Constants.CLIENT_CACHE_REGION))
+                .findFirst()
+                .orElse(null);
+
+        // Then: The client region should report the hit
+        assertNotNull(clientRegion);
+        assertTrue(clientRegion.getHits() >= 1);
+        assertTrue(cacheMetricsApi.getRegionStats().stream()
+                .anyMatch(region -> region.getRegionName().equals(Constants.USER_CACHE_REGION)));
+    }
+
+    /**
+     * Test the region configuration from ehcache.xml.
+     * Verifies that every region Hibernate uses has a heap bound and an expiry.
+     */
+    @Test
+    public void testRegions_BoundedAndExpiring() {
+        // Given: The cache manager behind Hibernate's region factory
+        CacheManager cacheManager = ((JCacheRegionFactory) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory()).getCacheManager();
+
+        for (String region : Arrays.asList(Constants.CLIENT_CACHE_REGION, Constants.USER_CACHE_REGION,
+                "default-query-results-region", "default-update-timestamps-region")) {
+            // When: The region's runtime configuration is read
+            Eh107Configuration<?, ?> jcacheConfig = cacheManager.getCache(region).getConfiguration(Eh107Configuration.class);
+            CacheRuntimeConfiguration<?, ?> config = jcacheConfig.unwrap(CacheRuntimeConfiguration.class);
+            SizedResourcePool heap = config.getResourcePools().getPoolForResource(ResourceType.Core.HEAP);
+
+            // Then: It should hold a bounded number of entries that expire
+            assertEquals(region, EntryUnit.ENTRIES, heap.getUnit());
+            assertTrue(region, heap.getSize() <= 10000);
+            assertNotSame(region, ExpiryPolicy.NO_EXPIRY, config.getExpiryPolicy());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.increff.pos.unit.flow;
+
+import com.increff.pos.api.InventoryApi;
+import com.increff.pos.api.LowStockAlertApi;
+import com.increff.pos.api.ProductApi;
+import com.increff.pos.entity.InventoryPojo;
+import com.increff.pos.flow.InventoryFlow;
+import com.increff.pos.model.form.InventoryForm;
+import com.increff.pos.model.form.InventoryFormWithRow;
+import com.increff.pos.model.response.ValidationError;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.ValidationUtil;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InventoryFlow class.
+ *
+ * These tests verify:
+ * - Uploads are resolved and upserted one batch at a time as rows are read
+ * - Duplicate barcodes are caught across batches and stop any further writes
+ *
+ * All dependencies are mocked and the batch size is two rows. No transaction is active here,
+ * so the rollback of an upload with errors is covered by the integration tests.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class InventoryFlowTest {
+
+    @Mock
+    private ProductApi productApi;
+
+    @Mock
+    private InventoryApi inventoryApi;
+
+    @Mock
+    private LowStockAlertApi lowStockAlertApi;
+
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    @Mock
+    private ValidationUtil validationUtil;
+
+    @InjectMocks
+    private InventoryFlow inventoryFlow;
+
+    @Before
+    public void setUp() {
+        when(applicationProperties.getUploadBatchSize()).thenReturn(2);
+        when(validationUtil.validateInventoryFormsWithRow(anyList())).thenReturn(Collections.emptyList());
+        when(productApi.findProductsByBarcodes(anyList(), anyBoolean())).thenAnswer(invocation -> {
+            Map<String, Integer> ids = new HashMap<>();
+            for (Object barcode : invocation.getArgument(0, List.class)) {
+                ids.put((String) barcode, Integer.valueOf(((String) barcode).substring(2)));
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Test uploading a valid file larger than one batch.
+     * Verifies that each batch is resolved and upserted on its own.
+     */
+    @Test
+    public void testProcessTsvUpload_UpsertsEachBatch() {
+        // When: Three valid rows are read
+        Map<Integer, ValidationError> errors = inventoryFlow.processTsvUpload(
+                rows(form("BC1", 5), form("BC2", 6), form("BC3", 7)));
+
+        // Then: Two batches were resolved and written
+        assertTrue(errors.isEmpty());
+        ArgumentCaptor<List<InventoryPojo>> batches = ArgumentCaptor.forClass(List.class);
+        verify(inventoryApi, times(2)).upsertInventory(batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+        assertEquals(Integer.valueOf(3), batches.getAllValues().get(1).get(0).getProductId());
+        assertEquals(Integer.valueOf(7), batches.getAllValues().get(1).get(0).getQuantity());
+        verify(productApi, times(2)).findProductsByBarcodes(anyList(), anyBoolean());
+    }
+
+    /**
+     * Test a barcode repeated in a later batch.
+     * Verifies that both rows are reported and nothing is written after the error.
+     */
+    @Test
+    public void testProcessTsvUpload_DuplicateAcrossBatches() {
+        // When: Row 4 repeats the barcode of row 1, and row 5 follows it
+        Map<Integer, ValidationError> errors = inventoryFlow.processTsvUpload(rows(form("BC1", 5), form("BC2", 6),
+                form("BC3", 7), form("BC1", 8), form("BC5", 9)));
+
+        // Then: Only the first batch was written, and both duplicate rows are reported
+        assertEquals(2, errors.size());
+        assertEquals("Barcode is multiple times in your file", errors.get(1).getErrorMessage());
+        assertEquals("Barcode is multiple times in your file", errors.get(4).getErrorMessage());
+        verify(inventoryApi, times(1)).upsertInventory(anyList());
+    }
+
+    private static Consumer<Consumer<InventoryFormWithRow>> rows(InventoryForm... forms) {
+        return consumer -> {
+            for (int i = 0; i < forms.length; i++) {
+                consumer.accept(new InventoryFormWithRow(i + 1, forms[i]));
+            }
+        };
+    }
+
+    private static InventoryForm form(String barcode, Integer quantity) {
+        InventoryForm form = new InventoryForm();
+        form.setBarcode(barcode);
+        form.setQuantity(quantity);
+        return form;
+    }
+}
@@ -1,12 +1,17 @@
 package com.increff.pos.unit.flow;
 
+import com.increff.pos.api.AvailabilityCacheApi;
 import com.increff.pos.api.InventoryApi;
+import com.increff.pos.api.LiveSalesApi;
 import com.increff.pos.api.OrderApi;
 import com.increff.pos.api.OrderItemApi;
-import com.increff.pos.api.ProductApi;
+import com.increff.pos.api.ReservationApi;
+import com.increff.pos.api.TopSellersApi;
 import com.increff.pos.entity.*;
 import com.increff.pos.exception.ApiException;
 import com.increff.pos.flow.OrderFlow;
+import com.increff.pos.model.AvailabilityModel;
+import com.increff.pos.model.ReservationModel;
 import com.increff.pos.model.enums.ErrorType;
 import com.increff.pos.model.form.OrderItemForm;
 import com.increff.pos.setup.TestData;
@@ -19,9 +24,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,7 +35,7 @@ import static org.mockito.Mockito.*;
  * 
  * These tests verify:
  * - Order creation workflow
- * - Product barcode validation
+ * - Product barcode validation against the availability cache
  * - Inventory availability checks
  * - API interaction patterns
  * - Error handling scenarios
@@ -47,11 +50,20 @@ public class OrderFlowTest {
     private OrderItemApi orderItemApi;
 
     @Mock
-    private ProductApi productApi;
+    private AvailabilityCacheApi availabilityCacheApi;
 
     @Mock
     private InventoryApi inventoryApi;
 
+    @Mock
+    private LiveSalesApi liveSalesApi;
+
+    @Mock
+    private TopSellersApi topSellersApi;
+
+    @Mock
+    private ReservationApi reservationApi;
+
     @InjectMocks
     private OrderFlow orderFlow;
 
@@ -89,10 +101,8 @@ public class OrderFlowTest {
         List<OrderItemForm> orderItems = Arrays.asList(item1, item2);
 
         // And: Mock API responses
-        Map<String, Integer> barcodeToIdMap = new HashMap<>();
-        barcodeToIdMap.put(testProduct1.getBarcode(), testProduct1.getId());
-        barcodeToIdMap.put(testProduct2.getBarcode(), testProduct2.getId());
-        when(productApi.findProductsByBarcodes(any())).thenReturn(barcodeToIdMap);
+        stubAvailability(testProduct1, 50);
+        stubAvailability(testProduct2, 50);
         when(orderApi.createOrder()).thenReturn(testOrder);
 
         // When: OrderFlow creates the order
@@ -104,11 +114,13 @@ public class OrderFlowTest {
         assertEquals(testOrder.getId(), result.getId());
 
         // And: Verify API interactions
-        verify(productApi, times(1)).findProductsByBarcodes(any());
-        verify(inventoryApi, times(2)).validateInventoryAvailability(any(Integer.class), any(Integer.class));
+        verify(availabilityCacheApi, times(2)).getAvailability(any());
         verify(orderApi, times(1)).createOrder();
         verify(orderItemApi, times(1)).createOrderItemsGroup(any());
         verify(inventoryApi, times(2)).reduceInventory(any(Integer.class), any(Integer.class));
+        verify(liveSalesApi, times(1)).recordOrder(any(), eq(8), eq(5 * 90.0 + 3 * 140.0));
+        verify(topSellersApi, times(1)).recordSale(any(), eq(testProduct1.getBarcode()), eq(5), eq(450.0));
+        verify(topSellersApi, times(1)).recordSale(any(), eq(testProduct2.getBarcode()), eq(3), eq(420.0));
     }
 
     /**
@@ -125,9 +137,8 @@ public class OrderFlowTest {
 
         List<OrderItemForm> orderItems = Arrays.asList(item);
 
-        // And: Mock API to return empty map (product not found)
-        Map<String, Integer> emptyMap = new HashMap<>();
-        when(productApi.findProductsByBarcodes(any())).thenReturn(emptyMap);
+        // And: The availability cache does not know the barcode
+        when(availabilityCacheApi.getAvailability("NONEXISTENT")).thenReturn(null);
 
         // When & Then: OrderFlow should throw exception
         try {
@@ -139,8 +150,7 @@ public class OrderFlowTest {
         }
 
         // And: Verify API interactions
-        verify(productApi, times(1)).findProductsByBarcodes(any());
-        verify(inventoryApi, never()).validateInventoryAvailability(any(), any());
+        verify(availabilityCacheApi, times(1)).getAvailability("NONEXISTENT");
         verify(orderApi, never()).createOrder();
     }
 
@@ -158,14 +168,8 @@ public class OrderFlowTest {
 
         List<OrderItemForm> orderItems = Arrays.asList(item);
 
-        // And: Mock API responses
-        Map<String, Integer> barcodeToIdMap = new HashMap<>();
-        barcodeToIdMap.put(testProduct1.getBarcode(), testProduct1.getId());
-        when(productApi.findProductsByBarcodes(any())).thenReturn(barcodeToIdMap);
-        
-        // Mock inventory validation to throw exception
-        doThrow(new ApiException(ErrorType.BAD_REQUEST, "Insufficient inventory"))
-            .when(inventoryApi).validateInventoryAvailability(testProduct1.getId(), 100);
+        // And: Less stock available than requested
+        stubAvailability(testProduct1, 50);
 
         // When & Then: OrderFlow should throw exception
         try {
@@ -173,11 +177,11 @@ public class OrderFlowTest {
             fail("Should throw ApiException for insufficient inventory");
         } catch (ApiException e) {
             assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
+            assertTrue(e.getMessage().contains("Insufficient inventory"));
         }
 
         // And: Verify API interactions
-        verify(productApi, times(1)).findProductsByBarcodes(any());
-        verify(inventoryApi, times(1)).validateInventoryAvailability(testProduct1.getId(), 100);
+        verify(availabilityCacheApi, times(1)).getAvailability(testProduct1.getBarcode());
         verify(orderApi, never()).createOrder();
     }
 
@@ -191,8 +195,6 @@ public class OrderFlowTest {
         List<OrderItemForm> emptyOrderItems = Collections.emptyList();
 
         // And: Mock API responses
-        Map<String, Integer> emptyMap = new HashMap<>();
-        when(productApi.findProductsByBarcodes(any())).thenReturn(emptyMap);
         when(orderApi.createOrder()).thenReturn(testOrder);
 
         // When: OrderFlow creates the order
@@ -203,8 +205,7 @@ public class OrderFlowTest {
         assertEquals(testOrder.getId(), result.getId());
 
         // And: Verify API interactions
-        verify(productApi, times(1)).findProductsByBarcodes(any());
-        verify(inventoryApi, never()).validateInventoryAvailability(any(), any());
+        verify(availabilityCacheApi, never()).getAvailability(any());
         verify(orderApi, times(1)).createOrder();
         verify(orderItemApi, times(1)).createOrderItemsGroup(any());
         verify(inventoryApi, never()).reduceInventory(any(), any());
@@ -225,9 +226,7 @@ public class OrderFlowTest {
         List<OrderItemForm> orderItems = Arrays.asList(item);
 
         // And: Mock API responses with order creation failure
-        Map<String, Integer> barcodeToIdMap = new HashMap<>();
-        barcodeToIdMap.put(testProduct1.getBarcode(), testProduct1.getId());
-        when(productApi.findProductsByBarcodes(any())).thenReturn(barcodeToIdMap);
+        stubAvailability(testProduct1, 50);
         when(orderApi.createOrder()).thenThrow(new ApiException(ErrorType.INTERNAL_SERVER_ERROR, "Order creation failed"));
 
         // When & Then: OrderFlow should propagate exception
@@ -239,8 +238,7 @@ public class OrderFlowTest {
         }
 
         // And: Verify API interactions
-        verify(productApi, times(1)).findProductsByBarcodes(any());
-        verify(inventoryApi, times(1)).validateInventoryAvailability(testProduct1.getId(), 5);
+        verify(availabilityCacheApi, times(1)).getAvailability(testProduct1.getBarcode());
         verify(orderApi, times(1)).createOrder();
         verify(orderItemApi, never()).createOrderItemsGroup(any());
     }
@@ -267,9 +265,7 @@ public class OrderFlowTest {
         List<OrderItemForm> orderItems = Arrays.asList(item1, item2);
 
         // And: Mock API responses
-        Map<String, Integer> barcodeToIdMap = new HashMap<>();
-        barcodeToIdMap.put(testProduct1.getBarcode(), testProduct1.getId());
-        when(productApi.findProductsByBarcodes(any())).thenReturn(barcodeToIdMap);
+        stubAvailability(testProduct1, 50);
         when(orderApi.createOrder()).thenReturn(testOrder);
 
         // When: OrderFlow creates the order
@@ -280,9 +276,9 @@ public class OrderFlowTest {
         assertEquals(testOrder.getId(), result.getId());
 
         // And: Verify API interactions (both items processed)
-        verify(productApi, times(1)).findProductsByBarcodes(any());
-        verify(inventoryApi, times(1)).validateInventoryAvailability(testProduct1.getId(), 5);
-        verify(inventoryApi, times(1)).validateInventoryAvailability(testProduct1.getId(), 3);
+        verify(availabilityCacheApi, times(1)).getAvailability(testProduct1.getBarcode());
+        verify(inventoryApi, times(1)).reduceInventory(testProduct1.getId(), 5);
+        verify(inventoryApi, times(1)).reduceInventory(testProduct1.getId(), 3);
         verify(orderApi, times(1)).createOrder();
         verify(orderItemApi, times(1)).createOrderItemsGroup(any());
     }
@@ -302,9 +298,7 @@ public class OrderFlowTest {
         List<OrderItemForm> orderItems = Arrays.asList(item);
 
         // And: Mock API responses with inventory reduction failure
-        Map<String, Integer> barcodeToIdMap = new HashMap<>();
-        barcodeToIdMap.put(testProduct1.getBarcode(), testProduct1.getId());
-        when(productApi.findProductsByBarcodes(any())).thenReturn(barcodeToIdMap);
+        stubAvailability(testProduct1, 50);
         when(orderApi.createOrder()).thenReturn(testOrder);
         doThrow(new ApiException(ErrorType.BAD_REQUEST, "Inventory reduction failed"))
             .when(inventoryApi).reduceInventory(testProduct1.getId(), 5);
@@ -318,9 +312,64 @@ public class OrderFlowTest {
         }
 
         // And: Verify API interactions
-        verify(productApi, times(1)).findProductsByBarcodes(any());
-        verify(inventoryApi, times(1)).validateInventoryAvailability(testProduct1.getId(), 5);
+        verify(availabilityCacheApi, times(1)).getAvailability(testProduct1.getBarcode());
         verify(orderApi, times(1)).createOrder();
         verify(inventoryApi, times(1)).reduceInventory(testProduct1.getId(), 5);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Test creating order from a reservation.
+     * Verifies that reserved stock is consumed without another availability check.
+     */
+    @Test
+    public void testCreateOrder_ConsumesReservation() {
+        // Given: A reservation for 5 units while the cache shows none left for others
+        OrderItemForm item = new OrderItemForm();
+        item.setBarcode(testProduct1.getBarcode());
+        item.setQuantity(5);
+        item.setMrp(90.0);
+        stubAvailability(testProduct1, 5);
+        when(reservationApi.consume("R1")).thenReturn(new ReservationModel("R1",
+                Collections.singletonMap(testProduct1.getId(), 5), null));
+        when(orderApi.createOrder()).thenReturn(testOrder);
+
+        // When: The order is placed with the reservation
+        OrdersPojo result = orderFlow.createOrder(Arrays.asList(item), "R1");
+
+        // Then: The reserved stock should be reduced without a stock check
+        assertEquals(testOrder.getId(), result.getId());
+        verify(inventoryApi, times(1)).reduceReservedInventory(testProduct1.getId(), 5);
+        verify(inventoryApi, never()).reduceInventory(any(), any());
+        verify(reservationApi, never()).getReservedQuantity(any());
+    }
+
+    /**
+     * Test creating order for more than was reserved.
+     * Verifies that the order is rejected before it is created.
+     */
+    @Test
+    public void testCreateOrder_ExceedsReservation() {
+        // Given: A reservation for 2 units and an order for 3
+        OrderItemForm item = new OrderItemForm();
+        item.setBarcode(testProduct1.getBarcode());
+        item.setQuantity(3);
+        item.setMrp(90.0);
+        stubAvailability(testProduct1, 50);
+        when(reservationApi.consume("R1")).thenReturn(new ReservationModel("R1",
+                Collections.singletonMap(testProduct1.getId(), 2), null));
+
+        // When & Then: The order should be rejected
+        try {
+            orderFlow.createOrder(Arrays.asList(item), "R1");
+            fail("Should throw ApiException when the order exceeds its reservation");
+        } catch (ApiException e) {
+            assertEquals(ErrorType.BAD_REQUEST, e.getErrorType());
+        }
+        verify(orderApi, never()).createOrder();
+    }
+
+    private void stubAvailability(ProductPojo product, int quantity) {
+        when(availabilityCacheApi.getAvailability(product.getBarcode()))
+                .thenReturn(new AvailabilityModel(product.getId(), product.getBarcode(), product.getMrp(), quantity));
+    }
+}
@@ -8,7 +8,15 @@ import com.increff.pos.entity.ProductPojo;
 import com.increff.pos.exception.ApiException;
 import com.increff.pos.flow.ProductFlow;
 import com.increff.pos.model.enums.ErrorType;
+import com.increff.pos.model.form.ProductBulkUpdateForm;
+import com.increff.pos.model.form.ProductBulkUpdateFormWithRow;
+import com.increff.pos.model.form.ProductForm;
+import com.increff.pos.model.form.ProductFormWithRow;
+import com.increff.pos.model.response.ValidationError;
 import com.increff.pos.setup.TestData;
+import com.increff.pos.spring.ApplicationProperties;
+import com.increff.pos.util.ConvertUtil;
+import com.increff.pos.util.ValidationUtil;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -16,6 +24,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -45,6 +62,15 @@ public class ProductFlowTest {
     @Mock
     private InventoryApi inventoryApi;
 
+    @Mock
+    private ApplicationProperties applicationProperties;
+
+    @Mock
+    private ValidationUtil validationUtil;
+
+    @Mock
+    private ConvertUtil convertUtil;
+
     @InjectMocks
     private ProductFlow productFlow;
 
@@ -147,4 +173,155 @@ public class ProductFlowTest {
         verify(productApi, never()).createProduct(invalidProduct);
     }
 
-} 
\ No newline at end of file
+    /**
+     * Test processing a product upload larger than one batch.
+     * Verifies that each chunk is checked and written with its inventory as rows are read, using
+     * the ids set by each insert.
+     */
+    @Test
+    public void testProcessProductTsvUpload_WritesInChunks() {
+        // Given: A batch size of two and a database that knows the client and none of the barcodes
+        givenChunkedUpload();
+        int[] nextId = {100};
+        when(productApi.bulkCreateProducts(anyList())).thenAnswer(invocation -> {
+            List<ProductPojo> chunk = invocation.getArgument(0);
+            chunk.forEach(product -> product.setId(nextId[0]++));
+            return chunk;
+        });
+
+        // When: Three rows are read
+        Map<Integer, ValidationError> errors = productFlow.processProductTsvUpload(
+                productRows("CHUNK1", "CHUNK2", "CHUNK3"));
+
+        // Then: Each chunk is inserted and followed by inventory for its generated ids
+        assertTrue(errors.isEmpty());
+        verify(productApi, times(2)).bulkCreateProducts(anyList());
+        verify(productApi, times(2)).validateBarcodesUniquenessBatch(anySet());
+        verify(inventoryApi).bulkCreateInventory(Arrays.asList(100, 101));
+        verify(inventoryApi).bulkCreateInventory(Arrays.asList(102));
+    }
+
+    /**
+     * Test a barcode repeated in a later chunk.
+     * Verifies that both rows are reported and nothing is written after the error.
+     */
+    @Test
+    public void testProcessProductTsvUpload_DuplicateAcrossChunks() {
+        // Given: A batch size of two
+        givenChunkedUpload();
+
+        // When: Row 4 repeats the barcode of row 2, and row 5 follows it
+        Map<Integer, ValidationError> errors = productFlow.processProductTsvUpload(
+                productRows("DUP1", "DUP2", "DUP1", "DUP4"));
+
+        // Then: Only the first chunk was written, and both duplicate rows are reported
+        assertEquals(2, errors.size());
+        assertEquals("Barcode is multiple times in your file", errors.get(2).getErrorMessage());
+        assertEquals("Barcode is multiple times in your file", errors.get(4).getErrorMessage());
+        verify(productApi, times(1)).bulkCreateProducts(anyList());
+        verify(inventoryApi, times(1)).bulkCreateInventory(anyList());
+    }
+
+    /**
+     * Test validating a bulk update upload.
+     * Verifies that repeated and unknown barcodes are flagged against their rows.
+     */
+    @Test
+    public void testValidateProductUpdateUpload_FlagsDuplicatesAndUnknown() {
+        // Given: Rows with a known, an unknown and a repeated barcode
+        List<ProductBulkUpdateFormWithRow> forms = Arrays.asList(
+            updateRow(2, "KNOWN", 10.0),
+            updateRow(3, "UNKNOWN", 10.0),
+            updateRow(4, "TWICE", 10.0),
+            updateRow(5, "TWICE", 11.0)
+        );
+        Map<String, Integer> barcodeToProductId = new HashMap<>();
+        barcodeToProductId.put("KNOWN", 1);
+        barcodeToProductId.put("TWICE", 2);
+
+        // When: The rows are validated
+        Map<Integer, ValidationError> errors = productFlow.validateProductUpdateUpload(forms, barcodeToProductId);
+
+        // Then: Only the known, unique row passes
+        assertEquals(3, errors.size());
+        assertFalse(errors.containsKey(2));
+        assertTrue(errors.get(3).getErrorMessage().contains("does not exist"));
+        assertTrue(errors.get(4).getErrorMessage().contains("multiple times"));
+        assertTrue(errors.get(5).getErrorMessage().contains("multiple times"));
+    }
+
+    /**
+     * Test applying a bulk update upload larger than one batch.
+     * Verifies that updates are sent in batches carrying the resolved product ids.
+     */
+    @Test
+    public void testProcessProductUpdateUpload_WritesInBatches() {
+        // Given: Three valid rows and a batch size of two
+        List<ProductBulkUpdateFormWithRow> forms = Arrays.asList(
+            updateRow(2, "BC1", 10.0),
+            updateRow(3, "BC2", 20.0),
+            updateRow(4, "BC3", 30.0)
+        );
+        Map<String, Integer> barcodeToProductId = new HashMap<>();
+        barcodeToProductId.put("BC1", 1);
+        barcodeToProductId.put("BC2", 2);
+        barcodeToProductId.put("BC3", 3);
+        when(applicationProperties.getUploadBatchSize()).thenReturn(2);
+        List<List<ProductPojo>> batches = new ArrayList<>();
+        doAnswer(invocation -> batches.add(new ArrayList<>(invocation.getArgument(0))))
+                .when(productApi).bulkUpdateProducts(anyList());
+
+        // When: The updates are applied
+        productFlow.processProductUpdateUpload(forms, barcodeToProductId);
+
+        // Then: Two batches are written with ids and new values
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(Integer.valueOf(3), batches.get(1).get(0).getId());
+        assertEquals(Double.valueOf(30.0), batches.get(1).get(0).getMrp());
+    }
+
+    private void givenChunkedUpload() {
+        when(applicationProperties.getUploadBatchSize()).thenReturn(2);
+        when(validationUtil.validateProductFormsWithRow(anyList())).thenReturn(Collections.emptyList());
+        when(convertUtil.convert(any(ProductForm.class), eq(ProductPojo.class))).thenAnswer(invocation -> {
+            ProductForm form = invocation.getArgument(0);
+            return TestData.product(form.getBarcode(), form.getClientId(), form.getName(), form.getMrp());
+        });
+        when(clientApi.validateClientsExistBatch(anySet())).thenAnswer(invocation -> {
+            Map<Integer, Boolean> exists = new HashMap<>();
+            for (Object clientId : invocation.getArgument(0, Set.class)) {
+                exists.put((Integer) clientId, true);
+            }
+            return exists;
+        });
+        when(productApi.validateBarcodesUniquenessBatch(anySet())).thenAnswer(invocation -> {
+            Map<String, Boolean> unique = new HashMap<>();
+            for (Object barcode : invocation.getArgument(0, Set.class)) {
+                unique.put((String) barcode, true);
+            }
+            return unique;
+        });
+    }
+
+    private Consumer<Consumer<ProductFormWithRow>> productRows(String... barcodes) {
+        return consumer -> {
+            for (int i = 0; i < barcodes.length; i++) {
+                ProductForm form = new ProductForm();
+                form.setBarcode(barcodes[i]);
+                form.setClientId(testClientId);
+                form.setName("Name " + barcodes[i]);
+                form.setMrp(10.0);
+                consumer.accept(new ProductFormWithRow(form, i + 2, ""));
+            }
+        };
+    }
+
+    private ProductBulkUpdateFormWithRow updateRow(int row, String barcode, Double mrp) {
+        ProductBulkUpdateForm form = new ProductBulkUpdateForm();
+        form.setBarcode(barcode);
+        form.setName("Name " + barcode);
+        form.setMrp(mrp);
+        return new ProductBulkUpdateFormWithRow(row, form, "");
+    }
+}
@@ -0,0 +1,247 @@
+package com.increff.pos.unit.util;
+
+import com.increff.pos.entity.ClientPojo;
+import com.increff.pos.entity.DaySalesPojo;
+import com.increff.pos.entity.InventoryPojo;
+import com.increff.pos.entity.OrderItemsPojo;
+import com.increff.pos.entity.OrdersPojo;
+import com.increff.pos.entity.ProductPojo;
+import com.increff.pos.model.AvailabilityModel;
+import com.increff.pos.model.CacheRegionStatsModel;
+import com.increff.pos.model.CacheStatsModel;
+import com.increff.pos.model.DbPoolStatsModel;
+import com.increff.pos.model.InventoryDetailModel;
+import com.increff.pos.model.LowStockAlertModel;
+import com.increff.pos.model.StockLevelModel;
+import com.increff.pos.model.form.ProductForm;
+import com.increff.pos.model.response.AvailabilityResponse;
+import com.increff.pos.model.response.CacheRegionStatsResponse;
+import com.increff.pos.model.response.CacheStatsResponse;
+import com.increff.pos.model.response.ClientResponse;
+import com.increff.pos.model.response.DaySalesResponse;
+import com.increff.pos.model.response.DbPoolStatsResponse;
+import com.increff.pos.model.response.InventoryResponse;
+import com.increff.pos.model.response.LowStockAlertResponse;
+import com.increff.pos.model.response.OrderItemResponse;
+import com.increff.pos.model.response.OrderResponse;
+import com.increff.pos.model.response.ProductResponse;
+import com.increff.pos.model.response.StockLevelResponse;
+import com.increff.pos.util.ConvertUtil;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ConvertUtil class.
+ *
+ * These tests verify:
+ * - Every source and destination pair the dtos convert gives the same result as the
+ *   ModelMapper configuration it replaced
+ * - Null values, subclasses of the source and list conversion behave as before
+ * - A property that would need a conversion fails instead of being copied
+ */
+public class ConvertUtilTest {
+
+    private static final List<Class<?>[]> CONVERTED_PAIRS = Arrays.asList(
+            new Class<?>[]{ClientPojo.class, ClientResponse.class},
+            new Class<?>[]{CacheRegionStatsModel.class, CacheRegionStatsResponse.class},
+            new Class<?>[]{DbPoolStatsModel.class, DbPoolStatsResponse.class},
+            new Class<?>[]{DaySalesPojo.class, DaySalesResponse.class},
+            new Class<?>[]{ProductPojo.class, ProductResponse.class},
+            new Class<?>[]{ProductForm.class, ProductPojo.class},
+            new Class<?>[]{AvailabilityModel.class, AvailabilityResponse.class},
+            new Class<?>[]{CacheStatsModel.class, CacheStatsResponse.class},
+            new Class<?>[]{OrdersPojo.class, OrderResponse.class},
+            new Class<?>[]{OrderItemsPojo.class, OrderItemResponse.class},
+            new Class<?>[]{InventoryDetailModel.class, InventoryResponse.class},
+            new Class<?>[]{InventoryPojo.class, InventoryResponse.class},
+            new Class<?>[]{StockLevelModel.class, StockLevelResponse.class},
+            new Class<?>[]{LowStockAlertModel.class, LowStockAlertResponse.class});
+
+    private final ConvertUtil convertUtil = new ConvertUtil();
+
+    /**
+     * Test every converted pair against ModelMapper.
+     * Verifies that each destination field ends up with the same value.
+     */
+    @Test
+    public void testConvert_MatchesModelMapperForAllPairs() throws Exception {
+        // Given: The mapper configuration SpringConfig used, and sources with every field set
+        ModelMapper modelMapper = referenceMapper();
+        for (Class<?>[] pair : CONVERTED_PAIRS) {
+            Object source = populated(pair[0]);
+
+            // When
+            Object expected = modelMapper.map(source, pair[1]);
+            Object actual = convertUtil.convert(source, pair[1]);
+
+            // Then
+            assertSameFields(pair[0].getSimpleName() + " to " + pair[1].getSimpleName(), expected, actual);
+        }
+    }
+
+    /**
+     * Test conversion of null values.
+     * Verifies that null properties stay null and defaults of unmatched fields are kept.
+     */
+    @Test
+    public void testConvert_NullValues() throws Exception {
+        // Given: A form with only the barcode set
+        ProductForm form = new ProductForm();
+        form.setBarcode("BC1");
+
+        // When
+        ProductPojo expected = referenceMapper().map(form, ProductPojo.class);
+        ProductPojo actual = convertUtil.convert(form, ProductPojo.class);
+
+        // Then
+        assertSameFields("sparse ProductForm", expected, actual);
+        assertEquals("BC1", actual.getBarcode());
+        assertNull(actual.getMrp());
+        assertEquals(Integer.valueOf(0), actual.getVersion());
+        assertNull(convertUtil.convert(null, ProductPojo.class));
+    }
+
+    /**
+     * Test conversion of a subclass of a known source, as Hibernate proxies are.
+     * Verifies that properties are read through the subclass's getters.
+     */
+    @Test
+    public void testConvert_SourceSubclass() {
+        // Given: A subclass overriding a getter
+        ClientPojo client = new ClientPojo() {
+            @Override
+            public String getName() {
+                return "loaded";
+            }
+        };
+        client.setClientId(7);
+
+        // When
+        ClientResponse response = convertUtil.convert(client, ClientResponse.class);
+
+        // Then
+        assertEquals(Integer.valueOf(7), response.getClientId());
+        assertEquals("loaded", response.getName());
+    }
+
+    /**
+     * Test list conversion.
+     * Verifies that order is kept and empty or null lists give an empty list.
+     */
+    @Test
+    public void testConvertList_KeepsOrder() throws Exception {
+        // Given
+        OrderItemsPojo first = (OrderItemsPojo) populated(OrderItemsPojo.class);
+        OrderItemsPojo second = (OrderItemsPojo) populated(OrderItemsPojo.class);
+        second.setId(first.getId() + 1);
+
+        // When
+        List<OrderItemResponse> responses = convertUtil.convertList(Arrays.asList(first, second),
+                OrderItemResponse.class);
+
+        // Then
+        assertEquals(2, responses.size());
+        assertEquals(first.getId(), responses.get(0).getId());
+        assertEquals(second.getId(), responses.get(1).getId());
+        assertTrue(convertUtil.convertList(Collections.emptyList(), OrderItemResponse.class).isEmpty());
+        assertTrue(convertUtil.convertList(null, OrderItemResponse.class).isEmpty());
+    }
+
+    /**
+     * Test a pair whose property types differ.
+     * Verifies that building the mapper fails rather than copying an incompatible value.
+     */
+    @Test
+    public void testConvert_IncompatibleProperty_Throws() {
+        // Given: A source whose quantity is a String
+        TextQuantity source = new TextQuantity();
+        source.setQuantity("5");
+
+        // When & Then
+        try {
+            convertUtil.convert(source, StockLevelResponse.class);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("quantity"));
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class TextQuantity {
+        private String quantity;
+    }
+
+    private static ModelMapper referenceMapper() {
+        ModelMapper mapper = new ModelMapper();
+        mapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+        return mapper;
+    }
+
+    /**
+     * Creates an instance with every field, inherited ones included, set to a distinct value.
+     */
+    private static Object populated(Class<?> type) throws Exception {
+        Object instance = type.getDeclaredConstructor().newInstance();
+        int next = 1;
+        for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                field.set(instance, sampleValue(field, next++));
+            }
+        }
+        return instance;
+    }
+
+    private static Object sampleValue(Field field, int seed) {
+        Class<?> type = field.getType();
+        if (type == Integer.class || type == int.class) {
+            return seed;
+        }
+        if (type == Long.class || type == long.class) {
+            return seed * 1000L;
+        }
+        if (type == Double.class || type == double.class) {
+            return seed + 0.25;
+        }
+        if (type == String.class) {
+            return field.getName() + "-" + seed;
+        }
+        if (type == ZonedDateTime.class) {
+            return ZonedDateTime.of(2024, 1, seed % 28 + 1, 10, 30, 0, 0, ZoneOffset.UTC);
+        }
+        return null;
+    }
+
+    private static void assertSameFields(String pair, Object expected, Object actual) throws Exception {
+        assertEquals(pair, expected.getClass(), actual.getClass());
+        for (Class<?> current = expected.getClass(); current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                assertEquals(pair + ": " + field.getName(), field.get(expected), field.get(actual));
+            }
+        }
+    }
+}